@@ -0,0 +1,130 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sylordis.csvreorganiser.model.hyde.HydeEngine;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeFilter;
+import com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion;
+
+/**
+ * Compares chains of Hyde filters applied one after the other with the same chains fused by
+ * {@link FilterFusion}, returning the values or filtering them in place.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterFusionBenchmark {
+
+	/**
+	 * Filters of the chain, separated by pipes.
+	 */
+	@Param({ "substring:0:10|truncate:8", "replace:a:b|replace:c:d|replace:e:f" })
+	public String chain;
+	/**
+	 * Value filtered.
+	 */
+	private final String value = "JOHN DOE, born in Paris and raised in Cardiff";
+	/**
+	 * Filters applied one after the other.
+	 */
+	private List<HydeFilter> filters;
+	/**
+	 * Fused filters.
+	 */
+	private List<HydeFilter> fused;
+	/**
+	 * Buffer for in place filtering.
+	 */
+	private final StringBuilder buffer = new StringBuilder();
+
+	/**
+	 * Creates and fuses the filters.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		HydeEngine engine = new HydeEngine();
+		filters = Arrays.stream(chain.split("\\|")).map(engine::createFilter).toList();
+		fused = FilterFusion.fuse(filters);
+	}
+
+	/**
+	 * Applies filters to the value.
+	 *
+	 * @param filters filters to apply
+	 * @return the filtered value
+	 */
+	private String apply(List<HydeFilter> filters) {
+		String content = value;
+		for (HydeFilter filter : filters)
+			content = filter.apply(content);
+		return content;
+	}
+
+	/**
+	 * Applies filters in place to the value in the buffer.
+	 *
+	 * @param filters filters to apply
+	 * @return the buffer
+	 */
+	private StringBuilder applyInPlace(List<HydeFilter> filters) {
+		buffer.setLength(0);
+		buffer.append(value);
+		for (HydeFilter filter : filters)
+			filter.applyInPlace(buffer, 0);
+		return buffer;
+	}
+
+	/**
+	 * @return the value filtered one filter after the other
+	 */
+	@Benchmark
+	public String applyUnfused() {
+		return apply(filters);
+	}
+
+	/**
+	 * @return the value filtered by the fused filters
+	 */
+	@Benchmark
+	public String applyFused() {
+		return apply(fused);
+	}
+
+	/**
+	 * @return the buffer filtered one filter after the other
+	 */
+	@Benchmark
+	public StringBuilder applyInPlaceUnfused() {
+		return applyInPlace(filters);
+	}
+
+	/**
+	 * @return the buffer filtered by the fused filters
+	 */
+	@Benchmark
+	public StringBuilder applyInPlaceFused() {
+		return applyInPlace(fused);
+	}
+
+}
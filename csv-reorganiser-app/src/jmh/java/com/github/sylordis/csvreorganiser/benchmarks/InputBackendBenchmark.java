@@ -0,0 +1,112 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+import com.github.sylordis.csvreorganiser.model.io.SourceRecordReader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Compares the input backends when reading the performance test data, either accessing every value
+ * or only a single column as most configurations do. Run with <code>gradle jmh</code>, adding
+ * <code>-prof gc</code> to the JMH arguments shows the allocation rate of each backend.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBackendBenchmark {
+
+	/**
+	 * Name of the performance data file.
+	 */
+	@Param({ "test_data_100.csv", "test_data_1k.csv", "test_data_10k.csv" })
+	public String dataset;
+	/**
+	 * Backend to benchmark.
+	 */
+	@Param({ "COMMONS", "MAPPED" })
+	public InputBackend backend;
+	/**
+	 * Local copy of the data file.
+	 */
+	private File srcFile;
+
+	/**
+	 * Copies the data file out of the classpath so that it can be mapped.
+	 *
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		srcFile = File.createTempFile("csvreorg-bench-", ".csv");
+		try (InputStream input = getClass().getResourceAsStream("/performance/" + dataset)) {
+			Files.copy(input, srcFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Deletes the copy of the data file.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		srcFile.delete();
+	}
+
+	/**
+	 * Reads all records and all their values.
+	 *
+	 * @param blackhole consumer of the values
+	 * @throws IOException
+	 */
+	@Benchmark
+	public void readAll(Blackhole blackhole) throws IOException {
+		try (SourceRecordReader reader = backend.open(srcFile, StandardCharsets.UTF_8)) {
+			for (SourceRecord record : reader) {
+				for (int i = 0; i < record.size(); i++)
+					blackhole.consume(record.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Reads all records but only one column, through its view.
+	 *
+	 * @param blackhole consumer of the values
+	 * @throws IOException
+	 */
+	@Benchmark
+	public void readOneColumn(Blackhole blackhole) throws IOException {
+		try (SourceRecordReader reader = backend.open(srcFile, StandardCharsets.UTF_8)) {
+			for (SourceRecord record : reader)
+				blackhole.consume(record.getView("email").length());
+		}
+	}
+
+}
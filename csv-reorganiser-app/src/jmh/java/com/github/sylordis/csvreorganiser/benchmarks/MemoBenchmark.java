@@ -0,0 +1,95 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.utils.RegexReplacer;
+
+/**
+ * Compares a regular expression replacement computed for every value with the same replacement
+ * memoised by a {@link ResultMemo}, for columns with few distinct values and with all values
+ * distinct, where the memo switches itself off.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoBenchmark {
+
+	/**
+	 * Number of values replaced by invocation.
+	 */
+	private static final int VALUES = 8192;
+
+	/**
+	 * Number of distinct values of the column.
+	 */
+	@Param({ "8", "8192" })
+	public int distinct;
+	/**
+	 * Values of the column, new strings as read from records.
+	 */
+	private String[] values;
+	/**
+	 * Replacement computed.
+	 */
+	private UnaryOperator<String> replace;
+	/**
+	 * Memo of the replacement.
+	 */
+	private ResultMemo memo;
+
+	/**
+	 * Creates the values and the replacement.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		values = new String[VALUES];
+		for (int i = 0; i < VALUES; i++)
+			values[i] = new String("status-" + (i % distinct) + "-code");
+		replace = RegexReplacer.compile("([a-z]+)-(\\d+)", "$2:$1")::replaceAll;
+		memo = new ResultMemo("Status", "regreplace");
+	}
+
+	/**
+	 * @param blackhole consumer of the values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void compute(Blackhole blackhole) {
+		for (String value : values)
+			blackhole.consume(replace.apply(value));
+	}
+
+	/**
+	 * @param blackhole consumer of the values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void memoised(Blackhole blackhole) {
+		for (String value : values)
+			blackhole.consume(memo.apply(value, replace));
+	}
+
+}
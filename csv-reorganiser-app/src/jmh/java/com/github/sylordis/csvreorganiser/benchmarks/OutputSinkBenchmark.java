@@ -0,0 +1,109 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+
+/**
+ * Compares the throughput of writing a target file through the output sink and through a
+ * {@link CSVPrinter} over a buffered file writer, as the reorganiser used to. Records mix plain
+ * values with values needing quotes and non-ASCII characters.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputSinkBenchmark {
+
+	/**
+	 * Number of records written per invocation.
+	 */
+	@Param({ "1000", "100000" })
+	public int records;
+	/**
+	 * Size of the output buffer, in bytes for the sink and in characters for the writer.
+	 */
+	@Param({ "8192", "262144" })
+	public int bufferSize;
+	/**
+	 * Values of each record.
+	 */
+	private final String[] values = { "12345", "John", "Doe", "john.doe@example.com", "Paris, France",
+	        "Says \"hello\"", "Caf\u00E9 cr\u00E8me" };
+	/**
+	 * File written to.
+	 */
+	private File targetFile;
+
+	/**
+	 * Creates the target file.
+	 *
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		targetFile = File.createTempFile("csvreorg-bench-", ".csv");
+	}
+
+	/**
+	 * Deletes the target file.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		targetFile.delete();
+	}
+
+	/**
+	 * Writes all records through the output sink.
+	 *
+	 * @throws IOException
+	 */
+	@Benchmark
+	public void writeWithSink() throws IOException {
+		try (CSVOutputSink sink = CSVOutputSink.open(targetFile, bufferSize)) {
+			for (int i = 0; i < records; i++)
+				sink.printRecord(values);
+		}
+	}
+
+	/**
+	 * Writes all records through commons-csv.
+	 *
+	 * @throws IOException
+	 */
+	@Benchmark
+	public void writeWithPrinter() throws IOException {
+		try (CSVPrinter printer = new CSVPrinter(
+		        new BufferedWriter(new FileWriter(targetFile, StandardCharsets.UTF_8), bufferSize), CSVFormat.DEFAULT)) {
+			for (int i = 0; i < records; i++)
+				printer.printRecord((Object[]) values);
+		}
+	}
+
+}
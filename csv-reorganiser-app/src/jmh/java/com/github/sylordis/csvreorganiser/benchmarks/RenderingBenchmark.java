@@ -0,0 +1,162 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sylordis.csvreorganiser.model.chess.ChessEngine;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.SubstringOperation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.ValueOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeEngine;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Compares printing the values returned by the operations with appending them to a reused buffer,
+ * as the reorganiser does, for the operations of both engines. Results are given per row: run with
+ * <code>gradle jmh</code> adding <code>-prof gc</code> to the JMH arguments, the
+ * <code>gc.alloc.rate.norm</code> metric being the number of bytes allocated per row.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderingBenchmark {
+
+	/**
+	 * Number of rows rendered per invocation.
+	 */
+	private static final int ROWS = 1024;
+	/**
+	 * Columns of the source.
+	 */
+	private static final List<String> HEADER = List.of("id", "first", "last", "city");
+
+	/**
+	 * Engine of the operations.
+	 */
+	@Param({ "chess", "hyde" })
+	public String engine;
+	/**
+	 * Operations bound to the header.
+	 */
+	private List<ReorganiserOperation> operations;
+	/**
+	 * Rows rendered.
+	 */
+	private SourceRecord[] records;
+	/**
+	 * Sink discarding what is written.
+	 */
+	private CSVOutputSink sink;
+
+	/**
+	 * Creates the operations, the rows and the sink.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<ReorganiserOperation> unbound = new ArrayList<>();
+		final ReorganiserEngine prepared;
+		if ("hyde".equals(engine)) {
+			HydeEngine hyde = new HydeEngine();
+			prepared = hyde;
+			unbound.add(hyde.createOperation("Id", "{{id}}"));
+			unbound.add(hyde.createOperation("Name", "{{first}} {{last}}"));
+			unbound.add(hyde.createOperation("Address", "Lives in {{city}}"));
+			unbound.add(hyde.createOperation("Source", "csv"));
+			unbound.add(hyde.createOperation("Display", "{{last|lower|capfirst|truncate:20}}"));
+		} else {
+			prepared = new ChessEngine();
+			unbound.add(new GetOperation("Id", "id"));
+			unbound.add(new ConcatenationOperation("Name", List.of("first", " ", "last")));
+			unbound.add(new SubstringOperation("Address", "city", 0, 3));
+			unbound.add(new ValueOperation("Source", "csv"));
+			unbound.add(new GetOperation("Display", "last"));
+		}
+		// Prepared as by the configuration, with no memo for these cheap columns
+		prepared.shareSubexpressions(unbound);
+		prepared.memoise(unbound);
+		final SourceHeader header = SourceHeader.of(HEADER);
+		operations = new ArrayList<>();
+		for (ReorganiserOperation op : unbound)
+			operations.add(op.bind(header));
+		records = new SourceRecord[ROWS];
+		for (int i = 0; i < ROWS; i++)
+			records[i] = new ArraySourceRecord(header.getIndexes(),
+			        new String[] { Integer.toString(i), "John" + i, "DOE", "Paris" });
+		sink = new CSVOutputSink(Channels.newChannel(OutputStream.nullOutputStream()), CSVOutputSink.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Closes the sink.
+	 *
+	 * @throws IOException
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		sink.close();
+	}
+
+	/**
+	 * Prints the values returned by the operations.
+	 *
+	 * @throws IOException
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void printReturnedValues() throws IOException {
+		for (SourceRecord record : records) {
+			for (ReorganiserOperation op : operations)
+				sink.print(op.applyTo(record));
+			sink.println();
+		}
+	}
+
+	/**
+	 * Prints the values appended by the operations to a reused buffer.
+	 *
+	 * @throws IOException
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void printAppendedValues() throws IOException {
+		final StringBuilder value = new StringBuilder();
+		for (SourceRecord record : records) {
+			for (ReorganiserOperation op : operations) {
+				value.setLength(0);
+				sink.print(op.applyTo(record, value) ? value : null);
+			}
+			sink.println();
+		}
+	}
+
+}
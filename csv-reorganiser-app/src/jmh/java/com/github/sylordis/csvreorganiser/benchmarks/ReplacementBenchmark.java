@@ -0,0 +1,84 @@
+package com.github.sylordis.csvreorganiser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sylordis.csvreorganiser.utils.RegexReplacer;
+
+/**
+ * Compares {@link String#replaceAll(String, String)}, compiling the pattern for every value, with a
+ * precompiled {@link RegexReplacer}, for a plain text pattern and a pattern with groups.
+ *
+ * @author sylordis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplacementBenchmark {
+
+	/**
+	 * Pattern and replacement, separated by a tab.
+	 */
+	@Param({ "Doe\tSmith", "(\\d+)-(\\d+)-(\\d+)\t$3/$2/$1" })
+	public String replacement;
+	/**
+	 * Value replaced.
+	 */
+	private final String value = "John Doe, born 1970-01-31 in Paris";
+	/**
+	 * Regular expression.
+	 */
+	private String regex;
+	/**
+	 * Replacement of the matches.
+	 */
+	private String template;
+	/**
+	 * Precompiled replacer.
+	 */
+	private RegexReplacer replacer;
+
+	/**
+	 * Compiles the replacer.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		String[] parts = replacement.split("\t");
+		regex = parts[0];
+		template = parts[1];
+		replacer = RegexReplacer.compile(regex, template);
+	}
+
+	/**
+	 * @return the value replaced by {@link String#replaceAll(String, String)}
+	 */
+	@Benchmark
+	public String replaceWithString() {
+		return value.replaceAll(regex, template);
+	}
+
+	/**
+	 * @return the value replaced by the precompiled replacer
+	 */
+	@Benchmark
+	public String replaceWithReplacer() {
+		return replacer.replaceAll(value);
+	}
+
+}
@@ -2,6 +2,9 @@ package com.github.sylordis.csvreorganiser;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,14 +18,23 @@ import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.github.sylordis.csvreorganiser.doc.MarkdownDocumentationGeneratorChess;
 import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
 import com.github.sylordis.csvreorganiser.model.Reorganiser;
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+import com.github.sylordis.csvreorganiser.model.batch.BatchJob;
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport;
+import com.github.sylordis.csvreorganiser.model.batch.BatchRunner;
+import com.github.sylordis.csvreorganiser.model.chess.config.ChessConfigurationSupplier;
 import com.github.sylordis.csvreorganiser.model.chess.config.ChessDefaultConfigurationSupplier;
+import com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon;
+import com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder;
 import com.github.sylordis.csvreorganiser.model.engines.EngineFactory;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
 import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeException;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+import com.github.sylordis.csvreorganiser.model.server.JobServer;
 
 /**
  *
@@ -33,6 +45,13 @@ import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeExc
  */
 public final class CSVReorganiserCLIMain {
 
+	/**
+	 * Documentation generator, loaded by name so that it stays out of the reorganisation path and of
+	 * native images along with JavaParser.
+	 */
+	private static final String DOCUMENTATION_GENERATOR = "com.github.sylordis.csvreorganiser.doc."
+	        + "MarkdownDocumentationGeneratorChess";
+
 	/**
 	 * Class logger.
 	 */
@@ -65,6 +84,19 @@ public final class CSVReorganiserCLIMain {
 	 * @see #usage()
 	 */
 	public void reorganise(String[] args, ReorganiserEngine engine) {
+		reorganise(args, engine, new ReorganiserOptions());
+	}
+
+	/**
+	 * Runs the activity of taking the input, error checking it and running the Reorganiser model to
+	 * perform the required operations with the given runtime options.
+	 *
+	 * @param args    command line arguments, without options
+	 * @param engine  custom engine to provide
+	 * @param options runtime options of the reorganisation
+	 * @see #usage()
+	 */
+	public void reorganise(String[] args, ReorganiserEngine engine, ReorganiserOptions options) {
 		// Args check
 		if (args.length < 3)
 			fatal("Wrong number of arguments.", this::usage);
@@ -101,6 +133,7 @@ public final class CSVReorganiserCLIMain {
 		try {
 			ReorgConfiguration cfg = ReorgConfiguration.fromFile(cfgFile);
 			Reorganiser model = new Reorganiser(cfg, targetFile, srcFiles);
+			model.setOptions(options);
 			model.reorganise();
 		} catch (IOException e) {
 			logger.fatal("Error during file operation", e);
@@ -114,6 +147,138 @@ public final class CSVReorganiserCLIMain {
 		}
 	}
 
+	/**
+	 * Runs the reorganiser as a daemon watching folders, each one described by a configuration file, an
+	 * input directory and an output directory, until the process is stopped.
+	 *
+	 * @param args        command line arguments, without options, by groups of three
+	 * @param engine      custom engine to provide, null to use the one of each configuration
+	 * @param options     runtime options of the reorganisation of each file
+	 * @param quietPeriod time without changes after which a file is processed, in milliseconds, or
+	 *                    null for the default
+	 * @see #usage()
+	 */
+	public void watch(String[] args, ReorganiserEngine engine, ReorganiserOptions options, Long quietPeriod) {
+		if (args.length == 0 || args.length % 3 != 0)
+			fatal("Watching requires groups of configuration file, input directory and output directory.",
+			        this::usage);
+		boolean error = false;
+		List<WatchedFolder> folders = new ArrayList<>();
+		for (int i = 0; i < args.length; i += 3) {
+			File cfgFile = new File(args[i]);
+			File inputDir = new File(args[i + 1]);
+			if (!cfgFile.exists() || cfgFile.isDirectory() || !cfgFile.canRead()) {
+				logger.error("File {} is not an existing readable file.", cfgFile.getName());
+				error = true;
+			}
+			if (!inputDir.isDirectory()) {
+				logger.error("Directory {} does not exist.", inputDir.getName());
+				error = true;
+			}
+			folders.add(new WatchedFolder(cfgFile, inputDir, new File(args[i + 2]), engine));
+		}
+		if (error)
+			fatal("Files check was unsuccessful.");
+		try {
+			WatchDaemon daemon = new WatchDaemon(folders, options);
+			if (quietPeriod != null)
+				daemon.setQuietPeriod(quietPeriod);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					daemon.close();
+				} catch (IOException e) {
+					logger.error("Error while stopping", e);
+				}
+			}));
+			daemon.run();
+		} catch (IOException e) {
+			logger.fatal("Error during file operation", e);
+			System.exit(1);
+		} catch (ReorganiserRuntimeException | EngineException e) {
+			logger.fatal(e);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs the reorganiser as a local HTTP server accepting jobs, until the process is stopped.
+	 *
+	 * @param port      port to listen to on the loopback interface
+	 * @param workers   number of jobs running at the same time
+	 * @param maxQueued maximum number of jobs waiting for a worker
+	 * @param options   runtime options of all reorganisations
+	 * @see JobServer
+	 */
+	public void serve(int port, int workers, int maxQueued, ReorganiserOptions options) {
+		try {
+			JobServer server = new JobServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), workers,
+			        maxQueued, options);
+			Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+			server.start();
+		} catch (IOException e) {
+			logger.fatal("Cannot start the server", e);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs all jobs of a batch manifest in this process, prints the summary report and exits in error
+	 * if any job did not succeed.
+	 *
+	 * @param manifest manifest file
+	 * @param cores    number of cores the jobs can use at the same time
+	 * @param options  runtime options of all reorganisations
+	 * @see BatchJob
+	 */
+	public void batch(File manifest, int cores, ReorganiserOptions options) {
+		if (!manifest.exists() || manifest.isDirectory() || !manifest.canRead())
+			fatal("File " + manifest.getName() + " is not an existing readable file.");
+		try {
+			List<BatchJob> jobs = BatchJob.load(manifest);
+			BatchReport report = new BatchRunner(cores, options).run(jobs);
+			System.out.print(report.format());
+			if (!report.isSuccessful())
+				System.exit(1);
+		} catch (IOException e) {
+			logger.fatal("Error during file operation", e);
+			System.exit(1);
+		} catch (ReorganiserRuntimeException e) {
+			logger.fatal(e);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Loads a configuration file and prints how its columns are computed, without reorganising any
+	 * file.
+	 *
+	 * @param args   command line arguments, without options, the first one being the configuration
+	 *               file
+	 * @param engine custom engine to provide, null to use the one of the configuration
+	 * @see ReorgConfiguration#explain()
+	 */
+	public void explain(String[] args, ReorganiserEngine engine) {
+		if (args.length < 1)
+			fatal("Wrong number of arguments.", this::usage);
+		File cfgFile = new File(args[0]);
+		if (!cfgFile.exists() || cfgFile.isDirectory() || !cfgFile.canRead())
+			fatal("File " + cfgFile.getName() + " is not an existing readable file.");
+		try {
+			ReorgConfiguration cfg = engine == null ? ReorgConfiguration.fromFile(cfgFile)
+			        : ReorgConfiguration.fromFile(cfgFile, engine);
+			System.out.print(cfg.explain());
+		} catch (IOException e) {
+			logger.fatal("Error during file operation", e);
+			System.exit(1);
+		} catch (ReorganiserRuntimeException e) {
+			logger.fatal(e);
+			System.exit(1);
+		} catch (EngineException e) {
+			logger.fatal(e);
+			System.exit(1);
+		}
+	}
+
 	/**
 	 * Default run.
 	 * 
@@ -124,9 +289,71 @@ public final class CSVReorganiserCLIMain {
 		Option optionDoc = new Option("d", "doc", false, "Generates the documentation without running the software.");
 		Option optionEngine = new Option("e", "engine", true, "Specifies the engine.");
 		Option optionHelp = new Option("h", "help", false, "Displays this help message.");
+		Option optionThreads = new Option("t", "threads", true,
+		        "Number of worker threads used to process multiple source files at the same time (default "
+		                + ReorganiserOptions.DEFAULT_THREADS + ").");
+		Option optionChunkSize = new Option("c", "chunk-size", true,
+		        "Splits each source file into chunks of at least this size (bytes, or with suffix K, M or G) processed on the worker threads.");
+		Option optionUnordered = new Option(null, "unordered", false,
+		        "Allows chunks to be written in any order, records of a chunk staying together.");
+		Option optionPipeline = new Option(null, "pipeline", false,
+		        "Parses, transforms and writes records on separate threads, using the worker threads for transformation.");
+		Option optionInput = new Option("i", "input", true,
+		        "Backend used to read source files: commons (default) or mapped (memory-mapped files).");
+		Option optionOutputBuffer = new Option(null, "output-buffer", true,
+		        "Size of the buffer of each output (bytes, or with suffix K, M or G, default "
+		                + (ReorganiserOptions.DEFAULT_OUTPUT_BUFFER_SIZE >> 10) + "K).");
 		options.addOption(optionDoc);
 		options.addOption(optionEngine);
 		options.addOption(optionHelp);
+		options.addOption(optionThreads);
+		options.addOption(optionChunkSize);
+		options.addOption(optionUnordered);
+		options.addOption(optionPipeline);
+		options.addOption(optionInput);
+		Option optionCompressionThreads = new Option(null, "compression-threads", true,
+		        "Number of threads compressing the target when its name ends with .gz (default: one per processor).");
+		Option optionCheckpoint = new Option(null, "checkpoint", true,
+		        "Saves a checkpoint next to the target every time at least this size of source has been processed (bytes, or with suffix K, M or G).");
+		Option optionResume = new Option(null, "resume", false,
+		        "Resumes an interrupted run from its last checkpoint, truncating the target to it. Refused if the configuration or a source read before the checkpoint changed.");
+		Option optionCache = new Option(null, "cache", true,
+		        "Directory of a cache of the records generated from each source file, unchanged files being taken from it on later runs.");
+		Option optionCacheSize = new Option(null, "cache-size", true,
+		        "Maximum size of the cache, least recently used files being evicted (bytes, or with suffix K, M or G, default "
+		                + (ReorganiserOptions.DEFAULT_CACHE_SIZE >> 20) + "M).");
+		options.addOption(optionOutputBuffer);
+		options.addOption(optionCompressionThreads);
+		options.addOption(optionCheckpoint);
+		options.addOption(optionResume);
+		options.addOption(optionCache);
+		options.addOption(optionCacheSize);
+		Option optionWatch = new Option("w", "watch", false,
+		        "Runs as a daemon watching input directories, arguments being groups of <cfgfile> <inputdir> <outputdir>.");
+		Option optionQuietPeriod = new Option(null, "quiet-period", true,
+		        "When watching, time in milliseconds without changes after which a file is processed (default "
+		                + WatchDaemon.DEFAULT_QUIET_PERIOD + ").");
+		options.addOption(optionWatch);
+		options.addOption(optionQuietPeriod);
+		Option optionServe = new Option(null, "serve", true,
+		        "Runs as a local HTTP server on this port, accepting jobs instead of arguments.");
+		Option optionWorkers = new Option(null, "workers", true,
+		        "When serving, number of jobs running at the same time (default " + JobServer.DEFAULT_WORKERS + ").");
+		Option optionMaxQueued = new Option(null, "max-queued", true,
+		        "When serving, maximum number of jobs waiting for a worker (default " + JobServer.DEFAULT_MAX_QUEUED
+		                + ").");
+		options.addOption(optionServe);
+		Option optionManifest = new Option("m", "manifest", true,
+		        "Runs all jobs listed in this YAML manifest in one process instead of taking arguments.");
+		Option optionCores = new Option(null, "cores", true,
+		        "With a manifest, number of cores independent jobs can use at the same time (default: one per processor).");
+		options.addOption(optionManifest);
+		options.addOption(optionCores);
+		options.addOption(optionWorkers);
+		options.addOption(optionMaxQueued);
+		Option optionExplain = new Option(null, "explain", false,
+		        "Prints the subexpressions computed once for several columns of the configuration and the memoised values, without reorganising any file.");
+		options.addOption(optionExplain);
 		CommandLineParser cliParser = new DefaultParser();
 		ReorganiserEngine engine = null;
 		try {
@@ -138,18 +365,133 @@ public final class CSVReorganiserCLIMain {
 			} else {
 				if (cli.hasOption(optionEngine))
 					engine = new EngineFactory().getEngineFromId(cli.getOptionValue(optionEngine));
-				reorganise(args, engine);
+				ReorganiserOptions reorgOptions = new ReorganiserOptions();
+				if (cli.hasOption(optionThreads))
+					reorgOptions.setThreads(parsePositiveInteger(cli.getOptionValue(optionThreads), optionThreads));
+				if (cli.hasOption(optionChunkSize))
+					reorgOptions.setChunkSize(parseSize(cli.getOptionValue(optionChunkSize), optionChunkSize));
+				reorgOptions.setOrdered(!cli.hasOption(optionUnordered));
+				reorgOptions.setPipelined(cli.hasOption(optionPipeline));
+				if (cli.hasOption(optionInput)) {
+					InputBackend input = InputBackend.fromId(cli.getOptionValue(optionInput));
+					if (input == null)
+						fatal("Unknown input backend '" + cli.getOptionValue(optionInput) + "'.", this::usage);
+					reorgOptions.setInput(input);
+				}
+				if (cli.hasOption(optionOutputBuffer)) {
+					long size = parseSize(cli.getOptionValue(optionOutputBuffer), optionOutputBuffer);
+					if (size < CSVOutputSink.MIN_BUFFER_SIZE || size > Integer.MAX_VALUE)
+						fatal("Output buffer size must be between " + CSVOutputSink.MIN_BUFFER_SIZE + " and "
+						        + Integer.MAX_VALUE + " bytes.", this::usage);
+					reorgOptions.setOutputBufferSize((int) size);
+				}
+				if (cli.hasOption(optionCompressionThreads))
+					reorgOptions.setCompressionThreads(
+					        parsePositiveInteger(cli.getOptionValue(optionCompressionThreads), optionCompressionThreads));
+				if (cli.hasOption(optionCheckpoint))
+					reorgOptions.setCheckpointInterval(parseSize(cli.getOptionValue(optionCheckpoint), optionCheckpoint));
+				reorgOptions.setResume(cli.hasOption(optionResume));
+				if (cli.hasOption(optionCache))
+					reorgOptions.setCacheDirectory(new File(cli.getOptionValue(optionCache)));
+				if (cli.hasOption(optionCacheSize))
+					reorgOptions.setCacheSize(parseSize(cli.getOptionValue(optionCacheSize), optionCacheSize));
+				if (cli.hasOption(optionExplain)) {
+					explain(cli.getArgs(), engine);
+				} else if (cli.hasOption(optionManifest)) {
+					int cores = Runtime.getRuntime().availableProcessors();
+					if (cli.hasOption(optionCores))
+						cores = parsePositiveInteger(cli.getOptionValue(optionCores), optionCores);
+					batch(new File(cli.getOptionValue(optionManifest)), cores, reorgOptions);
+				} else if (cli.hasOption(optionServe)) {
+					int workers = JobServer.DEFAULT_WORKERS;
+					int maxQueued = JobServer.DEFAULT_MAX_QUEUED;
+					if (cli.hasOption(optionWorkers))
+						workers = parsePositiveInteger(cli.getOptionValue(optionWorkers), optionWorkers);
+					if (cli.hasOption(optionMaxQueued))
+						maxQueued = parsePositiveInteger(cli.getOptionValue(optionMaxQueued), optionMaxQueued);
+					serve(parsePositiveInteger(cli.getOptionValue(optionServe), optionServe), workers, maxQueued,
+					        reorgOptions);
+				} else if (cli.hasOption(optionWatch)) {
+					Long quietPeriod = null;
+					if (cli.hasOption(optionQuietPeriod))
+						quietPeriod = (long) parsePositiveInteger(cli.getOptionValue(optionQuietPeriod), optionQuietPeriod);
+					watch(cli.getArgs(), engine, reorgOptions, quietPeriod);
+				} else {
+					reorganise(cli.getArgs(), engine, reorgOptions);
+				}
 			}
 		} catch (ParseException e) {
 			logger.error(e);
 		}
 	}
 
+	/**
+	 * Parses the strictly positive integer value of an option, exiting the program in error if it is
+	 * not valid.
+	 *
+	 * @param value  value of the option
+	 * @param option option the value belongs to
+	 * @return the parsed value
+	 */
+	private int parsePositiveInteger(String value, Option option) {
+		int result = 0;
+		try {
+			result = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			// Handled below
+		}
+		if (result < 1)
+			fatal("Option '" + option.getLongOpt() + "' requires a strictly positive integer, got '" + value + "'.",
+			        this::usage);
+		return result;
+	}
+
+	/**
+	 * Parses a strictly positive size in bytes, optionally followed by a unit suffix (K, M or G, powers
+	 * of 1024), exiting the program in error if it is not valid.
+	 *
+	 * @param value  value of the option
+	 * @param option option the value belongs to
+	 * @return the parsed size in bytes
+	 */
+	private long parseSize(String value, Option option) {
+		long result = 0;
+		String size = value.trim().toUpperCase();
+		int shift = 0;
+		if (!size.isEmpty()) {
+			shift = switch (size.charAt(size.length() - 1)) {
+				case 'K' -> 10;
+				case 'M' -> 20;
+				case 'G' -> 30;
+				default -> 0;
+			};
+		}
+		try {
+			result = Math.multiplyExact(Long.parseLong(shift == 0 ? size : size.substring(0, size.length() - 1)),
+			        1L << shift);
+		} catch (NumberFormatException | ArithmeticException e) {
+			// Handled below, including sizes too big to be counted in bytes
+		}
+		if (result < 1)
+			fatal("Option '" + option.getLongOpt() + "' requires a strictly positive size, got '" + value + "'.",
+			        this::usage);
+		return result;
+	}
+
 	/**
 	 * Generates code documentation.
 	 */
 	private void generateDocumentation() {
-		new MarkdownDocumentationGeneratorChess().generate(new ChessDefaultConfigurationSupplier());
+		try {
+			Object generator = Class.forName(DOCUMENTATION_GENERATOR).getConstructor().newInstance();
+			generator.getClass().getMethod("generate", ChessConfigurationSupplier.class).invoke(generator,
+			        new ChessDefaultConfigurationSupplier());
+		} catch (InvocationTargetException e) {
+			logger.fatal("Error during documentation generation", e.getCause());
+			System.exit(1);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			fatal("Documentation generation is not available in this build (" + e + ").");
+		}
 	}
 
 	/**
@@ -180,6 +522,9 @@ public final class CSVReorganiserCLIMain {
 		          target
 		            Target file, path to file to be written with the results.
 
+		          inputdir, outputdir (with --watch)
+		            Directories where source files land and where targets are written.
+
 		        """, options, null, true);
 	}
 
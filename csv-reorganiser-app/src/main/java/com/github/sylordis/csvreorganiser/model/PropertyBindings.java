@@ -0,0 +1,230 @@
+package com.github.sylordis.csvreorganiser.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingConfigurationException;
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
+import com.github.sylordis.csvreorganiser.utils.TypeConverter;
+
+/**
+ * Property bindings of a {@link SelfFiller} class, computed once per class and shared by all its
+ * instances: the {@link OperationProperty} annotations of the class and a setter and a getter for
+ * each of its fields, looked up the first time the field is accessed. Accessors are method handles
+ * adapted to generic signatures, skipping the reflective lookup and access checks on every
+ * instance.<br/>
+ * <br/>
+ * Bindings can be used from several threads.
+ *
+ * @author sylordis
+ *
+ */
+public final class PropertyBindings {
+
+	/**
+	 * Setter of a field, converting values to the type of the field.
+	 *
+	 * @param handle setter of signature <code>(Object, Object)void</code>
+	 * @param type   type of the field, boxed for primitives
+	 * @param field  declared type of the field
+	 */
+	private record Setter(MethodHandle handle, Class<?> type, Class<?> field) {
+	}
+
+	/**
+	 * Bindings of each class, computed when first needed.
+	 */
+	private static final ClassValue<PropertyBindings> BINDINGS = new ClassValue<>() {
+		@Override
+		protected PropertyBindings computeValue(Class<?> type) {
+			return new PropertyBindings(type);
+		}
+	};
+
+	/**
+	 * Class of the bindings.
+	 */
+	private final Class<?> type;
+	/**
+	 * Property annotations, in declaration order.
+	 */
+	private final List<OperationProperty> properties;
+	/**
+	 * Property annotations, by position.
+	 */
+	private final List<OperationProperty> positionedProperties;
+	/**
+	 * Setters by field name.
+	 */
+	private final Map<String, Setter> setters;
+	/**
+	 * Getters by field name, of signature <code>(Object)Object</code>.
+	 */
+	private final Map<String, MethodHandle> getters;
+
+	/**
+	 * Constructs the bindings of a class.
+	 *
+	 * @param type class of the bindings
+	 */
+	private PropertyBindings(Class<?> type) {
+		this.type = type;
+		this.properties = List.of(type.getAnnotationsByType(OperationProperty.class));
+		List<OperationProperty> sorted = new ArrayList<>(properties);
+		sorted.sort(Comparator.comparingInt(OperationProperty::position));
+		this.positionedProperties = Collections.unmodifiableList(sorted);
+		this.setters = new ConcurrentHashMap<>();
+		this.getters = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the bindings of a class.
+	 *
+	 * @param type class
+	 * @return the bindings of the class, the same for each call
+	 */
+	public static PropertyBindings of(Class<?> type) {
+		return BINDINGS.get(type);
+	}
+
+	/**
+	 * Sets a field declared by the class of the bindings, converting the value to the type of the
+	 * field.
+	 *
+	 * @param target object to set the field of
+	 * @param name   name of the field
+	 * @param value  value to set it to
+	 * @throws SelfFillingException              if the value cannot be converted to the type of the
+	 *                                           field
+	 * @throws SelfFillingConfigurationException if the field does not exist or cannot be set
+	 */
+	public void set(Object target, String name, Object value) throws SelfFillingException {
+		final Setter setter = setter(name);
+		final Object converted;
+		try {
+			converted = value == null || setter.type().isInstance(value) ? value
+			        : TypeConverter.to(value, setter.field());
+		} catch (IllegalArgumentException e) {
+			// Error in provided data
+			throw new SelfFillingException(e);
+		}
+		if (converted == null && setter.field().isPrimitive())
+			throw new SelfFillingException("Cannot set primitive field '" + name + "' to null");
+		try {
+			setter.handle().invokeExact(target, converted);
+		} catch (ClassCastException e) {
+			throw new SelfFillingException(e);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SelfFillingConfigurationException(e);
+		}
+	}
+
+	/**
+	 * Gets the value of a field declared by the class of the bindings.
+	 *
+	 * @param target object to get the field of
+	 * @param name   name of the field
+	 * @return the value of the field, boxed for primitives
+	 * @throws SelfFillingConfigurationException if the field does not exist or cannot be read
+	 */
+	public Object get(Object target, String name) {
+		MethodHandle getter = getters.get(name);
+		if (getter == null) {
+			try {
+				getter = MethodHandles.lookup().unreflectGetter(field(name))
+				        .asType(MethodType.methodType(Object.class, Object.class));
+			} catch (IllegalAccessException e) {
+				throw new SelfFillingConfigurationException(e);
+			}
+			getters.putIfAbsent(name, getter);
+		}
+		try {
+			return getter.invokeExact(target);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SelfFillingConfigurationException(e);
+		}
+	}
+
+	/**
+	 * Gets the setter of a field, looking it up the first time.
+	 *
+	 * @param name name of the field
+	 * @return the setter
+	 * @throws SelfFillingConfigurationException if the field does not exist or cannot be set
+	 */
+	private Setter setter(String name) {
+		Setter setter = setters.get(name);
+		if (setter == null) {
+			final Field field = field(name);
+			try {
+				MethodHandle handle = MethodHandles.lookup().unreflectSetter(field)
+				        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+				setter = new Setter(handle, ClassUtils.primitiveToWrapper(field.getType()), field.getType());
+			} catch (IllegalAccessException e) {
+				throw new SelfFillingConfigurationException(e);
+			}
+			setters.putIfAbsent(name, setter);
+		}
+		return setter;
+	}
+
+	/**
+	 * Looks up a field declared by the class of the bindings, made accessible.
+	 *
+	 * @param name name of the field
+	 * @return the field
+	 * @throws SelfFillingConfigurationException if the field does not exist, is static or cannot be
+	 *                                           accessed
+	 */
+	private Field field(String name) {
+		try {
+			Field field = type.getDeclaredField(name);
+			if (Modifier.isStatic(field.getModifiers()))
+				throw new SelfFillingConfigurationException("Field '" + name + "' of " + type + " is static");
+			// The field instance is private to the bindings, its accessibility does not leak
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException | SecurityException e) {
+			// If this is thrown, then the Operation configuration has not been done properly by the developer
+			throw new SelfFillingConfigurationException(e);
+		}
+	}
+
+	/**
+	 * @return the property annotations of the class, in declaration order
+	 */
+	public List<OperationProperty> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * @return the property annotations of the class, sorted by {@link OperationProperty#position()}
+	 */
+	public List<OperationProperty> getPositionedProperties() {
+		return positionedProperties;
+	}
+
+	/**
+	 * @return the class of the bindings
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+}
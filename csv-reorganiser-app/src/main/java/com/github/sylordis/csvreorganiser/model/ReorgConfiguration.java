@@ -2,28 +2,36 @@ package com.github.sylordis.csvreorganiser.model;
 
 import static com.github.sylordis.csvreorganiser.model.constants.YAMLTags.OPDEF_ROOT_KEY;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessOperationBuilder;
 import com.github.sylordis.csvreorganiser.model.constants.YAMLTags;
+import com.github.sylordis.csvreorganiser.model.engines.DeclaredEngine;
 import com.github.sylordis.csvreorganiser.model.engines.EngineFactory;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
 import com.github.sylordis.csvreorganiser.utils.yaml.YAMLUtils;
+import com.google.common.hash.Hashing;
 
 /**
  *
@@ -51,6 +59,19 @@ public class ReorgConfiguration {
 	 * Engine to be used for the reorganisation.
 	 */
 	private ReorganiserEngine engine;
+	/**
+	 * SHA-256 of the content of the configuration file, null if the configuration was not loaded from
+	 * a file.
+	 */
+	private String fingerprint;
+	/**
+	 * Subtrees of the operations shared between columns, empty if none.
+	 */
+	private List<SharedSubexpression> sharedSubexpressions;
+	/**
+	 * Memos of the values of the operations, empty if none.
+	 */
+	private List<ResultMemo> memos;
 
 	/**
 	 * Constructs a new configuration without an Engine.
@@ -58,6 +79,8 @@ public class ReorgConfiguration {
 	public ReorgConfiguration() {
 		this.logger = LogManager.getLogger();
 		this.operations = new ArrayList<>();
+		this.sharedSubexpressions = List.of();
+		this.memos = List.of();
 	}
 
 	/**
@@ -74,17 +97,21 @@ public class ReorgConfiguration {
 	 * @param cfgFile yaml configuration file to load
 	 * @throws FileNotFoundException        if no file is found
 	 * @throws IOException                  if something goes wrong while reading the configuration file
-	 * @throws ConfigurationImportException if the configuration is wrong or empty
+	 * @throws ConfigurationImportException if the configuration is wrong, empty or not valid YAML
 	 * @throws EngineException
 	 */
 	public void loadFromFile(File cfgFile)
 	        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
 		operations.clear();
+		fingerprint = null;
+		sharedSubexpressions = List.of();
+		memos = List.of();
 		Yaml yamlFile = new Yaml();
 		try (FileInputStream yamlStream = new FileInputStream(cfgFile)) {
 			// Set specified engine if provided
 			logger.info("Loading YAML file");
-			Map<String, Object> fileRoot = yamlFile.load(yamlStream);
+			final byte[] content = yamlStream.readAllBytes();
+			Map<String, Object> fileRoot = yamlFile.load(new ByteArrayInputStream(content));
 			if (fileRoot == null)
 				throw new ConfigurationImportException("Configuration file is empty");
 			if (!fileRoot.containsKey(YAMLTags.CFG_ROOT))
@@ -111,31 +138,36 @@ public class ReorgConfiguration {
 			logger.debug("Checking '{}' tag: ({}){}", OPDEF_ROOT_KEY, cfgRoot.get(OPDEF_ROOT_KEY).getClass(),
 					cfgRoot.get(OPDEF_ROOT_KEY));
 			this.operations.addAll(engine.createOperations(cfgRoot));
+			this.sharedSubexpressions = engine.shareSubexpressions(operations);
+			this.memos = engine.memoise(operations);
+			this.fingerprint = Hashing.sha256().hashBytes(content).toString();
 			logger.debug("{}", this);
 			logger.info("Configuration imported.");
 		} catch (ClassCastException e) {
 			throw new ConfigurationImportException("Provided file is not a yaml file", e);
+		} catch (YAMLException e) {
+			throw new ConfigurationImportException("Provided file is not valid yaml: " + e.getMessage(), e);
 		}
 	}
 
 	/**
-	 * Checks the configuration specified in the header.
+	 * Checks the configuration specified in the header. The declared engine is only instantiated if no
+	 * engine is set yet, so that engines can be reused from one configuration to the next.
 	 * 
 	 * @param header
-	 * @throws EngineException 
+	 * @throws EngineException if the declared engine is not the type of the engine already set
 	 */
 	public void checkHeaderConfiguration(Map<String, Object> header) throws EngineException {
 		logger.debug("Checking engine configuration and compatibility with header {}", header);
 		String engineId = YAMLUtils.strValue(YAMLTags.Header.CFG_ENGINE, header);
 		logger.debug("EngineId = '{}'", engineId);
-		ReorganiserEngine fileEngine = new EngineFactory().getEngineFromId(engineId);
+		DeclaredEngine fileEngine = DeclaredEngine.getEngineTypeFromId(engineId);
 		logger.debug("Local engine is {}, header declared engine is '{}'",
-		        this.engine != null ? this.engine.getClass().getSimpleName() : null,
-		        fileEngine != null ? fileEngine.getClass().getSimpleName() : null);
+		        this.engine != null ? this.engine.getClass().getSimpleName() : null, fileEngine);
 		// Local engine is not specified, set it to file's
 		if (this.engine == null) {
-				this.engine = fileEngine;
-		} else if (fileEngine != null && fileEngine.equals(engine)) {
+			this.engine = new EngineFactory().getEngineFromId(engineId);
+		} else if (fileEngine != null && !fileEngine.getEngineType().isInstance(engine)) {
 			// Local engine is specified, check if they are different
 			throw new EngineException("Configuration file specifies different engine that the one used");
 		}
@@ -205,6 +237,23 @@ public class ReorgConfiguration {
 		return config;
 	}
 
+	/**
+	 * Computes the names of the source columns read by all operations, so that readers can skip the
+	 * other ones.
+	 *
+	 * @return the names of the columns read, or null if at least one operation may read any column
+	 */
+	public Set<String> getSourceColumns() {
+		Set<String> columns = new HashSet<>();
+		for (ReorganiserOperation op : operations) {
+			Set<String> opColumns = op.getSourceColumns();
+			if (opColumns == null)
+				return null;
+			columns.addAll(opColumns);
+		}
+		return columns;
+	}
+
 	/**
 	 * Gets the unmodifiable list of all operations in configuration. This list can be empty but never
 	 * null.
@@ -215,6 +264,57 @@ public class ReorgConfiguration {
 		return Collections.unmodifiableList(operations);
 	}
 
+	/**
+	 * Gets the subtrees of the operations computed once per record for all the columns using them, as
+	 * found when the configuration was loaded.
+	 *
+	 * @return the shared subtrees, in column order, empty if none
+	 * @see ReorganiserEngine#shareSubexpressions(List)
+	 */
+	public List<SharedSubexpression> getSharedSubexpressions() {
+		return sharedSubexpressions;
+	}
+
+	/**
+	 * Gets the memos of the values of the operations, set up when the configuration was loaded. Their
+	 * counters add up the lookups of all the reorganisations using this configuration.
+	 *
+	 * @return the memos, in column order, empty if none
+	 * @see ReorganiserEngine#memoise(List)
+	 */
+	public List<ResultMemo> getMemos() {
+		return memos;
+	}
+
+	/**
+	 * Explains how the columns are computed: the subtrees shared between them then the memoised
+	 * values, one per line.
+	 *
+	 * @return a human readable explanation, ending with a new line
+	 */
+	public String explain() {
+		StringBuilder explanation = new StringBuilder();
+		explanation.append(operations.size()).append(" column(s), ").append(sharedSubexpressions.size())
+		        .append(" shared subexpression(s), ").append(memos.size()).append(" memo(s)")
+		        .append(System.lineSeparator());
+		for (SharedSubexpression shared : sharedSubexpressions)
+			explanation.append("  ").append(shared).append(System.lineSeparator());
+		for (ResultMemo memo : memos)
+			explanation.append("  memo ").append(memo).append(System.lineSeparator());
+		return explanation.toString();
+	}
+
+	/**
+	 * Gets the fingerprint of the configuration, which changes whenever the content of the
+	 * configuration file changes.
+	 *
+	 * @return the SHA-256 of the configuration file, or null if the configuration was not loaded from a
+	 *         file
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
 	/**
 	 * @return the engine
 	 */
@@ -1,26 +1,42 @@
 package com.github.sylordis.csvreorganiser.model;
 
-import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.github.sylordis.csvreorganiser.model.constants.MessagesConstants;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeException;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.CommonsRecordReader;
+import com.github.sylordis.csvreorganiser.model.io.FragmentCache;
+import com.github.sylordis.csvreorganiser.model.io.GzipFiles;
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+import com.github.sylordis.csvreorganiser.model.io.SourceRecordReader;
+import com.github.sylordis.csvreorganiser.model.processing.CachingFileProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.Checkpoint;
+import com.github.sylordis.csvreorganiser.model.processing.CheckpointedFilesProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.ParallelFilesProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.PipelinedRecordsProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.RecordsProcessor;
+import com.github.sylordis.csvreorganiser.model.processing.SourceFileProcessor;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Model of the reorganiser.
@@ -30,6 +46,23 @@ import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeExc
  */
 public class Reorganiser {
 
+	/**
+	 * Reorganisation of CSV records read from a stream, whose header was read and operations bound
+	 * when opened, see {@link Reorganiser#open(Reader)}.
+	 */
+	public interface StreamReorganisation extends Closeable {
+
+		/**
+		 * Writes the header of the target then the generated records to a sink.
+		 *
+		 * @param sink sink to write the target to
+		 * @return the number of records generated
+		 * @throws IOException if the source cannot be read or the sink cannot be written
+		 */
+		long writeTo(CSVOutputSink sink) throws IOException;
+
+	}
+
 	/**
 	 * Files with base content.
 	 */
@@ -42,6 +75,10 @@ public class Reorganiser {
 	 * Configuration to be extracted.
 	 */
 	private ReorgConfiguration cfg;
+	/**
+	 * Runtime options of the reorganisation.
+	 */
+	private ReorganiserOptions options;
 	/**
 	 * Class logger.
 	 */
@@ -59,11 +96,13 @@ public class Reorganiser {
 		this.srcFiles.addAll(srcFiles);
 		this.targetFile = targetFile;
 		this.cfg = cfg;
+		this.options = new ReorganiserOptions();
 	}
 
 	/**
 	 * Triggers the generation of the target CSV file according to configuration to the target file.
-	 * Target file is only written/created if at least one record has been generated.
+	 * Target file is only written/created if at least one record has been generated. Sources and target
+	 * whose name ends with {@value GzipFiles#SUFFIX} are read and written gzip-compressed.
 	 *
 	 * @throws FileNotFoundException
 	 * @throws IOException
@@ -84,42 +123,356 @@ public class Reorganiser {
 			        .toArray(String[]::new);
 			logger.info("Header: {}", Arrays.toString(headerOut));
 			logger.debug("Source files to process: {}", srcFiles);
-			try (FileWriter out = new FileWriter(targetFile, true);
-			        CSVPrinter printer = new CSVPrinter(out, CSVFormat.Builder.create().setHeader(headerOut).get())) {
-				// Generate records file
-				try (BufferedWriter writer = new BufferedWriter(new FileWriter(targetFile))) {
+			logger.debug("Source columns used: {}", cfg.getSourceColumns());
+			if (GzipFiles.isGzip(targetFile)) {
+				if (options.isCheckpointed())
+					throw new ReorganiserRuntimeException("Checkpoints are not supported for compressed targets");
+				logger.debug("Compressing target on {} threads", options.getCompressionThreads());
+			}
+			final Checkpoint checkpoint = loadCheckpoint();
+			try (CSVOutputSink sink = checkpoint != null
+			        ? CSVOutputSink.resume(targetFile, checkpoint.targetLength(), options.getOutputBufferSize())
+			        : GzipFiles.openSink(targetFile, options.getOutputBufferSize(), options.getCompressionThreads())) {
+				if (checkpoint == null) {
+					// Generate records file
 					logger.debug("Writing header");
-					writer.write(MessagesConstants.getTargetComment(this.cfg.getEngine().getClass().getSimpleName()));
-					writer.newLine();
+					sink.printLine(MessagesConstants.getTargetComment(this.cfg.getEngine().getClass().getSimpleName()));
+					sink.printRecord(headerOut);
 				}
-				// For each file
-				for (File srcFile : srcFiles) {
-					List<List<String>> recordsOut = new ArrayList<>();
-					logger.debug("Processing source file {}", srcFile);
-					try (Reader srcInput = new FileReader(srcFile)) {
-						Iterable<CSVRecord> recordsIn = CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true)
-						        .get().parse(srcInput);
-						// Apply operations for each record
-						for (CSVRecord record : recordsIn) {
-							List<String> recordOut = new ArrayList<>();
-							for (ReorganiserOperation op : cfg.getOperations())
-								recordOut.add(op.apply(record));
-							recordsOut.add(recordOut);
+				final File segmentsDirectory = targetFile.getAbsoluteFile().getParentFile();
+				if (options.isCheckpointed()) {
+					if (options.getCacheDirectory() != null)
+						logger.warn("Fragment cache is not used with checkpoints");
+					if (options.isPipelined())
+						logger.warn("Pipeline is not used with checkpoints");
+					if (options.getInput() != InputBackend.COMMONS)
+						logger.warn("{} input is not used with checkpoints, sources are parsed by commons-csv",
+						        options.getInput());
+					long records = reorganiseWithCheckpoints(sink, checkpoint, segmentsDirectory);
+					logger.info("{} record(s) generated", records);
+				} else if (options.isChunked()) {
+					if (options.isPipelined())
+						logger.warn("Pipeline is not used with chunks");
+					if (options.getInput() != InputBackend.COMMONS)
+						logger.warn("{} input is not used with chunks, sources are parsed by commons-csv",
+						        options.getInput());
+					logger.debug("Processing source files by chunks of {} bytes on {} threads", options.getChunkSize(),
+					        options.getThreads());
+					ChunkedFileProcessor processor = new ChunkedFileProcessor(options.getThreads(),
+					        options.getChunkSize(), options.isOrdered(), this::bindRecordsProcessor, options.getOutputBufferSize(),
+					        segmentsDirectory);
+					SourceFileProcessor fileProcessor = cached((srcFile, fileSink) -> {
+						if (GzipFiles.isGzip(srcFile)) {
+							logger.warn("Compressed source {} cannot be split into chunks, processing it as a whole",
+							        srcFile);
+							return reorganiseFile(srcFile, fileSink, this::bindRecordsProcessor);
 						}
-						logger.info("{} record(s) generated", recordsOut.size());
-						// Print records to target file
-						for (List<String> tupleRecordOut : recordsOut)
-							printer.printRecord(tupleRecordOut);
+						return processor.process(srcFile, fileSink);
+					}, segmentsDirectory);
+					for (File srcFile : srcFiles) {
+						long records = fileProcessor.process(srcFile, sink);
+						logger.info("{} record(s) generated", records);
+					}
+				} else if (options.isPipelined()) {
+					logger.debug("Processing source files through a pipeline with {} transforming threads",
+					        options.getThreads());
+					Function<SourceHeader, RecordsProcessor> processor = header -> {
+						final List<ReorganiserOperation> operations = bindOperations(header);
+						return new PipelinedRecordsProcessor(options.getThreads(),
+						        record -> reorganiseRecord(operations, record));
+					};
+					SourceFileProcessor fileProcessor = cached(
+					        (srcFile, fileSink) -> reorganiseFile(srcFile, fileSink, processor), segmentsDirectory);
+					for (File srcFile : srcFiles) {
+						long records = fileProcessor.process(srcFile, sink);
+						logger.info("{} record(s) generated", records);
+					}
+				} else if (options.isParallel() && srcFiles.size() > 1) {
+					logger.debug("Processing source files on {} threads", options.getThreads());
+					new ParallelFilesProcessor(options.getThreads(),
+					        cached((srcFile, segmentSink) -> reorganiseFile(srcFile, segmentSink, this::bindRecordsProcessor),
+					                segmentsDirectory),
+					        options.getOutputBufferSize(), segmentsDirectory).process(srcFiles, sink);
+				} else {
+					SourceFileProcessor fileProcessor = cached(
+					        (srcFile, fileSink) -> reorganiseFile(srcFile, fileSink, this::bindRecordsProcessor),
+					        segmentsDirectory);
+					// For each file
+					for (File srcFile : srcFiles) {
+						long records = fileProcessor.process(srcFile, sink);
+						logger.info("{} record(s) generated", records);
 					}
 				}
 				logger.info("Reorganisation finished: {}", targetFile.getAbsolutePath());
-			} catch (IllegalArgumentException e) {
+				for (ResultMemo memo : cfg.getMemos())
+					logger.info("Memo {}", memo);
+			} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
 				logger.error("Error when processing an operation", e);
 				throw new ReorganiserRuntimeException(e);
 			}
+			if (options.isCheckpointed())
+				Files.deleteIfExists(Checkpoint.sidecarOf(targetFile).toPath());
+		}
+	}
+
+	/**
+	 * Reorganises CSV records read from a stream rather than from the source files, writing the header
+	 * of the target then the generated records to the sink. No comment is written, the output being
+	 * meant to be consumed straight away.
+	 *
+	 * @param source stream of the source, starting with its header
+	 * @param sink   sink to write the target to
+	 * @return the number of records generated
+	 * @throws IOException            if the source cannot be read or the sink cannot be written
+	 * @throws ConfigurationException if the configuration is null or the list of operations empty
+	 */
+	public long reorganise(Reader source, CSVOutputSink sink) throws IOException {
+		try (StreamReorganisation reorganisation = open(source)) {
+			return reorganisation.writeTo(sink);
+		}
+	}
+
+	/**
+	 * Opens the reorganisation of CSV records read from a stream: the header of the source is read, the
+	 * operations bound to it and the first record parsed, so that a source which cannot be reorganised
+	 * is reported before anything is written.
+	 *
+	 * @param source stream of the source, starting with its header, closed with the reorganisation
+	 * @return the reorganisation, to write to a sink
+	 * @throws IOException                 if the header cannot be read
+	 * @throws java.io.UncheckedIOException if the first record is malformed
+	 * @throws ConfigurationException      if the configuration is null or the list of operations empty
+	 * @throws ReorganiserRuntimeException if the operations cannot be bound to the header
+	 */
+	public StreamReorganisation open(Reader source) throws IOException {
+		if (cfg == null)
+			throw new ConfigurationException("No configuration was found (null)");
+		if (cfg.getOperations().isEmpty())
+			throw new ConfigurationException("Configuration operations list is empty");
+		final SourceRecordReader reader = new CommonsRecordReader(source);
+		try {
+			final RecordsProcessor processor = bindRecordsProcessor(reader.getHeader());
+			final Iterator<SourceRecord> records = reader.iterator();
+			final SourceRecord first = records.hasNext() ? records.next() : null;
+			final Iterable<SourceRecord> all = () -> new Iterator<>() {
+
+				/**
+				 * Record parsed in advance, null once returned.
+				 */
+				private SourceRecord parsed = first;
+
+				@Override
+				public boolean hasNext() {
+					return parsed != null || records.hasNext();
+				}
+
+				@Override
+				public SourceRecord next() {
+					if (parsed == null)
+						return records.next();
+					final SourceRecord record = parsed;
+					parsed = null;
+					return record;
+				}
+			};
+			return new StreamReorganisation() {
+
+				@Override
+				public long writeTo(CSVOutputSink sink) throws IOException {
+					sink.printRecord(
+					        cfg.getOperations().stream().map(ReorganiserOperation::getName).toArray(String[]::new));
+					try {
+						return processor.process(all, sink);
+					} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+						logger.error("Error when processing an operation", e);
+						throw new ReorganiserRuntimeException(e);
+					}
+				}
+
+				@Override
+				public void close() throws IOException {
+					reader.close();
+				}
+			};
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			reader.close();
+			logger.error("Error when binding the operations", e);
+			throw new ReorganiserRuntimeException(e);
+		} catch (RuntimeException e) {
+			reader.close();
+			throw e;
 		}
 	}
 
+	/**
+	 * Wraps a file processor so that it goes through the fragment cache, if one is configured. The
+	 * fragments depend on the content of the configuration file and on the engine, so configurations
+	 * which were not loaded from a file cannot be cached.
+	 *
+	 * @param processor         processor of the files
+	 * @param segmentsDirectory directory where to create the segments
+	 * @return a processor using the cache, or the given processor if there is no cache
+	 * @throws IOException if the cache directory cannot be created
+	 * @see FragmentCache
+	 */
+	private SourceFileProcessor cached(SourceFileProcessor processor, File segmentsDirectory) throws IOException {
+		if (options.getCacheDirectory() == null)
+			return processor;
+		if (cfg.getFingerprint() == null) {
+			logger.warn("Configuration was not loaded from a file, fragment cache is not used");
+			return processor;
+		}
+		logger.debug("Using fragment cache in {}", options.getCacheDirectory());
+		return new CachingFileProcessor(new FragmentCache(options.getCacheDirectory(), options.getCacheSize()),
+		        cfg.getFingerprint() + ':' + cfg.getEngine().getClass().getName(), processor,
+		        options.getOutputBufferSize(), segmentsDirectory);
+	}
+
+	/**
+	 * Loads the checkpoint to resume from, if the run resumes a previous one.
+	 *
+	 * @return the last checkpoint of the previous run, or null to start from the beginning
+	 * @throws IOException if the checkpoint cannot be read
+	 */
+	private Checkpoint loadCheckpoint() throws IOException {
+		if (!options.isResume())
+			return null;
+		final File sidecar = Checkpoint.sidecarOf(targetFile);
+		if (!sidecar.exists()) {
+			logger.warn("No checkpoint found in {}, starting from the beginning", sidecar);
+			return null;
+		}
+		Checkpoint checkpoint = Checkpoint.load(sidecar);
+		logger.debug("Loaded checkpoint {}", checkpoint);
+		return checkpoint;
+	}
+
+	/**
+	 * Reorganises all source files in order, saving checkpoints as records are written. Sources are
+	 * split into chunks of the checkpoint interval, or of the chunk size if no interval is set.
+	 *
+	 * @param sink              sink of the target, positioned at the checkpoint if any
+	 * @param checkpoint        checkpoint to resume from, null to start from the beginning
+	 * @param segmentsDirectory directory where to create the segments
+	 * @return the total number of records in the target
+	 * @throws IOException if a source cannot be read, the target cannot be written or a checkpoint
+	 *                     cannot be saved
+	 */
+	private long reorganiseWithCheckpoints(CSVOutputSink sink, Checkpoint checkpoint, File segmentsDirectory)
+	        throws IOException {
+		long chunkSize;
+		if (checkpoint != null)
+			chunkSize = checkpoint.chunkSize();
+		else if (options.getCheckpointInterval() != ReorganiserOptions.NO_CHECKPOINTS)
+			chunkSize = options.getCheckpointInterval();
+		else if (options.isChunked())
+			chunkSize = options.getChunkSize();
+		else
+			chunkSize = ReorganiserOptions.DEFAULT_CHECKPOINT_INTERVAL;
+		if (!options.isOrdered())
+			logger.warn("Checkpoints require records to stay in order, ignoring unordered mode");
+		logger.debug("Processing source files by chunks of {} bytes on {} threads with checkpoints", chunkSize,
+		        options.getThreads());
+		ChunkedFileProcessor chunkedProcessor = new ChunkedFileProcessor(options.getThreads(), chunkSize, true,
+		        this::bindRecordsProcessor, options.getOutputBufferSize(), segmentsDirectory);
+		return new CheckpointedFilesProcessor(chunkedProcessor,
+		        (srcFile, fileSink) -> reorganiseFile(srcFile, fileSink, this::bindRecordsProcessor),
+		        Checkpoint.sidecarOf(targetFile), cfg.getFingerprint()).process(srcFiles, sink, checkpoint);
+	}
+
+	/**
+	 * Reorganises one source file, streaming each record to the sink as soon as it is transformed.
+	 * Records are never accumulated, so memory usage stays constant regardless of the size of the
+	 * source file. Operations are not bound to sources without records, which generate nothing, as
+	 * chunks are only processed if there are records.
+	 *
+	 * @param srcFile    source file to process
+	 * @param sink       sink to write the generated records to
+	 * @param processors creates the processor of the parsed records from the header of the file
+	 * @return the number of records generated
+	 * @throws IOException if the source cannot be read or the target cannot be written
+	 */
+	private long reorganiseFile(File srcFile, CSVOutputSink sink, Function<SourceHeader, RecordsProcessor> processors)
+	        throws IOException {
+		logger.debug("Processing source file {} with {} input", srcFile, options.getInput());
+		try (SourceRecordReader reader = options.getInput().open(srcFile, Charset.defaultCharset(),
+		        cfg.getSourceColumns())) {
+			final Iterator<SourceRecord> records = reader.iterator();
+			if (!records.hasNext()) {
+				logger.debug("No record in {}", srcFile);
+				return 0;
+			}
+			return processors.apply(reader.getHeader()).process(() -> records, sink);
+		}
+	}
+
+	/**
+	 * Binds all operations to the header of a source file. Configuration errors and missing columns are
+	 * reported here, before any record is processed.
+	 *
+	 * @param header header of the source file
+	 * @return the bound operations, in the order of the configuration
+	 * @throws IllegalArgumentException if an operation cannot be bound
+	 * @see ReorganiserOperation#bind(SourceHeader)
+	 */
+	private List<ReorganiserOperation> bindOperations(SourceHeader header) {
+		logger.debug("Binding operations to header {}", header);
+		final List<ReorganiserOperation> operations = new ArrayList<>();
+		for (ReorganiserOperation op : cfg.getOperations())
+			operations.add(op.bind(header));
+		return operations;
+	}
+
+	/**
+	 * Creates the sequential processor of the records of a source file.
+	 *
+	 * @param header header of the source file
+	 * @return a processor applying the operations bound to the header
+	 */
+	private RecordsProcessor bindRecordsProcessor(SourceHeader header) {
+		final List<ReorganiserOperation> operations = bindOperations(header);
+		return (records, sink) -> reorganiseRecords(operations, records, sink);
+	}
+
+	/**
+	 * Applies all operations to a record.
+	 *
+	 * @param operations operations bound to the header of the record
+	 * @param record     source record
+	 * @return the values of the target record
+	 */
+	private List<String> reorganiseRecord(List<ReorganiserOperation> operations, SourceRecord record) {
+		final List<String> values = new ArrayList<>(operations.size());
+		for (ReorganiserOperation op : operations)
+			values.add(op.applyTo(record));
+		return values;
+	}
+
+	/**
+	 * Applies all operations to each record and prints the result straight away.
+	 *
+	 * @param operations operations bound to the header of the records
+	 * @param records    source records
+	 * @param sink       sink to write the generated records to
+	 * @return the number of records generated
+	 * @throws IOException if the target cannot be written
+	 */
+	private long reorganiseRecords(List<ReorganiserOperation> operations, Iterable<SourceRecord> records,
+	        CSVOutputSink sink) throws IOException {
+		// Values are rendered into the same buffer, printed before the next one is rendered
+		final StringBuilder value = new StringBuilder();
+		long count = 0;
+		for (SourceRecord record : records) {
+			for (ReorganiserOperation op : operations) {
+				value.setLength(0);
+				sink.print(op.applyTo(record, value) ? value : null);
+			}
+			sink.println();
+			count++;
+		}
+		return count;
+	}
+
 	/**
 	 * Checks if all files are valid. An exception is thrown if at least one file is not found or does
 	 * not satisfy its criteria.
@@ -185,4 +538,20 @@ public class Reorganiser {
 		this.cfg = cfg;
 	}
 
+	/**
+	 * @return the runtime options
+	 */
+	public ReorganiserOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * Sets the runtime options, null resets them to their default values.
+	 *
+	 * @param options the runtime options to set
+	 */
+	public void setOptions(ReorganiserOptions options) {
+		this.options = options != null ? options : new ReorganiserOptions();
+	}
+
 }
@@ -0,0 +1,316 @@
+package com.github.sylordis.csvreorganiser.model;
+
+import java.io.File;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FragmentCache;
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+
+/**
+ * Runtime options of the {@link Reorganiser}, i.e. everything that changes how a reorganisation is
+ * executed but not what it produces.
+ *
+ * @author sylordis
+ *
+ */
+public class ReorganiserOptions {
+
+	/**
+	 * Default number of worker threads.
+	 */
+	public static final int DEFAULT_THREADS = 1;
+	/**
+	 * Chunk size value for processing files as a whole.
+	 */
+	public static final long NO_CHUNKS = 0;
+	/**
+	 * Default backend used to read source files.
+	 */
+	public static final InputBackend DEFAULT_INPUT = InputBackend.COMMONS;
+	/**
+	 * Default size of the output buffers.
+	 */
+	public static final int DEFAULT_OUTPUT_BUFFER_SIZE = CSVOutputSink.DEFAULT_BUFFER_SIZE;
+	/**
+	 * Default number of threads compressing gzip targets, one per available processor.
+	 */
+	public static final int DEFAULT_COMPRESSION_THREADS = Runtime.getRuntime().availableProcessors();
+	/**
+	 * Checkpoint interval value for runs without checkpoints.
+	 */
+	public static final long NO_CHECKPOINTS = 0;
+	/**
+	 * Default interval between checkpoints, used when resuming a run without any interval set.
+	 */
+	public static final long DEFAULT_CHECKPOINT_INTERVAL = 64L << 20;
+	/**
+	 * Default maximum size of the fragment cache.
+	 */
+	public static final long DEFAULT_CACHE_SIZE = FragmentCache.DEFAULT_MAX_SIZE;
+
+	/**
+	 * Number of worker threads used to process source files.
+	 */
+	private int threads;
+	/**
+	 * Minimum size in bytes of the chunks each source file is split into, or {@link #NO_CHUNKS}.
+	 */
+	private long chunkSize;
+	/**
+	 * Whether the order of the source records is preserved in the target.
+	 */
+	private boolean ordered;
+	/**
+	 * Whether parsing, transforming and writing records run as separate pipelined stages.
+	 */
+	private boolean pipelined;
+	/**
+	 * Backend used to read source files.
+	 */
+	private InputBackend input;
+	/**
+	 * Size in bytes of the buffer of each output, target or segment.
+	 */
+	private int outputBufferSize;
+	/**
+	 * Number of threads compressing the target when it is gzip-compressed.
+	 */
+	private int compressionThreads;
+	/**
+	 * Minimum number of source bytes between two checkpoints, or {@link #NO_CHECKPOINTS}.
+	 */
+	private long checkpointInterval;
+	/**
+	 * Whether the run resumes from the last checkpoint of a previous run.
+	 */
+	private boolean resume;
+	/**
+	 * Directory of the fragment cache, null to disable the cache.
+	 */
+	private File cacheDirectory;
+	/**
+	 * Maximum size in bytes of the fragment cache.
+	 */
+	private long cacheSize;
+
+	/**
+	 * Constructs a new set of options with default values.
+	 */
+	public ReorganiserOptions() {
+		this.threads = DEFAULT_THREADS;
+		this.chunkSize = NO_CHUNKS;
+		this.ordered = true;
+		this.input = DEFAULT_INPUT;
+		this.outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+		this.compressionThreads = DEFAULT_COMPRESSION_THREADS;
+		this.checkpointInterval = NO_CHECKPOINTS;
+		this.cacheSize = DEFAULT_CACHE_SIZE;
+	}
+
+	/**
+	 * Checks if the reorganisation should use more than one worker thread.
+	 *
+	 * @return true if more than one thread is configured, false otherwise
+	 */
+	public boolean isParallel() {
+		return threads > 1;
+	}
+
+	/**
+	 * @return the number of worker threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @param threads the number of worker threads to set, at least 1
+	 * @throws IllegalArgumentException if the number of threads is lower than 1
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Number of threads must be at least 1 (was " + threads + ")");
+		this.threads = threads;
+	}
+
+	/**
+	 * Checks if source files should be split into chunks processed separately.
+	 *
+	 * @return true if a chunk size is set, false otherwise
+	 */
+	public boolean isChunked() {
+		return chunkSize != NO_CHUNKS;
+	}
+
+	/**
+	 * @return the chunk size in bytes
+	 */
+	public long getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize the minimum chunk size in bytes, or {@link #NO_CHUNKS} to disable chunks
+	 * @throws IllegalArgumentException if the chunk size is negative
+	 */
+	public void setChunkSize(long chunkSize) {
+		if (chunkSize < 0)
+			throw new IllegalArgumentException("Chunk size cannot be negative (was " + chunkSize + ")");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @return true if the order of the source records is preserved, false otherwise
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/**
+	 * @param ordered true to preserve the order of the source records, false to allow records to be
+	 *                written in any order when it improves throughput
+	 */
+	public void setOrdered(boolean ordered) {
+		this.ordered = ordered;
+	}
+
+	/**
+	 * @return true if records are processed through a pipeline, false otherwise
+	 */
+	public boolean isPipelined() {
+		return pipelined;
+	}
+
+	/**
+	 * @param pipelined true to parse, transform and write records on separate threads, the number of
+	 *                  transforming threads being {@link #getThreads()}
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	/**
+	 * @return the backend used to read source files
+	 */
+	public InputBackend getInput() {
+		return input;
+	}
+
+	/**
+	 * @param input the backend used to read source files, null for {@link #DEFAULT_INPUT}
+	 */
+	public void setInput(InputBackend input) {
+		this.input = input == null ? DEFAULT_INPUT : input;
+	}
+
+	/**
+	 * @return the size of the output buffers in bytes
+	 */
+	public int getOutputBufferSize() {
+		return outputBufferSize;
+	}
+
+	/**
+	 * @param outputBufferSize the size of the output buffers in bytes, at least
+	 *                         {@link CSVOutputSink#MIN_BUFFER_SIZE}
+	 * @throws IllegalArgumentException if the size is too small
+	 */
+	public void setOutputBufferSize(int outputBufferSize) {
+		if (outputBufferSize < CSVOutputSink.MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException("Output buffer size must be at least " + CSVOutputSink.MIN_BUFFER_SIZE
+			        + " bytes (was " + outputBufferSize + ")");
+		this.outputBufferSize = outputBufferSize;
+	}
+
+	/**
+	 * @return the number of threads compressing gzip targets
+	 */
+	public int getCompressionThreads() {
+		return compressionThreads;
+	}
+
+	/**
+	 * @param compressionThreads the number of threads compressing gzip targets, at least 1
+	 * @throws IllegalArgumentException if the number of threads is lower than 1
+	 */
+	public void setCompressionThreads(int compressionThreads) {
+		if (compressionThreads < 1)
+			throw new IllegalArgumentException(
+			        "Number of compression threads must be at least 1 (was " + compressionThreads + ")");
+		this.compressionThreads = compressionThreads;
+	}
+
+	/**
+	 * Checks if checkpoints should be saved during the run, either because an interval is set or
+	 * because the run resumes a previous one.
+	 *
+	 * @return true if checkpoints are saved, false otherwise
+	 */
+	public boolean isCheckpointed() {
+		return checkpointInterval != NO_CHECKPOINTS || resume;
+	}
+
+	/**
+	 * @return the minimum number of source bytes between two checkpoints, or {@link #NO_CHECKPOINTS}
+	 */
+	public long getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	/**
+	 * @param checkpointInterval the minimum number of source bytes between two checkpoints, or
+	 *                           {@link #NO_CHECKPOINTS} to disable checkpoints
+	 * @throws IllegalArgumentException if the interval is negative
+	 */
+	public void setCheckpointInterval(long checkpointInterval) {
+		if (checkpointInterval < 0)
+			throw new IllegalArgumentException("Checkpoint interval cannot be negative (was " + checkpointInterval + ")");
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * @return true if the run resumes from the last checkpoint of a previous run, false otherwise
+	 */
+	public boolean isResume() {
+		return resume;
+	}
+
+	/**
+	 * @param resume true to resume from the last checkpoint of a previous run, if any
+	 */
+	public void setResume(boolean resume) {
+		this.resume = resume;
+	}
+
+	/**
+	 * @return the directory of the fragment cache, null if the cache is disabled
+	 */
+	public File getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * @param cacheDirectory the directory of the fragment cache, null to disable the cache
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * @return the maximum size of the fragment cache in bytes
+	 */
+	public long getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * @param cacheSize the maximum size of the fragment cache in bytes, at least 1
+	 * @throws IllegalArgumentException if the size is lower than 1
+	 */
+	public void setCacheSize(long cacheSize) {
+		if (cacheSize < 1)
+			throw new IllegalArgumentException("Cache size must be at least 1 byte (was " + cacheSize + ")");
+		this.cacheSize = cacheSize;
+	}
+
+}
@@ -1,10 +1,7 @@
 package com.github.sylordis.csvreorganiser.model;
 
-import java.lang.reflect.Field;
-
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
-import com.github.sylordis.csvreorganiser.utils.TypeConverter;
 
 /**
  * Classes implementing this interface will contain a method allowing for self filling of data from
@@ -28,35 +25,16 @@ public interface SelfFiller<V> {
 	void fill(V data) throws SelfFillingException;
 
 	/**
-	 * Sets a field of this class to the given value via reflection. If the field cannot be accessed, it
-	 * will become accessible during this operation and then made inaccessible again.
+	 * Sets a field of this class to the given value, converted to the type of the field, through the
+	 * {@link PropertyBindings} of the class.
 	 * 
 	 * @param name  Name of the field
 	 * @param value Value to set it to
-	 * @throws SelfFillingException if something goes wrong.
+	 * @throws SelfFillingException              if the value cannot be converted to the type of the
+	 *                                           field
+	 * @throws SelfFillingConfigurationException if the field does not exist or cannot be set
 	 */
 	default void setField(String name, Object value) throws SelfFillingException {
-		boolean madeAccessible = false;
-		Field field = null;
-		try {
-			field = this.getClass().getDeclaredField(name);
-			// Accessibility check
-			if (!field.canAccess(this)) {
-				madeAccessible = true;
-				field.setAccessible(true);
-			}
-			// Field type check
-			field.set(this, TypeConverter.to(value, field.getType()));
-		} catch (IllegalArgumentException e) {
-			// Error in provided data
-			throw new SelfFillingException(e);
-		} catch (IllegalAccessException | NoSuchFieldException | SecurityException e) {
-			// If this is thrown, then the Operation configuration has not been done properly by the developer
-			throw new SelfFillingConfigurationException(e);
-		} finally {
-			// If was made accessible, return it to non accessible
-			if (field != null && madeAccessible)
-				field.setAccessible(false);
-		}
+		PropertyBindings.of(getClass()).set(this, name, value);
 	}
 }
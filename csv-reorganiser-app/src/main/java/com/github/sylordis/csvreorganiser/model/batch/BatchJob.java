@@ -0,0 +1,123 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.utils.yaml.YAMLUtils;
+
+/**
+ * Reorganisation listed in a batch manifest.<br/>
+ * <br/>
+ * Manifests are YAML files listing the jobs under a <code>jobs</code> tag, relative paths being
+ * resolved against the directory of the manifest:
+ *
+ * <pre>
+ * jobs:
+ *   - config: people.yaml
+ *     sources: [people-1.csv, people-2.csv]
+ *     target: people-out.csv
+ *   - config: orders.yaml
+ *     source: orders.csv
+ *     target: orders-out.csv
+ * </pre>
+ *
+ * @param index   position of the job in the manifest, starting at 1
+ * @param config  configuration file
+ * @param sources source files
+ * @param target  target file
+ *
+ * @author sylordis
+ *
+ */
+public record BatchJob(int index, File config, List<File> sources, File target) {
+
+	/**
+	 * Root tag of manifests.
+	 */
+	public static final String MANIFEST_ROOT_KEY = "jobs";
+
+	/**
+	 * Checks if this job has to wait for another one, because it reads or overwrites its target, or
+	 * overwrites one of its sources. Files are compared by their normalised absolute paths.
+	 *
+	 * @param other job listed before this one
+	 * @return true if this job depends on the other one
+	 */
+	public boolean dependsOn(BatchJob other) {
+		final Path otherTarget = normalise(other.target);
+		final Path ownTarget = normalise(target);
+		return otherTarget.equals(ownTarget) || sources.stream().map(BatchJob::normalise).anyMatch(otherTarget::equals)
+		        || other.sources.stream().map(BatchJob::normalise).anyMatch(ownTarget::equals);
+	}
+
+	/**
+	 * Normalises the path of a file to compare it with others.
+	 *
+	 * @param file file
+	 * @return the absolute path of the file, without redundant elements
+	 */
+	private static Path normalise(File file) {
+		return file.toPath().toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Loads the jobs of a manifest.
+	 *
+	 * @param manifest manifest file
+	 * @return the jobs, in the order of the manifest
+	 * @throws IOException                  if the manifest cannot be read
+	 * @throws ConfigurationImportException if the manifest is not valid
+	 */
+	public static List<BatchJob> load(File manifest) throws IOException {
+		final File directory = manifest.getAbsoluteFile().getParentFile();
+		List<BatchJob> jobs = new ArrayList<>();
+		try (InputStream input = new FileInputStream(manifest)) {
+			Map<String, Object> root = YAMLUtils.toNode(new Yaml().load(input));
+			if (root == null || !root.containsKey(MANIFEST_ROOT_KEY))
+				throw new ConfigurationImportException(
+				        "Error in manifest: no '" + MANIFEST_ROOT_KEY + "' tag was found as root.");
+			for (Object entry : YAMLUtils.list(MANIFEST_ROOT_KEY, root)) {
+				final int index = jobs.size() + 1;
+				Map<String, Object> job = YAMLUtils.toNode(entry);
+				List<File> sources = new ArrayList<>();
+				if (job.containsKey("source"))
+					sources.add(resolve(directory, job.get("source")));
+				if (job.containsKey("sources")) {
+					for (Object source : YAMLUtils.list("sources", job))
+						sources.add(resolve(directory, source));
+				}
+				if (!job.containsKey("config") || !job.containsKey("target") || sources.isEmpty())
+					throw new ConfigurationImportException(
+					        "Error in manifest: job " + index + " requires 'config', 'source(s)' and 'target'.");
+				jobs.add(new BatchJob(index, resolve(directory, job.get("config")), sources,
+				        resolve(directory, job.get("target"))));
+			}
+		} catch (ClassCastException | YAMLException e) {
+			throw new ConfigurationImportException("Provided manifest is not valid", e);
+		}
+		return jobs;
+	}
+
+	/**
+	 * Resolves a path of the manifest.
+	 *
+	 * @param directory directory of the manifest
+	 * @param path      path, absolute or relative to the directory
+	 * @return the absolute file
+	 */
+	private static File resolve(File directory, Object path) {
+		File file = new File(String.valueOf(path));
+		return file.isAbsolute() ? file : new File(directory, file.getPath()).getAbsoluteFile();
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Summary of a batch, with the outcome of each job.
+ *
+ * @author sylordis
+ *
+ */
+public class BatchReport {
+
+	/**
+	 * Outcomes of a job.
+	 */
+	public enum Status {
+		/**
+		 * Job finished successfully.
+		 */
+		DONE,
+		/**
+		 * Job failed.
+		 */
+		FAILED,
+		/**
+		 * Job not run because a job it depends on did not succeed.
+		 */
+		SKIPPED
+	}
+
+	/**
+	 * Outcome of a job.
+	 *
+	 * @param job    job
+	 * @param status outcome
+	 * @param millis time the job ran, in milliseconds
+	 * @param error  message of the error, null if the job did not fail
+	 */
+	public record Result(BatchJob job, Status status, long millis, String error) {
+	}
+
+	/**
+	 * Outcomes of the jobs.
+	 */
+	private final List<Result> results;
+	/**
+	 * Time the whole batch ran, in milliseconds.
+	 */
+	private final long millis;
+
+	/**
+	 * Constructs a new report.
+	 *
+	 * @param results outcomes of the jobs, in any order
+	 * @param millis  time the whole batch ran, in milliseconds
+	 */
+	public BatchReport(List<Result> results, long millis) {
+		List<Result> sorted = new ArrayList<>(results);
+		sorted.sort(Comparator.comparingInt(r -> r.job().index()));
+		this.results = Collections.unmodifiableList(sorted);
+		this.millis = millis;
+	}
+
+	/**
+	 * Counts the jobs with an outcome.
+	 *
+	 * @param status outcome
+	 * @return the number of jobs with this outcome
+	 */
+	public long count(Status status) {
+		return results.stream().filter(r -> r.status() == status).count();
+	}
+
+	/**
+	 * @return true if all jobs finished successfully
+	 */
+	public boolean isSuccessful() {
+		return count(Status.DONE) == results.size();
+	}
+
+	/**
+	 * Formats the report, one line per job followed by the totals.
+	 *
+	 * @return the formatted report
+	 */
+	public String format() {
+		StringBuilder report = new StringBuilder();
+		for (Result result : results) {
+			report.append(String.format("%4d  %-7s %8d ms  %s", result.job().index(), result.status(), result.millis(),
+			        result.job().target().getPath()));
+			if (result.error() != null)
+				report.append("  (").append(result.error().replace('\n', ' ')).append(')');
+			report.append('\n');
+		}
+		report.append(String.format("%d job(s): %d done, %d failed, %d skipped in %d ms%n", results.size(),
+		        count(Status.DONE), count(Status.FAILED), count(Status.SKIPPED), millis));
+		return report.toString();
+	}
+
+	/**
+	 * @return the outcomes of the jobs, in the order of the manifest
+	 */
+	public List<Result> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return the time the whole batch ran, in milliseconds
+	 */
+	public long getMillis() {
+		return millis;
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.Reorganiser;
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport.Result;
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport.Status;
+import com.github.sylordis.csvreorganiser.model.server.ConfigurationCache;
+
+/**
+ * Runs the jobs of a batch in a single process, sharing engines and configurations between them
+ * through a {@link ConfigurationCache}.<br/>
+ * <br/>
+ * Independent jobs run concurrently within a budget of cores, each job using as many cores as the
+ * worker threads of the options. A job reading or overwriting the target of a job listed before it
+ * waits for that job, and is skipped if it did not succeed. Jobs are only handed to a worker once
+ * their dependencies are finished, so that workers never wait for each other.
+ *
+ * @author sylordis
+ *
+ */
+public class BatchRunner {
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Number of cores the jobs can use at the same time.
+	 */
+	private final int cores;
+	/**
+	 * Options of all reorganisations.
+	 */
+	private final ReorganiserOptions options;
+	/**
+	 * Cache of the configurations.
+	 */
+	private final ConfigurationCache configurations;
+
+	/**
+	 * Constructs a new runner.
+	 *
+	 * @param cores   number of cores the jobs can use at the same time
+	 * @param options options of all reorganisations
+	 * @throws IllegalArgumentException if the number of cores is lower than 1
+	 */
+	public BatchRunner(int cores, ReorganiserOptions options) {
+		if (cores < 1)
+			throw new IllegalArgumentException("Number of cores must be at least 1 (was " + cores + ")");
+		this.cores = cores;
+		this.options = options;
+		this.configurations = new ConfigurationCache();
+	}
+
+	/**
+	 * Runs all jobs and waits for them to finish.
+	 *
+	 * @param jobs jobs to run, in the order of the manifest
+	 * @return the report of the batch
+	 */
+	public BatchReport run(List<BatchJob> jobs) {
+		final long start = System.nanoTime();
+		// Each job uses as many cores as the worker threads of a reorganisation, within the budget
+		final int coresPerJob = Math.min(options.getThreads(), cores);
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, cores / coresPerJob));
+		logger.info("Running {} job(s) on {} core(s), {} per job", jobs.size(), cores, coresPerJob);
+		try {
+			List<CompletableFuture<Result>> results = new ArrayList<>();
+			for (BatchJob job : jobs) {
+				List<CompletableFuture<Result>> dependencies = new ArrayList<>();
+				for (int i = 0; i < results.size(); i++) {
+					if (job.dependsOn(jobs.get(i)))
+						dependencies.add(results.get(i));
+				}
+				results.add(CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new))
+				        .thenApplyAsync(v -> {
+					        for (CompletableFuture<Result> dependency : dependencies) {
+						        if (dependency.join().status() != Status.DONE)
+							        return new Result(job, Status.SKIPPED, 0,
+							                "Job " + dependency.join().job().index() + " did not succeed");
+					        }
+					        return runJob(job);
+				        }, executor));
+			}
+			return new BatchReport(results.stream().map(CompletableFuture::join).toList(),
+			        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Runs a job.
+	 *
+	 * @param job job to run
+	 * @return the outcome of the job
+	 */
+	private Result runJob(BatchJob job) {
+		final long start = System.nanoTime();
+		try {
+			ReorgConfiguration cfg = configurations.get(job.config());
+			Reorganiser reorganiser = new Reorganiser(cfg, job.target(), job.sources());
+			reorganiser.setOptions(options);
+			reorganiser.reorganise();
+			logger.info("Job {} done: {}", job.index(), job.target());
+			return new Result(job, Status.DONE, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+		} catch (Exception e) {
+			logger.error("Job {} failed", job.index(), e);
+			return new Result(job, Status.FAILED, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+			        e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * @return the number of cores the jobs can use at the same time
+	 */
+	public int getCores() {
+		return cores;
+	}
+
+}
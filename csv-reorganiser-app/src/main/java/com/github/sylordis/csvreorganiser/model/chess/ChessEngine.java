@@ -6,6 +6,7 @@ import static com.github.sylordis.csvreorganiser.model.constants.YAMLTags.Chess.
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -15,7 +16,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.Message;
 
+import com.github.sylordis.csvreorganiser.model.PropertyBindings;
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
+import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.chess.config.ChessConfigurationSupplier;
 import com.github.sylordis.csvreorganiser.model.chess.config.ChessDefaultConfigurationSupplier;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
@@ -24,6 +27,9 @@ import com.github.sylordis.csvreorganiser.model.chess.operations.ChessOperationI
 import com.github.sylordis.csvreorganiser.model.constants.ConfigConstants.Chess;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.engines.SharedOperation;
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.utils.yaml.YAMLType;
@@ -131,6 +137,90 @@ public class ChessEngine implements ReorganiserEngine {
 		return list;
 	}
 
+	/**
+	 * Shares the {@link ChessAbstractReorgOperation#isShareable() shareable} operations of the same
+	 * type and with the same properties, whatever their column name, by replacing them with
+	 * {@link SharedOperation}s.
+	 */
+	@Override
+	public List<SharedSubexpression> shareSubexpressions(List<ReorganiserOperation> operations) {
+		// Positions of the operations, by type and property values
+		Map<List<Object>, List<Integer>> uses = new LinkedHashMap<>();
+		for (int i = 0; i < operations.size(); i++) {
+			if (operations.get(i) instanceof ChessAbstractReorgOperation op && op.isShareable())
+				uses.computeIfAbsent(key(op), k -> new ArrayList<>()).add(i);
+		}
+		List<SharedSubexpression> shared = new ArrayList<>();
+		for (List<Integer> positions : uses.values()) {
+			if (positions.size() < 2)
+				continue;
+			final int producer = positions.get(0);
+			SharedSubexpression expression = new SharedSubexpression(describe(operations.get(producer)),
+			        positions.stream().map(i -> operations.get(i).getName()).toList());
+			for (int i : positions)
+				operations.set(i, new SharedOperation(operations.get(i), expression, i == producer));
+			logger.debug("Sharing {}", expression);
+			shared.add(expression);
+		}
+		return shared;
+	}
+
+	/**
+	 * Memoises the {@link ChessAbstractReorgOperation#isMemoisable() memoisable} operations, shared
+	 * operations being memoised only for the column computing their value.
+	 */
+	@Override
+	public List<ResultMemo> memoise(List<ReorganiserOperation> operations) {
+		List<ResultMemo> memos = new ArrayList<>();
+		for (ReorganiserOperation operation : operations) {
+			ReorganiserOperation memoised = operation;
+			if (operation instanceof SharedOperation shared)
+				memoised = shared.isProducer() ? shared.getOperation() : null;
+			if (memoised instanceof ChessAbstractReorgOperation op && op.isMemoisable()) {
+				ResultMemo memo = new ResultMemo(op.getName(), describe(op));
+				op.setMemo(memo);
+				logger.debug("Memoising {}", memo);
+				memos.add(memo);
+			}
+		}
+		return memos;
+	}
+
+	/**
+	 * Computes the key identifying operations computing the same values.
+	 *
+	 * @param op operation
+	 * @return the type of the operation followed by the values of its properties
+	 */
+	private List<Object> key(ChessAbstractReorgOperation op) {
+		List<Object> key = new ArrayList<>();
+		key.add(op.getClass());
+		PropertyBindings bindings = PropertyBindings.of(op.getClass());
+		for (OperationProperty property : bindings.getProperties())
+			key.add(bindings.get(op, property.field()));
+		return key;
+	}
+
+	/**
+	 * Describes an operation by its name in the dictionary and its properties.
+	 *
+	 * @param op operation
+	 * @return a description such as <code>regreplace(source=a, pattern=b, replace=c)</code>
+	 */
+	private String describe(ReorganiserOperation op) {
+		Operation annotation = op.getClass().getAnnotation(Operation.class);
+		StringBuilder description = new StringBuilder(
+		        annotation == null ? op.getClass().getSimpleName() : annotation.name()).append('(');
+		PropertyBindings bindings = PropertyBindings.of(op.getClass());
+		String separator = "";
+		for (OperationProperty property : bindings.getProperties()) {
+			description.append(separator).append(property.name()).append('=')
+			        .append(bindings.get(op, property.field()));
+			separator = ", ";
+		}
+		return description.append(')').toString();
+	}
+
 	/**
 	 * Finds a shortcut in a set of entries.
 	 *
@@ -1,20 +1,22 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.csv.CSVRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.github.sylordis.csvreorganiser.model.PropertyBindings;
 import com.github.sylordis.csvreorganiser.model.SelfFiller;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Abstract class for all operations. Each operation represents the data which will be processed to
@@ -49,6 +51,10 @@ public abstract class ChessAbstractReorgOperation implements ReorganiserOperatio
 	 * Class logger.
 	 */
 	private final Logger logger;
+	/**
+	 * Memo of the values computed by this operation once bound, null if not memoised.
+	 */
+	private ResultMemo memo;
 
 	/**
 	 * Constructs a new operation.
@@ -73,8 +79,8 @@ public abstract class ChessAbstractReorgOperation implements ReorganiserOperatio
 	 */
 	protected void setup() {
 		logger.debug("Setting up");
-		OperationProperty[] properties = this.getClass().getAnnotationsByType(OperationProperty.class);
-		logger.debug("class={} annotations={}", this.getClass(), Arrays.toString(properties));
+		List<OperationProperty> properties = PropertyBindings.of(getClass()).getProperties();
+		logger.debug("class={} annotations={}", this.getClass(), properties);
 		for (OperationProperty prop : properties) {
 			logger.debug("Setting property {} linking to field {}", prop.name(), prop.field());
 			addProperty(prop.name(), prop.field());
@@ -128,7 +134,7 @@ public abstract class ChessAbstractReorgOperation implements ReorganiserOperatio
 
 	/**
 	 * Creates a new harmonised exception if a property has not been filled. To be used in
-	 * {@link #apply(CSVRecord)}.
+	 * {@link #bind(SourceHeader)} or {@link #applyTo(SourceRecord)}.
 	 *
 	 * @param property Name of the unfilled property
 	 * @return an {@link IllegalArgumentException}
@@ -137,16 +143,86 @@ public abstract class ChessAbstractReorgOperation implements ReorganiserOperatio
 		return new IllegalArgumentException("'" + property + "' property not provided for column '" + getName() + "'");
 	}
 
+	/**
+	 * Creates a new harmonised exception if a column used by this operation is not in the header of
+	 * the source. To be used in {@link #bind(SourceHeader)}.
+	 *
+	 * @param column Name of the missing column
+	 * @return an {@link IllegalArgumentException}
+	 */
+	public final IllegalArgumentException createMissingColumnException(String column) {
+		return new IllegalArgumentException(
+		        "Source column '" + column + "' used for column '" + getName() + "' does not exist in the header");
+	}
+
+	/**
+	 * Resolves the index of a source column set as a property of this operation.
+	 *
+	 * @param header   header of the source
+	 * @param column   name of the source column, null if the property was not filled
+	 * @param property name of the property holding the column
+	 * @return the index of the column in the header
+	 * @throws IllegalArgumentException if the property was not filled or the column does not exist
+	 */
+	protected final int resolveColumn(SourceHeader header, String column, String property) {
+		if (column == null)
+			throw createMissingPropertyException(property);
+		final int index = header.indexOf(column);
+		if (index == SourceHeader.NOT_MAPPED)
+			throw createMissingColumnException(column);
+		return index;
+	}
+
 	/**
 	 * Applies the operation to the record to return the desired value.
 	 *
-	 * @param record CSVRecord to get the value from
+	 * @param record record to get the value from
 	 * @return the desired value
 	 * @throws IllegalArgumentException if the requested record column does not exist
 	 * @see #createMissingPropertyException(String)
 	 */
 	@Override
-	public abstract String apply(CSVRecord record);
+	public abstract String applyTo(SourceRecord record);
+
+	/**
+	 * Checks if the value of this operation is worth computing only once per record when several
+	 * columns use the same operation with the same properties, see
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression}. Only operations
+	 * whose value is costly to compute and depends on nothing but the record should return true. The
+	 * default implementation returns false.
+	 *
+	 * @return true if the operation can be shared between columns
+	 */
+	public boolean isShareable() {
+		return false;
+	}
+
+	/**
+	 * Checks if the values of this operation are worth caching by the value of the field it reads, see
+	 * {@link ResultMemo}. Only operations computing their value from a single source column with a
+	 * costly function should return true, and use the {@link #getMemo() memo} when bound. The default
+	 * implementation returns false.
+	 *
+	 * @return true if the operation can be memoised
+	 */
+	public boolean isMemoisable() {
+		return false;
+	}
+
+	/**
+	 * @return the memo of the values computed by this operation once bound, null if not memoised
+	 */
+	public ResultMemo getMemo() {
+		return memo;
+	}
+
+	/**
+	 * @param memo the memo of the values computed by this operation once bound, null to compute every
+	 *             value
+	 */
+	public void setMemo(ResultMemo memo) {
+		this.memo = memo;
+	}
 
 	@Override
 	public boolean equals(Object obj) {
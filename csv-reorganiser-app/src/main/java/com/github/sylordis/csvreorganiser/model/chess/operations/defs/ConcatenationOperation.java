@@ -1,14 +1,18 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationShortcut;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * <em>Concat</em> takes sources in multiple columns and constants to concatenate them together.
@@ -61,7 +65,7 @@ public class ConcatenationOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		if (values == null)
 			throw createMissingPropertyException(OPDATA_FIELD_VALUES);
 		StringBuilder rame = new StringBuilder();
@@ -69,11 +73,55 @@ public class ConcatenationOperation extends ChessAbstractReorgOperation {
 			if (!record.isMapped(v))
 				rame.append(v);
 			else
-				rame.append(record.get(v));
+				rame.append(record.getView(v));
 		}
 		return rame.toString();
 	}
 
+	/**
+	 * Values which are columns of the header are resolved to their index, the other ones being kept as
+	 * constants.
+	 */
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		if (values == null)
+			throw createMissingPropertyException(OPDATA_FIELD_VALUES);
+		final int[] indexes = new int[values.size()];
+		final String[] constants = new String[values.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = header.indexOf(values.get(i));
+			if (indexes[i] == SourceHeader.NOT_MAPPED)
+				constants[i] = values.get(i);
+		}
+		return new BoundOperation(this, record -> {
+			StringBuilder rame = new StringBuilder();
+			for (int i = 0; i < indexes.length; i++) {
+				if (indexes[i] == SourceHeader.NOT_MAPPED)
+					rame.append(constants[i]);
+				else
+					rame.append(record.getView(indexes[i]));
+			}
+			return rame.toString();
+		}, (record, out) -> {
+			for (int i = 0; i < indexes.length; i++) {
+				if (indexes[i] == SourceHeader.NOT_MAPPED)
+					out.append(constants[i]);
+				else
+					out.append(record.getView(indexes[i]));
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * All values are returned, since columns cannot be told apart from constants before reading the
+	 * header.
+	 */
+	@Override
+	public Set<String> getSourceColumns() {
+		return values == null ? Set.of() : new HashSet<>(values);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%s [%s, values=%s]", this.getClass().getSimpleName(), getName(), values);
@@ -1,11 +1,15 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationShortcut;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * <em>Get</em> operation simply takes the full content of a column. If the source column does not exist, an error will be raised.
@@ -50,13 +54,30 @@ public class GetOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		// Check configuration
 		if (srcColumn == null)
 			throw createMissingPropertyException(SHORTCUT_KEY);
 		return record.get(srcColumn);
 	}
 
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		final int index = resolveColumn(header, srcColumn, SHORTCUT_KEY);
+		return new BoundOperation(this, record -> record.get(index), (record, out) -> {
+			final CharSequence value = record.getView(index);
+			if (value == null)
+				return false;
+			out.append(value);
+			return true;
+		});
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return srcColumn == null ? Set.of() : Set.of(srcColumn);
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + "[" + getName() + ", source=" + srcColumn + "]";
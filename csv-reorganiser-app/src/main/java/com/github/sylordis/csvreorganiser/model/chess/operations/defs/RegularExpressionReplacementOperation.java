@@ -1,10 +1,17 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+import com.github.sylordis.csvreorganiser.utils.RegexReplacer;
 
 /**
  * <em>Regular expression Replacement</em> operation takes the content of a column from the source
@@ -54,6 +61,10 @@ public class RegularExpressionReplacementOperation extends ChessAbstractReorgOpe
 	 * Column of the source file to take the content from.
 	 */
 	private String srcColumn;
+	/**
+	 * Replacer compiled from the pattern and the replacement, compiled again if either changes.
+	 */
+	private RegexReplacer replacer;
 
 	/**
 	 * Constructs a fully configured new Regular Expression Replacement operation.
@@ -77,7 +88,7 @@ public class RegularExpressionReplacementOperation extends ChessAbstractReorgOpe
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		// Check configuration
 		if (this.pattern == null)
 			throw createMissingPropertyException(OPDATA_ID_PATTERN);
@@ -85,10 +96,67 @@ public class RegularExpressionReplacementOperation extends ChessAbstractReorgOpe
 			throw createMissingPropertyException(OPDATA_ID_PATTERN);
 		if (this.replacement == null)
 			throw createMissingPropertyException(OPDATA_ID_REPLACEMENT);
-		String result = record.get(this.srcColumn).replaceAll(pattern, replacement);
+		String result = getReplacer().replaceAll(record.get(this.srcColumn));
 		return result;
 	}
 
+	/**
+	 * The pattern is compiled here, an invalid pattern being reported before processing any record.
+	 *
+	 * @throws IllegalArgumentException if a property is missing, the source column does not exist or
+	 *                                  the pattern is not a valid regular expression
+	 */
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		if (this.pattern == null)
+			throw createMissingPropertyException(OPDATA_ID_PATTERN);
+		if (this.replacement == null)
+			throw createMissingPropertyException(OPDATA_ID_REPLACEMENT);
+		final int index = resolveColumn(header, srcColumn, OPDATA_ID_SOURCE);
+		final RegexReplacer compiled = getReplacer();
+		final ResultMemo memo = getMemo();
+		if (memo == null)
+			return new BoundOperation(this, record -> compiled.replaceAll(record.get(index)));
+		final UnaryOperator<String> replace = compiled::replaceAll;
+		return new BoundOperation(this, record -> memo.apply(record.get(index), replace));
+	}
+
+	/**
+	 * Gets the replacer of the current pattern and replacement, compiling it if needed.
+	 *
+	 * @return the replacer
+	 * @throws java.util.regex.PatternSyntaxException if the pattern is not a valid regular expression
+	 */
+	private RegexReplacer getReplacer() {
+		RegexReplacer current = replacer;
+		if (current == null || !current.isFor(pattern, replacement)) {
+			current = RegexReplacer.compile(pattern, replacement);
+			replacer = current;
+		}
+		return current;
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return srcColumn == null ? Set.of() : Set.of(srcColumn);
+	}
+
+	/**
+	 * Replacements are shared between the columns replacing the same pattern in the same column.
+	 */
+	@Override
+	public boolean isShareable() {
+		return true;
+	}
+
+	/**
+	 * Replacements are cached by the value of the source column.
+	 */
+	@Override
+	public boolean isMemoisable() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + "[" + getName() + ", " + srcColumn + ": " + pattern + " => "
@@ -1,11 +1,15 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * <em>Substring</em> operation does a literal substring on a value. If the end index is too long compared to
@@ -92,16 +96,36 @@ public class SubstringOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
-		String result = record.get(this.srcColumn);
-		int start = Math.min(indexStart, result.length());
-		if (indexEnd == NO_END_INDEX) {
-			result = result.substring(start);
-		} else {
-			int end = Math.min(indexEnd, result.length());
-			result = result.substring(start, end);
-		}
-		return result;
+	public String applyTo(SourceRecord record) {
+		// Only the requested part of the value is turned into a string
+		CharSequence value = record.getView(this.srcColumn);
+		int start = Math.min(indexStart, value.length());
+		int end = indexEnd == NO_END_INDEX ? value.length() : Math.min(indexEnd, value.length());
+		return value.subSequence(start, end).toString();
+	}
+
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		final int index = resolveColumn(header, srcColumn, OPDATA_FIELD_SOURCE);
+		final int from = indexStart;
+		final int to = indexEnd;
+		return new BoundOperation(this, record -> {
+			CharSequence value = record.getView(index);
+			int start = Math.min(from, value.length());
+			int end = to == NO_END_INDEX ? value.length() : Math.min(to, value.length());
+			return value.subSequence(start, end).toString();
+		}, (record, out) -> {
+			CharSequence value = record.getView(index);
+			int start = Math.min(from, value.length());
+			int end = to == NO_END_INDEX ? value.length() : Math.min(to, value.length());
+			out.append(value, start, end);
+			return true;
+		});
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return srcColumn == null ? Set.of() : Set.of(srcColumn);
 	}
 
 	@Override
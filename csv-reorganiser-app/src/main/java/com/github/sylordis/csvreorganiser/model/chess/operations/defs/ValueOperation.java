@@ -1,11 +1,15 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationShortcut;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * <em>Value</em> operation outputs a static value. This operation does not need any content from
@@ -56,12 +60,28 @@ public class ValueOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		if (value == null)
 			throw createMissingPropertyException(SHORTCUT_KEY);
 		return value;
 	}
 
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		if (value == null)
+			throw createMissingPropertyException(SHORTCUT_KEY);
+		final String constant = value;
+		return new BoundOperation(this, record -> constant, (record, out) -> {
+			out.append(constant);
+			return true;
+		});
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return Set.of();
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + "[" + getName() + ", value=" + value + "]";
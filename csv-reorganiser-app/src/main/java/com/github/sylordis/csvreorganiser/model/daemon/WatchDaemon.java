@@ -0,0 +1,338 @@
+package com.github.sylordis.csvreorganiser.model.daemon;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.Reorganiser;
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
+
+/**
+ * Long-running process watching input directories and reorganising each file as soon as it lands,
+ * so that the cost of starting the JVM and loading configurations is paid only once. Configurations
+ * are kept in memory and reloaded when their file changes.<br/>
+ * <br/>
+ * A file is processed once no change has been reported on it for the quiet period, the target being
+ * written under the same name in the output directory through a hidden temporary file moved into
+ * place once complete. The source file is then moved to the {@value WatchedFolder#PROCESSED_DIRECTORY}
+ * sub-directory of its input directory, or to {@value WatchedFolder#FAILED_DIRECTORY} if it could not
+ * be processed. Files already present when the daemon starts are processed as well. Producers should
+ * write files elsewhere and move them into the input directory, hidden files and files ending with
+ * {@value #PARTIAL_SUFFIX} being ignored.<br/>
+ * <br/>
+ * Files are processed one at a time, the options controlling how each file is processed.
+ *
+ * @author sylordis
+ *
+ */
+public class WatchDaemon implements Closeable {
+
+	/**
+	 * Default time without changes after which a file is processed, in milliseconds.
+	 */
+	public static final long DEFAULT_QUIET_PERIOD = 50;
+	/**
+	 * Suffix of files being written, ignored in input directories.
+	 */
+	public static final String PARTIAL_SUFFIX = ".part";
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Watched folders.
+	 */
+	private final List<WatchedFolder> folders;
+	/**
+	 * Options of the reorganisation of each file.
+	 */
+	private final ReorganiserOptions options;
+	/**
+	 * Service watching the input directories and the directories of the configuration files.
+	 */
+	private final WatchService watcher;
+	/**
+	 * Watched folders by input directory.
+	 */
+	private final Map<Path, WatchedFolder> inputs;
+	/**
+	 * Watched folders by configuration file.
+	 */
+	private final Map<Path, List<WatchedFolder>> configs;
+	/**
+	 * Files and configurations which changed, with the time at which they can be handled, in order of
+	 * their first change.
+	 */
+	private final Map<Path, Long> pending;
+	/**
+	 * Time without changes after which a file is processed, in milliseconds.
+	 */
+	private long quietPeriod;
+	/**
+	 * Number of files processed, successfully or not.
+	 */
+	private volatile long processed;
+	/**
+	 * Whether the daemon was closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a new daemon.
+	 *
+	 * @param folders folders to watch
+	 * @param options options of the reorganisation of each file
+	 * @throws IOException              if the watch service cannot be created
+	 * @throws IllegalArgumentException if no folder is provided or two folders share the same input
+	 *                                  directory
+	 */
+	public WatchDaemon(List<WatchedFolder> folders, ReorganiserOptions options) throws IOException {
+		if (folders.isEmpty())
+			throw new IllegalArgumentException("At least one folder must be watched");
+		this.folders = new ArrayList<>(folders);
+		this.options = options;
+		this.inputs = new HashMap<>();
+		this.configs = new HashMap<>();
+		for (WatchedFolder folder : folders) {
+			if (inputs.put(folder.getInputDirectory().toPath(), folder) != null)
+				throw new IllegalArgumentException("Input directory " + folder.getInputDirectory() + " is watched twice");
+			configs.computeIfAbsent(folder.getConfigFile().toPath(), k -> new ArrayList<>()).add(folder);
+		}
+		this.pending = new LinkedHashMap<>();
+		this.quietPeriod = DEFAULT_QUIET_PERIOD;
+		this.watcher = FileSystems.getDefault().newWatchService();
+	}
+
+	/**
+	 * Loads all configurations, then watches the folders and processes files until the daemon is
+	 * closed.
+	 *
+	 * @throws IOException                  if a directory cannot be watched or created
+	 * @throws ConfigurationImportException if a configuration cannot be loaded
+	 * @throws EngineException              if the engine of a configuration cannot be used
+	 */
+	public void run() throws IOException, ConfigurationImportException, EngineException {
+		for (WatchedFolder folder : folders) {
+			folder.load();
+			Files.createDirectories(folder.getOutputDirectory().toPath());
+			Files.createDirectories(folder.getProcessedDirectory().toPath());
+			Files.createDirectories(folder.getFailedDirectory().toPath());
+		}
+		try {
+			for (Path directory : inputs.keySet())
+				directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			for (Path config : configs.keySet()) {
+				if (!inputs.containsKey(config.getParent()))
+					config.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					        StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			for (Path directory : inputs.keySet())
+				scan(directory, System.currentTimeMillis());
+			logger.info("Watching {} folder(s)", folders.size());
+			while (!closed) {
+				WatchKey key = poll();
+				if (key != null) {
+					final Path directory = (Path) key.watchable();
+					final long due = System.currentTimeMillis() + quietPeriod;
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+							scan(directory, due);
+						else
+							changed(directory.resolve((Path) event.context()), due);
+					}
+					key.reset();
+				}
+				handleDue();
+			}
+		} catch (ClosedWatchServiceException e) {
+			// Closed while waiting
+		} finally {
+			watcher.close();
+		}
+		logger.info("Stopped watching, {} file(s) processed", processed);
+	}
+
+	/**
+	 * Waits for changes until the next pending file or configuration is due.
+	 *
+	 * @return the key of the directory which changed, or null if none changed
+	 */
+	private WatchKey poll() {
+		try {
+			if (pending.isEmpty())
+				return watcher.take();
+			final long wait = pending.values().stream().mapToLong(Long::longValue).min().getAsLong()
+			        - System.currentTimeMillis();
+			return wait > 0 ? watcher.poll(wait, TimeUnit.MILLISECONDS) : watcher.poll();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			closed = true;
+			return null;
+		}
+	}
+
+	/**
+	 * Marks all files of an input directory as changed.
+	 *
+	 * @param directory directory to scan
+	 * @param due       time at which the files can be processed
+	 * @throws IOException if the directory cannot be listed
+	 */
+	private void scan(Path directory, long due) throws IOException {
+		if (!inputs.containsKey(directory))
+			return;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files)
+				changed(file, due);
+		}
+	}
+
+	/**
+	 * Records a change of a file, delaying its handling if it was already pending.
+	 *
+	 * @param file file which changed
+	 * @param due  time at which the file can be handled
+	 */
+	private void changed(Path file, long due) {
+		if (configs.containsKey(file) || (inputs.containsKey(file.getParent()) && isSource(file)))
+			pending.put(file, due);
+	}
+
+	/**
+	 * Checks if a file of an input directory should be processed.
+	 *
+	 * @param file file of an input directory
+	 * @return true if the file is a source
+	 */
+	private boolean isSource(Path file) {
+		final String name = file.getFileName().toString();
+		return !name.startsWith(".") && !name.endsWith(PARTIAL_SUFFIX) && Files.isRegularFile(file);
+	}
+
+	/**
+	 * Handles all pending files and configurations which are due, configurations first.
+	 */
+	private void handleDue() {
+		final long now = System.currentTimeMillis();
+		List<Path> due = new ArrayList<>();
+		for (Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Path, Long> entry = it.next();
+			if (entry.getValue() <= now) {
+				due.add(entry.getKey());
+				it.remove();
+			}
+		}
+		for (Path file : due) {
+			if (configs.containsKey(file))
+				configs.get(file).forEach(WatchedFolder::reload);
+		}
+		for (Path file : due) {
+			if (!closed && !configs.containsKey(file) && isSource(file))
+				process(inputs.get(file.getParent()), file);
+		}
+	}
+
+	/**
+	 * Reorganises a source file of a watched folder, then moves it out of the input directory.
+	 *
+	 * @param folder  watched folder of the file
+	 * @param srcFile source file
+	 */
+	private void process(WatchedFolder folder, Path srcFile) {
+		final String name = srcFile.getFileName().toString();
+		final File target = new File(folder.getOutputDirectory(), name);
+		// Hidden while written, keeping the name so that compressed targets are still detected
+		final File partial = new File(folder.getOutputDirectory(), "." + name);
+		final long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Reorganiser reorganiser = new Reorganiser(folder.getConfiguration(), partial, List.of(srcFile.toFile()));
+			reorganiser.setOptions(options);
+			reorganiser.reorganise();
+			Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+			        StandardCopyOption.ATOMIC_MOVE);
+			success = true;
+			logger.info("Reorganised {} into {} in {} ms", srcFile, target,
+			        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} catch (IOException | RuntimeException e) {
+			// Any failure is limited to this file, the daemon keeps watching
+			logger.error("Cannot reorganise {}", srcFile, e);
+		} finally {
+			try {
+				Files.deleteIfExists(partial.toPath());
+				final File directory = success ? folder.getProcessedDirectory() : folder.getFailedDirectory();
+				Files.move(srcFile, directory.toPath().resolve(name), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				logger.error("Cannot move {} out of the input directory", srcFile, e);
+			}
+			// Counted once moved, so that the count never runs ahead of the directories
+			processed++;
+		}
+	}
+
+	/**
+	 * Stops the daemon, the file being processed if any being completed first.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		watcher.close();
+	}
+
+	/**
+	 * @return the number of files processed so far, successfully or not
+	 */
+	public long getProcessed() {
+		return processed;
+	}
+
+	/**
+	 * @return the time without changes after which a file is processed, in milliseconds
+	 */
+	public long getQuietPeriod() {
+		return quietPeriod;
+	}
+
+	/**
+	 * Sets the time without changes after which a file is processed.
+	 *
+	 * @param quietPeriod time in milliseconds
+	 * @throws IllegalArgumentException if the time is negative
+	 */
+	public void setQuietPeriod(long quietPeriod) {
+		if (quietPeriod < 0)
+			throw new IllegalArgumentException("Quiet period cannot be negative (was " + quietPeriod + ")");
+		this.quietPeriod = quietPeriod;
+	}
+
+	/**
+	 * @return the watched folders
+	 */
+	public List<WatchedFolder> getFolders() {
+		return folders;
+	}
+
+}
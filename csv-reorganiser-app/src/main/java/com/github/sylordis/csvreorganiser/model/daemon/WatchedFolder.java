@@ -0,0 +1,145 @@
+package com.github.sylordis.csvreorganiser.model.daemon;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
+
+/**
+ * Input directory watched by a {@link WatchDaemon}, with the configuration used to reorganise the
+ * files landing in it and the directory where the results are written. The configuration is loaded
+ * once and kept in memory until its file changes.
+ *
+ * @author sylordis
+ *
+ */
+public class WatchedFolder {
+
+	/**
+	 * Name of the sub-directory of the input directory where successfully processed files are moved.
+	 */
+	public static final String PROCESSED_DIRECTORY = "processed";
+	/**
+	 * Name of the sub-directory of the input directory where files which could not be processed are
+	 * moved.
+	 */
+	public static final String FAILED_DIRECTORY = "failed";
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Configuration file.
+	 */
+	private final File configFile;
+	/**
+	 * Directory where source files land.
+	 */
+	private final File inputDirectory;
+	/**
+	 * Directory where targets are written.
+	 */
+	private final File outputDirectory;
+	/**
+	 * Engine used to load the configuration, null to use the one of the configuration file.
+	 */
+	private final ReorganiserEngine engine;
+	/**
+	 * Last configuration successfully loaded.
+	 */
+	private volatile ReorgConfiguration configuration;
+
+	/**
+	 * Constructs a new watched folder, without loading its configuration.
+	 *
+	 * @param configFile      configuration file
+	 * @param inputDirectory  directory where source files land
+	 * @param outputDirectory directory where targets are written
+	 * @param engine          engine used to load the configuration, null to use the one of the
+	 *                        configuration file
+	 */
+	public WatchedFolder(File configFile, File inputDirectory, File outputDirectory, ReorganiserEngine engine) {
+		this.configFile = configFile.getAbsoluteFile();
+		this.inputDirectory = inputDirectory.getAbsoluteFile();
+		this.outputDirectory = outputDirectory.getAbsoluteFile();
+		this.engine = engine;
+	}
+
+	/**
+	 * Loads the configuration file, replacing the configuration in memory.
+	 *
+	 * @throws IOException                  if the configuration file cannot be read
+	 * @throws ConfigurationImportException if the configuration is wrong or empty
+	 * @throws EngineException              if the engine of the configuration cannot be used
+	 */
+	public void load() throws IOException, ConfigurationImportException, EngineException {
+		configuration = ReorgConfiguration.fromFile(configFile, engine);
+		logger.info("Loaded configuration {} for {}", configFile, inputDirectory);
+	}
+
+	/**
+	 * Reloads the configuration file after it changed. If the new configuration cannot be loaded for
+	 * any reason, the previous one is kept.
+	 *
+	 * @return true if the configuration was reloaded, false otherwise
+	 */
+	public boolean reload() {
+		try {
+			load();
+			return true;
+		} catch (IOException | EngineException | RuntimeException e) {
+			logger.error("Cannot reload configuration {}, keeping the previous one", configFile, e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return the directory where successfully processed files are moved
+	 */
+	public File getProcessedDirectory() {
+		return new File(inputDirectory, PROCESSED_DIRECTORY);
+	}
+
+	/**
+	 * @return the directory where files which could not be processed are moved
+	 */
+	public File getFailedDirectory() {
+		return new File(inputDirectory, FAILED_DIRECTORY);
+	}
+
+	/**
+	 * @return the configuration file
+	 */
+	public File getConfigFile() {
+		return configFile;
+	}
+
+	/**
+	 * @return the directory where source files land
+	 */
+	public File getInputDirectory() {
+		return inputDirectory;
+	}
+
+	/**
+	 * @return the directory where targets are written
+	 */
+	public File getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	/**
+	 * @return the last configuration successfully loaded, null if none was loaded yet
+	 */
+	public ReorgConfiguration getConfiguration() {
+		return configuration;
+	}
+
+}
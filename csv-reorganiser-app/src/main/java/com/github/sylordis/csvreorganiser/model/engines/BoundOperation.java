@@ -0,0 +1,119 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Operation bound to the header of a source file, as returned by
+ * {@link ReorganiserOperation#bind(SourceHeader)}. It evaluates records with a function which
+ * already resolved the columns it reads, while everything else is delegated to the operation it was
+ * bound from.
+ *
+ * @author sylordis
+ *
+ */
+public final class BoundOperation implements ReorganiserOperation {
+
+	/**
+	 * Function appending the values of records to an output.
+	 *
+	 * @see ReorganiserOperation#applyTo(SourceRecord, Appendable)
+	 */
+	@FunctionalInterface
+	public interface Renderer {
+		/**
+		 * Appends the value of a record to an output.
+		 *
+		 * @param record source record
+		 * @param out    output to append the value to
+		 * @return true if a value was appended, false if the value is null
+		 * @throws IOException if the output cannot be appended to
+		 */
+		boolean render(SourceRecord record, Appendable out) throws IOException;
+	}
+
+	/**
+	 * Operation this one was bound from.
+	 */
+	private final ReorganiserOperation source;
+	/**
+	 * Function evaluating the records.
+	 */
+	private final Function<SourceRecord, String> evaluator;
+	/**
+	 * Function appending the values of the records, null to append the values of the evaluator.
+	 */
+	private final Renderer renderer;
+
+	/**
+	 * Constructs a new bound operation appending the values of its evaluator.
+	 *
+	 * @param source    operation this one is bound from
+	 * @param evaluator function evaluating the records of the header
+	 */
+	public BoundOperation(ReorganiserOperation source, Function<SourceRecord, String> evaluator) {
+		this(source, evaluator, null);
+	}
+
+	/**
+	 * Constructs a new bound operation.
+	 *
+	 * @param source    operation this one is bound from
+	 * @param evaluator function evaluating the records of the header
+	 * @param renderer  function appending the same values as the evaluator to an output, null to
+	 *                  append the values of the evaluator
+	 */
+	public BoundOperation(ReorganiserOperation source, Function<SourceRecord, String> evaluator,
+	        Renderer renderer) {
+		this.source = source;
+		this.evaluator = evaluator;
+		this.renderer = renderer;
+	}
+
+	@Override
+	public String getName() {
+		return source.getName();
+	}
+
+	@Override
+	public String applyTo(SourceRecord record) {
+		return evaluator.apply(record);
+	}
+
+	@Override
+	public boolean applyTo(SourceRecord record, Appendable out) throws IOException {
+		if (renderer == null)
+			return ReorganiserOperation.super.applyTo(record, out);
+		return renderer.render(record, out);
+	}
+
+	/**
+	 * Binds the original operation to another header.
+	 */
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		return source.bind(header);
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return source.getSourceColumns();
+	}
+
+	/**
+	 * @return the operation this one was bound from
+	 */
+	public ReorganiserOperation getSource() {
+		return source;
+	}
+
+	@Override
+	public String toString() {
+		return "Bound" + source;
+	}
+
+}
@@ -1,9 +1,12 @@
 package com.github.sylordis.csvreorganiser.model.engines;
 
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.reflections.Reflections;
 import org.reflections.util.ConfigurationBuilder;
@@ -23,6 +26,15 @@ public interface ConfigurationSupplier<T> {
 
 	public Class<T> getBaseType();
 
+	/**
+	 * Gets the class loader the operations are found and loaded with.
+	 *
+	 * @return the class loader of the base type by default
+	 */
+	default ClassLoader getClassLoader() {
+		return getBaseType().getClassLoader();
+	}
+
 	/**
 	 * Provides the dictionary of operations. This method should be only called when setting or
 	 * replacing the dictionary is needed.
@@ -37,7 +49,9 @@ public interface ConfigurationSupplier<T> {
 	}
 
 	/**
-	 * Retrieves all possible operations by reflection.
+	 * Retrieves all possible operations in the classpath roots containing the package, from the
+	 * {@link OperationIndex} generated at compile time for the roots which have one, and by scanning the
+	 * other roots, as those of third-party operations built without the processor.
 	 * 
 	 * @param pack Package of the operations
 	 * @param type Root type that the operations inherit from the package
@@ -45,8 +59,21 @@ public interface ConfigurationSupplier<T> {
 	 * @return a set of all operations
 	 */
 	default Set<Class<? extends T>> getConfigurationByReflection(String pack, Class<T> type) {
-		Reflections reflections = new Reflections(new ConfigurationBuilder().forPackage(pack));
-		Set<Class<? extends T>> types = reflections.getSubTypesOf(type);
-		return types.stream().filter(t -> t.isAnnotationPresent(Operation.class)).collect(Collectors.toSet());
+		final ClassLoader loader = getClassLoader();
+		Set<Class<? extends T>> types = new HashSet<>();
+		List<URL> unindexed = new ArrayList<>();
+		for (OperationIndex.Root root : OperationIndex.rootsOf(pack, loader)) {
+			if (root.isIndexed())
+				types.addAll(OperationIndex.load(root.names(), type, loader));
+			else
+				unindexed.add(root.url());
+		}
+		if (!unindexed.isEmpty()) {
+			Reflections reflections = new Reflections(
+			        new ConfigurationBuilder().setUrls(unindexed).addClassLoaders(loader));
+			reflections.getSubTypesOf(type).stream().filter(t -> t.isAnnotationPresent(Operation.class))
+			        .forEach(types::add);
+		}
+		return types;
 	}
 }
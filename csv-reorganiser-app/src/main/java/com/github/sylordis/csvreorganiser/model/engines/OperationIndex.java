@@ -0,0 +1,217 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.annotations.Operation;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
+
+/**
+ * Index of the operations generated at compile time by the operation index annotation processor,
+ * listing the classes annotated with {@link Operation} in each jar or classes directory. Reading the
+ * index replaces the scan of the classpath, which is kept by {@link ConfigurationSupplier} for
+ * the classpath roots without an index, as third-party jars built without the processor.<br/>
+ * <br/>
+ * Indexes of the class loader of this class are read once, when first needed.
+ *
+ * @author sylordis
+ *
+ */
+public final class OperationIndex {
+
+	/**
+	 * Path of the index resources, the same as the one written by the annotation processor.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/csv-reorganiser/operations";
+
+	/**
+	 * Class logger.
+	 */
+	private static final Logger logger = LogManager.getLogger();
+
+	/**
+	 * Classpath root containing a package.
+	 *
+	 * @param url   URL of the root, ending with a slash
+	 * @param names binary names of the classes indexed in the root, empty if the root has no index
+	 */
+	public record Root(URL url, List<String> names) {
+
+		/**
+		 * @return true if the root has an index
+		 */
+		public boolean isIndexed() {
+			return !names.isEmpty();
+		}
+
+	}
+
+	/**
+	 * Holder of the indexed class names, loaded with the holder class.
+	 */
+	private static final class Holder {
+		/**
+		 * Binary names of the indexed classes of each classpath root.
+		 */
+		private static final Map<String, List<String>> BY_ROOT = readByRoot(OperationIndex.class.getClassLoader());
+		/**
+		 * Binary names of all indexed classes.
+		 */
+		private static final List<String> NAMES = flatten(BY_ROOT);
+	}
+
+	/**
+	 * Hidden constructor.
+	 */
+	private OperationIndex() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Finds the indexed operations inheriting from a type. As with the scan of the classpath roots
+	 * containing the operations package, operations of all indexes are considered, whatever their
+	 * package.
+	 *
+	 * @param <T>  root type of the operations
+	 * @param type root type of the operations
+	 * @return the operations, empty if none was indexed
+	 * @throws ConfigurationException if an indexed class cannot be loaded
+	 */
+	public static <T> Set<Class<? extends T>> find(Class<T> type) {
+		return load(Holder.NAMES, type, OperationIndex.class.getClassLoader());
+	}
+
+	/**
+	 * Loads the indexed operations inheriting from a type.
+	 *
+	 * @param <T>    root type of the operations
+	 * @param names  binary names of indexed classes
+	 * @param type   root type of the operations
+	 * @param loader class loader of the operations
+	 * @return the operations among the classes, empty if none
+	 * @throws ConfigurationException if an indexed class cannot be loaded
+	 */
+	public static <T> Set<Class<? extends T>> load(Collection<String> names, Class<T> type, ClassLoader loader) {
+		Set<Class<? extends T>> types = new HashSet<>();
+		for (String name : names) {
+			try {
+				Class<?> indexed = Class.forName(name, false, loader);
+				if (type.isAssignableFrom(indexed) && indexed.isAnnotationPresent(Operation.class))
+					types.add(indexed.asSubclass(type));
+			} catch (ClassNotFoundException | LinkageError e) {
+				throw new ConfigurationException("Indexed operation " + name + " cannot be loaded", e);
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Gets the classpath roots containing a package, the directories or jars which a scan of the
+	 * package goes through, with their index.
+	 *
+	 * @param pack   package
+	 * @param loader class loader
+	 * @return the roots containing the package, in the order of the class loader
+	 */
+	public static List<Root> rootsOf(String pack, ClassLoader loader) {
+		final Map<String, List<String>> byRoot = loader == OperationIndex.class.getClassLoader() ? Holder.BY_ROOT
+		        : readByRoot(loader);
+		final String path = pack.replace('.', '/');
+		Set<String> roots = new LinkedHashSet<>();
+		try {
+			Enumeration<URL> packages = loader.getResources(path);
+			while (packages.hasMoreElements()) {
+				final String url = packages.nextElement().toExternalForm();
+				final int index = url.lastIndexOf(path);
+				if (index >= 0)
+					roots.add(url.substring(0, index));
+			}
+			List<Root> found = new ArrayList<>();
+			for (String root : roots)
+				found.add(new Root(URI.create(root).toURL(), byRoot.getOrDefault(root, List.of())));
+			return found;
+		} catch (IOException e) {
+			throw new ConfigurationException("Cannot find the classpath roots of package " + pack, e);
+		}
+	}
+
+	/**
+	 * @return the binary names of all indexed classes, in the order of the indexes
+	 */
+	public static List<String> getNames() {
+		return Holder.NAMES;
+	}
+
+	/**
+	 * Reads all indexes visible from a class loader.
+	 *
+	 * @param loader class loader
+	 * @return the binary names of the indexed classes, without duplicates
+	 */
+	static List<String> read(ClassLoader loader) {
+		return flatten(readByRoot(loader));
+	}
+
+	/**
+	 * Reads all indexes visible from a class loader, by classpath root.
+	 *
+	 * @param loader class loader
+	 * @return the binary names of the indexed classes of each root, by URL of the root
+	 */
+	static Map<String, List<String>> readByRoot(ClassLoader loader) {
+		Map<String, List<String>> byRoot = new LinkedHashMap<>();
+		try {
+			Enumeration<URL> indexes = loader.getResources(INDEX_RESOURCE);
+			while (indexes.hasMoreElements()) {
+				final URL index = indexes.nextElement();
+				logger.trace("Reading operation index {}", index);
+				final String url = index.toExternalForm();
+				List<String> names = new ArrayList<>();
+				try (BufferedReader reader = new BufferedReader(
+				        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						line = line.strip();
+						if (!line.isEmpty() && !line.startsWith("#"))
+							names.add(line);
+					}
+				}
+				byRoot.put(url.substring(0, url.length() - INDEX_RESOURCE.length()), Collections.unmodifiableList(names));
+			}
+		} catch (IOException e) {
+			// Packages will be scanned instead
+			logger.warn("Cannot read the operation indexes", e);
+		}
+		return Collections.unmodifiableMap(byRoot);
+	}
+
+	/**
+	 * Merges the indexes of all roots.
+	 *
+	 * @param byRoot binary names of the indexed classes of each root
+	 * @return the binary names of all indexed classes, without duplicates
+	 */
+	private static List<String> flatten(Map<String, List<String>> byRoot) {
+		Set<String> names = new LinkedHashSet<>();
+		byRoot.values().forEach(names::addAll);
+		return Collections.unmodifiableList(new ArrayList<>(names));
+	}
+
+}
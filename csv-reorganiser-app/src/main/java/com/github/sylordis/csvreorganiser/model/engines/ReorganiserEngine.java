@@ -18,4 +18,33 @@ public interface ReorganiserEngine {
 	 * @return
 	 */
 	List<ReorganiserOperation> createOperations(Map<String, Object> root);
+
+	/**
+	 * Finds the subtrees computed identically by several operations, and rewrites the operations so
+	 * that each of these subtrees is computed only once per record. Rewritten operations must then be
+	 * applied to each record in order and on the same thread, as the reorganiser does. The default
+	 * implementation shares nothing.
+	 *
+	 * @param operations operations created by {@link #createOperations(Map)}, rewritten in place
+	 * @return the shared subtrees, in column order, empty if none
+	 * @see SharedSubexpression
+	 */
+	default List<SharedSubexpression> shareSubexpressions(List<ReorganiserOperation> operations) {
+		return List.of();
+	}
+
+	/**
+	 * Sets up memos for the parts of the operations computing their value from a single source column
+	 * with a function costly enough to be cached, keyed by the value of the field. Memos are used once
+	 * the operations are bound. Shared subtrees are only memoised for the column computing them. The
+	 * default implementation memoises nothing.
+	 *
+	 * @param operations operations created by {@link #createOperations(Map)}, after
+	 *                   {@link #shareSubexpressions(List)}
+	 * @return the memos, in column order, empty if none
+	 * @see ResultMemo
+	 */
+	default List<ResultMemo> memoise(List<ReorganiserOperation> operations) {
+		return List.of();
+	}
 }
@@ -1,9 +1,15 @@
 package com.github.sylordis.csvreorganiser.model.engines;
 
+import java.io.IOException;
+import java.util.Set;
 import java.util.function.Function;
 
 import org.apache.commons.csv.CSVRecord;
 
+import com.github.sylordis.csvreorganiser.model.records.CSVSourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
 /**
  * Represents an operation that could ingest a CSV Record and returns a value for a CSV file. 
  * 
@@ -19,4 +25,71 @@ public interface ReorganiserOperation extends Function<CSVRecord, String> {
 	 */
 	String getName();
 
+	/**
+	 * Applies the operation to a source record, whichever way it was read.
+	 *
+	 * @param record source record
+	 * @return the value of the column
+	 */
+	String applyTo(SourceRecord record);
+
+	/**
+	 * Applies the operation to a source record, appending the value of the column to an output instead
+	 * of returning it. Operations copying parts of the record or constants should override it so that
+	 * no string is created for each value. The default implementation appends the value returned by
+	 * {@link #applyTo(SourceRecord)}.
+	 *
+	 * @param record source record
+	 * @param out    output to append the value to
+	 * @return true if a value was appended, false if the value is null, nothing being appended
+	 * @throws IOException if the output cannot be appended to
+	 */
+	default boolean applyTo(SourceRecord record, Appendable out) throws IOException {
+		final String value = applyTo(record);
+		if (value == null)
+			return false;
+		out.append(value);
+		return true;
+	}
+
+	/**
+	 * Binds this operation to the header of a source file, resolving the names of the columns to their
+	 * index once so that the returned operation reads records by index only. The configuration of the
+	 * operation is validated here, before the first record is processed. Operations which do not read
+	 * columns by name can keep the default implementation.<br/>
+	 * <br/>
+	 * The returned operation is only valid for records of this header. Records shorter than the header
+	 * may make it throw an {@link IndexOutOfBoundsException}.
+	 *
+	 * @param header header of the source file
+	 * @return an operation producing the same values as this one for records of this header
+	 * @throws IllegalArgumentException if a property is missing or a column does not exist in the
+	 *                                  header
+	 */
+	default ReorganiserOperation bind(SourceHeader header) {
+		return this;
+	}
+
+	/**
+	 * Gets the names of the source columns this operation may read, so that readers can skip the
+	 * other ones. Operations which cannot tell should keep the default implementation.
+	 *
+	 * @return the names of the columns read, or null if any column may be read
+	 */
+	default Set<String> getSourceColumns() {
+		return null;
+	}
+
+	/**
+	 * Applies the operation to a commons-csv record.
+	 *
+	 * @param record source record
+	 * @return the value of the column
+	 * @see #applyTo(SourceRecord)
+	 */
+	@Override
+	default String apply(CSVRecord record) {
+		return applyTo(record == null ? null : new CSVSourceRecord(record));
+	}
+
 }
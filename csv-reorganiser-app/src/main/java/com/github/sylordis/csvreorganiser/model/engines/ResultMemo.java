@@ -0,0 +1,331 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded cache of the values computed from a single source column, keyed by the value of the
+ * field, as set up by {@link ReorganiserEngine#memoise(java.util.List)}. Columns with few distinct
+ * values, such as status codes or countries, then go through their filters or regular expressions
+ * only once per distinct value.<br/>
+ * <br/>
+ * Each thread has its own table, so that parallel processing needs no locking, holding up to a
+ * capacity of entries evicted with the CLOCK algorithm, an approximation of least recently used.
+ * Every window of lookups, a thread checks the hit rate of its table: below the minimum, the table
+ * is cleared and the values are computed directly, until the table is tried again after
+ * {@link #PROBE_INTERVAL} windows. Hits, misses and values computed while switched off are counted
+ * for all threads.<br/>
+ * <br/>
+ * Only functions whose value depends on nothing but the field may be memoised.
+ *
+ * @author sylordis
+ *
+ */
+public final class ResultMemo {
+
+	/**
+	 * Default maximum number of entries of the table of each thread.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+	/**
+	 * Default number of lookups after which the hit rate is checked.
+	 */
+	public static final int DEFAULT_WINDOW = 4096;
+	/**
+	 * Default minimum hit rate of a window to keep the table.
+	 */
+	public static final double DEFAULT_MIN_HIT_RATE = 0.5;
+	/**
+	 * Number of windows a table stays switched off before being tried again.
+	 */
+	public static final int PROBE_INTERVAL = 16;
+
+	/**
+	 * Table of a thread, with its own CLOCK and window.
+	 */
+	private final class Table {
+		/**
+		 * Slot of each key.
+		 */
+		private final Map<String, Integer> slots;
+		/**
+		 * Key of each slot.
+		 */
+		private final String[] keys;
+		/**
+		 * Value of each slot.
+		 */
+		private final String[] values;
+		/**
+		 * Whether each slot was hit since the hand of the clock last passed it.
+		 */
+		private final boolean[] referenced;
+		/**
+		 * Number of slots used.
+		 */
+		private int size;
+		/**
+		 * Next slot considered for eviction.
+		 */
+		private int hand;
+		/**
+		 * Whether the table is used, false when switched off.
+		 */
+		private boolean active;
+		/**
+		 * Number of lookups in the current window, switched on or off.
+		 */
+		private int lookups;
+		/**
+		 * Number of hits in the current window.
+		 */
+		private int windowHits;
+		/**
+		 * Number of windows since switched off.
+		 */
+		private int idleWindows;
+
+		/**
+		 * Constructs an empty active table.
+		 */
+		private Table() {
+			this.slots = new HashMap<>(capacity * 4 / 3 + 1);
+			this.keys = new String[capacity];
+			this.values = new String[capacity];
+			this.referenced = new boolean[capacity];
+			this.active = true;
+		}
+
+		/**
+		 * Looks up a key, computing and keeping its value on a miss.
+		 *
+		 * @param key      value of the field
+		 * @param function function computing the value
+		 * @return the value of the key
+		 */
+		private String lookup(String key, UnaryOperator<String> function) {
+			final String value;
+			final Integer slot = slots.get(key);
+			if (slot != null) {
+				referenced[slot] = true;
+				windowHits++;
+				hits.increment();
+				value = values[slot];
+			} else {
+				value = function.apply(key);
+				put(key, value);
+				misses.increment();
+			}
+			if (++lookups == window)
+				review();
+			return value;
+		}
+
+		/**
+		 * Keeps a value, evicting the first entry not referenced since the hand last passed it if the
+		 * table is full.
+		 *
+		 * @param key   value of the field
+		 * @param value value computed
+		 */
+		private void put(String key, String value) {
+			final int slot;
+			if (size < capacity)
+				slot = size++;
+			else {
+				while (referenced[hand]) {
+					referenced[hand] = false;
+					hand = (hand + 1) % capacity;
+				}
+				slot = hand;
+				slots.remove(keys[slot]);
+				hand = (hand + 1) % capacity;
+			}
+			keys[slot] = key;
+			values[slot] = value;
+			referenced[slot] = false;
+			slots.put(key, slot);
+		}
+
+		/**
+		 * Ends a window, switching the table off if its hit rate is too low.
+		 */
+		private void review() {
+			if (windowHits < minHitRate * window) {
+				logger.debug("Memo of {} switched off on {}: {} hit(s) out of {} lookups", description,
+				        Thread.currentThread().getName(), windowHits, window);
+				slots.clear();
+				Arrays.fill(keys, null);
+				Arrays.fill(values, null);
+				Arrays.fill(referenced, false);
+				size = 0;
+				hand = 0;
+				active = false;
+			}
+			lookups = 0;
+			windowHits = 0;
+		}
+
+		/**
+		 * Computes a value while switched off, switching the table on again after
+		 * {@link ResultMemo#PROBE_INTERVAL} windows.
+		 *
+		 * @param key      value of the field
+		 * @param function function computing the value
+		 * @return the value of the key
+		 */
+		private String skip(String key, UnaryOperator<String> function) {
+			if (++lookups == window) {
+				lookups = 0;
+				if (++idleWindows == PROBE_INTERVAL) {
+					idleWindows = 0;
+					active = true;
+				}
+			}
+			skipped.increment();
+			return function.apply(key);
+		}
+	}
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Name of the column memoised.
+	 */
+	private final String column;
+	/**
+	 * Description of the function memoised, in the syntax of its engine.
+	 */
+	private final String description;
+	/**
+	 * Maximum number of entries of each table.
+	 */
+	private final int capacity;
+	/**
+	 * Number of lookups after which the hit rate is checked.
+	 */
+	private final int window;
+	/**
+	 * Minimum hit rate of a window to keep a table.
+	 */
+	private final double minHitRate;
+	/**
+	 * Table of each thread.
+	 */
+	private final ThreadLocal<Table> tables;
+	/**
+	 * Number of values found in the tables.
+	 */
+	private final LongAdder hits;
+	/**
+	 * Number of values computed and kept in the tables.
+	 */
+	private final LongAdder misses;
+	/**
+	 * Number of values computed while the tables were switched off.
+	 */
+	private final LongAdder skipped;
+
+	/**
+	 * Constructs a new memo with default settings.
+	 *
+	 * @param column      name of the column memoised
+	 * @param description description of the function memoised, in the syntax of its engine
+	 */
+	public ResultMemo(String column, String description) {
+		this(column, description, DEFAULT_CAPACITY, DEFAULT_WINDOW, DEFAULT_MIN_HIT_RATE);
+	}
+
+	/**
+	 * Constructs a new memo.
+	 *
+	 * @param column      name of the column memoised
+	 * @param description description of the function memoised, in the syntax of its engine
+	 * @param capacity    maximum number of entries of the table of each thread, at least 1
+	 * @param window      number of lookups after which the hit rate is checked, at least 1
+	 * @param minHitRate  minimum hit rate of a window to keep the table, between 0 and 1
+	 * @throws IllegalArgumentException if a setting is out of its bounds
+	 */
+	public ResultMemo(String column, String description, int capacity, int window, double minHitRate) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Memo capacity must be at least 1 (was " + capacity + ")");
+		if (window < 1)
+			throw new IllegalArgumentException("Memo window must be at least 1 (was " + window + ")");
+		if (!(minHitRate >= 0 && minHitRate <= 1))
+			throw new IllegalArgumentException("Memo minimum hit rate must be between 0 and 1 (was " + minHitRate + ")");
+		this.column = column;
+		this.description = description;
+		this.capacity = capacity;
+		this.window = window;
+		this.minHitRate = minHitRate;
+		this.tables = ThreadLocal.withInitial(Table::new);
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.skipped = new LongAdder();
+	}
+
+	/**
+	 * Gets the value of a field from the table of this thread, computing it on a miss or if the table
+	 * is switched off. Null fields are never kept.
+	 *
+	 * @param field    value of the field
+	 * @param function function computing the value from the field
+	 * @return the value computed by the function for the field
+	 */
+	public String apply(String field, UnaryOperator<String> function) {
+		if (field == null)
+			return function.apply(null);
+		final Table table = tables.get();
+		return table.active ? table.lookup(field, function) : table.skip(field, function);
+	}
+
+	/**
+	 * @return the name of the column memoised
+	 */
+	public String getColumn() {
+		return column;
+	}
+
+	/**
+	 * @return the description of the function memoised, in the syntax of its engine
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return the number of values found in the tables, for all threads
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of values computed and kept in the tables, for all threads
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of values computed while the tables were switched off, for all threads
+	 */
+	public long getSkipped() {
+		return skipped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "'" + column + "' " + description + ": " + getHits() + " hit(s), " + getMisses() + " miss(es), "
+		        + getSkipped() + " skipped";
+	}
+
+}
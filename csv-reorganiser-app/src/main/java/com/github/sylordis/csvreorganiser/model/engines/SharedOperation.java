@@ -0,0 +1,93 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import java.util.Set;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Operation whose value is computed once per record for all the columns using the same operation,
+ * see {@link SharedSubexpression}. Everything but the evaluation is delegated to the operation it
+ * shares.
+ *
+ * @author sylordis
+ *
+ */
+public final class SharedOperation implements ReorganiserOperation {
+
+	/**
+	 * Operation shared.
+	 */
+	private final ReorganiserOperation operation;
+	/**
+	 * Value shared between the columns.
+	 */
+	private final SharedSubexpression shared;
+	/**
+	 * Whether this column computes the value for the next ones.
+	 */
+	private final boolean producer;
+
+	/**
+	 * Constructs a new shared operation.
+	 *
+	 * @param operation operation shared
+	 * @param shared    value shared between the columns
+	 * @param producer  true if this column computes the value for the next ones, false if it reuses it
+	 */
+	public SharedOperation(ReorganiserOperation operation, SharedSubexpression shared, boolean producer) {
+		this.operation = operation;
+		this.shared = shared;
+		this.producer = producer;
+	}
+
+	@Override
+	public String getName() {
+		return operation.getName();
+	}
+
+	@Override
+	public String applyTo(SourceRecord record) {
+		return producer ? shared.produce(record, operation::applyTo) : shared.reuse(record, operation::applyTo);
+	}
+
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		final ReorganiserOperation bound = operation.bind(header);
+		if (producer)
+			return new BoundOperation(this, t -> shared.produce(t, bound::applyTo));
+		return new BoundOperation(this, t -> shared.reuse(t, bound::applyTo));
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return operation.getSourceColumns();
+	}
+
+	/**
+	 * @return the operation shared
+	 */
+	public ReorganiserOperation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return the value shared between the columns
+	 */
+	public SharedSubexpression getShared() {
+		return shared;
+	}
+
+	/**
+	 * @return true if this column computes the value for the next ones, false if it reuses it
+	 */
+	public boolean isProducer() {
+		return producer;
+	}
+
+	@Override
+	public String toString() {
+		return "Shared" + operation;
+	}
+
+}
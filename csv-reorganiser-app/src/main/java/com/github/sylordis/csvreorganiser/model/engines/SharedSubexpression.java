@@ -0,0 +1,111 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Subtree of operations computed identically by several output columns, as found by
+ * {@link ReorganiserEngine#shareSubexpressions(List)}. Its value is computed only once per record:
+ * the first use in column order, the producer, computes it and keeps it for the thread applying the
+ * operations, while the following uses, the consumers, reuse it as long as they are applied to the
+ * same record.<br/>
+ * <br/>
+ * This relies on the operations of a record being applied in column order on the same thread, as
+ * the reorganiser does. A consumer applied to another record than the last one of its producer on
+ * this thread computes the value itself.
+ *
+ * @author sylordis
+ *
+ */
+public final class SharedSubexpression {
+
+	/**
+	 * Value computed by the producer on a thread.
+	 */
+	private static final class Slot {
+		/**
+		 * Record the value was computed for.
+		 */
+		private SourceRecord record;
+		/**
+		 * Value computed.
+		 */
+		private String value;
+	}
+
+	/**
+	 * Description of the subtree, in the syntax of its engine.
+	 */
+	private final String description;
+	/**
+	 * Names of the columns using the subtree, once per use, the producer first.
+	 */
+	private final List<String> columns;
+	/**
+	 * Value of each thread.
+	 */
+	private final ThreadLocal<Slot> slots;
+
+	/**
+	 * Constructs a new shared subtree.
+	 *
+	 * @param description description of the subtree, in the syntax of its engine
+	 * @param columns     names of the columns using the subtree, once per use, the producer first
+	 */
+	public SharedSubexpression(String description, List<String> columns) {
+		this.description = description;
+		this.columns = List.copyOf(columns);
+		this.slots = ThreadLocal.withInitial(Slot::new);
+	}
+
+	/**
+	 * Computes the value of a record and keeps it for the consumers.
+	 *
+	 * @param record    source record
+	 * @param evaluator function computing the value of the subtree
+	 * @return the value computed
+	 */
+	public String produce(SourceRecord record, Function<SourceRecord, String> evaluator) {
+		final String value = evaluator.apply(record);
+		final Slot slot = slots.get();
+		slot.record = record;
+		slot.value = value;
+		return value;
+	}
+
+	/**
+	 * Gets the value kept by the producer for a record, or computes it if the producer was not applied
+	 * to it last on this thread.
+	 *
+	 * @param record    source record
+	 * @param evaluator function computing the value of the subtree
+	 * @return the value of the subtree
+	 */
+	public String reuse(SourceRecord record, Function<SourceRecord, String> evaluator) {
+		final Slot slot = slots.get();
+		return slot.record == record ? slot.value : evaluator.apply(record);
+	}
+
+	/**
+	 * @return the description of the subtree, in the syntax of its engine
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return the names of the columns using the subtree, once per use, the producer first
+	 */
+	public List<String> getColumns() {
+		return columns;
+	}
+
+	@Override
+	public String toString() {
+		return description + " computed by '" + columns.get(0) + "', reused by "
+		        + String.join(", ", columns.subList(1, columns.size()).stream().map(c -> "'" + c + "'").toList());
+	}
+
+}
@@ -1,16 +1,13 @@
 package com.github.sylordis.csvreorganiser.model.hyde;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.github.sylordis.csvreorganiser.model.PropertyBindings;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
 
@@ -38,11 +35,8 @@ public abstract class HydeAbstractFilter implements HydeFilter {
 	@Override
 	public void fill(List<Object> data) throws SelfFillingException {
 		logger.debug("Filling");
-		List<OperationProperty> properties = new ArrayList<>(
-		        Arrays.asList(this.getClass().getAnnotationsByType(OperationProperty.class)));
-		logger.debug("class={} annotations={}", this.getClass(),
-		        properties.stream().map(a -> a.name()).collect(Collectors.toList()));
-		Collections.sort(properties, (p1, p2) -> Integer.compare(p1.position(), p2.position()));
+		List<OperationProperty> properties = PropertyBindings.of(getClass()).getPositionedProperties();
+		logger.debug("class={} annotations={}", this.getClass(), properties);
 		Deque<Object> args = new ArrayDeque<>(data);
 		for (OperationProperty prop : properties) {
 			if (!args.isEmpty()) {
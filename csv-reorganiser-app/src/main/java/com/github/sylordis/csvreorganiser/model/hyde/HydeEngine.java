@@ -5,6 +5,7 @@ import static com.github.sylordis.csvreorganiser.model.constants.YAMLTags.OPDEF_
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -12,9 +13,14 @@ import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.github.sylordis.csvreorganiser.model.PropertyBindings;
+import com.github.sylordis.csvreorganiser.model.annotations.Operation;
+import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.constants.ConfigConstants;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
@@ -34,6 +40,15 @@ import com.github.sylordis.csvreorganiser.utils.yaml.YAMLUtils;
  */
 public class HydeEngine implements ReorganiserEngine {
 
+	/**
+	 * Use of a template by an operation.
+	 *
+	 * @param operation operation using the template
+	 * @param index     index of the template in the children of the operation
+	 */
+	private record TemplateUse(HydeReorgOperation operation, int index) {
+	}
+
 	/**
 	 * Class logger.
 	 */
@@ -43,6 +58,10 @@ public class HydeEngine implements ReorganiserEngine {
 	 * Dictionary of all existing operations.
 	 */
 	private final Map<String, Class<? extends HydeAbstractFilter>> filtersDictionary;
+	/**
+	 * Whether created operations are compiled when bound, see {@link HydeOperationCompiler}.
+	 */
+	private boolean compiling;
 
 	/**
 	 * Constructs a hyde engine with a default configuration supplier.
@@ -58,6 +77,7 @@ public class HydeEngine implements ReorganiserEngine {
 	 */
 	public HydeEngine(HydeConfigurationSupplier dictionarySupplier) {
 		this.filtersDictionary = new HashMap<>();
+		this.compiling = true;
 		setFiltersDictionary(dictionarySupplier.getConfigurationDictionary());
 		logger.debug("Dictionary: {}", this.filtersDictionary.keySet());
 	}
@@ -72,6 +92,7 @@ public class HydeEngine implements ReorganiserEngine {
 	public ReorganiserOperation createOperation(String name, String content) {
 		logger.debug("yamlToOp[in]: name='{}' content='{}'", name, content);
 		HydeReorgOperation op = new HydeReorgOperation(name);
+		op.setCompiled(compiling);
 		int index = 0;
 		int nextTemplateStart = -1;
 		int nextTemplateEnd = -1;
@@ -159,7 +180,7 @@ public class HydeEngine implements ReorganiserEngine {
 	 * @return
 	 */
 	public HydeReorgOperationPart createConstantPart(String content) {
-		return t -> content;
+		return new HydeReorgOperationConstantPart(content);
 	}
 
 	@Override
@@ -168,6 +189,109 @@ public class HydeEngine implements ReorganiserEngine {
 		        .map(e -> createOperation(e.getKey(), (String) e.getValue())).collect(Collectors.toList());
 	}
 
+	/**
+	 * Shares the templates reading the same field through the same filters, with the same arguments,
+	 * by replacing them with {@link HydeReorgOperationSharedPart}s. Templates without filters are not
+	 * shared as reading a field costs less than sharing its value.
+	 */
+	@Override
+	public List<SharedSubexpression> shareSubexpressions(List<ReorganiserOperation> operations) {
+		// Uses of the templates, by field and filters
+		Map<List<Object>, List<TemplateUse>> uses = new LinkedHashMap<>();
+		for (ReorganiserOperation operation : operations) {
+			if (operation instanceof HydeReorgOperation op) {
+				for (int i = 0; i < op.getChildren().size(); i++) {
+					if (op.getChildren().get(i) instanceof HydeReorgOperationTemplatePart template
+					        && template.getField() != null && !template.getFilters().isEmpty())
+						uses.computeIfAbsent(key(template), k -> new ArrayList<>()).add(new TemplateUse(op, i));
+				}
+			}
+		}
+		List<SharedSubexpression> shared = new ArrayList<>();
+		for (List<TemplateUse> templateUses : uses.values()) {
+			if (templateUses.size() < 2)
+				continue;
+			final TemplateUse producer = templateUses.get(0);
+			SharedSubexpression expression = new SharedSubexpression(
+			        describe((HydeReorgOperationTemplatePart) producer.operation().getChildren().get(producer.index())),
+			        templateUses.stream().map(u -> u.operation().getName()).toList());
+			for (TemplateUse use : templateUses) {
+				List<HydeReorgOperationPart> children = use.operation().getChildren();
+				children.set(use.index(), new HydeReorgOperationSharedPart(
+				        (HydeReorgOperationTemplatePart) children.get(use.index()), expression, use == producer));
+			}
+			logger.debug("Sharing {}", expression);
+			shared.add(expression);
+		}
+		return shared;
+	}
+
+	/**
+	 * Memoises the templates with at least one {@link HydeFilter#isMemoisable() memoisable} filter,
+	 * shared templates being memoised only for the column computing their value. Other templates keep
+	 * filtering their values in place.
+	 */
+	@Override
+	public List<ResultMemo> memoise(List<ReorganiserOperation> operations) {
+		List<ResultMemo> memos = new ArrayList<>();
+		for (ReorganiserOperation operation : operations) {
+			if (operation instanceof HydeReorgOperation op) {
+				for (HydeReorgOperationPart part : op.getChildren()) {
+					HydeReorgOperationPart memoised = part;
+					if (part instanceof HydeReorgOperationSharedPart shared)
+						memoised = shared.isProducer() ? shared.getTemplate() : null;
+					if (memoised instanceof HydeReorgOperationTemplatePart template && template.getField() != null
+					        && template.getFilters().stream().anyMatch(HydeFilter::isMemoisable)) {
+						ResultMemo memo = new ResultMemo(op.getName(), describe(template));
+						template.setMemo(memo);
+						logger.debug("Memoising {}", memo);
+						memos.add(memo);
+					}
+				}
+			}
+		}
+		return memos;
+	}
+
+	/**
+	 * Computes the key identifying templates computing the same values.
+	 *
+	 * @param template template
+	 * @return the field of the template followed by the type and the property values of each filter
+	 */
+	private List<Object> key(HydeReorgOperationTemplatePart template) {
+		List<Object> key = new ArrayList<>();
+		key.add(template.getField());
+		for (HydeFilter filter : template.getFilters()) {
+			key.add(filter.getClass());
+			PropertyBindings bindings = PropertyBindings.of(filter.getClass());
+			for (OperationProperty property : bindings.getPositionedProperties())
+				key.add(bindings.get(filter, property.field()));
+		}
+		return key;
+	}
+
+	/**
+	 * Describes a template in the syntax it was declared with.
+	 *
+	 * @param template template
+	 * @return a description such as <code>{{field|filter:argument}}</code>, with all arguments
+	 */
+	private String describe(HydeReorgOperationTemplatePart template) {
+		StringBuilder description = new StringBuilder(ConfigConstants.Hyde.TEMPLATE_START)
+		        .append(template.getField());
+		for (HydeFilter filter : template.getFilters()) {
+			Operation annotation = filter.getClass().getAnnotation(Operation.class);
+			description.append(ConfigConstants.Hyde.TEMPLATE_FILTER_DELIMITER)
+			        .append(annotation == null ? filter.getClass().getSimpleName() : annotation.name());
+			PropertyBindings bindings = PropertyBindings.of(filter.getClass());
+			for (OperationProperty property : bindings.getPositionedProperties())
+				description.append(ConfigConstants.Hyde.TEMPLATE_FILTER_PARAM_DELIMITER)
+				        .append(bindings.get(filter, property.field()));
+		}
+		return description.append(ConfigConstants.Hyde.TEMPLATE_END).toString();
+	}
+
 	/**
 	 * @return the filterDictionary
 	 */
@@ -175,6 +299,23 @@ public class HydeEngine implements ReorganiserEngine {
 		return filtersDictionary;
 	}
 
+	/**
+	 * @return true if created operations are compiled when bound
+	 */
+	public boolean isCompiling() {
+		return compiling;
+	}
+
+	/**
+	 * Sets whether operations created from now on are compiled when bound, the default, or interpret
+	 * their parts for each record.
+	 *
+	 * @param compiling true to compile operations
+	 */
+	public void setCompiling(boolean compiling) {
+		this.compiling = compiling;
+	}
+
 	/**
 	 * Sets dictionary of all existing filters.
 	 *
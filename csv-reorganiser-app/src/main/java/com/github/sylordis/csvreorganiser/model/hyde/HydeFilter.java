@@ -6,9 +6,40 @@ import java.util.function.UnaryOperator;
 import com.github.sylordis.csvreorganiser.model.SelfFiller;
 
 /**
+ * Filter of a Hyde template, transforming the value of a column. Filters can either return a new
+ * string or transform the value in place at the end of a buffer, so that chained filters do not
+ * create a string each.
+ *
  * @author sylordis
  *
  */
 public interface HydeFilter extends UnaryOperator<String>, SelfFiller<List<Object>> {
 
+	/**
+	 * Applies the filter in place to the end of a buffer, the value starting at a given index being
+	 * replaced by the result of the filter. The content of the buffer before the value is left
+	 * untouched. The default implementation replaces the value with the result of
+	 * {@link #apply(Object)}, filters should override it to avoid creating strings.
+	 *
+	 * @param buffer buffer ending with the value, never null
+	 * @param start  index of the first character of the value in the buffer
+	 */
+	default void applyInPlace(StringBuilder buffer, int start) {
+		final String result = apply(buffer.substring(start));
+		buffer.setLength(start);
+		buffer.append(result);
+	}
+
+	/**
+	 * Checks if the values of this filter are worth caching by the value of the field of its
+	 * template, see {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo}. Only costly
+	 * filters, such as regular expressions, should return true: cheap chains are faster computed
+	 * again than looked up. The default implementation returns false.
+	 *
+	 * @return true if templates with this filter can be memoised
+	 */
+	default boolean isMemoisable() {
+		return false;
+	}
+
 }
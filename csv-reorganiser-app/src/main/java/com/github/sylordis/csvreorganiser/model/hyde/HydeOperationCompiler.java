@@ -0,0 +1,302 @@
+package com.github.sylordis.csvreorganiser.model.hyde;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Compiles the parts of a Hyde operation bound to a header into a single function specialised for
+ * their shape, instead of looping over the parts and their filters for each record:
+ * <ul>
+ * <li>consecutive constants are merged into one, and operations without templates return their
+ * constant directly,</li>
+ * <li>neighbouring filters of templates are fused by {@link FilterFusion},</li>
+ * <li>templates read their column by its pre-resolved index and apply their filters in place when
+ * appended to a buffer, or call them one after the other without looping when they have up to
+ * {@value #UNROLLED_FILTERS} filters, shared templates being compiled the same way before
+ * sharing their value,</li>
+ * <li>memoised templates look their filtered value up in their {@link ResultMemo} instead,</li>
+ * <li>operations made of a single template return its value without copying it in a buffer, and
+ * others use a buffer sized after their constants.</li>
+ * </ul>
+ * The compiled operations produce the same values as the interpreted parts, returned or appended
+ * to an output.
+ *
+ * @author sylordis
+ *
+ */
+public final class HydeOperationCompiler {
+
+	/**
+	 * Maximum number of filters of a template called without a loop.
+	 */
+	public static final int UNROLLED_FILTERS = 3;
+	/**
+	 * Expected length of a template value, to size buffers.
+	 */
+	private static final int EXPECTED_VALUE_LENGTH = 16;
+
+	/**
+	 * Hidden constructor.
+	 */
+	private HydeOperationCompiler() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Compiles the parts of an operation.
+	 *
+	 * @param parts  parts of the operation, in order
+	 * @param header header of the source file
+	 * @return a part producing the value of the operation for the records of the header
+	 * @throws IllegalArgumentException if a column does not exist in the header
+	 */
+	public static HydeReorgOperationPart compile(List<HydeReorgOperationPart> parts, SourceHeader header) {
+		List<HydeReorgOperationPart> segments = new ArrayList<>();
+		StringBuilder constant = new StringBuilder();
+		int constantsLength = 0;
+		for (HydeReorgOperationPart part : parts) {
+			if (part instanceof HydeReorgOperationConstantPart constantPart) {
+				constant.append(constantPart.getContent());
+				continue;
+			}
+			if (!constant.isEmpty()) {
+				constantsLength += constant.length();
+				segments.add(new HydeReorgOperationConstantPart(constant.toString()));
+				constant.setLength(0);
+			}
+			if (part instanceof HydeReorgOperationTemplatePart template)
+				segments.add(template(template, header));
+			else if (part instanceof HydeReorgOperationSharedPart shared)
+				segments.add(shared.share(template(shared.getTemplate(), header)));
+			else
+				segments.add(part.bind(header));
+		}
+		if (!constant.isEmpty() || segments.isEmpty()) {
+			constantsLength += constant.length();
+			segments.add(new HydeReorgOperationConstantPart(constant.toString()));
+		}
+		return new CompiledOperation(
+		        concatenate(segments, constantsLength + EXPECTED_VALUE_LENGTH * segments.size()),
+		        segments.toArray(HydeReorgOperationPart[]::new));
+	}
+
+	/**
+	 * Compiled operation, evaluating records with a specialised function or appending each of its
+	 * segments in turn.
+	 */
+	private static final class CompiledOperation implements HydeReorgOperationPart {
+
+		/**
+		 * Function evaluating the records.
+		 */
+		private final Function<SourceRecord, String> evaluator;
+		/**
+		 * Segments of the operation, constants being merged.
+		 */
+		private final HydeReorgOperationPart[] segments;
+
+		/**
+		 * Constructs a compiled operation.
+		 *
+		 * @param evaluator function evaluating the records
+		 * @param segments  segments of the operation
+		 */
+		private CompiledOperation(Function<SourceRecord, String> evaluator, HydeReorgOperationPart[] segments) {
+			this.evaluator = evaluator;
+			this.segments = segments;
+		}
+
+		@Override
+		public String apply(SourceRecord t) {
+			return evaluator.apply(t);
+		}
+
+		@Override
+		public void appendTo(SourceRecord record, Appendable out) throws IOException {
+			for (HydeReorgOperationPart segment : segments)
+				segment.appendTo(record, out);
+		}
+
+		@Override
+		public void appendTo(SourceRecord record, StringBuilder out) {
+			for (HydeReorgOperationPart segment : segments)
+				segment.appendTo(record, out);
+		}
+
+	}
+
+	/**
+	 * Compiles a template.
+	 *
+	 * @param template template part
+	 * @param header   header of the source file
+	 * @return a part reading the column of the template and applying its filters or looking their
+	 *         value up in its memo
+	 * @throws IllegalArgumentException if the column does not exist in the header
+	 */
+	private static HydeReorgOperationPart template(HydeReorgOperationTemplatePart template, SourceHeader header) {
+		if (template.getField() == null)
+			throw new IllegalArgumentException("No field provided for template");
+		final int index = header.indexOf(template.getField());
+		if (index == SourceHeader.NOT_MAPPED)
+			throw new IllegalArgumentException(
+			        "Source column '" + template.getField() + "' does not exist in the header");
+		final HydeFilter[] filters = FilterFusion.fuse(template.getFilters()).toArray(HydeFilter[]::new);
+		final ResultMemo memo = template.getMemo();
+		if (memo != null) {
+			final UnaryOperator<String> chain = value -> {
+				String content = value;
+				for (HydeFilter filter : filters)
+					content = filter.apply(content);
+				return content;
+			};
+			return t -> memo.apply(t.get(index), chain);
+		}
+		return new CompiledTemplate(index, filters, chain(index, filters));
+	}
+
+	/**
+	 * Creates the function reading a column and passing its value through filters as strings.
+	 *
+	 * @param index   index of the column
+	 * @param filters filters to apply, in order
+	 * @return a function returning the filtered value of the column
+	 */
+	private static Function<SourceRecord, String> chain(int index, HydeFilter[] filters) {
+		switch (filters.length) {
+			case 0:
+				return t -> t.get(index);
+			case 1: {
+				final HydeFilter f1 = filters[0];
+				return t -> f1.apply(t.get(index));
+			}
+			case 2: {
+				final HydeFilter f1 = filters[0];
+				final HydeFilter f2 = filters[1];
+				return t -> f2.apply(f1.apply(t.get(index)));
+			}
+			case 3: {
+				final HydeFilter f1 = filters[0];
+				final HydeFilter f2 = filters[1];
+				final HydeFilter f3 = filters[2];
+				return t -> f3.apply(f2.apply(f1.apply(t.get(index))));
+			}
+			default:
+				return t -> {
+					String content = t.get(index);
+					for (HydeFilter filter : filters)
+						content = filter.apply(content);
+					return content;
+				};
+		}
+	}
+
+	/**
+	 * Compiled template, returning its value through a chain of string filters or filtering it in
+	 * place when appended to a buffer.
+	 */
+	private static final class CompiledTemplate implements HydeReorgOperationPart {
+
+		/**
+		 * Index of the column.
+		 */
+		private final int index;
+		/**
+		 * Filters to apply, in order.
+		 */
+		private final HydeFilter[] filters;
+		/**
+		 * Function returning the filtered value.
+		 */
+		private final Function<SourceRecord, String> evaluator;
+
+		/**
+		 * Constructs a compiled template.
+		 *
+		 * @param index     index of the column
+		 * @param filters   filters to apply, in order
+		 * @param evaluator function returning the filtered value
+		 */
+		private CompiledTemplate(int index, HydeFilter[] filters, Function<SourceRecord, String> evaluator) {
+			this.index = index;
+			this.filters = filters;
+			this.evaluator = evaluator;
+		}
+
+		@Override
+		public String apply(SourceRecord t) {
+			return evaluator.apply(t);
+		}
+
+		@Override
+		public void appendTo(SourceRecord record, StringBuilder out) {
+			final CharSequence value = record.getView(index);
+			if (value == null)
+				out.append(evaluator.apply(record));
+			else {
+				final int start = out.length();
+				out.append(value);
+				for (HydeFilter filter : filters)
+					filter.applyInPlace(out, start);
+			}
+		}
+
+		/**
+		 * @return the number of filters
+		 */
+		private int getFiltersCount() {
+			return filters.length;
+		}
+
+	}
+
+	/**
+	 * Concatenates the values of segments.
+	 *
+	 * @param segments parts producing each segment, at least one
+	 * @param capacity initial capacity of the buffer
+	 * @return a function producing the concatenation of the segments
+	 */
+	private static Function<SourceRecord, String> concatenate(List<HydeReorgOperationPart> segments, int capacity) {
+		if (segments.size() == 1) {
+			final HydeReorgOperationPart only = segments.get(0);
+			if (only instanceof HydeReorgOperationConstantPart)
+				return only;
+			if (only instanceof CompiledTemplate template && template.getFiltersCount() > 1)
+				// One buffer rather than a string per filter
+				return t -> {
+					StringBuilder result = new StringBuilder(capacity);
+					template.appendTo(t, result);
+					return result.toString();
+				};
+			// Values appended to a buffer are never null
+			return t -> String.valueOf(only.apply(t));
+		}
+		if (segments.size() == 2) {
+			final HydeReorgOperationPart s1 = segments.get(0);
+			final HydeReorgOperationPart s2 = segments.get(1);
+			return t -> {
+				StringBuilder result = new StringBuilder(capacity);
+				s1.appendTo(t, result);
+				s2.appendTo(t, result);
+				return result.toString();
+			};
+		}
+		final HydeReorgOperationPart[] all = segments.toArray(HydeReorgOperationPart[]::new);
+		return t -> {
+			StringBuilder result = new StringBuilder(capacity);
+			for (HydeReorgOperationPart segment : all)
+				segment.appendTo(t, result);
+			return result.toString();
+		};
+	}
+
+}
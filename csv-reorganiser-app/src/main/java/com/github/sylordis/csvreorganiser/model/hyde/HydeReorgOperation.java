@@ -1,11 +1,15 @@
 package com.github.sylordis.csvreorganiser.model.hyde;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.apache.commons.csv.CSVRecord;
-
+import com.github.sylordis.csvreorganiser.model.engines.BoundOperation;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * A Hyde operation is represented by a tree, the root operation holding the name while the other
@@ -25,6 +29,11 @@ public class HydeReorgOperation implements ReorganiserOperation {
 	 * Children of the operation. This list should never be null.
 	 */
 	private List<HydeReorgOperationPart> children;
+	/**
+	 * Whether the operation is compiled by {@link HydeOperationCompiler} when bound, or interprets its
+	 * parts.
+	 */
+	private boolean compiled;
 
 	/**
 	 * Constructs a Hyde operation with just a name to itself.
@@ -34,13 +43,54 @@ public class HydeReorgOperation implements ReorganiserOperation {
 	public HydeReorgOperation(String name) {
 		this.name = name;
 		this.children = new ArrayList<>();
+		this.compiled = true;
+	}
+
+	@Override
+	public String applyTo(SourceRecord t) {
+		StringBuilder result = new StringBuilder();
+		for (HydeReorgOperationPart child : children)
+			result.append(child.apply(t));
+		return result.toString();
+	}
+
+	@Override
+	public boolean applyTo(SourceRecord t, Appendable out) throws IOException {
+		for (HydeReorgOperationPart child : children)
+			child.appendTo(t, out);
+		return true;
+	}
+
+	@Override
+	public ReorganiserOperation bind(SourceHeader header) {
+		if (compiled) {
+			final HydeReorgOperationPart operation = HydeOperationCompiler.compile(children, header);
+			return new BoundOperation(this, operation, (t, out) -> {
+				operation.appendTo(t, out);
+				return true;
+			});
+		}
+		final HydeReorgOperationPart[] parts = new HydeReorgOperationPart[children.size()];
+		for (int i = 0; i < parts.length; i++)
+			parts[i] = children.get(i).bind(header);
+		return new BoundOperation(this, t -> {
+			StringBuilder result = new StringBuilder();
+			for (HydeReorgOperationPart part : parts)
+				result.append(part.apply(t));
+			return result.toString();
+		}, (t, out) -> {
+			for (HydeReorgOperationPart part : parts)
+				part.appendTo(t, out);
+			return true;
+		});
 	}
 
 	@Override
-	public String apply(CSVRecord t) {
-		String result = null;
-		result = String.join("", this.children.stream().map(c -> c.apply(t)).toArray(String[]::new));
-		return result;
+	public Set<String> getSourceColumns() {
+		Set<String> columns = new HashSet<>();
+		for (HydeReorgOperationPart child : children)
+			columns.addAll(child.getSourceColumns());
+		return columns;
 	}
 
 	@Override
@@ -81,6 +131,20 @@ public class HydeReorgOperation implements ReorganiserOperation {
 		return !this.children.isEmpty();
 	}
 
+	/**
+	 * @return true if the operation is compiled when bound
+	 */
+	public boolean isCompiled() {
+		return compiled;
+	}
+
+	/**
+	 * @param compiled true to compile the operation when bound, false to interpret its parts
+	 */
+	public void setCompiled(boolean compiled) {
+		this.compiled = compiled;
+	}
+
 	/**
 	 * @param name the name to set
 	 */
@@ -0,0 +1,51 @@
+package com.github.sylordis.csvreorganiser.model.hyde;
+
+import java.io.IOException;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Part of a Hyde operation outputting a constant, the text between templates.
+ *
+ * @author sylordis
+ *
+ */
+public class HydeReorgOperationConstantPart implements HydeReorgOperationPart {
+
+	/**
+	 * Constant output.
+	 */
+	private final String content;
+
+	/**
+	 * Constructs a new constant part.
+	 *
+	 * @param content constant output
+	 */
+	public HydeReorgOperationConstantPart(String content) {
+		this.content = content;
+	}
+
+	@Override
+	public String apply(SourceRecord t) {
+		return content;
+	}
+
+	@Override
+	public void appendTo(SourceRecord record, Appendable out) throws IOException {
+		out.append(content);
+	}
+
+	@Override
+	public void appendTo(SourceRecord record, StringBuilder out) {
+		out.append(content);
+	}
+
+	/**
+	 * @return the constant output
+	 */
+	public String getContent() {
+		return content;
+	}
+
+}
@@ -1,9 +1,63 @@
 package com.github.sylordis.csvreorganiser.model.hyde;
 
+import java.io.IOException;
+import java.util.Set;
 import java.util.function.Function;
 
-import org.apache.commons.csv.CSVRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
-public interface HydeReorgOperationPart extends Function<CSVRecord, String> {
+public interface HydeReorgOperationPart extends Function<SourceRecord, String> {
+
+	/**
+	 * Gets the names of the source columns this part reads.
+	 *
+	 * @return the names of the columns read, empty for constant parts
+	 */
+	default Set<String> getSourceColumns() {
+		return Set.of();
+	}
+
+	/**
+	 * Binds this part to the header of a source file, resolving the columns it reads to their index.
+	 *
+	 * @param header header of the source file
+	 * @return a part producing the same values for records of this header
+	 * @throws IllegalArgumentException if a column does not exist in the header
+	 * @see com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation#bind(SourceHeader)
+	 */
+	default HydeReorgOperationPart bind(SourceHeader header) {
+		return this;
+	}
+
+	/**
+	 * Appends the value of this part for a record to an output, as
+	 * {@link StringBuilder#append(String)} would, null being appended as "null".
+	 *
+	 * @param record source record
+	 * @param out    output to append the value to
+	 * @throws IOException if the output cannot be appended to
+	 * @see com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation#applyTo(SourceRecord,
+	 *      Appendable)
+	 */
+	default void appendTo(SourceRecord record, Appendable out) throws IOException {
+		if (out instanceof StringBuilder buffer)
+			appendTo(record, buffer);
+		else
+			out.append(apply(record));
+	}
+
+	/**
+	 * Appends the value of this part for a record to a buffer, as {@link #appendTo(SourceRecord,
+	 * Appendable)}. Parts applying filters can transform their value in place at the end of the
+	 * buffer.
+	 *
+	 * @param record source record
+	 * @param out    buffer to append the value to
+	 * @see HydeFilter#applyInPlace(StringBuilder, int)
+	 */
+	default void appendTo(SourceRecord record, StringBuilder out) {
+		out.append(apply(record));
+	}
 
 }
@@ -0,0 +1,94 @@
+package com.github.sylordis.csvreorganiser.model.hyde;
+
+import java.util.Set;
+
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Template part whose value is computed once per record for all the templates reading the same
+ * field through the same filters, see {@link SharedSubexpression}.
+ *
+ * @author sylordis
+ *
+ */
+public class HydeReorgOperationSharedPart implements HydeReorgOperationPart {
+
+	/**
+	 * Template shared.
+	 */
+	private final HydeReorgOperationTemplatePart template;
+	/**
+	 * Value shared between the templates.
+	 */
+	private final SharedSubexpression shared;
+	/**
+	 * Whether this template computes the value for the next ones.
+	 */
+	private final boolean producer;
+
+	/**
+	 * Constructs a new shared part.
+	 *
+	 * @param template template shared
+	 * @param shared   value shared between the templates
+	 * @param producer true if this template computes the value for the next ones, false if it reuses
+	 *                 it
+	 */
+	public HydeReorgOperationSharedPart(HydeReorgOperationTemplatePart template, SharedSubexpression shared,
+	        boolean producer) {
+		this.template = template;
+		this.shared = shared;
+		this.producer = producer;
+	}
+
+	@Override
+	public String apply(SourceRecord t) {
+		return producer ? shared.produce(t, template) : shared.reuse(t, template);
+	}
+
+	@Override
+	public HydeReorgOperationPart bind(SourceHeader header) {
+		return share(template.bind(header));
+	}
+
+	/**
+	 * Shares the values of the template bound to a header.
+	 *
+	 * @param bound part computing the value of the template for the records of a header
+	 * @return a part computing or reusing the shared value for the records of the header
+	 */
+	public HydeReorgOperationPart share(HydeReorgOperationPart bound) {
+		if (producer)
+			return t -> shared.produce(t, bound);
+		return t -> shared.reuse(t, bound);
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return template.getSourceColumns();
+	}
+
+	/**
+	 * @return the template shared
+	 */
+	public HydeReorgOperationTemplatePart getTemplate() {
+		return template;
+	}
+
+	/**
+	 * @return the value shared between the templates
+	 */
+	public SharedSubexpression getShared() {
+		return shared;
+	}
+
+	/**
+	 * @return true if this template computes the value for the next ones, false if it reuses it
+	 */
+	public boolean isProducer() {
+		return producer;
+	}
+
+}
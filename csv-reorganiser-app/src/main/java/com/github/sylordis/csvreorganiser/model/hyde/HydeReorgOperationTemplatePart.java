@@ -2,25 +2,75 @@ package com.github.sylordis.csvreorganiser.model.hyde;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
-import org.apache.commons.csv.CSVRecord;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 public class HydeReorgOperationTemplatePart implements HydeReorgOperationPart {
 	
 	private List<HydeFilter> filters;
 	private String field;
+	/**
+	 * Memo of the filtered values once bound, null if not memoised.
+	 */
+	private ResultMemo memo;
 
 	public HydeReorgOperationTemplatePart() {
 		filters = new ArrayList<>();
 	}
 
 	@Override
-	public String apply(CSVRecord t) {
+	public String apply(SourceRecord t) {
 		String content = t.get(field);
 		for (HydeFilter filter : filters)
 			content = filter.apply(content); 
 		return content;
 	}
+
+	/**
+	 * Filters are applied in place at the end of the buffer, except for null values.
+	 */
+	@Override
+	public void appendTo(SourceRecord record, StringBuilder out) {
+		final CharSequence value = record.getView(field);
+		if (value == null)
+			out.append(apply(record));
+		else {
+			final int start = out.length();
+			out.append(value);
+			for (HydeFilter filter : filters)
+				filter.applyInPlace(out, start);
+		}
+	}
+
+	@Override
+	public HydeReorgOperationPart bind(SourceHeader header) {
+		if (field == null)
+			throw new IllegalArgumentException("No field provided for template");
+		final int index = header.indexOf(field);
+		if (index == SourceHeader.NOT_MAPPED)
+			throw new IllegalArgumentException("Source column '" + field + "' does not exist in the header");
+		final HydeFilter[] boundFilters = FilterFusion.fuse(filters).toArray(HydeFilter[]::new);
+		final UnaryOperator<String> chain = value -> {
+			String content = value;
+			for (HydeFilter filter : boundFilters)
+				content = filter.apply(content);
+			return content;
+		};
+		final ResultMemo boundMemo = memo;
+		if (boundMemo == null)
+			return t -> chain.apply(t.get(index));
+		return t -> boundMemo.apply(t.get(index), chain);
+	}
+
+	@Override
+	public Set<String> getSourceColumns() {
+		return field == null ? Set.of() : Set.of(field);
+	}
 	
 	/**
 	 * @return the filters
@@ -50,4 +100,18 @@ public class HydeReorgOperationTemplatePart implements HydeReorgOperationPart {
 		this.field = field;
 	}
 
+	/**
+	 * @return the memo of the filtered values once bound, null if not memoised
+	 */
+	public ResultMemo getMemo() {
+		return memo;
+	}
+
+	/**
+	 * @param memo the memo of the filtered values once bound, null to filter every value
+	 */
+	public void setMemo(ResultMemo memo) {
+		this.memo = memo;
+	}
+
 }
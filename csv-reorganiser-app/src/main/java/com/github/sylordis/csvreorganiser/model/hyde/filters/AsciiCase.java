@@ -0,0 +1,113 @@
+package com.github.sylordis.csvreorganiser.model.hyde.filters;
+
+import java.util.Locale;
+
+/**
+ * Case conversion of values in place, with a fast path for ASCII characters. Conversions give the
+ * same results as {@link String#toLowerCase()} and {@link String#toUpperCase()}: as soon as a
+ * non-ASCII character is met, or if the default locale has its own rules for ASCII letters, the
+ * whole value is converted through them, as some conversions depend on the surrounding letters.
+ *
+ * @author sylordis
+ *
+ */
+final class AsciiCase {
+
+	/**
+	 * Difference between the code of an ASCII upper case letter and the lower case one.
+	 */
+	private static final int CASE_OFFSET = 'a' - 'A';
+
+	/**
+	 * Hidden constructor.
+	 */
+	private AsciiCase() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Changes all characters of the end of a buffer to the lower case.
+	 *
+	 * @param buffer buffer ending with the value
+	 * @param start  index of the first character of the value
+	 */
+	static void toLowerCase(StringBuilder buffer, int start) {
+		final int length = buffer.length();
+		if (hasAsciiRules()) {
+			for (int i = start; i < length; i++) {
+				final char c = buffer.charAt(i);
+				if (c >= 0x80) {
+					replace(buffer, start, buffer.substring(start).toLowerCase());
+					return;
+				}
+				if (c >= 'A' && c <= 'Z')
+					buffer.setCharAt(i, (char) (c + CASE_OFFSET));
+			}
+		} else
+			replace(buffer, start, buffer.substring(start).toLowerCase());
+	}
+
+	/**
+	 * Changes all characters of the end of a buffer to the upper case.
+	 *
+	 * @param buffer buffer ending with the value
+	 * @param start  index of the first character of the value
+	 */
+	static void toUpperCase(StringBuilder buffer, int start) {
+		final int length = buffer.length();
+		if (hasAsciiRules()) {
+			for (int i = start; i < length; i++) {
+				final char c = buffer.charAt(i);
+				if (c >= 0x80) {
+					replace(buffer, start, buffer.substring(start).toUpperCase());
+					return;
+				}
+				if (c >= 'a' && c <= 'z')
+					buffer.setCharAt(i, (char) (c - CASE_OFFSET));
+			}
+		} else
+			replace(buffer, start, buffer.substring(start).toUpperCase());
+	}
+
+	/**
+	 * Changes the first character of the end of a buffer to the upper case, as
+	 * <code>value.substring(0, 1).toUpperCase()</code> would.
+	 *
+	 * @param buffer buffer ending with the value
+	 * @param start  index of the first character of the value
+	 */
+	static void capitaliseFirst(StringBuilder buffer, int start) {
+		if (start < buffer.length()) {
+			final char c = buffer.charAt(start);
+			if (c < 0x80 && hasAsciiRules()) {
+				if (c >= 'a' && c <= 'z')
+					buffer.setCharAt(start, (char) (c - CASE_OFFSET));
+			} else
+				buffer.replace(start, start + 1, buffer.substring(start, start + 1).toUpperCase());
+		}
+	}
+
+	/**
+	 * Checks if ASCII letters follow the plain ASCII case rules in the default locale, which is not
+	 * the case of the dotted and dotless i of Turkish, Azerbaijani and Lithuanian.
+	 *
+	 * @return true if ASCII letters can be converted without the locale
+	 */
+	private static boolean hasAsciiRules() {
+		final String language = Locale.getDefault().getLanguage();
+		return !"tr".equals(language) && !"az".equals(language) && !"lt".equals(language);
+	}
+
+	/**
+	 * Replaces the end of a buffer.
+	 *
+	 * @param buffer buffer to modify
+	 * @param start  index of the first character replaced
+	 * @param value  new end of the buffer
+	 */
+	private static void replace(StringBuilder buffer, int start, String value) {
+		buffer.setLength(start);
+		buffer.append(value);
+	}
+
+}
@@ -17,4 +17,9 @@ public class CapFirstFilter extends HydeAbstractFilter {
 		return ret;
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		AsciiCase.capitaliseFirst(buffer, start);
+	}
+
 }
@@ -24,6 +24,16 @@ public class DefaultFilter extends HydeAbstractFilter {
 		return ret;
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		for (int i = start; i < buffer.length(); i++) {
+			if (!Character.isWhitespace(buffer.charAt(i)))
+				return;
+		}
+		buffer.setLength(start);
+		buffer.append(defaultValue);
+	}
+
 	/**
 	 * @return the default value
 	 */
@@ -0,0 +1,384 @@
+package com.github.sylordis.csvreorganiser.model.hyde.filters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeFilter;
+import com.github.sylordis.csvreorganiser.utils.RegexReplacer;
+
+/**
+ * Fuses neighbouring filters of a template into a single filter going over the value only once,
+ * following rules on the filters of this package:
+ * <ul>
+ * <li>a <code>substring</code> followed by other ones and at most one <code>truncate</code>
+ * extracts the final range directly,</li>
+ * <li><code>replace</code> filters of single plain characters translate each character at
+ * once.</li>
+ * </ul>
+ * Case changes are not fused: the vectorised case conversions of the JDK and the in place ASCII
+ * conversions are faster than a fused table.<br/>
+ * Fused filters produce the same values and raise the same exceptions as the filters they replace,
+ * returned or applied in place. Filters are fused once their arguments are set, when operations are
+ * bound.
+ *
+ * @author sylordis
+ *
+ */
+public final class FilterFusion {
+
+	/**
+	 * Rule fusing runs of neighbouring filters.
+	 */
+	private enum Rule {
+
+		/**
+		 * Substrings, possibly truncated.
+		 */
+		SLICE {
+			@Override
+			boolean starts(HydeFilter filter) {
+				return filter.getClass() == SubstringFilter.class;
+			}
+
+			@Override
+			boolean continues(List<HydeFilter> run, HydeFilter next) {
+				return run.get(run.size() - 1).getClass() == SubstringFilter.class
+				        && (next.getClass() == SubstringFilter.class || next.getClass() == TruncateFilter.class);
+			}
+
+			@Override
+			HydeFilter fuse(List<HydeFilter> run) {
+				return new FusedSliceFilter(run);
+			}
+		},
+
+		/**
+		 * Replacements of single characters.
+		 */
+		TRANSLATE {
+			@Override
+			boolean starts(HydeFilter filter) {
+				if (filter.getClass() != ReplaceFilter.class)
+					return false;
+				final RegexReplacer replacer = ((ReplaceFilter) filter).getReplacer();
+				return replacer.isLiteral() && replacer.getRegex().length() == 1
+				        && !Character.isSurrogate(replacer.getRegex().charAt(0));
+			}
+
+			@Override
+			boolean continues(List<HydeFilter> run, HydeFilter next) {
+				return starts(next);
+			}
+
+			@Override
+			HydeFilter fuse(List<HydeFilter> run) {
+				return new FusedTranslateFilter(run);
+			}
+		};
+
+		/**
+		 * @param filter filter starting a run
+		 * @return true if the rule can fuse runs starting with this filter
+		 */
+		abstract boolean starts(HydeFilter filter);
+
+		/**
+		 * @param run  filters of the run so far
+		 * @param next filter following the run
+		 * @return true if the next filter can be fused with the run
+		 */
+		abstract boolean continues(List<HydeFilter> run, HydeFilter next);
+
+		/**
+		 * @param run filters to fuse, at least two
+		 * @return a filter producing the same values as the filters of the run applied in order
+		 */
+		abstract HydeFilter fuse(List<HydeFilter> run);
+
+	}
+
+	/**
+	 * Hidden constructor.
+	 */
+	private FilterFusion() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Fuses the neighbouring filters of a chain which can be, each filter being fused at most once.
+	 *
+	 * @param filters filters to apply, in order
+	 * @return the filters to apply instead, fused or not, in order
+	 */
+	public static List<HydeFilter> fuse(List<HydeFilter> filters) {
+		List<HydeFilter> fused = new ArrayList<>(filters.size());
+		int i = 0;
+		while (i < filters.size()) {
+			List<HydeFilter> run = null;
+			for (Rule rule : Rule.values()) {
+				if (rule.starts(filters.get(i))) {
+					run = new ArrayList<>();
+					run.add(filters.get(i));
+					while (i + run.size() < filters.size() && rule.continues(run, filters.get(i + run.size())))
+						run.add(filters.get(i + run.size()));
+					if (run.size() > 1) {
+						fused.add(rule.fuse(run));
+						break;
+					}
+					run = null;
+				}
+			}
+			if (run == null) {
+				fused.add(filters.get(i));
+				i++;
+			} else
+				i += run.size();
+		}
+		return fused;
+	}
+
+	/**
+	 * Filter replacing a run of filters.
+	 */
+	private abstract static class FusedFilter implements HydeFilter {
+
+		/**
+		 * Filters fused, in order.
+		 */
+		private final HydeFilter[] filters;
+
+		/**
+		 * Constructs a fused filter.
+		 *
+		 * @param filters filters fused, in order
+		 */
+		FusedFilter(List<HydeFilter> filters) {
+			this.filters = filters.toArray(HydeFilter[]::new);
+		}
+
+		/**
+		 * Fused filters are configured through the filters they fuse.
+		 *
+		 * @throws SelfFillingException always
+		 */
+		@Override
+		public void fill(List<Object> data) throws SelfFillingException {
+			throw new SelfFillingException("Fused filters cannot be filled");
+		}
+
+		@Override
+		public String toString() {
+			return "Fused" + List.of(filters);
+		}
+
+	}
+
+	/**
+	 * Substrings followed by at most one truncation, extracting the final range of the value at once.
+	 */
+	private static final class FusedSliceFilter extends FusedFilter {
+
+		/**
+		 * Start indexes of the substrings.
+		 */
+		private final int[] starts;
+		/**
+		 * End indexes of the substrings, {@link SubstringFilter#DEFAULT_END_INDEX} up to the end.
+		 */
+		private final int[] ends;
+		/**
+		 * Truncation length, negative if not truncated.
+		 */
+		private final int truncation;
+		/**
+		 * Whether the range is truncated.
+		 */
+		private final boolean truncated;
+		/**
+		 * Ellipsis of the truncation.
+		 */
+		private final String ellipsis;
+
+		/**
+		 * Constructs a fused slice.
+		 *
+		 * @param filters substrings, possibly followed by a truncation
+		 */
+		private FusedSliceFilter(List<HydeFilter> filters) {
+			super(filters);
+			final HydeFilter last = filters.get(filters.size() - 1);
+			truncated = last instanceof TruncateFilter;
+			final int substrings = truncated ? filters.size() - 1 : filters.size();
+			starts = new int[substrings];
+			ends = new int[substrings];
+			for (int i = 0; i < substrings; i++) {
+				starts[i] = ((SubstringFilter) filters.get(i)).getStartIndex();
+				ends[i] = ((SubstringFilter) filters.get(i)).getEndIndex();
+			}
+			truncation = truncated ? ((TruncateFilter) last).getLength() : -1;
+			ellipsis = truncated ? ((TruncateFilter) last).getEllipsis() : null;
+		}
+
+		/**
+		 * Computes the range extracted by the substrings.
+		 *
+		 * @param length length of the value
+		 * @return the start of the range in the high bits and its end in the low bits
+		 * @throws StringIndexOutOfBoundsException if a substring is out of the range of the previous one
+		 */
+		private long range(int length) {
+			int from = 0;
+			int to = length;
+			for (int i = 0; i < starts.length; i++) {
+				final int current = to - from;
+				final int end = ends[i] != SubstringFilter.DEFAULT_END_INDEX ? ends[i] : current;
+				if (starts[i] < 0 || starts[i] > end || end > current)
+					throw new StringIndexOutOfBoundsException(
+					        "begin " + starts[i] + ", end " + end + ", length " + current);
+				to = from + end;
+				from += starts[i];
+			}
+			if (truncated && to - from > truncation && truncation < 0)
+				throw new StringIndexOutOfBoundsException("begin 0, end " + truncation + ", length " + (to - from));
+			return (long) from << Integer.SIZE | to;
+		}
+
+		@Override
+		public String apply(String t) {
+			final long range = range(t.length());
+			final int from = (int) (range >>> Integer.SIZE);
+			final int to = (int) range;
+			if (truncated && to - from > truncation)
+				return t.substring(from, from + truncation) + ellipsis;
+			return t.substring(from, to);
+		}
+
+		@Override
+		public void applyInPlace(StringBuilder buffer, int start) {
+			final long range = range(buffer.length() - start);
+			final int from = (int) (range >>> Integer.SIZE);
+			final int to = (int) range;
+			if (truncated && to - from > truncation) {
+				buffer.setLength(start + from + truncation);
+				buffer.delete(start, start + from);
+				buffer.append(ellipsis);
+			} else {
+				buffer.setLength(start + to);
+				buffer.delete(start, start + from);
+			}
+		}
+
+	}
+
+	/**
+	 * Replacements of single characters, translating each character of the value at once.
+	 */
+	private static final class FusedTranslateFilter extends FusedFilter {
+
+		/**
+		 * Characters looked up in a table rather than in the map.
+		 */
+		private static final int TABLE_SIZE = 0x100;
+
+		/**
+		 * Translation of the characters of the table, null if not translated.
+		 */
+		private final String[] table;
+		/**
+		 * Translation of the other characters.
+		 */
+		private final Map<Character, String> others;
+		/**
+		 * Whether all translations are a single character.
+		 */
+		private final boolean singleChars;
+
+		/**
+		 * Constructs a fused translation.
+		 *
+		 * @param filters replacements of single plain characters, in order
+		 */
+		private FusedTranslateFilter(List<HydeFilter> filters) {
+			super(filters);
+			Map<Character, String> translations = new HashMap<>();
+			for (HydeFilter filter : filters) {
+				final RegexReplacer replacer = ((ReplaceFilter) filter).getReplacer();
+				final char searched = replacer.getRegex().charAt(0);
+				final String replacement = replacer.getLiteralReplacement();
+				// Characters already translated see their translation replaced
+				translations.replaceAll((c, translation) -> translation.replace(String.valueOf(searched), replacement));
+				translations.putIfAbsent(searched, replacement);
+			}
+			table = new String[TABLE_SIZE];
+			others = new HashMap<>();
+			boolean single = true;
+			for (Map.Entry<Character, String> translation : translations.entrySet()) {
+				if (translation.getKey() < TABLE_SIZE)
+					table[translation.getKey()] = translation.getValue();
+				else
+					others.put(translation.getKey(), translation.getValue());
+				single &= translation.getValue().length() == 1;
+			}
+			singleChars = single;
+		}
+
+		/**
+		 * @param c character
+		 * @return the translation of the character, null if not translated
+		 */
+		private String translate(char c) {
+			return c < TABLE_SIZE ? table[c] : others.isEmpty() ? null : others.get(c);
+		}
+
+		@Override
+		public String apply(String t) {
+			final int length = t.length();
+			if (singleChars) {
+				StringBuilder result = null;
+				for (int i = 0; i < length; i++) {
+					final String translation = translate(t.charAt(i));
+					if (translation != null) {
+						if (result == null)
+							result = new StringBuilder(t);
+						result.setCharAt(i, translation.charAt(0));
+					}
+				}
+				return result == null ? t : result.toString();
+			}
+			StringBuilder result = null;
+			// Untranslated characters are copied by runs
+			int copied = 0;
+			for (int i = 0; i < length; i++) {
+				final String translation = translate(t.charAt(i));
+				if (translation != null) {
+					if (result == null)
+						result = new StringBuilder(length + 16);
+					result.append(t, copied, i).append(translation);
+					copied = i + 1;
+				}
+			}
+			return result == null ? t : result.append(t, copied, length).toString();
+		}
+
+		@Override
+		public void applyInPlace(StringBuilder buffer, int start) {
+			if (!singleChars) {
+				final String result = apply(buffer.substring(start));
+				buffer.setLength(start);
+				buffer.append(result);
+				return;
+			}
+			final int length = buffer.length();
+			for (int i = start; i < length; i++) {
+				final String translation = translate(buffer.charAt(i));
+				if (translation != null)
+					buffer.setCharAt(i, translation.charAt(0));
+			}
+		}
+
+	}
+
+}
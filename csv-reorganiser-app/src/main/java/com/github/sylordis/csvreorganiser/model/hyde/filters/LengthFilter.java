@@ -14,4 +14,11 @@ public class LengthFilter extends HydeAbstractFilter {
 		return Integer.toString(t.length());
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		final int length = buffer.length() - start;
+		buffer.setLength(start);
+		buffer.append(length);
+	}
+
 }
@@ -14,4 +14,9 @@ public class LowerFilter extends HydeAbstractFilter {
 		return t.toLowerCase();
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		AsciiCase.toLowerCase(buffer, start);
+	}
+
 }
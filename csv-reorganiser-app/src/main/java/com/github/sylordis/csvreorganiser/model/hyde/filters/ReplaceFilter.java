@@ -1,8 +1,13 @@
 package com.github.sylordis.csvreorganiser.model.hyde.filters;
 
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
 import com.github.sylordis.csvreorganiser.model.hyde.HydeAbstractFilter;
+import com.github.sylordis.csvreorganiser.utils.RegexReplacer;
 
 /**
  * Performs a regular expression replacement on the source string.<br/>
@@ -26,10 +31,49 @@ public class ReplaceFilter extends HydeAbstractFilter {
 	 * capture group number X. If not specified, will be considered as empty string.
 	 */
 	private String replacement = "";
+	/**
+	 * Replacer compiled from the pattern and the replacement, compiled again if either changes.
+	 */
+	private RegexReplacer replacer;
+
+	/**
+	 * The pattern is compiled once filled.
+	 *
+	 * @throws SelfFillingException if the pattern is not a valid regular expression
+	 */
+	@Override
+	public void fill(List<Object> data) throws SelfFillingException {
+		super.fill(data);
+		try {
+			getReplacer();
+		} catch (PatternSyntaxException e) {
+			throw new SelfFillingException(e);
+		}
+	}
 
 	@Override
 	public String apply(String t) {
-		return t.replaceAll(pattern, replacement);
+		return getReplacer().replaceAll(t);
+	}
+
+	@Override
+	public boolean isMemoisable() {
+		return true;
+	}
+
+	/**
+	 * Gets the replacer of the current pattern and replacement, compiling it if needed.
+	 *
+	 * @return the replacer
+	 * @throws PatternSyntaxException if the pattern is not a valid regular expression
+	 */
+	RegexReplacer getReplacer() {
+		RegexReplacer current = replacer;
+		if (current == null || !current.isFor(pattern, replacement)) {
+			current = RegexReplacer.compile(pattern, replacement);
+			replacer = current;
+		}
+		return current;
 	}
 
 	@Override
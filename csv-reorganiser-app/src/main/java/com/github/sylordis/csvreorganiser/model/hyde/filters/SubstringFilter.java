@@ -35,6 +35,17 @@ public class SubstringFilter extends HydeAbstractFilter {
 		return res;
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		final int length = buffer.length() - start;
+		final int end = endIndex != DEFAULT_END_INDEX ? endIndex : length;
+		if (startIndex < 0 || startIndex > end || end > length)
+			throw new StringIndexOutOfBoundsException(
+			        "begin " + startIndex + ", end " + end + ", length " + length);
+		buffer.setLength(start + end);
+		buffer.delete(start, start + startIndex);
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + "[" + startIndex + " => "
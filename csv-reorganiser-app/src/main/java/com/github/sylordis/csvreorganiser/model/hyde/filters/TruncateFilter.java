@@ -30,6 +30,16 @@ public class TruncateFilter extends HydeAbstractFilter {
 		return ret;
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		if (buffer.length() - start > length) {
+			if (length < 0)
+				throw new StringIndexOutOfBoundsException("begin 0, end " + length);
+			buffer.setLength(start + length);
+			buffer.append(ellipsis);
+		}
+	}
+
 	/**
 	 * @return the length
 	 */
@@ -14,4 +14,9 @@ public class UpperFilter extends HydeAbstractFilter {
 		return t.toUpperCase();
 	}
 
+	@Override
+	public void applyInPlace(StringBuilder buffer, int start) {
+		AsciiCase.toUpperCase(buffer, start);
+	}
+
 }
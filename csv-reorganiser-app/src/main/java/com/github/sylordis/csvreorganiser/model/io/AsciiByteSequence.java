@@ -0,0 +1,66 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Character sequence viewing ASCII bytes of a buffer in place, one byte per character.
+ *
+ * @author sylordis
+ *
+ */
+final class AsciiByteSequence implements CharSequence {
+
+	/**
+	 * Backing buffer, only accessed with absolute positions.
+	 */
+	private final ByteBuffer buffer;
+	/**
+	 * Position of the first byte in the buffer.
+	 */
+	private final int offset;
+	/**
+	 * Number of bytes.
+	 */
+	private final int length;
+
+	/**
+	 * Creates a new view.
+	 *
+	 * @param buffer backing buffer
+	 * @param offset position of the first byte in the buffer
+	 * @param length number of bytes, all of them having to be ASCII
+	 */
+	AsciiByteSequence(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length)
+			throw new StringIndexOutOfBoundsException(index);
+		return (char) buffer.get(offset + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end)
+			throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+		return new AsciiByteSequence(buffer, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+}
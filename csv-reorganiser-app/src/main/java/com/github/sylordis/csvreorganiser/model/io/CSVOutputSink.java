@@ -0,0 +1,405 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes target records straight to a channel through a reusable byte buffer. Values are quoted and
+ * encoded to UTF-8 in a single pass over their characters, without creating any intermediate
+ * string.<br/>
+ * <br/>
+ * The output is the same as a {@link org.apache.commons.csv.CSVPrinter} with the default format of
+ * commons-csv: comma delimiter, CRLF record separator and minimal quoting. A value is quoted if it
+ * contains a delimiter, a quote or a line break, if it starts with a character up to '#', if it ends
+ * with whitespace or a control character, or if it is empty and the first of its record. Quotes are
+ * doubled. Null values are written as empty values which are never quoted. Unpaired surrogates are
+ * written as '?'.<br/>
+ * <br/>
+ * Sinks are not thread-safe.
+ *
+ * @author sylordis
+ *
+ */
+public class CSVOutputSink implements Closeable, Flushable {
+
+	/**
+	 * Default size of the buffer.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+	/**
+	 * Minimum size of the buffer.
+	 */
+	public static final int MIN_BUFFER_SIZE = 16;
+	/**
+	 * Maximum number of bytes written for one character of a value, a doubled quote taking 2 and a
+	 * surrogate pair 4 for 2 characters.
+	 */
+	private static final int MAX_BYTES_PER_CHAR = 3;
+	/**
+	 * Space to keep in the buffer before writing a character of a value larger than the buffer.
+	 */
+	private static final int STREAMED_MARGIN = 8;
+	/**
+	 * Field delimiter.
+	 */
+	private static final byte DELIMITER = ',';
+	/**
+	 * Quote character.
+	 */
+	private static final byte QUOTE = '"';
+	/**
+	 * Line feed.
+	 */
+	private static final byte LF = '\n';
+	/**
+	 * Carriage return.
+	 */
+	private static final byte CR = '\r';
+	/**
+	 * Byte written for unpaired surrogates.
+	 */
+	private static final byte REPLACEMENT = '?';
+
+	/**
+	 * Channel written to.
+	 */
+	private final WritableByteChannel channel;
+	/**
+	 * Content of the buffer.
+	 */
+	private final byte[] bytes;
+	/**
+	 * Buffer used to write {@link #bytes} to the channel.
+	 */
+	private final ByteBuffer buffer;
+	/**
+	 * Number of bytes in the buffer.
+	 */
+	private int position;
+	/**
+	 * Whether the next value is the first of a record.
+	 */
+	private boolean newRecord;
+	/**
+	 * Number of bytes written to the channel.
+	 */
+	private long written;
+
+	/**
+	 * Constructs a new sink writing to a channel.
+	 *
+	 * @param channel    channel to write to, closed with the sink
+	 * @param bufferSize size of the buffer in bytes
+	 * @throws IllegalArgumentException if the buffer size is lower than {@link #MIN_BUFFER_SIZE}
+	 */
+	public CSVOutputSink(WritableByteChannel channel, int bufferSize) {
+		if (bufferSize < MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException(
+			        "Output buffer size must be at least " + MIN_BUFFER_SIZE + " bytes (was " + bufferSize + ")");
+		this.channel = channel;
+		this.bytes = new byte[bufferSize];
+		this.buffer = ByteBuffer.wrap(bytes);
+		this.newRecord = true;
+	}
+
+	/**
+	 * Opens a sink writing to a file, which is created or truncated.
+	 *
+	 * @param file       file to write to
+	 * @param bufferSize size of the buffer in bytes
+	 * @return a new sink
+	 * @throws FileNotFoundException if the file cannot be created or opened
+	 */
+	public static CSVOutputSink open(File file, int bufferSize) throws FileNotFoundException {
+		if (bufferSize < MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException(
+			        "Output buffer size must be at least " + MIN_BUFFER_SIZE + " bytes (was " + bufferSize + ")");
+		return new CSVOutputSink(new FileOutputStream(file).getChannel(), bufferSize);
+	}
+
+	/**
+	 * Opens a sink writing to the end of an existing file, after truncating it to a given length. The
+	 * size of the sink starts at this length.
+	 *
+	 * @param file       file to write to
+	 * @param length     length to keep from the file
+	 * @param bufferSize size of the buffer in bytes
+	 * @return a new sink
+	 * @throws IOException if the file cannot be opened or is shorter than the length
+	 */
+	public static CSVOutputSink resume(File file, long length, int bufferSize) throws IOException {
+		if (bufferSize < MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException(
+			        "Output buffer size must be at least " + MIN_BUFFER_SIZE + " bytes (was " + bufferSize + ")");
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+		try {
+			if (channel.size() < length)
+				throw new IOException(file + " is shorter than " + length + " bytes");
+			channel.truncate(length).position(length);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		CSVOutputSink sink = new CSVOutputSink(channel, bufferSize);
+		sink.written = length;
+		return sink;
+	}
+
+	/**
+	 * Prints a value in the current record.
+	 *
+	 * @param value value to print, null for an empty value
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	public void print(CharSequence value) throws IOException {
+		if (!newRecord)
+			put(DELIMITER);
+		if (value != null) {
+			final int length = value.length();
+			if (length > 0)
+				printValue(value, length);
+			else if (newRecord) {
+				// An empty first value would otherwise be read as an empty line
+				put(QUOTE);
+				put(QUOTE);
+			}
+		}
+		newRecord = false;
+	}
+
+	/**
+	 * Prints all values as a record.
+	 *
+	 * @param values values of the record
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	public void printRecord(Iterable<? extends CharSequence> values) throws IOException {
+		for (CharSequence value : values)
+			print(value);
+		println();
+	}
+
+	/**
+	 * Prints all values as a record.
+	 *
+	 * @param values values of the record
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	public void printRecord(CharSequence... values) throws IOException {
+		for (CharSequence value : values)
+			print(value);
+		println();
+	}
+
+	/**
+	 * Ends the current record.
+	 *
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	public void println() throws IOException {
+		put(CR);
+		put(LF);
+		newRecord = true;
+	}
+
+	/**
+	 * Writes a line as is, without any quoting, for example a comment before the header.
+	 *
+	 * @param line content of the line, without line terminator
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	public void printLine(String line) throws IOException {
+		for (byte b : line.getBytes(StandardCharsets.UTF_8))
+			put(b);
+		println();
+	}
+
+	/**
+	 * Appends the whole content of a file channel, for example a segment written by another sink. The
+	 * content is transferred from channel to channel, letting the system avoid copies when it can.
+	 *
+	 * @param source channel to append, read from its current position to its end
+	 * @throws IOException if the source cannot be read or the sink cannot be written
+	 */
+	public void append(FileChannel source) throws IOException {
+		flush();
+		final long start = source.position();
+		final long size = source.size();
+		long transferred = start;
+		while (transferred < size)
+			transferred += source.transferTo(transferred, size - transferred, channel);
+		written += size - start;
+	}
+
+	/**
+	 * Quotes and encodes a non-empty value. If the value fits in the buffer, quoting is decided while
+	 * encoding, the bytes already written being shifted when quotes turn out to be needed. Otherwise,
+	 * quoting is decided beforehand and the value is written with as many flushes as needed.
+	 *
+	 * @param value  value to print
+	 * @param length length of the value
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void printValue(CharSequence value, int length) throws IOException {
+		final boolean streamed = (long) MAX_BYTES_PER_CHAR * length + 2 > bytes.length;
+		boolean quoted;
+		if (streamed) {
+			quoted = needsQuotes(value, length);
+			ensure(STREAMED_MARGIN);
+		} else {
+			quoted = value.charAt(0) <= '#';
+			ensure(MAX_BYTES_PER_CHAR * length + 2);
+		}
+		final byte[] b = bytes;
+		final int start = position;
+		int p = start;
+		if (quoted)
+			b[p++] = QUOTE;
+		char c = 0;
+		for (int i = 0; i < length; i++) {
+			if (streamed && p > b.length - STREAMED_MARGIN) {
+				position = p;
+				flush();
+				p = 0;
+			}
+			c = value.charAt(i);
+			if (c < 0x80) {
+				if (!quoted && (c == DELIMITER || c == QUOTE || c == LF || c == CR)) {
+					System.arraycopy(b, start, b, start + 1, p - start);
+					b[start] = QUOTE;
+					p++;
+					quoted = true;
+				}
+				if (c == QUOTE)
+					b[p++] = QUOTE;
+				b[p++] = (byte) c;
+			} else if (c < 0x800) {
+				b[p++] = (byte) (0xC0 | c >> 6);
+				b[p++] = (byte) (0x80 | c & 0x3F);
+			} else if (!Character.isSurrogate(c)) {
+				b[p++] = (byte) (0xE0 | c >> 12);
+				b[p++] = (byte) (0x80 | c >> 6 & 0x3F);
+				b[p++] = (byte) (0x80 | c & 0x3F);
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				final int cp = Character.toCodePoint(c, value.charAt(++i));
+				b[p++] = (byte) (0xF0 | cp >> 18);
+				b[p++] = (byte) (0x80 | cp >> 12 & 0x3F);
+				b[p++] = (byte) (0x80 | cp >> 6 & 0x3F);
+				b[p++] = (byte) (0x80 | cp & 0x3F);
+			} else
+				b[p++] = REPLACEMENT;
+		}
+		if (!quoted && c <= ' ') {
+			System.arraycopy(b, start, b, start + 1, p - start);
+			b[start] = QUOTE;
+			p++;
+			quoted = true;
+		}
+		if (quoted)
+			b[p++] = QUOTE;
+		position = p;
+	}
+
+	/**
+	 * Checks if a value needs to be quoted.
+	 *
+	 * @param value  value to check
+	 * @param length length of the value, at least 1
+	 * @return true if the value must be quoted
+	 */
+	private static boolean needsQuotes(CharSequence value, int length) {
+		if (value.charAt(0) <= '#' || value.charAt(length - 1) <= ' ')
+			return true;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c == DELIMITER || c == QUOTE || c == LF || c == CR)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds a byte to the buffer, flushing it first if it is full.
+	 *
+	 * @param b byte to add
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void put(byte b) throws IOException {
+		if (position == bytes.length)
+			flush();
+		bytes[position++] = b;
+	}
+
+	/**
+	 * Makes sure the buffer has space for a number of bytes, flushing it if needed.
+	 *
+	 * @param size number of bytes needed, at most the size of the buffer
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void ensure(int size) throws IOException {
+		if (bytes.length - position < size)
+			flush();
+	}
+
+	/**
+	 * Writes the content of the buffer to the channel.
+	 */
+	@Override
+	public void flush() throws IOException {
+		buffer.limit(position).position(0);
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		written += position;
+		position = 0;
+	}
+
+	/**
+	 * Flushes the buffer and, if the sink writes to a file, forces its content to the storage device so
+	 * that it survives a crash.
+	 *
+	 * @throws IOException if the buffer cannot be flushed or the file cannot be forced
+	 */
+	public void sync() throws IOException {
+		flush();
+		if (channel instanceof FileChannel file)
+			file.force(false);
+	}
+
+	/**
+	 * Gets the number of bytes written to the sink so far, including the ones still in the buffer.
+	 *
+	 * @return the size of the output in bytes
+	 */
+	public long getSize() {
+		return written + position;
+	}
+
+	/**
+	 * @return the size of the buffer in bytes
+	 */
+	public int getBufferSize() {
+		return bytes.length;
+	}
+
+	/**
+	 * Flushes the buffer and closes the channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+
+import com.github.sylordis.csvreorganiser.model.records.CSVSourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Reads a source file through a decoding reader parsed by commons-csv. Gzip-compressed files are
+ * decompressed on the fly (see {@link GzipFiles}).
+ *
+ * @author sylordis
+ *
+ */
+public class CommonsRecordReader implements SourceRecordReader {
+
+	/**
+	 * Format of the source files.
+	 */
+	private static final CSVFormat FORMAT = CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true).get();
+
+	/**
+	 * Underlying parser.
+	 */
+	private final CSVParser parser;
+	/**
+	 * Header of the source.
+	 */
+	private final SourceHeader header;
+
+	/**
+	 * Opens a source file.
+	 *
+	 * @param srcFile source file, possibly gzip-compressed
+	 * @param charset charset of the source file
+	 * @throws IOException if the file cannot be opened or its header cannot be read
+	 */
+	public CommonsRecordReader(File srcFile, Charset charset) throws IOException {
+		this(new InputStreamReader(GzipFiles.newInputStream(srcFile), charset));
+	}
+
+	/**
+	 * Reads a source from a stream of characters.
+	 *
+	 * @param reader source, closed with this reader
+	 * @throws IOException if the header cannot be read
+	 */
+	public CommonsRecordReader(Reader reader) throws IOException {
+		try {
+			this.parser = FORMAT.parse(reader);
+			this.header = new SourceHeader(parser.getHeaderMap());
+		} catch (IOException | RuntimeException e) {
+			reader.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public Iterator<SourceRecord> iterator() {
+		return CSVSourceRecord.wrap(parser).iterator();
+	}
+
+	@Override
+	public SourceHeader getHeader() {
+		return header;
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+/**
+ * Range of bytes of a file, from start (inclusive) to end (exclusive).
+ *
+ * @author sylordis
+ *
+ * @param start position of the first byte of the chunk
+ * @param end   position after the last byte of the chunk
+ */
+public record FileChunk(long start, long end) {
+
+	/**
+	 * @return the number of bytes in the chunk
+	 */
+	public long length() {
+		return end - start;
+	}
+
+}
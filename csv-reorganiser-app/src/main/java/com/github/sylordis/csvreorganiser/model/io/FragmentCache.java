@@ -0,0 +1,223 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent cache of the records generated from source files, so that re-running a configuration
+ * over unchanged files does not transform them again. Each entry, or fragment, is a file of the cache
+ * directory named after its key, holding the number of records followed by the records as written
+ * to the target.<br/>
+ * <br/>
+ * Keys are derived from the content of the source file and a configuration identifier, so that any
+ * change of either leads to a different key (see {@link #key(File, String)}). The total size of the
+ * fragments is bounded: once it is exceeded, least recently used fragments are evicted, the last
+ * modification time of each fragment being updated when it is used.<br/>
+ * <br/>
+ * Caches can be used from several threads, as well as from several processes sharing the same
+ * directory, fragments being written to a temporary file then moved atomically.
+ *
+ * @author sylordis
+ *
+ */
+public class FragmentCache {
+
+	/**
+	 * Default maximum total size of the fragments.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 1L << 30;
+	/**
+	 * Value returned when a fragment is not in the cache.
+	 */
+	public static final long NOT_CACHED = -1;
+	/**
+	 * Suffix of the fragment files.
+	 */
+	public static final String SUFFIX = ".fragment";
+	/**
+	 * Version of the format of the fragments, part of all keys so that fragments of older versions are
+	 * never used.
+	 */
+	private static final String FORMAT_VERSION = "1";
+	/**
+	 * Size of the header of fragments, holding the number of records.
+	 */
+	private static final int HEADER_SIZE = Long.BYTES;
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Directory of the fragments.
+	 */
+	private final File directory;
+	/**
+	 * Maximum total size of the fragments in bytes.
+	 */
+	private final long maxSize;
+
+	/**
+	 * Constructs a cache, creating its directory if needed.
+	 *
+	 * @param directory directory of the fragments
+	 * @param maxSize   maximum total size of the fragments in bytes
+	 * @throws IOException              if the directory cannot be created
+	 * @throws IllegalArgumentException if the maximum size is lower than 1
+	 */
+	public FragmentCache(File directory, long maxSize) throws IOException {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("Cache size must be at least 1 byte (was " + maxSize + ")");
+		this.directory = directory;
+		this.maxSize = maxSize;
+		Files.createDirectories(directory.toPath());
+	}
+
+	/**
+	 * Computes the key of the fragment of a source file.
+	 *
+	 * @param srcFile       source file
+	 * @param configuration identifier of everything else the records depend on, like the fingerprint
+	 *                      of the configuration and the engine
+	 * @return the key of the fragment
+	 * @throws IOException if the source cannot be read
+	 */
+	public String key(File srcFile, String configuration) throws IOException {
+		final String content = com.google.common.io.Files.asByteSource(srcFile).hash(Hashing.sha256()).toString();
+		return Hashing.sha256().newHasher().putUnencodedChars(FORMAT_VERSION).putByte((byte) 0)
+		        .putUnencodedChars(configuration).putByte((byte) 0).putUnencodedChars(content).hash().toString();
+	}
+
+	/**
+	 * Appends a fragment to a sink if it is in the cache, marking it as recently used.
+	 *
+	 * @param key    key of the fragment
+	 * @param target sink to append the records to
+	 * @return the number of records appended, or {@link #NOT_CACHED} if the fragment is not in the cache
+	 * @throws IOException if the fragment cannot be read or the sink cannot be written
+	 */
+	public long appendTo(String key, CSVOutputSink target) throws IOException {
+		final File fragment = fragmentOf(key);
+		try (FileChannel channel = FileChannel.open(fragment.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header) != -1) {
+				// Reading the whole header
+			}
+			if (header.hasRemaining()) {
+				logger.warn("Ignoring truncated fragment {}", fragment);
+				return NOT_CACHED;
+			}
+			touch(fragment);
+			target.append(channel);
+			return header.flip().getLong();
+		} catch (NoSuchFileException e) {
+			return NOT_CACHED;
+		}
+	}
+
+	/**
+	 * Stores the content of a segment as a fragment, then evicts the least recently used fragments if
+	 * the cache is too large.
+	 *
+	 * @param key     key of the fragment
+	 * @param segment segment holding the records
+	 * @param records number of records in the segment
+	 * @throws IOException if the fragment cannot be written
+	 */
+	public void put(String key, SegmentFile segment, long records) throws IOException {
+		final File temporary = File.createTempFile(key, ".tmp", directory);
+		try {
+			try (FileChannel output = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE);
+			        FileChannel input = FileChannel.open(segment.getFile().toPath(), StandardOpenOption.READ)) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(records).flip();
+				while (header.hasRemaining())
+					output.write(header);
+				final long size = input.size();
+				long transferred = 0;
+				while (transferred < size)
+					transferred += input.transferTo(transferred, size - transferred, output);
+			}
+			Files.move(temporary.toPath(), fragmentOf(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+			        StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary.toPath());
+		}
+		evict();
+	}
+
+	/**
+	 * Deletes the least recently used fragments until the total size of the fragments is within the
+	 * maximum size.
+	 *
+	 * @throws IOException if a fragment cannot be deleted
+	 */
+	private synchronized void evict() throws IOException {
+		File[] fragments = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (fragments == null)
+			return;
+		long size = Arrays.stream(fragments).mapToLong(File::length).sum();
+		if (size <= maxSize)
+			return;
+		Arrays.sort(fragments, Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < fragments.length && size > maxSize; i++) {
+			final long length = fragments[i].length();
+			if (Files.deleteIfExists(fragments[i].toPath())) {
+				logger.debug("Evicted fragment {} ({} bytes)", fragments[i].getName(), length);
+				size -= length;
+			}
+		}
+	}
+
+	/**
+	 * Marks a fragment as recently used.
+	 *
+	 * @param fragment fragment file
+	 */
+	private void touch(File fragment) {
+		try {
+			Files.setLastModifiedTime(fragment.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			// Only the order of eviction is affected
+			logger.debug("Cannot update the access time of {}", fragment, e);
+		}
+	}
+
+	/**
+	 * Gets the file of a fragment.
+	 *
+	 * @param key key of the fragment
+	 * @return the fragment file, which may not exist
+	 */
+	private File fragmentOf(String key) {
+		return new File(directory, key + SUFFIX);
+	}
+
+	/**
+	 * @return the directory of the fragments
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return the maximum total size of the fragments in bytes
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility methods for gzip-compressed files, recognised by their {@link #SUFFIX}.
+ *
+ * @author sylordis
+ *
+ */
+public final class GzipFiles {
+
+	/**
+	 * Suffix of gzip-compressed files.
+	 */
+	public static final String SUFFIX = ".gz";
+	/**
+	 * Size of the buffer of the decompressing streams.
+	 */
+	private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private GzipFiles() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Checks if a file is gzip-compressed according to its name.
+	 *
+	 * @param file file to check
+	 * @return true if the name of the file ends with {@link #SUFFIX}, whatever the case
+	 */
+	public static boolean isGzip(File file) {
+		final String name = file.getName();
+		return name.regionMatches(true, name.length() - SUFFIX.length(), SUFFIX, 0, SUFFIX.length());
+	}
+
+	/**
+	 * Opens a file for reading, decompressing it if it is gzip-compressed. All members of the file are
+	 * read, as written by {@link ParallelGzipChannel}.
+	 *
+	 * @param file file to read
+	 * @return a stream of the uncompressed content of the file
+	 * @throws IOException if the file cannot be opened or its gzip header is invalid
+	 */
+	public static InputStream newInputStream(File file) throws IOException {
+		final InputStream input = new FileInputStream(file);
+		if (!isGzip(file))
+			return input;
+		try {
+			return new GZIPInputStream(input, INPUT_BUFFER_SIZE);
+		} catch (IOException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a sink writing to a file, which is created or truncated. If the file is gzip-compressed,
+	 * the content is compressed in parallel with a {@link ParallelGzipChannel}.
+	 *
+	 * @param file       file to write to
+	 * @param bufferSize size of the buffer of the sink in bytes
+	 * @param threads    number of compression threads, if the file is gzip-compressed
+	 * @return a new sink
+	 * @throws FileNotFoundException    if the file cannot be created or opened
+	 * @throws IllegalArgumentException if the buffer size or the number of threads is invalid
+	 */
+	public static CSVOutputSink openSink(File file, int bufferSize, int threads) throws FileNotFoundException {
+		if (!isGzip(file))
+			return CSVOutputSink.open(file, bufferSize);
+		// Checked before opening the file so that it is not left open
+		if (bufferSize < CSVOutputSink.MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException("Output buffer size must be at least " + CSVOutputSink.MIN_BUFFER_SIZE
+			        + " bytes (was " + bufferSize + ")");
+		if (threads < 1)
+			throw new IllegalArgumentException("Number of compression threads must be at least 1 (was " + threads + ")");
+		return new CSVOutputSink(new ParallelGzipChannel(new FileOutputStream(file).getChannel(), threads,
+		        ParallelGzipChannel.DEFAULT_BLOCK_SIZE), bufferSize);
+	}
+
+}
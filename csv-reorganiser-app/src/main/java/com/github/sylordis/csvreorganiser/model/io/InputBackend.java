@@ -0,0 +1,77 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Set;
+
+/**
+ * Available ways of reading source files.
+ *
+ * @author sylordis
+ *
+ */
+public enum InputBackend {
+
+	/**
+	 * Decoding reader parsed by commons-csv, see {@link CommonsRecordReader}. All columns are always
+	 * parsed.
+	 */
+	COMMONS {
+		@Override
+		public SourceRecordReader open(File srcFile, Charset charset, Set<String> columns) throws IOException {
+			return new CommonsRecordReader(srcFile, charset);
+		}
+	},
+	/**
+	 * Memory-mapped file tokenized in place, see {@link MappedRecordReader}. Columns after the last
+	 * used one are skipped. Gzip-compressed files cannot be mapped and are read with {@link #COMMONS}.
+	 */
+	MAPPED {
+		@Override
+		public SourceRecordReader open(File srcFile, Charset charset, Set<String> columns) throws IOException {
+			if (GzipFiles.isGzip(srcFile))
+				return COMMONS.open(srcFile, charset, columns);
+			return new MappedRecordReader(srcFile, charset, MappedRecordReader.DEFAULT_WINDOW_SIZE, columns);
+		}
+	};
+
+	/**
+	 * Opens a source file with this backend.
+	 *
+	 * @param srcFile source file
+	 * @param charset charset of the source file
+	 * @return a reader of the records of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public SourceRecordReader open(File srcFile, Charset charset) throws IOException {
+		return open(srcFile, charset, null);
+	}
+
+	/**
+	 * Opens a source file with this backend, reading only the given columns if the backend supports
+	 * it. Other columns may or may not be available in the records.
+	 *
+	 * @param srcFile source file
+	 * @param charset charset of the source file
+	 * @param columns names of the columns used, null for all columns
+	 * @return a reader of the records of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public abstract SourceRecordReader open(File srcFile, Charset charset, Set<String> columns) throws IOException;
+
+	/**
+	 * Gets a backend from its identifier, case insensitive.
+	 *
+	 * @param id identifier of the backend
+	 * @return the corresponding backend, or null if none matches
+	 */
+	public static InputBackend fromId(String id) {
+		for (InputBackend backend : values()) {
+			if (backend.name().equalsIgnoreCase(id))
+				return backend;
+		}
+		return null;
+	}
+
+}
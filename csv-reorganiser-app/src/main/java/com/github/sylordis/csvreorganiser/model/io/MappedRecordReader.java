@@ -0,0 +1,351 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Reads a source file by memory-mapping it and tokenizing records straight from the mapped bytes,
+ * without going through a decoding {@link java.io.Reader}. Tokenizing only records the positions of
+ * the fields, values being decoded when requested (see {@link MappedSourceRecord}), so that columns
+ * which are never used cost no allocation.<br/>
+ * <br/>
+ * The same record instance is reused for all records: records must be {@link SourceRecord#detach()
+ * detached} to be kept after the iteration moved on.<br/>
+ * <br/>
+ * Files are mapped through a window which slides over the file, so files larger than what a single
+ * mapping can hold (2 GB) can be read. A record must fit in a window.<br/>
+ * <br/>
+ * The tokenizer follows the default format of commons-csv: comma delimiter, RFC 4180 double quotes
+ * (doubled to be escaped), LF, CR or CRLF line terminators and empty lines ignored. The charset must
+ * be ASCII-compatible (e.g. UTF-8 or ISO-8859-1).
+ *
+ * @author sylordis
+ *
+ */
+public class MappedRecordReader implements SourceRecordReader {
+
+	/**
+	 * Default size of the mapping window.
+	 */
+	public static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+	/**
+	 * Value returned when a record is not complete in the current window.
+	 */
+	private static final int INCOMPLETE = -1;
+	/**
+	 * Field delimiter.
+	 */
+	private static final byte DELIMITER = ',';
+	/**
+	 * Quote character.
+	 */
+	private static final byte QUOTE = '"';
+	/**
+	 * Line feed.
+	 */
+	private static final byte LF = '\n';
+	/**
+	 * Carriage return.
+	 */
+	private static final byte CR = '\r';
+
+	/**
+	 * Source file.
+	 */
+	private final File srcFile;
+	/**
+	 * Channel of the source file.
+	 */
+	private final FileChannel channel;
+	/**
+	 * Size of the source file.
+	 */
+	private final long fileSize;
+	/**
+	 * Maximum size of the mapping window.
+	 */
+	private final long windowSize;
+	/**
+	 * Charset of the source.
+	 */
+	private final Charset charset;
+	/**
+	 * Header of the source.
+	 */
+	private final SourceHeader header;
+	/**
+	 * Current mapping window.
+	 */
+	private MappedByteBuffer window;
+	/**
+	 * Offset of the current window in the file.
+	 */
+	private long windowStart;
+	/**
+	 * Offset of the next record in the file.
+	 */
+	private long nextOffset;
+	/**
+	 * Record being tokenized, reused for all records.
+	 */
+	private final MappedSourceRecord record;
+	/**
+	 * Number of fields tokenized in each record, the following ones being skipped.
+	 */
+	private int fieldLimit;
+	/**
+	 * Number of the next record read, the header being record 0.
+	 */
+	private long recordNumber;
+
+	/**
+	 * Opens a source file with the default window size.
+	 *
+	 * @param srcFile source file
+	 * @param charset charset of the source file
+	 * @throws IOException if the file cannot be mapped or its header cannot be read
+	 */
+	public MappedRecordReader(File srcFile, Charset charset) throws IOException {
+		this(srcFile, charset, DEFAULT_WINDOW_SIZE, null);
+	}
+
+	/**
+	 * Opens a source file, only tokenizing the columns up to the last one of a projection. Columns
+	 * after it are skipped without recording their position.
+	 *
+	 * @param srcFile    source file
+	 * @param charset    charset of the source file
+	 * @param windowSize maximum size of the mapping window, at most {@link Integer#MAX_VALUE}
+	 * @param columns    names of the columns to read, null to read all columns
+	 * @throws IOException if the file cannot be mapped or its header cannot be read
+	 */
+	public MappedRecordReader(File srcFile, Charset charset, long windowSize, Set<String> columns)
+	        throws IOException {
+		if (windowSize < 1 || windowSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid window size: " + windowSize);
+		this.srcFile = srcFile;
+		this.charset = charset;
+		this.windowSize = windowSize;
+		Map<String, Integer> names = new LinkedHashMap<>();
+		this.record = new MappedSourceRecord(Collections.unmodifiableMap(names), charset);
+		this.fieldLimit = Integer.MAX_VALUE;
+		this.channel = FileChannel.open(srcFile.toPath(), StandardOpenOption.READ);
+		try {
+			this.fileSize = channel.size();
+			if (readRecord()) {
+				for (int i = 0; i < record.size(); i++)
+					names.put(record.get(i), i);
+			}
+			if (columns != null) {
+				// At least one field is tokenized so that records are never mistaken for empty lines
+				this.fieldLimit = 1 + columns.stream().filter(names::containsKey).mapToInt(names::get).max().orElse(0);
+			}
+			this.header = new SourceHeader(names);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public Iterator<SourceRecord> iterator() {
+		return new Iterator<>() {
+
+			/**
+			 * Whether the next record was already read into the shared record.
+			 */
+			private boolean ready;
+
+			@Override
+			public boolean hasNext() {
+				if (!ready) {
+					try {
+						ready = readRecord();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return ready;
+			}
+
+			@Override
+			public SourceRecord next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				ready = false;
+				return record;
+			}
+		};
+	}
+
+	/**
+	 * Reads the next non-empty record into {@link #record}, sliding the window when the record is not
+	 * fully in the current one.
+	 *
+	 * @return true if a record was read, false if the end of the file is reached
+	 * @throws IOException if the file cannot be mapped or the record is malformed
+	 */
+	private boolean readRecord() throws IOException {
+		while (nextOffset < fileSize) {
+			if (window == null || nextOffset < windowStart || nextOffset >= windowStart + window.limit())
+				map(nextOffset);
+			int start = (int) (nextOffset - windowStart);
+			int end = tokenize(start);
+			if (end == INCOMPLETE) {
+				if (start == 0)
+					throw new IOException("Record at offset " + nextOffset + " of " + srcFile
+					        + " is larger than the mapping window (" + windowSize + " bytes)");
+				map(nextOffset);
+			} else {
+				nextOffset = windowStart + end;
+				if (record.size() > 0) {
+					record.setRecordNumber(recordNumber++);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Maps a new window of the file.
+	 *
+	 * @param offset offset of the start of the window in the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private void map(long offset) throws IOException {
+		windowStart = offset;
+		window = channel.map(MapMode.READ_ONLY, offset, Math.min(windowSize, fileSize - offset));
+	}
+
+	/**
+	 * Tokenizes one record of the current window into {@link #record}, only recording the positions of
+	 * the fields up to {@link #fieldLimit}. Empty lines produce no field.
+	 *
+	 * @param start position of the record in the window
+	 * @return the position following the record, or {@link #INCOMPLETE} if the record does not end in
+	 *         the window
+	 * @throws IOException if the record is malformed
+	 */
+	private int tokenize(int start) throws IOException {
+		final int limit = window.limit();
+		final boolean lastWindow = windowStart + limit == fileSize;
+		record.reset(window);
+		int p = start;
+		if (isLineEnd(window.get(p)))
+			return skipLineEnd(p, limit, lastWindow);
+		int index = 0;
+		while (true) {
+			if (index == fieldLimit) {
+				record.setTruncated(true);
+				// The rest of the record is skipped at once if it does not contain any quote
+				int q = p;
+				byte b = 0;
+				while (q < limit && (b = window.get(q)) != QUOTE && !isLineEnd(b))
+					q++;
+				if (q >= limit)
+					return lastWindow ? q : INCOMPLETE;
+				if (b != QUOTE)
+					return skipLineEnd(q, limit, lastWindow);
+			}
+			if (p < limit && window.get(p) == QUOTE) {
+				final int from = ++p;
+				boolean escaped = false;
+				while (true) {
+					if (p >= limit) {
+						if (lastWindow)
+							throw new IOException("End of file " + srcFile + " reached before the end of a quoted value");
+						return INCOMPLETE;
+					}
+					if (window.get(p) == QUOTE) {
+						if (p + 1 >= limit && !lastWindow)
+							return INCOMPLETE;
+						if (p + 1 < limit && window.get(p + 1) == QUOTE) {
+							escaped = true;
+							p += 2;
+						} else
+							break;
+					} else
+						p++;
+				}
+				if (index < fieldLimit)
+					record.add(from, p, escaped);
+				p++;
+				// Surrounding whitespace after the closing quote is ignored
+				while (p < limit && (window.get(p) == ' ' || window.get(p) == '\t'))
+					p++;
+				if (p < limit && window.get(p) != DELIMITER && !isLineEnd(window.get(p)))
+					throw new IOException("Invalid character between quoted value and delimiter at offset "
+					        + (windowStart + p) + " of " + srcFile);
+			} else {
+				final int from = p;
+				byte b;
+				while (p < limit && (b = window.get(p)) != DELIMITER && !isLineEnd(b))
+					p++;
+				if (index < fieldLimit)
+					record.add(from, p, false);
+			}
+			index++;
+			if (p >= limit)
+				return lastWindow ? p : INCOMPLETE;
+			if (window.get(p) == DELIMITER)
+				p++;
+			else
+				return skipLineEnd(p, limit, lastWindow);
+		}
+	}
+
+	/**
+	 * Skips a line terminator.
+	 *
+	 * @param p          position of the terminator in the window
+	 * @param limit      limit of the window
+	 * @param lastWindow true if the window reaches the end of the file
+	 * @return the position following the terminator, or {@link #INCOMPLETE} if it is not complete
+	 */
+	private int skipLineEnd(int p, int limit, boolean lastWindow) {
+		if (window.get(p) == CR) {
+			if (p + 1 >= limit)
+				return lastWindow ? p + 1 : INCOMPLETE;
+			if (window.get(p + 1) == LF)
+				return p + 2;
+		}
+		return p + 1;
+	}
+
+	/**
+	 * Checks if a byte is a line terminator.
+	 *
+	 * @param b byte to check
+	 * @return true for CR or LF
+	 */
+	private static boolean isLineEnd(byte b) {
+		return b == LF || b == CR;
+	}
+
+	@Override
+	public SourceHeader getHeader() {
+		return header;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
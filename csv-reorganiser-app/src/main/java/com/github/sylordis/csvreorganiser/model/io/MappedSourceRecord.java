@@ -0,0 +1,281 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Record tokenized by a {@link MappedRecordReader}, only holding the positions of its fields in the
+ * mapped buffer. Values are decoded the first time they are requested, and ASCII values can be
+ * viewed without being decoded at all.<br/>
+ * <br/>
+ * The reader reuses the same instance for all records, so a record is only valid until the
+ * iteration moves on, unless it is {@link #detach() detached}.
+ *
+ * @author sylordis
+ *
+ */
+final class MappedSourceRecord implements SourceRecord {
+
+	/**
+	 * Quote byte.
+	 */
+	private static final byte QUOTE = '"';
+
+	/**
+	 * Index of each column by name.
+	 */
+	private final Map<String, Integer> header;
+	/**
+	 * Charset of the source.
+	 */
+	private final Charset charset;
+	/**
+	 * Buffer holding the record.
+	 */
+	private ByteBuffer buffer;
+	/**
+	 * Position of the first byte of each field in the buffer.
+	 */
+	private int[] starts;
+	/**
+	 * Position following the last byte of each field in the buffer.
+	 */
+	private int[] ends;
+	/**
+	 * Whether each field contains escaped quotes.
+	 */
+	private boolean[] escaped;
+	/**
+	 * Decoded values, null until requested.
+	 */
+	private String[] values;
+	/**
+	 * Number of fields.
+	 */
+	private int size;
+	/**
+	 * Whether the fields after the last one were skipped by the reader.
+	 */
+	private boolean truncated;
+	/**
+	 * Number of the record in the source.
+	 */
+	private long number;
+
+	/**
+	 * Creates a new empty record.
+	 *
+	 * @param header  index of each column by name
+	 * @param charset charset of the source
+	 */
+	MappedSourceRecord(Map<String, Integer> header, Charset charset) {
+		this.header = header;
+		this.charset = charset;
+		this.starts = new int[16];
+		this.ends = new int[16];
+		this.escaped = new boolean[16];
+		this.values = new String[16];
+	}
+
+	/**
+	 * Starts a new record.
+	 *
+	 * @param buffer buffer holding the record
+	 */
+	void reset(ByteBuffer buffer) {
+		this.buffer = buffer;
+		Arrays.fill(values, 0, size, null);
+		this.size = 0;
+		this.truncated = false;
+	}
+
+	/**
+	 * @param number number of the record in the source, starting at 1 after the header
+	 */
+	void setRecordNumber(long number) {
+		this.number = number;
+	}
+
+	/**
+	 * @param truncated true if the fields after the last one were skipped
+	 */
+	void setTruncated(boolean truncated) {
+		this.truncated = truncated;
+	}
+
+	/**
+	 * Adds a field to the record.
+	 *
+	 * @param start   position of the first byte of the field
+	 * @param end     position following the last byte of the field
+	 * @param escaped true if the field contains doubled quotes
+	 */
+	void add(int start, int end, boolean escaped) {
+		if (size == starts.length) {
+			int capacity = size * 2;
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			this.escaped = Arrays.copyOf(this.escaped, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		starts[size] = start;
+		ends[size] = end;
+		this.escaped[size] = escaped;
+		size++;
+	}
+
+	/**
+	 * Creates a copy of this record which stays valid when the reader moves on. Only positions are
+	 * copied, the mapped buffer being shared.
+	 *
+	 * @return a copy of this record
+	 */
+	@Override
+	public SourceRecord detach() {
+		MappedSourceRecord copy = new MappedSourceRecord(header, charset);
+		copy.buffer = buffer;
+		copy.starts = Arrays.copyOf(starts, size);
+		copy.ends = Arrays.copyOf(ends, size);
+		copy.escaped = Arrays.copyOf(escaped, size);
+		copy.values = Arrays.copyOf(values, size);
+		copy.size = size;
+		copy.truncated = truncated;
+		copy.number = number;
+		return copy;
+	}
+
+	@Override
+	public String get(String name) {
+		return get(indexOf(name));
+	}
+
+	@Override
+	public String get(int index) {
+		checkIndex(index);
+		String value = values[index];
+		if (value == null) {
+			value = decode(index);
+			values[index] = value;
+		}
+		return value;
+	}
+
+	@Override
+	public CharSequence getView(String name) {
+		return getView(indexOf(name));
+	}
+
+	@Override
+	public CharSequence getView(int index) {
+		checkIndex(index);
+		if (values[index] == null && !escaped[index] && isAscii(starts[index], ends[index]))
+			return new AsciiByteSequence(buffer, starts[index], ends[index] - starts[index]);
+		return get(index);
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		return header.containsKey(name);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public long getRecordNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the index of a column, checking that the record holds it.
+	 *
+	 * @param name name of the column
+	 * @return the index of the column
+	 * @throws IllegalArgumentException if the column does not exist or the record is too short for it
+	 * @throws IllegalStateException    if the column was skipped by the reader
+	 */
+	private int indexOf(String name) {
+		Integer index = header.get(name);
+		if (index == null)
+			throw new IllegalArgumentException(
+			        String.format("Mapping for %s not found, expected one of %s", name, header.keySet()));
+		if (index >= size && truncated)
+			throw new IllegalStateException(
+			        String.format("Column '%s' was skipped, it is not used by any operation", name));
+		if (index >= size)
+			throw new IllegalArgumentException(
+			        String.format("Index for header '%s' is %d but record only has %d values!", name, index, size));
+		return index;
+	}
+
+	/**
+	 * Checks that an index is in the record.
+	 *
+	 * @param index index to check
+	 * @throws IllegalArgumentException       if the record is too short for the index
+	 * @throws IllegalStateException          if the column was skipped by the reader
+	 * @throws ArrayIndexOutOfBoundsException if the index is negative
+	 */
+	private void checkIndex(int index) {
+		if (index < 0)
+			throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		if (index >= size && truncated)
+			throw new IllegalStateException(
+			        String.format("Column %d was skipped, it is not used by any operation", index));
+		if (index >= size)
+			throw SourceRecord.createShortRecordException(header, index, this);
+	}
+
+	/**
+	 * Checks if a range of the buffer only contains ASCII bytes.
+	 *
+	 * @param start first position
+	 * @param end   position following the last one
+	 * @return true if all bytes are ASCII
+	 */
+	private boolean isAscii(int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Decodes a field, unescaping doubled quotes.
+	 *
+	 * @param index index of the field
+	 * @return the decoded value
+	 */
+	private String decode(int index) {
+		int start = starts[index];
+		int length = ends[index] - start;
+		byte[] bytes = new byte[length];
+		buffer.get(start, bytes);
+		if (escaped[index]) {
+			int j = 0;
+			for (int i = 0; i < length; i++) {
+				bytes[j++] = bytes[i];
+				if (bytes[i] == QUOTE)
+					i++;
+			}
+			length = j;
+		}
+		return new String(bytes, 0, length, charset);
+	}
+
+	@Override
+	public String toString() {
+		String[] all = new String[size];
+		for (int i = 0; i < size; i++)
+			all[i] = get(i);
+		return "MappedSourceRecord " + Arrays.toString(all);
+	}
+
+}
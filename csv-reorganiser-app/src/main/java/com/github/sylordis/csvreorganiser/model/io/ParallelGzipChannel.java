@@ -0,0 +1,274 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Channel compressing its content to gzip on several threads, the way pigz does. The content is cut
+ * into blocks of fixed size, each one being compressed on its own into an independent gzip member.
+ * Members are written to the underlying channel in order, the result being a valid multi-member gzip
+ * file as defined by RFC 1952, readable by any gzip tool or {@link java.util.zip.GZIPInputStream}.
+ * <br/>
+ * <br/>
+ * At most twice as many blocks as threads are in memory at any time: writing blocks once this limit
+ * is reached waits for the oldest one to be written. Blocks being independent, the compression ratio
+ * is slightly lower than a single gzip stream, by a few bytes per block.<br/>
+ * <br/>
+ * Channels are not thread-safe.
+ *
+ * @author sylordis
+ *
+ */
+public class ParallelGzipChannel implements WritableByteChannel {
+
+	/**
+	 * Default size of the uncompressed blocks, as pigz.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+	/**
+	 * Header of each member: magic number, deflate method, no flags, no modification time, no extra
+	 * flags and unknown operating system.
+	 */
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+	/**
+	 * Size of the trailer of each member: CRC-32 and uncompressed size.
+	 */
+	private static final int TRAILER_SIZE = 8;
+
+	/**
+	 * Channel the members are written to.
+	 */
+	private final WritableByteChannel channel;
+	/**
+	 * Compression level.
+	 */
+	private final int level;
+	/**
+	 * Size of the uncompressed blocks.
+	 */
+	private final int blockSize;
+	/**
+	 * Maximum number of blocks being compressed or waiting to be written.
+	 */
+	private final int maxPending;
+	/**
+	 * Threads compressing the blocks.
+	 */
+	private final ExecutorService executor;
+	/**
+	 * Compressed members not written yet, in order.
+	 */
+	private final Deque<Future<ByteBuffer>> pending;
+	/**
+	 * Deflaters not used by any thread, reused from one block to the next.
+	 */
+	private final Queue<Deflater> deflaters;
+	/**
+	 * Block currently filled.
+	 */
+	private byte[] block;
+	/**
+	 * Number of bytes in the current block.
+	 */
+	private int blockLength;
+	/**
+	 * Whether at least one member was submitted.
+	 */
+	private boolean started;
+	/**
+	 * Whether the channel is closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructs a new channel with the default compression level.
+	 *
+	 * @param channel   channel to write the members to, closed with this channel
+	 * @param threads   number of compression threads
+	 * @param blockSize size of the uncompressed blocks
+	 * @throws IllegalArgumentException if the number of threads or the block size is lower than 1
+	 */
+	public ParallelGzipChannel(WritableByteChannel channel, int threads, int blockSize) {
+		this(channel, threads, blockSize, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Constructs a new channel.
+	 *
+	 * @param channel   channel to write the members to, closed with this channel
+	 * @param threads   number of compression threads
+	 * @param blockSize size of the uncompressed blocks
+	 * @param level     compression level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+	 * @throws IllegalArgumentException if the number of threads or the block size is lower than 1
+	 */
+	public ParallelGzipChannel(WritableByteChannel channel, int threads, int blockSize, int level) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Number of compression threads must be at least 1 (was " + threads + ")");
+		if (blockSize < 1)
+			throw new IllegalArgumentException("Block size must be at least 1 (was " + blockSize + ")");
+		this.channel = channel;
+		this.level = level;
+		this.blockSize = blockSize;
+		this.maxPending = 2 * threads;
+		this.executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "gzip-compressor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.pending = new ArrayDeque<>();
+		this.deflaters = new ConcurrentLinkedQueue<>();
+		this.block = new byte[blockSize];
+	}
+
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		if (closed)
+			throw new ClosedChannelException();
+		final int written = src.remaining();
+		while (src.hasRemaining()) {
+			final int length = Math.min(src.remaining(), blockSize - blockLength);
+			src.get(block, blockLength, length);
+			blockLength += length;
+			if (blockLength == blockSize)
+				submitBlock();
+		}
+		return written;
+	}
+
+	/**
+	 * Submits the current block for compression and starts a new one, writing the oldest members first
+	 * if too many are pending.
+	 *
+	 * @throws IOException if a member cannot be written
+	 */
+	private void submitBlock() throws IOException {
+		while (pending.size() >= maxPending)
+			writeMember(pending.removeFirst());
+		final byte[] data = block;
+		final int length = blockLength;
+		pending.addLast(executor.submit(() -> compress(data, length)));
+		started = true;
+		block = new byte[blockSize];
+		blockLength = 0;
+	}
+
+	/**
+	 * Compresses a block into a gzip member.
+	 *
+	 * @param data   content of the block
+	 * @param length number of bytes of the block
+	 * @return the member, ready to be written
+	 */
+	private ByteBuffer compress(byte[] data, int length) {
+		Deflater deflater = deflaters.poll();
+		if (deflater == null)
+			deflater = new Deflater(level, true);
+		try {
+			// Bound of zlib for the deflated data, growing the buffer anyway if it is not enough
+			byte[] member = new byte[HEADER.length + length + (length >> 12) + (length >> 14) + 13 + TRAILER_SIZE];
+			System.arraycopy(HEADER, 0, member, 0, HEADER.length);
+			int position = HEADER.length;
+			deflater.setInput(data, 0, length);
+			deflater.finish();
+			while (!deflater.finished()) {
+				if (position == member.length - TRAILER_SIZE)
+					member = Arrays.copyOf(member, member.length * 2);
+				position += deflater.deflate(member, position, member.length - TRAILER_SIZE - position);
+			}
+			final CRC32 crc = new CRC32();
+			crc.update(data, 0, length);
+			position = putIntLE(member, position, (int) crc.getValue());
+			position = putIntLE(member, position, length);
+			return ByteBuffer.wrap(member, 0, position);
+		} finally {
+			deflater.reset();
+			deflaters.add(deflater);
+		}
+	}
+
+	/**
+	 * Writes an integer in little-endian order, as gzip does.
+	 *
+	 * @param bytes    array to write to
+	 * @param position position to write at
+	 * @param value    value to write
+	 * @return the position after the integer
+	 */
+	private static int putIntLE(byte[] bytes, int position, int value) {
+		bytes[position] = (byte) value;
+		bytes[position + 1] = (byte) (value >> 8);
+		bytes[position + 2] = (byte) (value >> 16);
+		bytes[position + 3] = (byte) (value >> 24);
+		return position + 4;
+	}
+
+	/**
+	 * Waits for a member to be compressed and writes it to the channel.
+	 *
+	 * @param member compression task of the member
+	 * @throws IOException if the member cannot be written or the thread was interrupted
+	 */
+	private void writeMember(Future<ByteBuffer> member) throws IOException {
+		final ByteBuffer buffer;
+		try {
+			buffer = member.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while compressing");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause)
+				throw cause;
+			if (e.getCause() instanceof Error cause)
+				throw cause;
+			throw new IOException("Compression failed", e.getCause());
+		}
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	@Override
+	public boolean isOpen() {
+		return !closed;
+	}
+
+	/**
+	 * Compresses the last block and writes all pending members before closing the underlying channel.
+	 * An empty content is written as a single empty member so that the result is always a valid gzip
+	 * file.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			if (blockLength > 0 || !started)
+				submitBlock();
+			while (!pending.isEmpty())
+				writeMember(pending.removeFirst());
+		} finally {
+			for (Future<ByteBuffer> member : pending)
+				member.cancel(true);
+			executor.shutdownNow();
+			Deflater deflater;
+			while ((deflater = deflaters.poll()) != null)
+				deflater.end();
+			channel.close();
+		}
+	}
+
+}
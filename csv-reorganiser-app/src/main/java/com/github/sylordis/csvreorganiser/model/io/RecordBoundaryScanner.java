@@ -0,0 +1,118 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a CSV file into chunks of bytes that are aligned on record boundaries. The scan is done in
+ * one sequential pass over the bytes, keeping track of quoted fields so that line feeds inside
+ * quoted values are never considered as the end of a record.<br/>
+ * <br/>
+ * The file is expected to be encoded in an ASCII compatible charset (like UTF-8), with records
+ * terminated by a line feed (LF or CRLF) and values quoted with double quotes as specified by RFC
+ * 4180. The first record of the file is considered as the header and is not part of any chunk.<br/>
+ * <br/>
+ * Scanners hold no state between scans and may be shared between threads.
+ *
+ * @author sylordis
+ *
+ */
+public class RecordBoundaryScanner {
+
+	/**
+	 * Result of the scan of a file.
+	 *
+	 * @param headerEnd position of the first byte after the header
+	 * @param chunks    chunks of the file, in the order of the file, empty if the file only contains
+	 *                  a header
+	 */
+	public record Scan(long headerEnd, List<FileChunk> chunks) {
+	}
+
+	/**
+	 * Size of the buffer used to read the file.
+	 */
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	/**
+	 * Quote character.
+	 */
+	private static final byte QUOTE = '"';
+	/**
+	 * Record separator character.
+	 */
+	private static final byte LINE_FEED = '\n';
+
+	/**
+	 * Minimum size of a chunk, the actual size being extended to the end of the record.
+	 */
+	private final long chunkSize;
+
+	/**
+	 * Constructs a new scanner.
+	 *
+	 * @param chunkSize minimum size of each chunk in bytes
+	 * @throws IllegalArgumentException if the chunk size is not strictly positive
+	 */
+	public RecordBoundaryScanner(long chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be strictly positive (was " + chunkSize + ")");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Scans a file to determine the end of its header and its chunks.
+	 *
+	 * @param file file to scan
+	 * @return the end of the header and the chunks of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	public Scan scan(File file) throws IOException {
+		List<FileChunk> chunks = new ArrayList<>();
+		long headerEnd = -1;
+		long chunkStart = 0;
+		long position = 0;
+		boolean quoted = false;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					byte b = buffer.get();
+					position++;
+					if (b == QUOTE) {
+						quoted = !quoted;
+					} else if (b == LINE_FEED && !quoted) {
+						if (headerEnd < 0) {
+							headerEnd = position;
+							chunkStart = position;
+						} else if (position - chunkStart >= chunkSize) {
+							chunks.add(new FileChunk(chunkStart, position));
+							chunkStart = position;
+						}
+					}
+				}
+				buffer.clear();
+			}
+		}
+		if (headerEnd < 0) {
+			// Only a header, without line feed
+			headerEnd = position;
+		} else if (chunkStart < position) {
+			chunks.add(new FileChunk(chunkStart, position));
+		}
+		return new Scan(headerEnd, chunks);
+	}
+
+	/**
+	 * @return the minimum chunk size
+	 */
+	public long getChunkSize() {
+		return chunkSize;
+	}
+
+}
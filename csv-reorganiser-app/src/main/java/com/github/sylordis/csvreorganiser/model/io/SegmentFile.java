@@ -0,0 +1,79 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary file holding a part of the target output, generated independently from the rest of the
+ * target and appended to it later on. Segments are deleted on {@link #close()} only, which owners
+ * must call once done with them, even on failure.
+ *
+ * @author sylordis
+ *
+ */
+public class SegmentFile implements AutoCloseable {
+
+	/**
+	 * Prefix of all segment files.
+	 */
+	public static final String PREFIX = "csvreorg-segment-";
+
+	/**
+	 * Backing temporary file.
+	 */
+	private final File file;
+
+	/**
+	 * Creates a new empty segment in the given directory.
+	 *
+	 * @param directory directory where to create the segment, or null for the default temporary
+	 *                  directory
+	 * @throws IOException if the file cannot be created
+	 */
+	public SegmentFile(File directory) throws IOException {
+		this.file = File.createTempFile(PREFIX, ".csv", directory);
+	}
+
+	/**
+	 * Opens a sink writing to this segment.
+	 *
+	 * @param bufferSize size of the buffer of the sink in bytes
+	 * @return a new sink, to be closed before the segment is appended
+	 * @throws IOException if the segment cannot be opened
+	 */
+	public CSVOutputSink openSink(int bufferSize) throws IOException {
+		return CSVOutputSink.open(file, bufferSize);
+	}
+
+	/**
+	 * Appends the whole content of this segment to the given output, transferring the bytes from
+	 * channel to channel.
+	 *
+	 * @param out output to append to
+	 * @throws IOException if the segment cannot be read or the output cannot be written
+	 * @see CSVOutputSink#append(FileChannel)
+	 */
+	public void appendTo(CSVOutputSink out) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			out.append(channel);
+		}
+	}
+
+	/**
+	 * @return the backing file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Deletes the segment file.
+	 */
+	@Override
+	public void close() {
+		file.delete();
+	}
+
+}
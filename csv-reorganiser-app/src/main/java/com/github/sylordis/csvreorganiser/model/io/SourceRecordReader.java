@@ -0,0 +1,25 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import java.io.Closeable;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Reader of the records of a source file, the first record being used as header. Readers can only
+ * be iterated once. Parsing errors during iteration are thrown as
+ * {@link java.io.UncheckedIOException}.
+ *
+ * @author sylordis
+ *
+ */
+public interface SourceRecordReader extends Iterable<SourceRecord>, Closeable {
+
+	/**
+	 * Gets the header of the source, read when the reader was opened.
+	 *
+	 * @return the header, empty if the source is empty
+	 */
+	SourceHeader getHeader();
+
+}
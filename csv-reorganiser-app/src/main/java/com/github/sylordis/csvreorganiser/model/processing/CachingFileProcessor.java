@@ -0,0 +1,86 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FragmentCache;
+import com.github.sylordis.csvreorganiser.model.io.SegmentFile;
+
+/**
+ * Processes source files through a {@link FragmentCache}: files whose fragment is cached are
+ * appended to the target without being transformed, other ones are transformed by another processor
+ * into a segment which is stored in the cache before being appended.
+ *
+ * @author sylordis
+ *
+ */
+public class CachingFileProcessor implements SourceFileProcessor {
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Cache of the fragments.
+	 */
+	private final FragmentCache cache;
+	/**
+	 * Identifier of the configuration the records depend on.
+	 */
+	private final String configuration;
+	/**
+	 * Processor of the files which are not cached.
+	 */
+	private final SourceFileProcessor fileProcessor;
+	/**
+	 * Size of the output buffer of each segment.
+	 */
+	private final int segmentBufferSize;
+	/**
+	 * Directory where segments are created, null for the default temporary directory.
+	 */
+	private final File segmentsDirectory;
+
+	/**
+	 * Constructs a new caching processor.
+	 *
+	 * @param cache             cache of the fragments
+	 * @param configuration     identifier of the configuration, part of the key of all fragments
+	 * @param fileProcessor     processor of the files which are not cached
+	 * @param segmentBufferSize size of the output buffer of each segment in bytes
+	 * @param segmentsDirectory directory where to create the segments, null for the default temporary
+	 *                          directory
+	 */
+	public CachingFileProcessor(FragmentCache cache, String configuration, SourceFileProcessor fileProcessor,
+	        int segmentBufferSize, File segmentsDirectory) {
+		this.cache = cache;
+		this.configuration = configuration;
+		this.fileProcessor = fileProcessor;
+		this.segmentBufferSize = segmentBufferSize;
+		this.segmentsDirectory = segmentsDirectory;
+	}
+
+	@Override
+	public long process(File srcFile, CSVOutputSink sink) throws IOException {
+		final String key = cache.key(srcFile, configuration);
+		long records = cache.appendTo(key, sink);
+		if (records != FragmentCache.NOT_CACHED) {
+			logger.debug("Using cached fragment of {}", srcFile);
+			return records;
+		}
+		logger.debug("No cached fragment for {}, transforming it", srcFile);
+		try (SegmentFile segment = new SegmentFile(segmentsDirectory)) {
+			try (CSVOutputSink segmentSink = segment.openSink(segmentBufferSize)) {
+				records = fileProcessor.process(srcFile, segmentSink);
+			}
+			cache.put(key, segment, records);
+			segment.appendTo(sink);
+		}
+		return records;
+	}
+
+}
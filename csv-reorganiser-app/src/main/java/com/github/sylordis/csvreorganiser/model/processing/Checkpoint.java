@@ -0,0 +1,202 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * State of a reorganisation at a point where all records before it are safely in the target, from
+ * which an interrupted run can be resumed. Checkpoints are saved in a small sidecar file next to the
+ * target (see {@link #sidecarOf(File)}), along with the {@link Origin} of the run so that a
+ * checkpoint is never resumed with other sources or another configuration.
+ *
+ * @param sourceIndex  index of the source file being processed
+ * @param offset       offset in bytes in the source file of the next record to process
+ * @param records      number of records written to the target so far
+ * @param targetLength length in bytes of the target at this point
+ * @param chunkSize    minimum size of the chunks the sources are split into, so that resumed runs
+ *                     find the same record boundaries
+ * @param origin       sources and configuration of the run
+ *
+ * @author sylordis
+ *
+ */
+public record Checkpoint(int sourceIndex, long offset, long records, long targetLength, long chunkSize,
+        Origin origin) {
+
+	/**
+	 * Identity of a source file when a run started.
+	 *
+	 * @param path         normalised absolute path of the file
+	 * @param length       length of the file in bytes
+	 * @param lastModified last modification time of the file, in milliseconds since the epoch
+	 */
+	public record SourceStamp(String path, long length, long lastModified) {
+
+		/**
+		 * Stamps a source file as it currently is.
+		 *
+		 * @param file source file
+		 * @return the stamp of the file
+		 */
+		public static SourceStamp of(File file) {
+			return new SourceStamp(file.toPath().toAbsolutePath().normalize().toString(), file.length(),
+			        file.lastModified());
+		}
+
+	}
+
+	/**
+	 * Sources and configuration of a run, which a resumed run must match.
+	 *
+	 * @param sources       stamps of the source files, in order
+	 * @param configuration SHA-256 of the content of the configuration, null if the configuration was
+	 *                      not loaded from a file
+	 */
+	public record Origin(List<SourceStamp> sources, String configuration) {
+
+		/**
+		 * Constructs a new origin.
+		 */
+		public Origin {
+			sources = List.copyOf(sources);
+		}
+
+		/**
+		 * Stamps the sources of a run as they currently are.
+		 *
+		 * @param srcFiles      source files, in order
+		 * @param configuration SHA-256 of the content of the configuration, null if unknown
+		 * @return the origin of the run
+		 */
+		public static Origin of(List<File> srcFiles, String configuration) {
+			return new Origin(srcFiles.stream().map(SourceStamp::of).toList(), configuration);
+		}
+
+	}
+
+
+	/**
+	 * Suffix added to the name of the target to get its sidecar file.
+	 */
+	public static final String SIDECAR_SUFFIX = ".checkpoint";
+	/**
+	 * Comment written at the top of sidecar files.
+	 */
+	private static final String COMMENT = "csv-reorganiser checkpoint";
+
+	/**
+	 * Gets the sidecar file holding the checkpoints of a target.
+	 *
+	 * @param targetFile target of the reorganisation
+	 * @return the sidecar file, which may not exist
+	 */
+	public static File sidecarOf(File targetFile) {
+		return new File(targetFile.getAbsoluteFile().getParentFile(), targetFile.getName() + SIDECAR_SUFFIX);
+	}
+
+	/**
+	 * Checks that this checkpoint can be resumed by a run with a given origin: the sources must be the
+	 * same files in the same order, the ones read up to this checkpoint must not have changed since,
+	 * and the configuration must have the same content. Sources not read yet may have changed, e.g. to
+	 * fix the one a run failed on.
+	 *
+	 * @param current origin of the resumed run
+	 * @throws IllegalArgumentException if the resumed run does not match this checkpoint
+	 */
+	public void checkResumable(Origin current) {
+		final List<SourceStamp> saved = origin.sources();
+		final List<SourceStamp> sources = current.sources();
+		if (saved.size() != sources.size())
+			throw new IllegalArgumentException(
+			        "Checkpoint was made with " + saved.size() + " source(s), not " + sources.size());
+		final int read = offset > 0 ? sourceIndex + 1 : sourceIndex;
+		for (int i = 0; i < saved.size(); i++) {
+			if (!saved.get(i).path().equals(sources.get(i).path()))
+				throw new IllegalArgumentException("Checkpoint was made with source " + saved.get(i).path()
+				        + " at position " + i + ", not " + sources.get(i).path());
+			if (i < read && !saved.get(i).equals(sources.get(i)))
+				throw new IllegalArgumentException(
+				        "Source " + sources.get(i).path() + " was modified since the checkpoint was made");
+		}
+		if (!Objects.equals(origin.configuration(), current.configuration()))
+			throw new IllegalArgumentException("Configuration was modified since the checkpoint was made");
+	}
+
+	/**
+	 * Saves this checkpoint, replacing the previous content of the file atomically so that a crash
+	 * while saving leaves the previous checkpoint.
+	 *
+	 * @param file sidecar file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("sourceIndex", Integer.toString(sourceIndex));
+		properties.setProperty("offset", Long.toString(offset));
+		properties.setProperty("records", Long.toString(records));
+		properties.setProperty("targetLength", Long.toString(targetLength));
+		properties.setProperty("chunkSize", Long.toString(chunkSize));
+		properties.setProperty("sources", Integer.toString(origin.sources().size()));
+		for (int i = 0; i < origin.sources().size(); i++) {
+			final SourceStamp source = origin.sources().get(i);
+			properties.setProperty("source." + i + ".path", source.path());
+			properties.setProperty("source." + i + ".length", Long.toString(source.length()));
+			properties.setProperty("source." + i + ".lastModified", Long.toString(source.lastModified()));
+		}
+		if (origin.configuration() != null)
+			properties.setProperty("configuration", origin.configuration());
+		File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try (FileOutputStream output = new FileOutputStream(temporary)) {
+			properties.store(output, COMMENT);
+			output.getFD().sync();
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+		        StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Loads a checkpoint from a sidecar file.
+	 *
+	 * @param file sidecar file to read
+	 * @return the checkpoint
+	 * @throws IOException if the file cannot be read or is not a valid checkpoint
+	 */
+	public static Checkpoint load(File file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream input = new FileInputStream(file)) {
+			properties.load(input);
+		}
+		try {
+			final int count = Integer.parseInt(properties.getProperty("sources"));
+			List<SourceStamp> sources = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				final String path = properties.getProperty("source." + i + ".path");
+				if (path == null)
+					throw new IOException("Invalid checkpoint in " + file + ": no path for source " + i);
+				sources.add(new SourceStamp(path, Long.parseLong(properties.getProperty("source." + i + ".length")),
+				        Long.parseLong(properties.getProperty("source." + i + ".lastModified"))));
+			}
+			Checkpoint checkpoint = new Checkpoint(Integer.parseInt(properties.getProperty("sourceIndex")),
+			        Long.parseLong(properties.getProperty("offset")), Long.parseLong(properties.getProperty("records")),
+			        Long.parseLong(properties.getProperty("targetLength")),
+			        Long.parseLong(properties.getProperty("chunkSize")),
+			        new Origin(sources, properties.getProperty("configuration")));
+			if (checkpoint.sourceIndex < 0 || checkpoint.sourceIndex > count || checkpoint.offset < 0
+			        || checkpoint.records < 0 || checkpoint.targetLength < 0 || checkpoint.chunkSize < 1)
+				throw new IOException("Invalid checkpoint in " + file + ": " + checkpoint);
+			return checkpoint;
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid checkpoint in " + file, e);
+		}
+	}
+
+}
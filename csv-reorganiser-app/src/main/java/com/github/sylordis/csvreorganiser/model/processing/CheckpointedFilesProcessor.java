@@ -0,0 +1,139 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.GzipFiles;
+
+/**
+ * Processes source files one after the other, saving a {@link Checkpoint} each time the records of
+ * a chunk or of a file are safely in the target, so that an interrupted run can be resumed from the
+ * last checkpoint instead of from the start.<br/>
+ * <br/>
+ * Files are split into chunks by a {@link ChunkedFileProcessor} in ordered mode, a checkpoint being
+ * saved after each chunk is appended. Compressed sources cannot be split and are processed as a
+ * whole, with a checkpoint after each file only. Before each checkpoint, the target is synced to the
+ * storage device so that its length in the checkpoint can always be restored. Checkpoints record
+ * the {@link Checkpoint.Origin origin} of the run, and are only resumed with the same sources and
+ * configuration.
+ *
+ * @author sylordis
+ *
+ */
+public class CheckpointedFilesProcessor {
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Processor of the files which can be split into chunks.
+	 */
+	private final ChunkedFileProcessor chunkedProcessor;
+	/**
+	 * Processor of the files which cannot be split.
+	 */
+	private final SourceFileProcessor fileProcessor;
+	/**
+	 * Sidecar file where the checkpoints are saved.
+	 */
+	private final File sidecar;
+	/**
+	 * SHA-256 of the content of the configuration, null if unknown.
+	 */
+	private final String configuration;
+
+	/**
+	 * Constructs a new checkpointed processor.
+	 *
+	 * @param chunkedProcessor processor of the files which can be split, in ordered mode
+	 * @param fileProcessor    processor of the files which cannot be split
+	 * @param sidecar          file where to save the checkpoints
+	 * @param configuration    SHA-256 of the content of the configuration, recorded in the checkpoints,
+	 *                         null if unknown
+	 * @throws IllegalArgumentException if the chunked processor is not ordered
+	 */
+	public CheckpointedFilesProcessor(ChunkedFileProcessor chunkedProcessor, SourceFileProcessor fileProcessor,
+	        File sidecar, String configuration) {
+		if (!chunkedProcessor.isOrdered())
+			throw new IllegalArgumentException("Checkpoints require chunks to be processed in order");
+		this.chunkedProcessor = chunkedProcessor;
+		this.fileProcessor = fileProcessor;
+		this.sidecar = sidecar;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Processes all files from a checkpoint and appends their records to the target sink, in the order
+	 * of the list. The target must be positioned at the length of the checkpoint.
+	 *
+	 * @param srcFiles files to process
+	 * @param target   sink of the target
+	 * @param from     checkpoint to resume from, null to start from the beginning
+	 * @return the total number of records in the target, including the ones before the checkpoint
+	 * @throws IOException              if a source cannot be read, the target cannot be written or a
+	 *                                  checkpoint cannot be saved
+	 * @throws IllegalArgumentException if the checkpoint does not match the files or the configuration
+	 */
+	public long process(List<File> srcFiles, CSVOutputSink target, Checkpoint from) throws IOException {
+		final long chunkSize = chunkedProcessor.getChunkSize();
+		final Checkpoint.Origin origin = Checkpoint.Origin.of(srcFiles, configuration);
+		if (from != null) {
+			if (from.chunkSize() != chunkSize)
+				throw new IllegalArgumentException(
+				        "Checkpoint was made with chunks of " + from.chunkSize() + " bytes, not " + chunkSize);
+			if (from.sourceIndex() > srcFiles.size())
+				throw new IllegalArgumentException("Checkpoint is at source " + from.sourceIndex() + " but only "
+				        + srcFiles.size() + " source(s) are provided");
+			from.checkResumable(origin);
+			logger.info("Resuming from source {} at offset {}, {} record(s) already written", from.sourceIndex(),
+			        from.offset(), from.records());
+		}
+		final long[] records = { from == null ? 0 : from.records() };
+		for (int i = from == null ? 0 : from.sourceIndex(); i < srcFiles.size(); i++) {
+			final File srcFile = srcFiles.get(i);
+			final int sourceIndex = i;
+			final long offset = from != null && i == from.sourceIndex() ? from.offset() : 0;
+			if (GzipFiles.isGzip(srcFile)) {
+				if (offset > 0)
+					throw new IllegalArgumentException("Compressed source " + srcFile + " cannot be resumed at offset "
+					        + offset);
+				records[0] += fileProcessor.process(srcFile, target);
+			} else {
+				chunkedProcessor.process(srcFile, target, offset, (chunk, count) -> {
+					records[0] += count;
+					save(new Checkpoint(sourceIndex, chunk.end(), records[0], target.getSize(), chunkSize, origin),
+					        target);
+				});
+			}
+			save(new Checkpoint(i + 1, 0, records[0], target.getSize(), chunkSize, origin), target);
+		}
+		return records[0];
+	}
+
+	/**
+	 * Syncs the target then saves a checkpoint.
+	 *
+	 * @param checkpoint checkpoint to save
+	 * @param target     sink of the target
+	 * @throws IOException if the target cannot be synced or the checkpoint cannot be saved
+	 */
+	private void save(Checkpoint checkpoint, CSVOutputSink target) throws IOException {
+		target.sync();
+		checkpoint.save(sidecar);
+		logger.trace("Checkpoint saved: {}", checkpoint);
+	}
+
+	/**
+	 * @return the file where checkpoints are saved
+	 */
+	public File getSidecar() {
+		return sidecar;
+	}
+
+}
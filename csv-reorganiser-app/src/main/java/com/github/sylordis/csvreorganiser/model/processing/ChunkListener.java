@@ -0,0 +1,26 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.IOException;
+
+import com.github.sylordis.csvreorganiser.model.io.FileChunk;
+
+/**
+ * Listener notified each time the records of a chunk have been appended to the target.
+ *
+ * @author sylordis
+ *
+ * @see ChunkedFileProcessor
+ */
+@FunctionalInterface
+public interface ChunkListener {
+
+	/**
+	 * Called after the records of a chunk have been appended to the target, before the next chunk is.
+	 *
+	 * @param chunk   chunk of the source file
+	 * @param records number of records generated from the chunk
+	 * @throws IOException if the listener fails, stopping the processing
+	 */
+	void chunkAppended(FileChunk chunk, long records) throws IOException;
+
+}
@@ -0,0 +1,272 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FileChunk;
+import com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner;
+import com.github.sylordis.csvreorganiser.model.io.SegmentFile;
+import com.github.sylordis.csvreorganiser.model.records.CSVSourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+
+/**
+ * Processes a single source file on several threads by splitting it into chunks aligned on record
+ * boundaries (see {@link RecordBoundaryScanner}). Each chunk is parsed and transformed on a
+ * {@link ForkJoinPool} into its own {@link SegmentFile}. At most {@link #IN_FLIGHT_PER_THREAD}
+ * chunks per thread are submitted and not yet appended at any time, the next chunk being submitted
+ * as each segment is appended, which bounds the number of segments on disk.<br/>
+ * <br/>
+ * In ordered mode (default), segments are appended to the target in the order of the source file,
+ * producing the same output as a sequential run. In unordered mode, segments are appended as soon
+ * as their chunk is done, meaning that records of different chunks may end up in any order.
+ *
+ * @author sylordis
+ *
+ */
+public class ChunkedFileProcessor {
+
+	/**
+	 * Maximum number of chunks per thread submitted and not yet appended.
+	 */
+	public static final int IN_FLIGHT_PER_THREAD = 2;
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Number of worker threads.
+	 */
+	private final int threads;
+	/**
+	 * Scanner used to split the files.
+	 */
+	private final RecordBoundaryScanner scanner;
+	/**
+	 * Whether the order of the records should be preserved.
+	 */
+	private final boolean ordered;
+	/**
+	 * Creates the processor applied to the records of each chunk from the header of the file.
+	 */
+	private final Function<SourceHeader, RecordsProcessor> recordsProcessors;
+	/**
+	 * Size of the output buffer of each segment.
+	 */
+	private final int segmentBufferSize;
+	/**
+	 * Directory where segments are created, null for the default temporary directory.
+	 */
+	private final File segmentsDirectory;
+	/**
+	 * Charset of the source files.
+	 */
+	private final Charset charset;
+
+	/**
+	 * Constructs a new chunked processor.
+	 *
+	 * @param threads           number of worker threads
+	 * @param chunkSize         minimum size of each chunk in bytes
+	 * @param ordered           true to preserve the order of the records, false otherwise
+	 * @param recordsProcessors creates the processor to apply to the records of each chunk from the
+	 *                          header of the file, called once per file
+	 * @param segmentBufferSize size of the output buffer of each segment in bytes
+	 * @param segmentsDirectory directory where to create the segments, null for the default temporary
+	 *                          directory
+	 */
+	public ChunkedFileProcessor(int threads, long chunkSize, boolean ordered,
+	        Function<SourceHeader, RecordsProcessor> recordsProcessors,
+	        int segmentBufferSize, File segmentsDirectory) {
+		this.threads = threads;
+		this.scanner = new RecordBoundaryScanner(chunkSize);
+		this.ordered = ordered;
+		this.recordsProcessors = recordsProcessors;
+		this.segmentBufferSize = segmentBufferSize;
+		this.segmentsDirectory = segmentsDirectory;
+		this.charset = Charset.defaultCharset();
+	}
+
+	/**
+	 * Processes a source file chunk by chunk and appends the results to the target sink.
+	 *
+	 * @param srcFile file to process
+	 * @param target  sink of the target
+	 * @return the number of records generated
+	 * @throws IOException if the source cannot be read or the target cannot be written
+	 */
+	public long process(File srcFile, CSVOutputSink target) throws IOException {
+		return process(srcFile, target, 0, null);
+	}
+
+	/**
+	 * Processes a source file chunk by chunk from a given offset and appends the results to the target
+	 * sink, notifying a listener after each chunk.
+	 *
+	 * @param srcFile  file to process
+	 * @param target   sink of the target
+	 * @param from     offset of the first chunk to process, 0 or the end of a chunk of a previous run
+	 *                 with the same chunk size
+	 * @param listener listener notified after each chunk is appended, null for none
+	 * @return the number of records generated
+	 * @throws IOException              if the source cannot be read or the target cannot be written
+	 * @throws IllegalArgumentException if the offset is not the end of a chunk
+	 */
+	public long process(File srcFile, CSVOutputSink target, long from, ChunkListener listener) throws IOException {
+		final RecordBoundaryScanner.Scan scan = scanner.scan(srcFile);
+		final List<FileChunk> allChunks = scan.chunks();
+		if (from > 0 && allChunks.stream().noneMatch(c -> c.end() == from))
+			throw new IllegalArgumentException("Offset " + from + " is not a chunk boundary of " + srcFile);
+		final List<FileChunk> chunks = allChunks.stream().filter(c -> c.start() >= from).toList();
+		logger.debug("{} split into {} chunk(s), {} to process", srcFile, allChunks.size(), chunks.size());
+		if (chunks.isEmpty())
+			return 0;
+		final String[] header = readHeader(srcFile, scan.headerEnd());
+		final CSVFormat chunkFormat = CSVFormat.Builder.create().setHeader(header).get();
+		final RecordsProcessor recordsProcessor = recordsProcessors.apply(SourceHeader.of(Arrays.asList(header)));
+		final SegmentFile[] segments = new SegmentFile[chunks.size()];
+		final List<Future<Integer>> results = new ArrayList<>();
+		final long[] counts = new long[chunks.size()];
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		final CompletionService<Integer> completion = new ExecutorCompletionService<>(pool);
+		final int inFlight = threads * IN_FLIGHT_PER_THREAD;
+		long records = 0;
+		try {
+			while (results.size() < Math.min(inFlight, chunks.size()))
+				results.add(submit(completion, srcFile, chunks, results.size(), chunkFormat, recordsProcessor,
+				        segments, counts));
+			for (int i = 0; i < chunks.size(); i++) {
+				final int index = Tasks.waitFor(ordered ? results.get(i) : completion.take());
+				segments[index].appendTo(target);
+				segments[index].close();
+				segments[index] = null;
+				records += counts[index];
+				if (listener != null)
+					listener.chunkAppended(chunks.get(index), counts[index]);
+				if (results.size() < chunks.size())
+					results.add(submit(completion, srcFile, chunks, results.size(), chunkFormat, recordsProcessor,
+					        segments, counts));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while processing " + srcFile, e);
+		} finally {
+			Tasks.shutdown(pool);
+			for (SegmentFile segment : segments)
+				if (segment != null)
+					segment.close();
+		}
+		return records;
+	}
+
+	/**
+	 * Creates the segment of a chunk and submits the chunk to be processed into it.
+	 *
+	 * @param completion       completion service of the pool
+	 * @param srcFile          source file
+	 * @param chunks           chunks to process
+	 * @param index            index of the chunk to submit
+	 * @param chunkFormat      format of the source, with header
+	 * @param recordsProcessor processor to apply to the records
+	 * @param segments         segment of each chunk, filled for the chunk submitted
+	 * @param counts           number of records generated for each chunk, filled once processed
+	 * @return the result of the task, the index of the chunk
+	 * @throws IOException if the segment cannot be created
+	 */
+	private Future<Integer> submit(CompletionService<Integer> completion, File srcFile, List<FileChunk> chunks,
+	        int index, CSVFormat chunkFormat, RecordsProcessor recordsProcessor, SegmentFile[] segments, long[] counts)
+	        throws IOException {
+		final SegmentFile segment = new SegmentFile(segmentsDirectory);
+		segments[index] = segment;
+		return completion.submit(() -> {
+			counts[index] = processChunk(srcFile, chunks.get(index), chunkFormat, recordsProcessor, segment);
+			return index;
+		});
+	}
+
+	/**
+	 * Parses and transforms one chunk into a segment.
+	 *
+	 * @param srcFile          source file
+	 * @param chunk            chunk of the source file to process
+	 * @param chunkFormat      format of the source, with header
+	 * @param recordsProcessor processor to apply to the records
+	 * @param segment          segment to write to
+	 * @return the number of records generated
+	 * @throws IOException if the source cannot be read or the segment cannot be written
+	 */
+	private long processChunk(File srcFile, FileChunk chunk, CSVFormat chunkFormat, RecordsProcessor recordsProcessor,
+	        SegmentFile segment) throws IOException {
+		logger.trace("Processing chunk {} of {}", chunk, srcFile);
+		try (FileChannel channel = FileChannel.open(srcFile.toPath(), StandardOpenOption.READ)) {
+			channel.position(chunk.start());
+			InputStream input = BoundedInputStream.builder().setInputStream(Channels.newInputStream(channel))
+			        .setMaxCount(chunk.length()).get();
+			try (Reader reader = new InputStreamReader(input, charset);
+			        CSVOutputSink sink = segment.openSink(segmentBufferSize)) {
+				return recordsProcessor.process(CSVSourceRecord.wrap(chunkFormat.parse(reader)), sink);
+			}
+		}
+	}
+
+	/**
+	 * Reads the header of a scanned file.
+	 *
+	 * @param srcFile   source file
+	 * @param headerEnd position of the first byte after the header, as scanned
+	 * @return the names of the columns
+	 * @throws IOException if the file cannot be read
+	 */
+	private String[] readHeader(File srcFile, long headerEnd) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) headerEnd);
+		try (FileChannel channel = FileChannel.open(srcFile.toPath(), StandardOpenOption.READ)) {
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+				// Reading until the end of the header
+			}
+		}
+		buffer.flip();
+		try (Reader reader = new StringReader(charset.decode(buffer).toString())) {
+			List<CSVRecord> header = CSVFormat.Builder.create().get().parse(reader).getRecords();
+			return header.isEmpty() ? new String[0] : header.get(0).values();
+		}
+	}
+
+	/**
+	 * @return the minimum size of the chunks in bytes
+	 */
+	public long getChunkSize() {
+		return scanner.getChunkSize();
+	}
+
+	/**
+	 * @return true if the order of the records is preserved, false otherwise
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.SegmentFile;
+
+/**
+ * Processes several source files at the same time on a pool of worker threads. Each file is
+ * transformed into its own {@link SegmentFile}, the largest files being scheduled first, and
+ * segments are then appended to the target in the original order of the files.
+ *
+ * @author sylordis
+ *
+ */
+public class ParallelFilesProcessor {
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Number of worker threads.
+	 */
+	private final int threads;
+	/**
+	 * Processor applied to each file.
+	 */
+	private final SourceFileProcessor fileProcessor;
+	/**
+	 * Size of the output buffer of each segment.
+	 */
+	private final int segmentBufferSize;
+	/**
+	 * Directory where segments are created, null for the default temporary directory.
+	 */
+	private final File segmentsDirectory;
+
+	/**
+	 * Constructs a new parallel processor.
+	 *
+	 * @param threads           maximum number of worker threads
+	 * @param fileProcessor     processor to apply to each file
+	 * @param segmentBufferSize size of the output buffer of each segment in bytes
+	 * @param segmentsDirectory directory where to create the segments, null for the default temporary
+	 *                          directory
+	 */
+	public ParallelFilesProcessor(int threads, SourceFileProcessor fileProcessor, int segmentBufferSize,
+	        File segmentsDirectory) {
+		this.threads = threads;
+		this.fileProcessor = fileProcessor;
+		this.segmentBufferSize = segmentBufferSize;
+		this.segmentsDirectory = segmentsDirectory;
+	}
+
+	/**
+	 * Processes all files and appends their results to the target sink, in the order of the list.
+	 *
+	 * @param srcFiles files to process
+	 * @param target   sink of the target
+	 * @return the total number of records generated
+	 * @throws IOException if a source cannot be read or the target cannot be written
+	 */
+	public long process(List<File> srcFiles, CSVOutputSink target) throws IOException {
+		final List<Future<Long>> results = new ArrayList<>();
+		final List<SegmentFile> segments = new ArrayList<>();
+		final ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, srcFiles.size()));
+		long records = 0;
+		try {
+			for (int i = 0; i < srcFiles.size(); i++) {
+				segments.add(new SegmentFile(segmentsDirectory));
+				results.add(null);
+			}
+			// Largest files first, so that the longest tasks do not end up running alone at the end
+			List<Integer> schedule = IntStream.range(0, srcFiles.size()).boxed()
+			        .sorted(Comparator.comparingLong((Integer i) -> srcFiles.get(i).length()).reversed()).toList();
+			for (int i : schedule) {
+				final File srcFile = srcFiles.get(i);
+				final SegmentFile segment = segments.get(i);
+				results.set(i, pool.submit(() -> processToSegment(srcFile, segment)));
+			}
+			// Concatenate in original order
+			for (int i = 0; i < srcFiles.size(); i++) {
+				long fileRecords = Tasks.waitFor(results.get(i));
+				logger.info("{} record(s) generated from {}", fileRecords, srcFiles.get(i));
+				segments.get(i).appendTo(target);
+				segments.get(i).close();
+				records += fileRecords;
+			}
+		} finally {
+			Tasks.shutdown(pool);
+			segments.forEach(SegmentFile::close);
+		}
+		return records;
+	}
+
+	/**
+	 * Processes a file and writes its records to a segment.
+	 *
+	 * @param srcFile source file
+	 * @param segment segment to write to
+	 * @return the number of generated records
+	 * @throws IOException if the source cannot be read or the segment cannot be written
+	 */
+	private long processToSegment(File srcFile, SegmentFile segment) throws IOException {
+		logger.debug("Processing source file {} to {}", srcFile, segment.getFile());
+		try (CSVOutputSink sink = segment.openSink(segmentBufferSize)) {
+			return fileProcessor.process(srcFile, sink);
+		}
+	}
+
+}
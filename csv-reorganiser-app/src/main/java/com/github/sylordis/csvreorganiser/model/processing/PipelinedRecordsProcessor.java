@@ -0,0 +1,202 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeException;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Processes records in three overlapping stages:
+ * <ol>
+ * <li>the calling thread parses the records and groups them in batches,</li>
+ * <li>a pool of workers transforms each batch,</li>
+ * <li>a dedicated writer thread prints the transformed batches in their original order.</li>
+ * </ol>
+ * Batches are handed from the reader to the writer through a bounded queue, so the reader blocks
+ * whenever the writer falls behind and at most {@code batchSize * queueCapacity} records are in
+ * memory at any time.
+ *
+ * @author sylordis
+ *
+ */
+public class PipelinedRecordsProcessor implements RecordsProcessor {
+
+	/**
+	 * Default number of records per batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 512;
+	/**
+	 * Delay between two checks of the writer state while the queue is full, in milliseconds.
+	 */
+	private static final long OFFER_TIMEOUT_MS = 100;
+	/**
+	 * Marker of the end of the records.
+	 */
+	private static final Future<List<List<String>>> END = CompletableFuture.completedFuture(List.of());
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Number of transforming workers.
+	 */
+	private final int workers;
+	/**
+	 * Number of records per batch.
+	 */
+	private final int batchSize;
+	/**
+	 * Maximum number of batches waiting to be written.
+	 */
+	private final int queueCapacity;
+	/**
+	 * Transformation applied to each record.
+	 */
+	private final RecordTransformer transformer;
+
+	/**
+	 * Constructs a new pipelined processor with default batch size and a queue holding two batches per
+	 * worker.
+	 *
+	 * @param workers     number of transforming workers
+	 * @param transformer transformation to apply to each record
+	 */
+	public PipelinedRecordsProcessor(int workers, RecordTransformer transformer) {
+		this(workers, DEFAULT_BATCH_SIZE, 2 * workers, transformer);
+	}
+
+	/**
+	 * Constructs a new pipelined processor.
+	 *
+	 * @param workers       number of transforming workers
+	 * @param batchSize     number of records per batch
+	 * @param queueCapacity maximum number of batches waiting to be written
+	 * @param transformer   transformation to apply to each record
+	 * @throws IllegalArgumentException if any of the sizes is lower than 1
+	 */
+	public PipelinedRecordsProcessor(int workers, int batchSize, int queueCapacity, RecordTransformer transformer) {
+		if (workers < 1 || batchSize < 1 || queueCapacity < 1)
+			throw new IllegalArgumentException("Workers, batch size and queue capacity must be at least 1");
+		this.workers = workers;
+		this.batchSize = batchSize;
+		this.queueCapacity = queueCapacity;
+		this.transformer = transformer;
+	}
+
+	@Override
+	public long process(Iterable<SourceRecord> records, CSVOutputSink sink) throws IOException {
+		final BlockingQueue<Future<List<List<String>>>> queue = new ArrayBlockingQueue<>(queueCapacity);
+		final ExecutorService pool = Executors.newFixedThreadPool(workers);
+		final ExecutorService writerThread = Executors.newSingleThreadExecutor();
+		try {
+			final Future<Long> writer = writerThread.submit(() -> write(queue, sink));
+			List<SourceRecord> batch = new ArrayList<>(batchSize);
+			for (SourceRecord record : records) {
+				batch.add(record.detach());
+				if (batch.size() == batchSize) {
+					final List<SourceRecord> toTransform = batch;
+					enqueue(queue, pool.submit(() -> transform(toTransform)), writer);
+					batch = new ArrayList<>(batchSize);
+				}
+			}
+			if (!batch.isEmpty()) {
+				final List<SourceRecord> toTransform = batch;
+				enqueue(queue, pool.submit(() -> transform(toTransform)), writer);
+			}
+			enqueue(queue, END, writer);
+			return Tasks.waitFor(writer);
+		} finally {
+			pool.shutdownNow();
+			writerThread.shutdownNow();
+		}
+	}
+
+	/**
+	 * Puts a batch in the queue, waiting for some space if needed. If the writer stops before space is
+	 * made, its failure is propagated.
+	 *
+	 * @param queue  queue of batches
+	 * @param batch  batch to add
+	 * @param writer writer task
+	 * @throws IOException if the writer failed because of an I/O error
+	 */
+	private void enqueue(BlockingQueue<Future<List<List<String>>>> queue, Future<List<List<String>>> batch,
+	        Future<Long> writer) throws IOException {
+		try {
+			while (!queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				if (writer.isDone()) {
+					Tasks.waitFor(writer);
+					throw new ReorganiserRuntimeException("Writer stopped before the end of the records");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReorganiserRuntimeException("Interrupted while reading records", e);
+		}
+	}
+
+	/**
+	 * Transforms a batch of records.
+	 *
+	 * @param batch records to transform
+	 * @return the values of each target record
+	 */
+	private List<List<String>> transform(List<SourceRecord> batch) {
+		List<List<String>> result = new ArrayList<>(batch.size());
+		for (SourceRecord record : batch)
+			result.add(transformer.transform(record));
+		return result;
+	}
+
+	/**
+	 * Writes batches from the queue in order until the end marker is reached.
+	 *
+	 * @param queue   queue of batches
+	 * @param sink    sink to write to
+	 * @return the number of records written
+	 * @throws IOException          if the sink cannot be written or a transformation failed
+	 * @throws InterruptedException if the writer was interrupted
+	 */
+	private long write(BlockingQueue<Future<List<List<String>>>> queue, CSVOutputSink sink)
+	        throws IOException, InterruptedException {
+		long count = 0;
+		Future<List<List<String>>> next;
+		while ((next = queue.take()) != END) {
+			for (List<String> values : Tasks.waitFor(next)) {
+				sink.printRecord(values);
+				count++;
+			}
+		}
+		logger.trace("Writer finished after {} record(s)", count);
+		return count;
+	}
+
+	/**
+	 * @return the number of records per batch
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the maximum number of batches waiting to be written
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+}
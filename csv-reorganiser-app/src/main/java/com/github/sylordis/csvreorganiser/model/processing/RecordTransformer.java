@@ -0,0 +1,25 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.util.List;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Transforms a single source record into the values of a target record. Implementations must be
+ * safe to call from several threads at the same time.
+ *
+ * @author sylordis
+ *
+ */
+@FunctionalInterface
+public interface RecordTransformer {
+
+	/**
+	 * Transforms a source record.
+	 *
+	 * @param record source record
+	 * @return the values of the target record
+	 */
+	List<String> transform(SourceRecord record);
+
+}
@@ -0,0 +1,27 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.IOException;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Transforms a sequence of source records, writing all generated records to a sink.
+ *
+ * @author sylordis
+ *
+ */
+@FunctionalInterface
+public interface RecordsProcessor {
+
+	/**
+	 * Processes all records.
+	 *
+	 * @param records source records to transform
+	 * @param sink    sink to write the generated records to
+	 * @return the number of records generated
+	 * @throws IOException if the records cannot be read or the sink cannot be written to
+	 */
+	long process(Iterable<SourceRecord> records, CSVOutputSink sink) throws IOException;
+
+}
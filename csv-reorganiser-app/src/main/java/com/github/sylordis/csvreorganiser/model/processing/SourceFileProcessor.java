@@ -0,0 +1,27 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+
+/**
+ * Processes a whole source file, writing all generated records to a sink.
+ *
+ * @author sylordis
+ *
+ */
+@FunctionalInterface
+public interface SourceFileProcessor {
+
+	/**
+	 * Processes a source file.
+	 *
+	 * @param srcFile source file to read
+	 * @param sink    sink to write the generated records to
+	 * @return the number of records generated
+	 * @throws IOException if the source cannot be read or the sink cannot be written to
+	 */
+	long process(File srcFile, CSVOutputSink sink) throws IOException;
+
+}
@@ -0,0 +1,66 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeException;
+
+/**
+ * Utility methods for tasks running on worker threads.
+ *
+ * @author sylordis
+ *
+ */
+final class Tasks {
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private Tasks() {
+		// Nothing to do here
+	}
+
+	/**
+	 * Waits for a task to be finished, unwrapping the exception that made it fail if any.
+	 *
+	 * @param <T>    type of the result
+	 * @param result task result
+	 * @return the result of the task
+	 * @throws IOException                  if the task failed because of an I/O error
+	 * @throws ReorganiserRuntimeException if the thread was interrupted or the task failed with a
+	 *                                      checked exception
+	 */
+	static <T> T waitFor(Future<T> result) throws IOException {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReorganiserRuntimeException("Interrupted while waiting for a task to finish", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioe)
+				throw ioe;
+			else if (e.getCause() instanceof RuntimeException re)
+				throw re;
+			throw new ReorganiserRuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Stops a pool, interrupting the tasks still running, and waits for them to end, so that no task
+	 * writes to a segment after it was deleted.
+	 *
+	 * @param pool pool to stop
+	 */
+	static void shutdown(ExecutorService pool) {
+		pool.shutdownNow();
+		try {
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
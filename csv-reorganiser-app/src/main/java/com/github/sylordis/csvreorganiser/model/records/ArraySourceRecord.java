@@ -0,0 +1,90 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * {@link SourceRecord} holding its values in an array, the header being shared by all records of
+ * the same source.
+ *
+ * @author sylordis
+ *
+ */
+public class ArraySourceRecord implements SourceRecord {
+
+	/**
+	 * Index of each column by name, shared between records.
+	 */
+	private final Map<String, Integer> header;
+	/**
+	 * Values of the record.
+	 */
+	private final String[] values;
+	/**
+	 * Number of the record in its source.
+	 */
+	private final long number;
+
+	/**
+	 * Constructs a new record which was not read from a source.
+	 *
+	 * @param header index of each column by name
+	 * @param values values of the record
+	 */
+	public ArraySourceRecord(Map<String, Integer> header, String[] values) {
+		this(header, values, 0);
+	}
+
+	/**
+	 * Constructs a new record.
+	 *
+	 * @param header index of each column by name
+	 * @param values values of the record
+	 * @param number number of the record in its source, starting at 1 after the header
+	 */
+	public ArraySourceRecord(Map<String, Integer> header, String[] values, long number) {
+		this.header = header;
+		this.values = values;
+		this.number = number;
+	}
+
+	@Override
+	public String get(String name) {
+		Integer index = header.get(name);
+		if (index == null)
+			throw new IllegalArgumentException(
+			        String.format("Mapping for %s not found, expected one of %s", name, header.keySet()));
+		if (index >= values.length)
+			throw new IllegalArgumentException(String.format(
+			        "Index for header '%s' is %d but record only has %d values!", name, index, values.length));
+		return values[index];
+	}
+
+	@Override
+	public String get(int index) {
+		if (index >= values.length)
+			throw SourceRecord.createShortRecordException(header, index, this);
+		return values[index];
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		return header.containsKey(name);
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public long getRecordNumber() {
+		return number;
+	}
+
+	@Override
+	public String toString() {
+		return "ArraySourceRecord " + Arrays.toString(values);
+	}
+
+}
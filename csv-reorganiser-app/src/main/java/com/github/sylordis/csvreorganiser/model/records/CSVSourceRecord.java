@@ -0,0 +1,96 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import java.util.Iterator;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * {@link SourceRecord} backed by a commons-csv {@link CSVRecord}.
+ *
+ * @author sylordis
+ *
+ */
+public class CSVSourceRecord implements SourceRecord {
+
+	/**
+	 * Backing record.
+	 */
+	private final CSVRecord record;
+
+	/**
+	 * Constructs a new source record.
+	 *
+	 * @param record backing record
+	 */
+	public CSVSourceRecord(CSVRecord record) {
+		this.record = record;
+	}
+
+	/**
+	 * Wraps all records of an iterable, for example a {@link org.apache.commons.csv.CSVParser}. Records
+	 * are wrapped one at a time while iterating.
+	 *
+	 * @param records records to wrap
+	 * @return an iterable over the wrapped records
+	 */
+	public static Iterable<SourceRecord> wrap(Iterable<CSVRecord> records) {
+		return () -> new Iterator<>() {
+
+			/**
+			 * Iterator of the backing records.
+			 */
+			private final Iterator<CSVRecord> iterator = records.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SourceRecord next() {
+				return new CSVSourceRecord(iterator.next());
+			}
+		};
+	}
+
+	@Override
+	public String get(String name) {
+		return record.get(name);
+	}
+
+	@Override
+	public String get(int index) {
+		if (index >= record.size())
+			throw SourceRecord.createShortRecordException(
+			        record.getParser() == null ? null : record.getParser().getHeaderMap(), index, this);
+		return record.get(index);
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		return record.isMapped(name);
+	}
+
+	@Override
+	public int size() {
+		return record.size();
+	}
+
+	@Override
+	public long getRecordNumber() {
+		return record.getRecordNumber();
+	}
+
+	/**
+	 * @return the backing record
+	 */
+	public CSVRecord getRecord() {
+		return record;
+	}
+
+	@Override
+	public String toString() {
+		return record.toString();
+	}
+
+}
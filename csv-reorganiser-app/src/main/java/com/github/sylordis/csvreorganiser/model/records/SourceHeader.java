@@ -0,0 +1,98 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Header of a source file, mapping the name of each column to its index. Operations are bound to
+ * the header once per source file (see
+ * {@link com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation#bind(SourceHeader)})
+ * so that records can then be read by index only.<br/>
+ * <br/>
+ * If a name appears several times, the last column with this name is used, as commons-csv does.
+ *
+ * @author sylordis
+ *
+ */
+public final class SourceHeader {
+
+	/**
+	 * Index returned for columns which are not in the header.
+	 */
+	public static final int NOT_MAPPED = -1;
+
+	/**
+	 * Index of each column by name.
+	 */
+	private final Map<String, Integer> indexes;
+	/**
+	 * Number of columns.
+	 */
+	private final int size;
+
+	/**
+	 * Constructs a header from the index of each column.
+	 *
+	 * @param indexes index of each column by name
+	 */
+	public SourceHeader(Map<String, Integer> indexes) {
+		this.indexes = Collections.unmodifiableMap(new LinkedHashMap<>(indexes));
+		this.size = indexes.values().stream().mapToInt(i -> i + 1).max().orElse(0);
+	}
+
+	/**
+	 * Constructs a header from the names of the columns in order.
+	 *
+	 * @param names names of the columns
+	 * @return a new header
+	 */
+	public static SourceHeader of(List<String> names) {
+		Map<String, Integer> indexes = new LinkedHashMap<>();
+		for (int i = 0; i < names.size(); i++)
+			indexes.put(names.get(i), i);
+		return new SourceHeader(indexes);
+	}
+
+	/**
+	 * Gets the index of a column.
+	 *
+	 * @param name name of the column
+	 * @return the index of the column, or {@link #NOT_MAPPED} if it is not in the header
+	 */
+	public int indexOf(String name) {
+		Integer index = indexes.get(name);
+		return index == null ? NOT_MAPPED : index;
+	}
+
+	/**
+	 * Checks if a column is in the header.
+	 *
+	 * @param name name of the column
+	 * @return true if the column exists, false otherwise
+	 */
+	public boolean isMapped(String name) {
+		return indexes.containsKey(name);
+	}
+
+	/**
+	 * @return the number of columns of the header
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the unmodifiable index of each column by name
+	 */
+	public Map<String, Integer> getIndexes() {
+		return indexes;
+	}
+
+	@Override
+	public String toString() {
+		return indexes.keySet().toString();
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import java.util.Map;
+
+/**
+ * A record read from a source file, independently of how the source was parsed. Values can be
+ * accessed by column name, the header of the source being its first record, or by index.
+ *
+ * @author sylordis
+ *
+ */
+public interface SourceRecord {
+
+	/**
+	 * Gets the value of a column by its name.
+	 *
+	 * @param name name of the column in the header
+	 * @return the value of the column
+	 * @throws IllegalArgumentException if the column does not exist or the record is too short for it
+	 */
+	String get(String name);
+
+	/**
+	 * Gets the value of a column by its index.
+	 *
+	 * @param index index of the column, starting at 0
+	 * @return the value of the column
+	 * @throws IllegalArgumentException       if the record is too short for the index
+	 * @throws ArrayIndexOutOfBoundsException if the index is negative
+	 */
+	String get(int index);
+
+	/**
+	 * Checks if a column exists in the header of the record.
+	 *
+	 * @param name name of the column
+	 * @return true if the column exists, false otherwise
+	 */
+	boolean isMapped(String name);
+
+	/**
+	 * @return the number of values of the record
+	 */
+	int size();
+
+	/**
+	 * @return the number of the record in its source, starting at 1 after the header, 0 if the record
+	 *         was not read from a source
+	 */
+	long getRecordNumber();
+
+	/**
+	 * Gets the value of a column by its name as a character sequence, which may be a view of the
+	 * source avoiding the creation of a string.
+	 *
+	 * @param name name of the column in the header
+	 * @return the value of the column
+	 * @throws IllegalArgumentException if the column does not exist or the record is too short for it
+	 * @see #get(String)
+	 */
+	default CharSequence getView(String name) {
+		return get(name);
+	}
+
+	/**
+	 * Gets the value of a column by its index as a character sequence, which may be a view of the
+	 * source avoiding the creation of a string.
+	 *
+	 * @param index index of the column, starting at 0
+	 * @return the value of the column
+	 * @throws IllegalArgumentException       if the record is too short for the index
+	 * @throws ArrayIndexOutOfBoundsException if the index is negative
+	 * @see #get(int)
+	 */
+	default CharSequence getView(int index) {
+		return get(index);
+	}
+
+	/**
+	 * Gets a record with the same values which stays valid after the reader it comes from moved on to
+	 * the next record. Records that are not reused by their reader return themselves.
+	 *
+	 * @return a record safe to keep and to hand over to another thread
+	 */
+	default SourceRecord detach() {
+		return this;
+	}
+
+	/**
+	 * Creates a new harmonised exception if a record is too short for a column of its header, naming
+	 * the column and the record.
+	 *
+	 * @param header index of each column by name, null if unknown
+	 * @param index  index of the column
+	 * @param record record too short for the column
+	 * @return an {@link IllegalArgumentException}
+	 */
+	static IllegalArgumentException createShortRecordException(Map<String, Integer> header, int index,
+	        SourceRecord record) {
+		final String name = header == null ? null
+		        : header.entrySet().stream().filter(e -> e.getValue() == index).map(Map.Entry::getKey).findFirst()
+		                .orElse(null);
+		return new IllegalArgumentException(String.format("Index for header '%s' is %d but record %d only has %d values!",
+		        name == null ? "#" + index : name, index, record.getRecordNumber(), record.size()));
+	}
+
+}
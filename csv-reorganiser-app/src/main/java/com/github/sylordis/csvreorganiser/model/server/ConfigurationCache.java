@@ -0,0 +1,119 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.constants.YAMLTags;
+import com.github.sylordis.csvreorganiser.model.engines.DeclaredEngine;
+import com.github.sylordis.csvreorganiser.model.engines.EngineFactory;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
+import com.github.sylordis.csvreorganiser.utils.yaml.YAMLUtils;
+
+/**
+ * Cache of the configurations and engines used by successive jobs, so that each engine is created
+ * only once and each configuration file is only loaded again when it changes, detected through its
+ * last modification time and size.<br/>
+ * <br/>
+ * Caches can be used from several threads.
+ *
+ * @author sylordis
+ *
+ */
+public class ConfigurationCache {
+
+	/**
+	 * Cached configuration.
+	 *
+	 * @param lastModified  last modification time of the file when it was loaded
+	 * @param length        size of the file when it was loaded
+	 * @param configuration configuration loaded
+	 */
+	private record Entry(long lastModified, long length, ReorgConfiguration configuration) {
+	}
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Engines by declared type.
+	 */
+	private final Map<DeclaredEngine, ReorganiserEngine> engines;
+	/**
+	 * Configurations by absolute file.
+	 */
+	private final Map<File, Entry> configurations;
+
+	/**
+	 * Constructs an empty cache.
+	 */
+	public ConfigurationCache() {
+		this.engines = new ConcurrentHashMap<>();
+		this.configurations = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the configuration of a file, loading it if it is not cached or if the file changed since it
+	 * was loaded.
+	 *
+	 * @param cfgFile configuration file
+	 * @return the configuration
+	 * @throws IOException                  if the configuration file cannot be read
+	 * @throws ConfigurationImportException if the configuration is wrong or empty
+	 * @throws EngineException              if the engine of the configuration cannot be used
+	 */
+	public ReorgConfiguration get(File cfgFile) throws IOException, ConfigurationImportException, EngineException {
+		final File file = cfgFile.getAbsoluteFile();
+		final long lastModified = file.lastModified();
+		final long length = file.length();
+		Entry entry = configurations.get(file);
+		if (entry != null && entry.lastModified() == lastModified && entry.length() == length)
+			return entry.configuration();
+		logger.debug("Loading configuration {}", file);
+		ReorgConfiguration configuration = ReorgConfiguration.fromFile(file, engineOf(file));
+		configurations.put(file, new Entry(lastModified, length, configuration));
+		return configuration;
+	}
+
+	/**
+	 * Gets the engine declared in the header of a configuration file, creating it the first time it is
+	 * needed. Files without a valid header get the default engine.
+	 *
+	 * @param file configuration file
+	 * @return the engine of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private ReorganiserEngine engineOf(File file) throws IOException {
+		DeclaredEngine type = null;
+		try (InputStream input = new FileInputStream(file)) {
+			Map<String, Object> root = YAMLUtils.toNode(YAMLUtils.toNode(new Yaml().load(input)).get(YAMLTags.CFG_ROOT));
+			type = DeclaredEngine.getEngineTypeFromId(
+			        YAMLUtils.strValue(YAMLTags.Header.CFG_ENGINE, YAMLUtils.get(YAMLTags.CFG_HEADER_KEY, root)));
+		} catch (RuntimeException e) {
+			// Invalid files are reported while loading the configuration
+		}
+		if (type == null)
+			return engines.computeIfAbsent(DeclaredEngine.CHESS, k -> EngineFactory.getDefaultEngine());
+		final DeclaredEngine declared = type;
+		return engines.computeIfAbsent(declared, k -> new EngineFactory().getEngineFromId(declared.getName()));
+	}
+
+	/**
+	 * @return the number of configurations in the cache
+	 */
+	public int size() {
+		return configurations.size();
+	}
+
+}
@@ -0,0 +1,233 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import java.util.function.Consumer;
+
+/**
+ * Reorganisation submitted to a {@link JobServer}, run by its workers in order of priority then of
+ * submission. Jobs can be cancelled while they wait, or while they run by interrupting their worker,
+ * which stops any pending write to a file.
+ *
+ * @author sylordis
+ *
+ */
+public class Job implements Runnable, Comparable<Job> {
+
+	/**
+	 * States of a job.
+	 */
+	public enum State {
+		/**
+		 * Waiting for a worker.
+		 */
+		QUEUED,
+		/**
+		 * Being run by a worker.
+		 */
+		RUNNING,
+		/**
+		 * Finished successfully.
+		 */
+		DONE,
+		/**
+		 * Finished in error.
+		 */
+		FAILED,
+		/**
+		 * Cancelled before or while running.
+		 */
+		CANCELLED;
+
+		/**
+		 * @return true if jobs in this state will not change anymore
+		 */
+		public boolean isFinished() {
+			return this == DONE || this == FAILED || this == CANCELLED;
+		}
+	}
+
+	/**
+	 * Work of a job.
+	 */
+	@FunctionalInterface
+	public interface Task {
+
+		/**
+		 * Performs the work.
+		 *
+		 * @throws Exception if the work fails
+		 */
+		void run() throws Exception;
+	}
+
+	/**
+	 * Identifier of the job, increasing with submissions.
+	 */
+	private final long id;
+	/**
+	 * Priority of the job, higher first.
+	 */
+	private final int priority;
+	/**
+	 * Work of the job.
+	 */
+	private final Task task;
+	/**
+	 * Called once the job is finished, whatever its state.
+	 */
+	private final Consumer<Job> listener;
+	/**
+	 * Current state.
+	 */
+	private volatile State state;
+	/**
+	 * Thread running the job, null if it is not running.
+	 */
+	private Thread worker;
+	/**
+	 * Whether the job was cancelled while running.
+	 */
+	private boolean cancelRequested;
+	/**
+	 * Message of the error which made the job fail.
+	 */
+	private volatile String error;
+	/**
+	 * Time at which the job started to run, in nanoseconds, 0 if it did not start.
+	 */
+	private volatile long started;
+	/**
+	 * Time at which the job finished, in nanoseconds, 0 if it did not finish.
+	 */
+	private volatile long finished;
+
+	/**
+	 * Constructs a new queued job.
+	 *
+	 * @param id       identifier of the job, increasing with submissions
+	 * @param priority priority of the job, higher first
+	 * @param task     work of the job
+	 * @param listener called once the job is finished, whatever its state
+	 */
+	public Job(long id, int priority, Task task, Consumer<Job> listener) {
+		this.id = id;
+		this.priority = priority;
+		this.task = task;
+		this.listener = listener;
+		this.state = State.QUEUED;
+	}
+
+	@Override
+	public void run() {
+		synchronized (this) {
+			if (state != State.QUEUED)
+				return;
+			state = State.RUNNING;
+			worker = Thread.currentThread();
+			started = System.nanoTime();
+		}
+		State end;
+		try {
+			task.run();
+			end = State.DONE;
+		} catch (Exception e) {
+			error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+			end = State.FAILED;
+		}
+		synchronized (this) {
+			worker = null;
+			// Clearing the interruption so that it does not affect the next job of the worker
+			Thread.interrupted();
+			state = cancelRequested ? State.CANCELLED : end;
+			finished = System.nanoTime();
+		}
+		listener.accept(this);
+	}
+
+	/**
+	 * Cancels the job. Queued jobs will not run, running ones have their worker interrupted.
+	 *
+	 * @return true if the job was cancelled, false if it was already finished
+	 */
+	public boolean cancel() {
+		synchronized (this) {
+			if (state == State.RUNNING) {
+				cancelRequested = true;
+				worker.interrupt();
+				return true;
+			}
+			if (state != State.QUEUED)
+				return false;
+			state = State.CANCELLED;
+			finished = System.nanoTime();
+		}
+		listener.accept(this);
+		return true;
+	}
+
+	/**
+	 * Orders jobs by decreasing priority, then by submission.
+	 */
+	@Override
+	public int compareTo(Job other) {
+		final int result = Integer.compare(other.priority, priority);
+		return result != 0 ? result : Long.compare(id, other.id);
+	}
+
+	/**
+	 * Describes the job, one property per line.
+	 *
+	 * @return the description
+	 */
+	public String describe() {
+		StringBuilder description = new StringBuilder();
+		description.append("id: ").append(id).append('\n');
+		description.append("state: ").append(state).append('\n');
+		description.append("priority: ").append(priority).append('\n');
+		if (error != null)
+			description.append("error: ").append(error.replace('\n', ' ')).append('\n');
+		return description.toString();
+	}
+
+	/**
+	 * @return the identifier of the job
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return the priority of the job, higher first
+	 */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return the current state of the job
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return the message of the error which made the job fail, null if it did not fail
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * @return true if the job started to run
+	 */
+	public boolean isStarted() {
+		return started != 0;
+	}
+
+	/**
+	 * @return the time the job ran in nanoseconds, 0 if it did not start or finish
+	 */
+	public long getRunningTime() {
+		return started != 0 && finished != 0 ? finished - started : 0;
+	}
+
+}
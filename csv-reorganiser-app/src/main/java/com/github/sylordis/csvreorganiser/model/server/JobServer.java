@@ -0,0 +1,524 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.Reorganiser;
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server running reorganisations as jobs, so that they do not pay the start of the JVM
+ * nor the loading of their configuration. Jobs run on a fixed number of workers, waiting in a bounded
+ * queue ordered by priority. Configurations and engines are cached between jobs (see
+ * {@link ConfigurationCache}).<br/>
+ * <br/>
+ * Endpoints, parameters being passed in the query string:
+ * <ul>
+ * <li><code>POST /jobs?config=&amp;source=&amp;target=&amp;priority=</code>: submits a job
+ * reorganising the source files, as many as needed, into the target file. Paths are resolved on the
+ * server.</li>
+ * <li><code>GET /jobs/{id}</code>: describes a job.</li>
+ * <li><code>DELETE /jobs/{id}</code>: cancels a job.</li>
+ * <li><code>POST /transform?config=&amp;priority=</code>: reorganises the CSV in the body of the
+ * request, the result being the body of the response.</li>
+ * <li><code>GET /metrics</code>: metrics in the Prometheus text format.</li>
+ * </ul>
+ * Responses to submissions give the identifier of their job in the {@value #JOB_ID_HEADER} header.
+ * Descriptions of jobs are plain text, one property per line. Files named in requests are read and
+ * written with the rights of the server, which should therefore only listen locally.
+ *
+ * @author sylordis
+ *
+ */
+public class JobServer implements Closeable {
+
+	/**
+	 * Default number of jobs running at the same time.
+	 */
+	public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+	/**
+	 * Default maximum number of jobs waiting for a worker.
+	 */
+	public static final int DEFAULT_MAX_QUEUED = 256;
+	/**
+	 * Header of the responses giving the identifier of the job of a request.
+	 */
+	public static final String JOB_ID_HEADER = "X-Job-Id";
+	/**
+	 * Number of finished jobs kept so that they can still be described.
+	 */
+	private static final int FINISHED_JOBS_KEPT = 1000;
+	/**
+	 * Prefix of the metrics.
+	 */
+	private static final String METRICS_PREFIX = "csvreorganiser_";
+
+	/**
+	 * Class logger.
+	 */
+	private final Logger logger = LogManager.getLogger();
+	/**
+	 * Underlying HTTP server.
+	 */
+	private final HttpServer server;
+	/**
+	 * Workers running the jobs.
+	 */
+	private final ThreadPoolExecutor executor;
+	/**
+	 * Maximum number of jobs waiting for a worker.
+	 */
+	private final int maxQueued;
+	/**
+	 * Options of all reorganisations.
+	 */
+	private final ReorganiserOptions options;
+	/**
+	 * Cache of the configurations.
+	 */
+	private final ConfigurationCache configurations;
+	/**
+	 * Known jobs by identifier.
+	 */
+	private final Map<Long, Job> jobs;
+	/**
+	 * Identifiers of the finished jobs, oldest first.
+	 */
+	private final Queue<Long> finishedJobs;
+	/**
+	 * Identifier of the last job submitted.
+	 */
+	private final AtomicLong lastId;
+	/**
+	 * Number of jobs submitted.
+	 */
+	private final AtomicLong submitted;
+	/**
+	 * Number of jobs rejected because the queue was full.
+	 */
+	private final AtomicLong rejected;
+	/**
+	 * Number of finished jobs by state.
+	 */
+	private final Map<Job.State, AtomicLong> finished;
+	/**
+	 * Total running time of the finished jobs, in nanoseconds.
+	 */
+	private final AtomicLong runningTime;
+	/**
+	 * Number of bytes of sources read by the jobs.
+	 */
+	private final AtomicLong sourceBytes;
+
+	/**
+	 * Constructs a new server, which does not listen before being started.
+	 *
+	 * @param address   address to listen to
+	 * @param workers   number of jobs running at the same time
+	 * @param maxQueued maximum number of jobs waiting for a worker
+	 * @param options   options of all reorganisations
+	 * @throws IOException              if the address cannot be bound
+	 * @throws IllegalArgumentException if the number of workers or the size of the queue is lower than
+	 *                                  1
+	 */
+	public JobServer(InetSocketAddress address, int workers, int maxQueued, ReorganiserOptions options)
+	        throws IOException {
+		if (workers < 1)
+			throw new IllegalArgumentException("Number of workers must be at least 1 (was " + workers + ")");
+		if (maxQueued < 1)
+			throw new IllegalArgumentException("Queue size must be at least 1 (was " + maxQueued + ")");
+		this.maxQueued = maxQueued;
+		this.options = options;
+		this.configurations = new ConfigurationCache();
+		this.jobs = new ConcurrentHashMap<>();
+		this.finishedJobs = new ConcurrentLinkedQueue<>();
+		this.lastId = new AtomicLong();
+		this.submitted = new AtomicLong();
+		this.rejected = new AtomicLong();
+		this.finished = new ConcurrentHashMap<>();
+		for (Job.State state : Job.State.values()) {
+			if (state.isFinished())
+				finished.put(state, new AtomicLong());
+		}
+		this.runningTime = new AtomicLong();
+		this.sourceBytes = new AtomicLong();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+		        new PriorityBlockingQueue<>(), r -> {
+			        Thread thread = new Thread(r, "job-worker");
+			        thread.setDaemon(true);
+			        return thread;
+		        });
+		this.server = HttpServer.create(address, 0);
+		server.createContext("/jobs", this::handleJobs);
+		server.createContext("/transform", this::handleTransform);
+		server.createContext("/metrics", this::handleMetrics);
+	}
+
+	/**
+	 * Starts listening.
+	 */
+	public void start() {
+		server.start();
+		logger.info("Listening on {}", getAddress());
+	}
+
+	/**
+	 * Stops listening and cancels all jobs.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		jobs.values().forEach(Job::cancel);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Handles the submission, description and cancellation of jobs.
+	 *
+	 * @param exchange HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handleJobs(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			final String path = exchange.getRequestURI().getPath();
+			final String method = exchange.getRequestMethod();
+			if (path.equals("/jobs") || path.equals("/jobs/")) {
+				if (!method.equals("POST")) {
+					respond(exchange, 405, "Method not allowed\n");
+					return;
+				}
+				Map<String, List<String>> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+				final ReorgConfiguration cfg = configuration(exchange, parameters);
+				final String target = single(parameters, "target");
+				final List<String> sources = parameters.getOrDefault("source", List.of());
+				if (cfg == null)
+					return;
+				if (target == null || sources.isEmpty()) {
+					respond(exchange, 400, "Parameters 'source' and 'target' are required\n");
+					return;
+				}
+				final List<File> srcFiles = sources.stream().map(File::new).toList();
+				Job job = submit(exchange, parameters, () -> {
+					Reorganiser reorganiser = new Reorganiser(cfg, new File(target), srcFiles);
+					reorganiser.setOptions(options);
+					reorganiser.reorganise();
+					sourceBytes.addAndGet(srcFiles.stream().mapToLong(File::length).sum());
+				}, null);
+				if (job != null) {
+					exchange.getResponseHeaders().set("Location", "/jobs/" + job.getId());
+					respond(exchange, 202, job.describe());
+				}
+			} else {
+				Job job = null;
+				try {
+					job = jobs.get(Long.parseLong(path.substring("/jobs/".length())));
+				} catch (NumberFormatException | IndexOutOfBoundsException e) {
+					// Unknown job
+				}
+				if (job == null)
+					respond(exchange, 404, "Unknown job\n");
+				else if (method.equals("GET"))
+					respond(exchange, 200, job.describe());
+				else if (!method.equals("DELETE"))
+					respond(exchange, 405, "Method not allowed\n");
+				else if (job.cancel()) {
+					executor.remove(job);
+					respond(exchange, 200, job.describe());
+				} else
+					respond(exchange, 409, job.describe());
+			}
+		}
+	}
+
+	/**
+	 * Handles the reorganisation of the body of requests. The header and the first record of the body
+	 * are read and the operations bound before responding, so that a body which cannot be reorganised
+	 * gets an error status rather than a truncated result. The exchange is closed by the job once it
+	 * finishes.
+	 *
+	 * @param exchange HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handleTransform(HttpExchange exchange) throws IOException {
+		if (!exchange.getRequestMethod().equals("POST")) {
+			respond(exchange, 405, "Method not allowed\n");
+			exchange.close();
+			return;
+		}
+		Map<String, List<String>> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+		final ReorgConfiguration cfg = configuration(exchange, parameters);
+		if (cfg == null) {
+			exchange.close();
+			return;
+		}
+		Job job = submit(exchange, parameters, () -> {
+			try (exchange) {
+				BoundedInputStream body = BoundedInputStream.builder().setInputStream(exchange.getRequestBody()).get();
+				Reorganiser reorganiser = new Reorganiser(cfg, null, List.of());
+				reorganiser.setOptions(options);
+				try {
+					final Reorganiser.StreamReorganisation reorganisation;
+					try {
+						reorganisation = reorganiser.open(new InputStreamReader(body, Charset.defaultCharset()));
+					} catch (IOException | RuntimeException e) {
+						// Nothing was sent yet, the client can be told why
+						respond(exchange, 400, "Invalid source: " + e.getMessage() + "\n");
+						throw e;
+					}
+					try (reorganisation) {
+						exchange.getResponseHeaders().set("Content-Type", "text/csv");
+						exchange.sendResponseHeaders(200, 0);
+						try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(exchange.getResponseBody()),
+						        options.getOutputBufferSize())) {
+							reorganisation.writeTo(sink);
+						}
+					}
+				} finally {
+					sourceBytes.addAndGet(body.getCount());
+				}
+			}
+		}, cancelled -> {
+			try (exchange) {
+				respond(exchange, 503, cancelled.describe());
+			} catch (IOException e) {
+				logger.debug("Cannot notify the client of job {}", cancelled.getId(), e);
+			}
+		});
+		if (job == null)
+			exchange.close();
+	}
+
+	/**
+	 * Handles the metrics.
+	 *
+	 * @param exchange HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handleMetrics(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+			respond(exchange, 200, getMetrics());
+		}
+	}
+
+	/**
+	 * Gets the metrics of the server in the Prometheus text format.
+	 *
+	 * @return the metrics
+	 */
+	public String getMetrics() {
+		StringBuilder metrics = new StringBuilder();
+		metric(metrics, "jobs_queued", "gauge", "Jobs waiting for a worker.", executor.getQueue().size());
+		metric(metrics, "jobs_running", "gauge", "Jobs being run.", executor.getActiveCount());
+		metric(metrics, "jobs_submitted_total", "counter", "Jobs submitted.", submitted.get());
+		metric(metrics, "jobs_rejected_total", "counter", "Jobs rejected because the queue was full.",
+		        rejected.get());
+		metrics.append("# HELP ").append(METRICS_PREFIX).append("jobs_finished_total Jobs finished by state.\n");
+		metrics.append("# TYPE ").append(METRICS_PREFIX).append("jobs_finished_total counter\n");
+		for (Map.Entry<Job.State, AtomicLong> entry : finished.entrySet())
+			metrics.append(METRICS_PREFIX).append("jobs_finished_total{state=\"")
+			        .append(entry.getKey().name().toLowerCase()).append("\"} ").append(entry.getValue().get())
+			        .append('\n');
+		metric(metrics, "jobs_running_seconds_total", "counter", "Time spent running jobs.",
+		        runningTime.get() / 1e9);
+		metric(metrics, "source_bytes_total", "counter", "Bytes of sources read by the jobs.", sourceBytes.get());
+		metric(metrics, "configurations_cached", "gauge", "Configurations in the cache.", configurations.size());
+		return metrics.toString();
+	}
+
+	/**
+	 * Appends a metric with its help and type.
+	 *
+	 * @param metrics builder of the metrics
+	 * @param name    name of the metric, without prefix
+	 * @param type    type of the metric
+	 * @param help    description of the metric
+	 * @param value   value of the metric
+	 */
+	private void metric(StringBuilder metrics, String name, String type, String help, Number value) {
+		metrics.append("# HELP ").append(METRICS_PREFIX).append(name).append(' ').append(help).append('\n');
+		metrics.append("# TYPE ").append(METRICS_PREFIX).append(name).append(' ').append(type).append('\n');
+		metrics.append(METRICS_PREFIX).append(name).append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * Submits a job, responding in error if the priority is invalid or the queue is full.
+	 *
+	 * @param exchange   HTTP exchange of the submission
+	 * @param parameters parameters of the request
+	 * @param task       work of the job
+	 * @param onCancel   called if the job is cancelled before it starts, null if nothing has to be done
+	 * @return the job, or null if it was not submitted
+	 * @throws IOException if the error response cannot be sent
+	 */
+	private Job submit(HttpExchange exchange, Map<String, List<String>> parameters, Job.Task task,
+	        Consumer<Job> onCancel) throws IOException {
+		int priority = 0;
+		try {
+			final String value = single(parameters, "priority");
+			if (value != null)
+				priority = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			respond(exchange, 400, "Parameter 'priority' must be an integer\n");
+			return null;
+		}
+		synchronized (executor) {
+			if (executor.getQueue().size() >= maxQueued) {
+				rejected.incrementAndGet();
+				respond(exchange, 503, "Too many jobs queued\n");
+				return null;
+			}
+			Job job = new Job(lastId.incrementAndGet(), priority, task, j -> {
+				finished(j);
+				if (onCancel != null && !j.isStarted())
+					onCancel.accept(j);
+			});
+			jobs.put(job.getId(), job);
+			exchange.getResponseHeaders().set(JOB_ID_HEADER, Long.toString(job.getId()));
+			submitted.incrementAndGet();
+			executor.execute(job);
+			logger.debug("Submitted job {} with priority {}", job.getId(), priority);
+			return job;
+		}
+	}
+
+	/**
+	 * Records a finished job, forgetting the oldest finished ones.
+	 *
+	 * @param job job which finished
+	 */
+	private void finished(Job job) {
+		finished.get(job.getState()).incrementAndGet();
+		runningTime.addAndGet(job.getRunningTime());
+		if (job.getState() == Job.State.FAILED)
+			logger.error("Job {} failed: {}", job.getId(), job.getError());
+		else
+			logger.info("Job {} {}", job.getId(), job.getState());
+		finishedJobs.add(job.getId());
+		while (finishedJobs.size() > FINISHED_JOBS_KEPT) {
+			Long id = finishedJobs.poll();
+			if (id != null)
+				jobs.remove(id);
+		}
+	}
+
+	/**
+	 * Gets the configuration named by the parameters of a request, responding in error if it cannot be
+	 * loaded.
+	 *
+	 * @param exchange   HTTP exchange
+	 * @param parameters parameters of the request
+	 * @return the configuration, or null if it cannot be loaded
+	 * @throws IOException if the error response cannot be sent
+	 */
+	private ReorgConfiguration configuration(HttpExchange exchange, Map<String, List<String>> parameters)
+	        throws IOException {
+		final String config = single(parameters, "config");
+		if (config == null) {
+			respond(exchange, 400, "Parameter 'config' is required\n");
+			return null;
+		}
+		try {
+			return configurations.get(new File(config));
+		} catch (IOException | EngineException | RuntimeException e) {
+			// Anything wrong in the file is the client's, the request must get an answer
+			respond(exchange, 400, "Invalid configuration: " + e.getMessage() + "\n");
+			return null;
+		}
+	}
+
+	/**
+	 * Sends a plain text response.
+	 *
+	 * @param exchange HTTP exchange
+	 * @param status   status code
+	 * @param body     body of the response
+	 * @throws IOException if the response cannot be sent
+	 */
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		if (!exchange.getResponseHeaders().containsKey("Content-Type"))
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(bytes);
+		}
+	}
+
+	/**
+	 * Gets the single value of a parameter.
+	 *
+	 * @param parameters parameters of a request
+	 * @param name       name of the parameter
+	 * @return the last value of the parameter, null if it is absent
+	 */
+	private static String single(Map<String, List<String>> parameters, String name) {
+		final List<String> values = parameters.get(name);
+		return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+	}
+
+	/**
+	 * Parses the query string of a request.
+	 *
+	 * @param query raw query string, may be null
+	 * @return the values of each parameter, in order
+	 */
+	static Map<String, List<String>> parseQuery(String query) {
+		Map<String, List<String>> parameters = new HashMap<>();
+		if (query == null || query.isEmpty())
+			return parameters;
+		for (String pair : query.split("&")) {
+			if (pair.isEmpty())
+				continue;
+			final int equals = pair.indexOf('=');
+			final String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+			final String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+			parameters.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+		}
+		return parameters;
+	}
+
+	/**
+	 * @return the address the server listens to
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * @return the cache of the configurations
+	 */
+	public ConfigurationCache getConfigurations() {
+		return configurations;
+	}
+
+}
@@ -0,0 +1,329 @@
+package com.github.sylordis.csvreorganiser.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Replacement of all matches of a regular expression, giving the same results as
+ * {@link String#replaceAll(String, String)} while doing the preparation work only once:
+ * <ul>
+ * <li>the pattern is compiled when the replacer is created and each thread reuses its own matcher,
+ * </li>
+ * <li>patterns without any metacharacter are searched for as plain text, without the regular
+ * expression engine,</li>
+ * <li>the replacement is parsed once into text and group references.</li>
+ * </ul>
+ * If the replacement is not valid for the pattern, for example referring to a missing group, it is
+ * used as is so that the same exception as {@link Matcher#replaceAll(String)} is raised, only when a
+ * match is found.<br/>
+ * <br/>
+ * Replacers can be used from several threads.
+ *
+ * @author sylordis
+ *
+ */
+public final class RegexReplacer {
+
+	/**
+	 * Characters having a meaning in a regular expression.
+	 */
+	private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+	/**
+	 * Reference to a group in {@link #groups} for text parts of the replacement.
+	 */
+	private static final int TEXT = -1;
+
+	/**
+	 * Regular expression.
+	 */
+	private final String regex;
+	/**
+	 * Replacement, as given.
+	 */
+	private final String replacement;
+	/**
+	 * Compiled pattern.
+	 */
+	private final Pattern pattern;
+	/**
+	 * Searched text if the pattern is a plain text, null otherwise.
+	 */
+	private final String literal;
+	/**
+	 * Text parts of the replacement, null for group references or if the replacement is not valid.
+	 */
+	private final String[] texts;
+	/**
+	 * Group references of the replacement, {@link #TEXT} for text parts.
+	 */
+	private final int[] groups;
+	/**
+	 * Replacement of a plain text pattern, fully expanded.
+	 */
+	private final String literalReplacement;
+	/**
+	 * Matcher of each thread, reset for each input.
+	 */
+	private final ThreadLocal<Matcher> matchers;
+
+	/**
+	 * Compiles a replacer.
+	 *
+	 * @param regex       regular expression, as defined by {@link Pattern}
+	 * @param replacement replacement of each match, as defined by {@link Matcher#replaceAll(String)}
+	 * @throws PatternSyntaxException if the regular expression is not valid
+	 */
+	private RegexReplacer(String regex, String replacement) {
+		this.regex = Objects.requireNonNull(regex);
+		this.replacement = Objects.requireNonNull(replacement);
+		this.pattern = Pattern.compile(regex);
+		this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+		List<String> textParts = new ArrayList<>();
+		List<Integer> groupParts = new ArrayList<>();
+		final boolean valid = parse(replacement, pattern.matcher("").groupCount(), pattern.namedGroups(), textParts,
+		        groupParts);
+		if (valid) {
+			texts = textParts.toArray(String[]::new);
+			groups = groupParts.stream().mapToInt(Integer::intValue).toArray();
+		} else {
+			texts = null;
+			groups = null;
+		}
+		if (valid && isLiteral(regex)) {
+			literal = regex;
+			StringBuilder expanded = new StringBuilder();
+			for (int i = 0; i < texts.length; i++)
+				expanded.append(groups[i] == TEXT ? texts[i] : regex);
+			literalReplacement = expanded.toString();
+		} else {
+			literal = null;
+			literalReplacement = null;
+		}
+	}
+
+	/**
+	 * Compiles a replacer.
+	 *
+	 * @param regex       regular expression, as defined by {@link Pattern}
+	 * @param replacement replacement of each match, as defined by {@link Matcher#replaceAll(String)}
+	 * @return a new replacer
+	 * @throws PatternSyntaxException if the regular expression is not valid
+	 * @throws NullPointerException   if the regular expression or the replacement is null
+	 */
+	public static RegexReplacer compile(String regex, String replacement) {
+		return new RegexReplacer(regex, replacement);
+	}
+
+	/**
+	 * Replaces all matches in a string.
+	 *
+	 * @param input string to replace the matches of
+	 * @return the input with all matches replaced, the input itself if nothing matched
+	 * @throws IllegalArgumentException  if a match is found and the replacement is not valid
+	 * @throws IndexOutOfBoundsException if a match is found and the replacement refers to a group
+	 *                                   which does not exist
+	 */
+	public String replaceAll(String input) {
+		return literal != null ? replaceLiteral(input) : replacePattern(input);
+	}
+
+	/**
+	 * Replaces all occurrences of a plain text.
+	 *
+	 * @param input string to replace the occurrences of
+	 * @return the input with all occurrences replaced
+	 */
+	private String replaceLiteral(String input) {
+		int index = input.indexOf(literal);
+		if (index < 0)
+			return input;
+		final StringBuilder result = new StringBuilder(input.length() + literalReplacement.length());
+		int last = 0;
+		do {
+			result.append(input, last, index).append(literalReplacement);
+			last = index + literal.length();
+			index = input.indexOf(literal, last);
+		} while (index >= 0);
+		return result.append(input, last, input.length()).toString();
+	}
+
+	/**
+	 * Replaces all matches of the pattern.
+	 *
+	 * @param input string to replace the matches of
+	 * @return the input with all matches replaced
+	 */
+	private String replacePattern(String input) {
+		final Matcher matcher = matchers.get().reset(input);
+		try {
+			if (!matcher.find())
+				return input;
+			if (texts == null)
+				return matcher.replaceAll(replacement);
+			final StringBuilder result = new StringBuilder(input.length() + replacement.length());
+			int last = 0;
+			do {
+				result.append(input, last, matcher.start());
+				for (int i = 0; i < texts.length; i++) {
+					if (groups[i] == TEXT)
+						result.append(texts[i]);
+					else if (matcher.start(groups[i]) != -1)
+						result.append(input, matcher.start(groups[i]), matcher.end(groups[i]));
+				}
+				last = matcher.end();
+			} while (matcher.find());
+			return result.append(input, last, input.length()).toString();
+		} finally {
+			// Do not keep the input alive through the matcher
+			matcher.reset("");
+		}
+	}
+
+	/**
+	 * Checks if a regular expression is a plain text, matching only itself.
+	 *
+	 * @param regex regular expression
+	 * @return true if the regular expression is not empty and has no metacharacter
+	 */
+	static boolean isLiteral(String regex) {
+		if (regex.isEmpty())
+			return false;
+		for (int i = 0; i < regex.length(); i++) {
+			if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parses a replacement into text parts and group references, following the rules of
+	 * {@link Matcher#appendReplacement(StringBuilder, String)}.
+	 *
+	 * @param replacement replacement to parse
+	 * @param groupCount  number of groups of the pattern
+	 * @param namedGroups indexes of the named groups of the pattern
+	 * @param texts       text parts, null for group references
+	 * @param groups      group references, {@link #TEXT} for text parts
+	 * @return true if the replacement is valid for the pattern
+	 */
+	private static boolean parse(String replacement, int groupCount, Map<String, Integer> namedGroups,
+	        List<String> texts, List<Integer> groups) {
+		final StringBuilder text = new StringBuilder();
+		int cursor = 0;
+		while (cursor < replacement.length()) {
+			char c = replacement.charAt(cursor);
+			if (c == '\\') {
+				if (++cursor == replacement.length())
+					return false;
+				text.append(replacement.charAt(cursor++));
+			} else if (c == '$') {
+				if (++cursor == replacement.length())
+					return false;
+				int group;
+				c = replacement.charAt(cursor);
+				if (c == '{') {
+					final int start = ++cursor;
+					while (cursor < replacement.length() && isAsciiLetterOrDigit(replacement.charAt(cursor)))
+						cursor++;
+					if (cursor == start || cursor == replacement.length() || replacement.charAt(cursor) != '}')
+						return false;
+					final Integer named = namedGroups.get(replacement.substring(start, cursor++));
+					if (named == null)
+						return false;
+					group = named;
+				} else {
+					group = c - '0';
+					if (group < 0 || group > 9)
+						return false;
+					cursor++;
+					// Digits are consumed as long as they form an existing group
+					while (cursor < replacement.length()) {
+						final int digit = replacement.charAt(cursor) - '0';
+						if (digit < 0 || digit > 9 || group * 10 + digit > groupCount)
+							break;
+						group = group * 10 + digit;
+						cursor++;
+					}
+				}
+				if (group > groupCount)
+					return false;
+				if (!text.isEmpty()) {
+					texts.add(text.toString());
+					groups.add(TEXT);
+					text.setLength(0);
+				}
+				texts.add(null);
+				groups.add(group);
+			} else {
+				text.append(c);
+				cursor++;
+			}
+		}
+		if (!text.isEmpty()) {
+			texts.add(text.toString());
+			groups.add(TEXT);
+		}
+		return true;
+	}
+
+	/**
+	 * @param c character to check
+	 * @return true if the character is an ASCII letter or digit
+	 */
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Checks if this replacer was compiled from a regular expression and a replacement.
+	 *
+	 * @param regex       regular expression
+	 * @param replacement replacement
+	 * @return true if both are the ones of this replacer
+	 */
+	public boolean isFor(String regex, String replacement) {
+		return this.regex.equals(regex) && this.replacement.equals(replacement);
+	}
+
+	/**
+	 * @return true if the regular expression is a plain text, searched for without the regular
+	 *         expression engine
+	 */
+	public boolean isLiteral() {
+		return literal != null;
+	}
+
+	/**
+	 * @return the replacement of each match of a plain text regular expression, with its escapes
+	 *         resolved, null if the regular expression is not a plain text
+	 * @see #isLiteral()
+	 */
+	public String getLiteralReplacement() {
+		return literalReplacement;
+	}
+
+	/**
+	 * @return the regular expression
+	 */
+	public String getRegex() {
+		return regex;
+	}
+
+	/**
+	 * @return the replacement
+	 */
+	public String getReplacement() {
+		return replacement;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + regex + " => " + replacement + "]";
+	}
+
+}
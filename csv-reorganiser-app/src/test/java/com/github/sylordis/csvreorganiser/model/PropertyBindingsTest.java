@@ -0,0 +1,154 @@
+package com.github.sylordis.csvreorganiser.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingConfigurationException;
+import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
+
+/**
+ * Test suite for {@link PropertyBindings} class.
+ *
+ * @author sylordis
+ *
+ */
+class PropertyBindingsTest {
+
+	/**
+	 * Class to fill.
+	 */
+	@OperationProperty(name = "third", field = "list", position = 2)
+	@OperationProperty(name = "first", field = "text", position = 0)
+	@OperationProperty(name = "second", field = "number", position = 1)
+	private static class Filled {
+		private String text;
+		private int number;
+		private Integer boxed;
+		private List<String> list;
+		private static String shared;
+	}
+
+	/**
+	 * Object under test.
+	 */
+	private PropertyBindings bindings;
+	/**
+	 * Object filled.
+	 */
+	private Filled filled;
+
+	@BeforeEach
+	void setUp() {
+		bindings = PropertyBindings.of(Filled.class);
+		filled = new Filled();
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#of(Class)}.
+	 */
+	@Test
+	void testOf() {
+		assertSame(bindings, PropertyBindings.of(Filled.class), "Bindings should be computed once");
+		assertEquals(Filled.class, bindings.getType());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#getProperties()} and
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#getPositionedProperties()}.
+	 */
+	@Test
+	void testGetProperties() {
+		assertEquals(List.of("third", "first", "second"), bindings.getProperties().stream().map(p -> p.name()).toList());
+		assertEquals(List.of("first", "second", "third"),
+		        bindings.getPositionedProperties().stream().map(p -> p.name()).toList());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#set(Object, String, Object)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testSet() throws Exception {
+		bindings.set(filled, "text", "hello");
+		bindings.set(filled, "number", 12);
+		bindings.set(filled, "boxed", 3);
+		bindings.set(filled, "list", List.of("a"));
+		assertEquals("hello", filled.text);
+		assertEquals(12, filled.number);
+		assertEquals(3, filled.boxed);
+		assertEquals(List.of("a"), filled.list);
+		bindings.set(filled, "text", null);
+		assertNull(filled.text);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#set(Object, String, Object)}
+	 * with values to convert.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testSet_Converted() throws Exception {
+		bindings.set(filled, "text", 5);
+		bindings.set(filled, "number", "42");
+		bindings.set(filled, "boxed", "7");
+		assertEquals("5", filled.text);
+		assertEquals(42, filled.number);
+		assertEquals(7, filled.boxed);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#set(Object, String, Object)}
+	 * with wrong values.
+	 */
+	@Test
+	void testSet_WrongValues() {
+		assertThrows(SelfFillingException.class, () -> bindings.set(filled, "number", "forty"));
+		assertThrows(SelfFillingException.class, () -> bindings.set(filled, "number", null));
+		assertThrows(NotImplementedException.class, () -> bindings.set(filled, "list", "a"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#set(Object, String, Object)}
+	 * with fields which cannot be set.
+	 */
+	@Test
+	void testSet_WrongFields() {
+		assertThrows(SelfFillingConfigurationException.class, () -> bindings.set(filled, "unknown", "a"));
+		assertThrows(SelfFillingConfigurationException.class, () -> bindings.set(filled, "shared", "a"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.PropertyBindings#get(Object, String)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGet() throws Exception {
+		bindings.set(filled, "text", "hello");
+		bindings.set(filled, "number", 12);
+		assertEquals("hello", bindings.get(filled, "text"));
+		assertEquals(12, bindings.get(filled, "number"));
+		assertNull(bindings.get(filled, "boxed"));
+		assertThrows(SelfFillingConfigurationException.class, () -> bindings.get(filled, "unknown"));
+		assertThrows(SelfFillingConfigurationException.class, () -> bindings.get(filled, "shared"));
+	}
+
+}
@@ -2,10 +2,14 @@ package com.github.sylordis.csvreorganiser.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -19,8 +23,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +50,7 @@ import com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 import com.github.sylordis.csvreorganiser.test.SamplesFilesConstants;
 
 /**
@@ -245,6 +250,48 @@ reorg:
 		configFile.delete();
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#checkHeaderConfiguration(Map)}
+	 * when an engine is already set, which should be kept if it is of the declared type.
+	 *
+	 * @throws EngineException
+	 */
+	@Test
+	void testCheckHeaderConfiguration_EngineSet() throws EngineException {
+		ReorganiserEngine engine = new ChessEngine();
+		rcfg.setEngine(engine);
+		rcfg.checkHeaderConfiguration(Map.of(YAMLTags.Header.CFG_ENGINE, "chess"));
+		assertSame(engine, rcfg.getEngine(), "Engine of the declared type should be kept");
+		assertThrows(EngineException.class, () -> rcfg.checkHeaderConfiguration(Map.of(YAMLTags.Header.CFG_ENGINE, "hyde")));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#getFingerprint()}, which should
+	 * only change with the content of the configuration file.
+	 *
+	 * @throws IOException
+	 * @throws FileNotFoundException
+	 * @throws ConfigurationImportException
+	 * @throws EngineException
+	 */
+	@Test
+	void testGetFingerprint() throws ConfigurationImportException, FileNotFoundException, IOException, EngineException {
+		assertNull(rcfg.getFingerprint(), "Configuration not loaded from a file should have no fingerprint");
+		File configFile = createFileWith("reorg:\n   structure: []\n");
+		rcfg.loadFromFile(configFile);
+		final String fingerprint = rcfg.getFingerprint();
+		assertEquals(64, fingerprint.length(), "Fingerprint should be a SHA-256");
+		rcfg.loadFromFile(configFile);
+		assertEquals(fingerprint, rcfg.getFingerprint(), "Same content should have the same fingerprint");
+		File otherFile = createFileWith("reorg:\n   structure: [ ]\n");
+		rcfg.loadFromFile(otherFile);
+		assertNotEquals(fingerprint, rcfg.getFingerprint(), "Different content should have another fingerprint");
+		configFile.delete();
+		otherFile.delete();
+	}
+
 	/**
 	 * Test method for
 	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#loadFromFile(java.io.File)}
@@ -269,6 +316,20 @@ reorg:
 		cfg.delete();
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#loadFromFile(java.io.File)}
+	 * if configuration file is not valid YAML.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testLoadFromFile_Malformed() throws IOException {
+		File cfg = createFileWith("reorg:\n  structure: [\n");
+		assertThrows(ConfigurationImportException.class, () -> rcfg.loadFromFile(cfg));
+		cfg.delete();
+	}
+
 	/**
 	 * Test method for
 	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#loadFromFile(java.io.File)}
@@ -457,6 +518,33 @@ reorg:
 		assertTrue(rcfg.getOperations().isEmpty(), "List of operations should be empty by default");
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		rcfg.addOperation(new GetOperation("A", "first"));
+		rcfg.addOperation(new ValueOperation("B", "constant"));
+		rcfg.addOperation(new SubstringOperation("C", "second", 0, 1));
+		rcfg.addOperation(new GetOperation("D", "first"));
+		assertEquals(Set.of("first", "second"), rcfg.getSourceColumns(),
+		        "Source columns should be the union of the columns of all operations");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#getSourceColumns()} when one
+	 * operation may use any column.
+	 */
+	@Test
+	void testGetSourceColumns_AnyColumn() {
+		when(op.getSourceColumns()).thenReturn(null);
+		rcfg.addOperation(new GetOperation("A", "first"));
+		rcfg.addOperation(op);
+		assertNull(rcfg.getSourceColumns(), "Source columns should be unknown if one operation does not report them");
+	}
+
 	/**
 	 * Test engine.
 	 */
@@ -479,7 +567,7 @@ reorg:
 	public final class DummyOperation implements ReorganiserOperation {
 
 		@Override
-		public String apply(CSVRecord t) {
+		public String applyTo(SourceRecord t) {
 			return null;
 		}
 
@@ -513,4 +601,32 @@ reorg:
 		}
 		
 	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#getSharedSubexpressions()}
+	 * and {@link com.github.sylordis.csvreorganiser.model.ReorgConfiguration#explain()}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testExplain() throws Exception {
+		assertTrue(rcfg.getSharedSubexpressions().isEmpty());
+		assertTrue(rcfg.explain().startsWith("0 column(s), 0 shared subexpression(s), 0 memo(s)"), rcfg.explain());
+		File configFile = createFileWith("reorg:\n  header:\n    engine: hyde\n  structure:\n"
+		        + "    Name: \"{{name|lower}}\"\n    Login: \"{{name|lower}}.{{id}}\"\n    Id: \"{{id}}\"\n"
+		        + "    Code: \"{{id|replace:0:o}}\"\n");
+		rcfg.loadFromFile(configFile);
+		assertEquals(1, rcfg.getSharedSubexpressions().size());
+		assertEquals(List.of("Name", "Login"), rcfg.getSharedSubexpressions().get(0).getColumns());
+		assertTrue(rcfg.explain().startsWith("4 column(s), 1 shared subexpression(s), 1 memo(s)"), rcfg.explain());
+		assertTrue(rcfg.explain().contains("{{name|lower}} computed by 'Name', reused by 'Login'"), rcfg.explain());
+		assertEquals(1, rcfg.getMemos().size());
+		assertTrue(rcfg.explain().contains("memo 'Code' {{id|replace:0:o}}: 0 hit(s), 0 miss(es), 0 skipped"),
+		        rcfg.explain());
+		rcfg.loadFromFile(createFileWith("reorg:\n   structure: {}\n"));
+		assertTrue(rcfg.getSharedSubexpressions().isEmpty(), "Shared subexpressions should be reset");
+		assertTrue(rcfg.getMemos().isEmpty(), "Memos should be reset");
+	}
+
 }
@@ -0,0 +1,206 @@
+package com.github.sylordis.csvreorganiser.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+
+/**
+ * Test suite for {@link ReorganiserOptions} class.
+ *
+ * @author sylordis
+ *
+ */
+class ReorganiserOptionsTest {
+
+	/**
+	 * Object under test.
+	 */
+	private ReorganiserOptions options;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		options = new ReorganiserOptions();
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#ReorganiserOptions()}.
+	 */
+	@Test
+	void testReorganiserOptions() {
+		assertEquals(ReorganiserOptions.DEFAULT_THREADS, options.getThreads(), "Threads should be set to default");
+		assertFalse(options.isParallel(), "Default options should not be parallel");
+		assertFalse(options.isChunked(), "Default options should not be chunked");
+		assertTrue(options.isOrdered(), "Default options should be ordered");
+		assertFalse(options.isPipelined(), "Default options should not be pipelined");
+		assertEquals(ReorganiserOptions.DEFAULT_INPUT, options.getInput(), "Input should be set to default");
+		assertEquals(ReorganiserOptions.DEFAULT_OUTPUT_BUFFER_SIZE, options.getOutputBufferSize(),
+		        "Output buffer size should be set to default");
+		assertEquals(ReorganiserOptions.DEFAULT_COMPRESSION_THREADS, options.getCompressionThreads(),
+		        "Compression threads should be set to default");
+		assertFalse(options.isCheckpointed(), "Default options should not be checkpointed");
+		assertNull(options.getCacheDirectory(), "Default options should not be cached");
+		assertEquals(ReorganiserOptions.DEFAULT_CACHE_SIZE, options.getCacheSize(), "Cache size should be set to default");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setThreads(int)}.
+	 */
+	@Test
+	void testSetThreads() {
+		options.setThreads(8);
+		assertEquals(8, options.getThreads(), "Threads should be set to provided value");
+		assertTrue(options.isParallel(), "More than one thread should be parallel");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setThreads(int)} with invalid
+	 * values.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { 0, -1, Integer.MIN_VALUE })
+	void testSetThreads_Invalid(int threads) {
+		assertThrows(IllegalArgumentException.class, () -> options.setThreads(threads));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setChunkSize(long)}.
+	 */
+	@Test
+	void testSetChunkSize() {
+		options.setChunkSize(1024);
+		assertEquals(1024, options.getChunkSize(), "Chunk size should be set to provided value");
+		assertTrue(options.isChunked(), "Options with a chunk size should be chunked");
+		options.setChunkSize(ReorganiserOptions.NO_CHUNKS);
+		assertFalse(options.isChunked(), "Chunks should be disabled");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setChunkSize(long)} with
+	 * invalid values.
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = { -1, Long.MIN_VALUE })
+	void testSetChunkSize_Invalid(long chunkSize) {
+		assertThrows(IllegalArgumentException.class, () -> options.setChunkSize(chunkSize));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setInput(InputBackend)}.
+	 */
+	@Test
+	void testSetInput() {
+		options.setInput(InputBackend.MAPPED);
+		assertEquals(InputBackend.MAPPED, options.getInput(), "Input should be set to provided value");
+		options.setInput(null);
+		assertEquals(ReorganiserOptions.DEFAULT_INPUT, options.getInput(), "Null input should reset to default");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setOutputBufferSize(int)}.
+	 */
+	@Test
+	void testSetOutputBufferSize() {
+		options.setOutputBufferSize(CSVOutputSink.MIN_BUFFER_SIZE);
+		assertEquals(CSVOutputSink.MIN_BUFFER_SIZE, options.getOutputBufferSize(),
+		        "Output buffer size should be set to provided value");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setOutputBufferSize(int)} with
+	 * invalid values.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { CSVOutputSink.MIN_BUFFER_SIZE - 1, 0, -1, Integer.MIN_VALUE })
+	void testSetOutputBufferSize_Invalid(int size) {
+		assertThrows(IllegalArgumentException.class, () -> options.setOutputBufferSize(size));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setCompressionThreads(int)}.
+	 */
+	@Test
+	void testSetCompressionThreads() {
+		options.setCompressionThreads(3);
+		assertEquals(3, options.getCompressionThreads(), "Compression threads should be set to provided value");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setCompressionThreads(int)} with
+	 * invalid values.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { 0, -1, Integer.MIN_VALUE })
+	void testSetCompressionThreads_Invalid(int threads) {
+		assertThrows(IllegalArgumentException.class, () -> options.setCompressionThreads(threads));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setCheckpointInterval(long)}.
+	 */
+	@Test
+	void testSetCheckpointInterval() {
+		options.setCheckpointInterval(1024);
+		assertEquals(1024, options.getCheckpointInterval(), "Checkpoint interval should be set to provided value");
+		assertTrue(options.isCheckpointed(), "Options with an interval should be checkpointed");
+		options.setCheckpointInterval(ReorganiserOptions.NO_CHECKPOINTS);
+		assertFalse(options.isCheckpointed(), "Checkpoints should be disabled");
+		assertThrows(IllegalArgumentException.class, () -> options.setCheckpointInterval(-1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setResume(boolean)}.
+	 */
+	@Test
+	void testSetResume() {
+		options.setResume(true);
+		assertTrue(options.isResume(), "Options should resume");
+		assertTrue(options.isCheckpointed(), "Resumed runs should be checkpointed");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setCacheDirectory(File)}.
+	 */
+	@Test
+	void testSetCacheDirectory() {
+		File directory = new File("cache");
+		options.setCacheDirectory(directory);
+		assertEquals(directory, options.getCacheDirectory(), "Cache directory should be set to provided value");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.ReorganiserOptions#setCacheSize(long)}.
+	 */
+	@Test
+	void testSetCacheSize() {
+		options.setCacheSize(1024);
+		assertEquals(1024, options.getCacheSize(), "Cache size should be set to provided value");
+		assertThrows(IllegalArgumentException.class, () -> options.setCacheSize(0));
+	}
+
+}
@@ -8,6 +8,7 @@ import static com.github.sylordis.csvreorganiser.test.SamplesFilesConstants.TARG
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -18,18 +19,27 @@ import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -41,17 +51,24 @@ import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.github.sylordis.csvreorganiser.model.chess.ChessEngine;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation;
 import com.github.sylordis.csvreorganiser.model.constants.MessagesConstants;
 import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.EngineException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ReorganiserRuntimeException;
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FragmentCache;
+import com.github.sylordis.csvreorganiser.model.io.InputBackend;
+import com.github.sylordis.csvreorganiser.model.processing.Checkpoint;
 
 /**
  * Test suite for {@link Reorganiser} class.
@@ -108,6 +125,20 @@ class ReorganiserTest {
 		}
 	}
 
+	/**
+	 * Fills a file with gzip-compressed sample data.
+	 *
+	 * @throws IOException
+	 * @throws FileNotFoundException
+	 */
+	private void fillFileWithCompressedSamples(File file, String samplesStream)
+	        throws IOException, FileNotFoundException {
+		try (OutputStream stream = new GZIPOutputStream(new FileOutputStream(file));
+		        InputStream istream = ReorganiserTest.class.getClassLoader().getResourceAsStream(samplesStream)) {
+			stream.write(istream.readAllBytes());
+		}
+	}
+
 	/**
 	 * Test method for
 	 * {@link com.github.sylordis.csvreorganiser.model.Reorganiser#Reorganiser(java.io.File, java.io.File, com.github.sylordis.csvreorganiser.model.ReorgConfiguration)}.
@@ -252,7 +283,9 @@ class ReorganiserTest {
 		void testReorganise_WithFailedOperation() throws FileNotFoundException, IOException {
 			List<ReorganiserOperation> operations = new ArrayList<>();
 			when(op.getName()).thenReturn("Failure");
-			when(op.apply(any(CSVRecord.class))).thenThrow(new IllegalArgumentException("trooper"));
+			when(op.bind(any())).thenReturn(op);
+			when(op.applyTo(any())).thenThrow(new IllegalArgumentException("trooper"));
+			when(op.applyTo(any(), any(Appendable.class))).thenCallRealMethod();
 			operations.add(op);
 			when(cfg.getEngine()).thenReturn(mock(ChessEngine.class));
 			when(cfg.getOperations()).thenReturn(operations);
@@ -263,6 +296,121 @@ class ReorganiserTest {
 			        "Target file should have generated content (comment + header, plus some records before failing)");
 		}
 
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} when an
+		 * operation fails in the middle of a file. Records are streamed, so all records transformed before
+		 * the failure should already be in the target file.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 */
+		@Test
+		void testReorganise_StreamsRecordsBeforeFailure() throws FileNotFoundException, IOException {
+			List<ReorganiserOperation> operations = new ArrayList<>();
+			when(op.getName()).thenReturn("Name");
+			when(op.bind(any())).thenReturn(op);
+			when(op.applyTo(any())).thenReturn("Tull", "Cassaundra")
+			        .thenThrow(new IllegalArgumentException("trooper"));
+			when(op.applyTo(any(), any(Appendable.class))).thenCallRealMethod();
+			operations.add(op);
+			when(cfg.getEngine()).thenReturn(mock(ChessEngine.class));
+			when(cfg.getOperations()).thenReturn(operations);
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			assertThrows(ReorganiserRuntimeException.class, reorg::reorganise,
+			        "An exception should be thrown when an operation is failing.");
+			List<String> lines = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertEquals(List.of("Name", "Tull", "Cassaundra"), lines.subList(1, lines.size()),
+			        "Records generated before the failure should have been written");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} when
+		 * an operation uses a column which is not in the source. Operations are bound to the header, so
+		 * the failure should happen before any record is written.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 */
+		@Test
+		void testReorganise_WithMissingColumn() throws FileNotFoundException, IOException {
+			List<ReorganiserOperation> operations = new ArrayList<>();
+			operations.add(new GetOperation("Name", "Nickname"));
+			when(cfg.getEngine()).thenReturn(mock(ChessEngine.class));
+			when(cfg.getOperations()).thenReturn(operations);
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			assertThrows(ReorganiserRuntimeException.class, reorg::reorganise,
+			        "An exception should be thrown when a column does not exist.");
+			List<String> lines = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertEquals(List.of("Name"), lines.subList(1, lines.size()), "No record should have been written");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} when a
+		 * record is too short for a column used by an operation, the error naming the column and the
+		 * record.
+		 *
+		 * @throws IOException
+		 */
+		@ParameterizedTest
+		@ValueSource(strings = { "COMMONS", "MAPPED" })
+		void testReorganise_WithShortRecord(String input) throws IOException {
+			List<ReorganiserOperation> operations = new ArrayList<>();
+			operations.add(new GetOperation("Name", "last_name"));
+			when(cfg.getEngine()).thenReturn(mock(ChessEngine.class));
+			when(cfg.getOperations()).thenReturn(operations);
+			when(cfg.getSourceColumns()).thenReturn(Set.of("last_name"));
+			FileUtils.writeStringToFile(srcFile, "first_name,last_name\nTull,Cain\nCassaundra\n", StandardCharsets.UTF_8);
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setInput(InputBackend.valueOf(input));
+			reorg.setOptions(options);
+			ReorganiserRuntimeException e = assertThrows(ReorganiserRuntimeException.class, reorg::reorganise);
+			assertTrue(e.getCause() instanceof IllegalArgumentException, "Cause should be reported: " + e.getCause());
+			assertEquals("Index for header 'last_name' is 1 but record 2 only has 1 values!", e.getCause().getMessage());
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with an
+		 * empty source next to a non-empty one, the empty source generating no record whatever the mode.
+		 *
+		 * @throws IOException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@ParameterizedTest
+		@ValueSource(strings = { "sequential", "mapped", "pipelined", "parallel", "chunked", "checkpointed" })
+		void testReorganise_WithEmptySource(String mode)
+		        throws IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File emptyFile = new File(workingDir, "empty.csv");
+			emptyFile.createNewFile();
+			File expectedFile = new File(workingDir, "expected.csv");
+			fillFileWithSamples(expectedFile, TARGET_CONTENT);
+			File configFile = new File(workingDir, "config.yaml");
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(emptyFile, srcFile));
+			ReorganiserOptions options = new ReorganiserOptions();
+			switch (mode) {
+				case "mapped" -> options.setInput(InputBackend.MAPPED);
+				case "pipelined" -> {
+					options.setThreads(2);
+					options.setPipelined(true);
+				}
+				case "parallel" -> options.setThreads(2);
+				case "chunked" -> options.setChunkSize(16);
+				case "checkpointed" -> options.setCheckpointInterval(16);
+				default -> {
+					// Sequential
+				}
+			}
+			reorg.setOptions(options);
+			reorg.reorganise();
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Empty source should generate no record");
+		}
+
 		/**
 		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} when
 		 * the source is not reachable.
@@ -448,6 +596,304 @@ class ReorganiserTest {
 			expectedFile.delete();
 			configFile.delete();
 		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * multiple sources processed on several threads. Results should be in the order of the sources.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withMultipleSourcesInParallel(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			// Reorganise
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setThreads(2);
+			reorg.setOptions(options);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertThat("First line of target file should be a comment", target.get(0),
+			        startsWith(MessagesConstants.TARGET_COMMENT.substring(0, 10)));
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * multiple sources read from memory-mapped files.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withMultipleSourcesMapped(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			// Reorganise
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setInput(InputBackend.MAPPED);
+			reorg.setOptions(options);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertThat("First line of target file should be a comment", target.get(0),
+			        startsWith(MessagesConstants.TARGET_COMMENT.substring(0, 10)));
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * multiple sources processed through a pipeline. Results should be in the order of the sources.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withMultipleSourcesPipelined(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			// Reorganise
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setThreads(2);
+			options.setPipelined(true);
+			reorg.setOptions(options);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertThat("First line of target file should be a comment", target.get(0),
+			        startsWith(MessagesConstants.TARGET_COMMENT.substring(0, 10)));
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * multiple sources split into small chunks processed on several threads. Results should be in the
+		 * order of the sources.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withMultipleSourcesInChunks(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			// Reorganise
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setThreads(2);
+			options.setChunkSize(16);
+			reorg.setOptions(options);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertThat("First line of target file should be a comment", target.get(0),
+			        startsWith(MessagesConstants.TARGET_COMMENT.substring(0, 10)));
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * gzip-compressed sources and target. Compressed sources cannot be mapped nor split into chunks
+		 * and should be processed as a whole.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withGzip(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			File srcFile1 = new File(workingDir, "srcFile.csv.gz");
+			fillFileWithCompressedSamples(srcFile1, SOURCE_CONTENT);
+			File srcFile2 = new File(workingDir, "srcFile_add.csv.gz");
+			fillFileWithCompressedSamples(srcFile2, SOURCE_CONTENT_2);
+			File compressedTarget = new File(workingDir, "targetFile.csv.gz");
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			// Reorganise
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, compressedTarget, List.of(srcFile1, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setThreads(2);
+			options.setChunkSize(16);
+			options.setInput(InputBackend.MAPPED);
+			options.setCompressionThreads(2);
+			reorg.setOptions(options);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target;
+			try (InputStream input = new GZIPInputStream(new FileInputStream(compressedTarget))) {
+				target = IOUtils.readLines(input, StandardCharsets.UTF_8);
+			}
+			assertThat("First line of target file should be a comment", target.get(0),
+			        startsWith(MessagesConstants.TARGET_COMMENT.substring(0, 10)));
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with
+		 * checkpoints, a run failing on the second source being resumed once the source is fixed. The
+		 * resumed target should be the same as an uninterrupted run and the sidecar deleted.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withCheckpointsResumed(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			FileUtils.writeStringToFile(srcFile2, "id,first_name\n30,Wendell\n", StandardCharsets.UTF_8);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			File sidecar = Checkpoint.sidecarOf(targetFile);
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setCheckpointInterval(64);
+			// Interrupted run, the second source missing columns
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			reorg.setOptions(options);
+			assertThrows(ReorganiserRuntimeException.class, reorg::reorganise);
+			assertTrue(sidecar.exists(), "Checkpoint should be kept after a failure");
+			final String comment = FileUtils.readLines(targetFile, StandardCharsets.UTF_8).get(0);
+			FileUtils.writeStringToFile(targetFile, "garbage\r\n", StandardCharsets.UTF_8, true);
+			// Resumed run
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			options.setResume(true);
+			reorg.reorganise();
+			// Checks
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+			assertEquals(comment, target.get(0), "Comment of the interrupted run should be kept");
+			assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+			        "Target and expected files should be equal");
+			assertFalse(sidecar.exists(), "Checkpoint should be deleted once done");
+		}
+
+		/**
+		 * Test method for {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise()} with a
+		 * fragment cache, a second run over the same sources reusing the fragments of the first one and
+		 * producing the same target.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_withCache(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			fillFileWithSamples(srcFile, SOURCE_CONTENT);
+			File srcFile2 = File.createTempFile("srcFile_add", null, workingDir);
+			fillFileWithSamples(srcFile2, SOURCE_CONTENT_2);
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT_2);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			File cacheDir = new File(workingDir, "cache");
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, targetFile, List.of(srcFile, srcFile2));
+			ReorganiserOptions options = new ReorganiserOptions();
+			options.setCacheDirectory(cacheDir);
+			reorg.setOptions(options);
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			for (int run = 0; run < 2; run++) {
+				reorg.reorganise();
+				List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+				assertEquals(expected.subList(1, expected.size()), target.subList(1, target.size()),
+				        "Target and expected files should be equal on run " + run);
+				assertEquals(2, cacheDir.list((dir, name) -> name.endsWith(FragmentCache.SUFFIX)).length,
+				        "Each source should have one fragment");
+			}
+		}
+
+		/**
+		 * Test method for
+		 * {@link com.github.sylordis.csvreorganiser.model.Reorganiser#reorganise(java.io.Reader, CSVOutputSink)}.
+		 *
+		 * @throws IOException
+		 * @throws FileNotFoundException
+		 * @throws EngineException
+		 * @throws ConfigurationImportException
+		 */
+		@Test
+		void testReorganise_Chess_fromStream(TestInfo testinfo)
+		        throws FileNotFoundException, IOException, ConfigurationImportException, EngineException {
+			File expectedFile = File.createTempFile(testinfo.getDisplayName() + "-tgt", null, workingDir);
+			fillFileWithSamples(expectedFile, TARGET_CONTENT);
+			File configFile = File.createTempFile(testinfo.getDisplayName() + "-cfg", "yaml", workingDir);
+			fillFileWithSamples(configFile, CONFIG_CONTENT_CHESS);
+			cfg = ReorgConfiguration.fromFile(configFile, new ChessEngine());
+			reorg = new Reorganiser(cfg, null, List.of());
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			long records;
+			try (InputStream source = ReorganiserTest.class.getClassLoader().getResourceAsStream(SOURCE_CONTENT);
+			        CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(output), CSVOutputSink.DEFAULT_BUFFER_SIZE)) {
+				records = reorg.reorganise(new InputStreamReader(source, StandardCharsets.UTF_8), sink);
+			}
+			List<String> expected = FileUtils.readLines(expectedFile, StandardCharsets.UTF_8);
+			List<String> target = IOUtils.readLines(new ByteArrayInputStream(output.toByteArray()), StandardCharsets.UTF_8);
+			assertEquals(expected.subList(1, expected.size()), target, "Stream should be reorganised without comment");
+			assertEquals(target.size() - 1, records, "All records should be counted");
+		}
 	}
 
 }
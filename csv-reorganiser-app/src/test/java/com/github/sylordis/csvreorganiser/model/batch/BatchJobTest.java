@@ -0,0 +1,119 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+
+/**
+ * Test suite for {@link BatchJob} class.
+ *
+ * @author sylordis
+ *
+ */
+class BatchJobTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Manifest file.
+	 */
+	private File manifest;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		manifest = new File(workingDir, "manifest.yaml");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchJob#load(File)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad() throws Exception {
+		File absolute = new File(workingDir, "other/abs.csv").getAbsoluteFile();
+		FileUtils.writeStringToFile(manifest, "jobs:\n" + "- config: a.yaml\n  source: a.csv\n  target: out/a.csv\n"
+		        + "- config: b.yaml\n  sources: [b1.csv, '" + absolute.getPath() + "']\n  target: b.csv\n",
+		        StandardCharsets.UTF_8);
+		List<BatchJob> jobs = BatchJob.load(manifest);
+		assertEquals(2, jobs.size());
+		BatchJob first = jobs.get(0);
+		assertEquals(1, first.index());
+		assertEquals(new File(workingDir, "a.yaml").getAbsoluteFile(), first.config());
+		assertEquals(List.of(new File(workingDir, "a.csv").getAbsoluteFile()), first.sources());
+		assertEquals(new File(workingDir, "out/a.csv").getAbsoluteFile(), first.target());
+		BatchJob second = jobs.get(1);
+		assertEquals(2, second.index());
+		assertEquals(List.of(new File(workingDir, "b1.csv").getAbsoluteFile(), absolute), second.sources());
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchJob#load(File)} without
+	 * root tag.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad_NoRoot() throws Exception {
+		FileUtils.writeStringToFile(manifest, "reorg:\n- config: a.yaml\n", StandardCharsets.UTF_8);
+		assertThrows(ConfigurationImportException.class, () -> BatchJob.load(manifest));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchJob#load(File)} with a
+	 * job missing its target.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad_MissingTarget() throws Exception {
+		FileUtils.writeStringToFile(manifest, "jobs:\n- config: a.yaml\n  source: a.csv\n", StandardCharsets.UTF_8);
+		assertThrows(ConfigurationImportException.class, () -> BatchJob.load(manifest));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchJob#load(File)} with an
+	 * invalid structure.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad_Invalid() throws Exception {
+		FileUtils.writeStringToFile(manifest, "jobs: nope\n", StandardCharsets.UTF_8);
+		assertThrows(ConfigurationImportException.class, () -> BatchJob.load(manifest));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.batch.BatchJob#dependsOn(BatchJob)}.
+	 */
+	@Test
+	void testDependsOn() {
+		File cfg = new File("cfg.yaml");
+		BatchJob first = new BatchJob(1, cfg, List.of(new File("a.csv")), new File("b.csv"));
+		BatchJob reading = new BatchJob(2, cfg, List.of(new File("b.csv")), new File("c.csv"));
+		BatchJob overwriting = new BatchJob(3, cfg, List.of(new File("d.csv")), new File("b.csv"));
+		BatchJob independent = new BatchJob(4, cfg, List.of(new File("a.csv")), new File("e.csv"));
+		BatchJob overwritingSource = new BatchJob(5, cfg, List.of(new File("d.csv")), new File("a.csv"));
+		BatchJob unnormalised = new BatchJob(6, cfg, List.of(new File("x/../b.csv")), new File("./f.csv"));
+		assertTrue(reading.dependsOn(first));
+		assertTrue(overwriting.dependsOn(first));
+		assertFalse(independent.dependsOn(first));
+		assertTrue(overwritingSource.dependsOn(first), "Overwriting a source of the other job should wait");
+		assertTrue(unnormalised.dependsOn(first), "Paths should be compared normalised");
+		assertFalse(unnormalised.dependsOn(independent));
+	}
+
+}
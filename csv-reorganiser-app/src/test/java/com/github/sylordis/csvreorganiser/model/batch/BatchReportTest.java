@@ -0,0 +1,75 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport.Result;
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport.Status;
+
+/**
+ * Test suite for {@link BatchReport} class.
+ *
+ * @author sylordis
+ *
+ */
+class BatchReportTest {
+
+	/**
+	 * Creates a job.
+	 *
+	 * @param index index of the job
+	 * @return a new job
+	 */
+	private BatchJob job(int index) {
+		return new BatchJob(index, new File("cfg.yaml"), List.of(new File("in.csv")), new File("out" + index + ".csv"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.batch.BatchReport#BatchReport(List, long)}.
+	 */
+	@Test
+	void testBatchReport() {
+		BatchReport report = new BatchReport(
+		        List.of(new Result(job(2), Status.DONE, 3, null), new Result(job(1), Status.DONE, 4, null)), 10);
+		assertEquals(1, report.getResults().get(0).job().index(), "Results should be sorted by index");
+		assertEquals(10, report.getMillis());
+		assertTrue(report.isSuccessful());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.batch.BatchReport#count(Status)}.
+	 */
+	@Test
+	void testCount() {
+		BatchReport report = new BatchReport(List.of(new Result(job(1), Status.DONE, 3, null),
+		        new Result(job(2), Status.FAILED, 1, "boom"), new Result(job(3), Status.SKIPPED, 0, "Job 2")), 10);
+		assertEquals(1, report.count(Status.DONE));
+		assertEquals(1, report.count(Status.FAILED));
+		assertEquals(1, report.count(Status.SKIPPED));
+		assertFalse(report.isSuccessful());
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchReport#format()}.
+	 */
+	@Test
+	void testFormat() {
+		BatchReport report = new BatchReport(
+		        List.of(new Result(job(1), Status.DONE, 3, null), new Result(job(2), Status.FAILED, 1, "bad\nthing")),
+		        12);
+		String[] lines = report.format().split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].contains("DONE") && lines[0].contains("out1.csv"), lines[0]);
+		assertTrue(lines[1].contains("FAILED") && lines[1].endsWith("(bad thing)"), lines[1]);
+		assertEquals("2 job(s): 1 done, 1 failed, 0 skipped in 12 ms", lines[2].strip());
+	}
+
+}
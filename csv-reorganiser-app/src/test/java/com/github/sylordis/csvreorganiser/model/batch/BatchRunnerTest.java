@@ -0,0 +1,157 @@
+package com.github.sylordis.csvreorganiser.model.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+import com.github.sylordis.csvreorganiser.model.batch.BatchReport.Status;
+
+/**
+ * Test suite for {@link BatchRunner} class.
+ *
+ * @author sylordis
+ *
+ */
+class BatchRunnerTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private BatchRunner runner;
+	/**
+	 * Configuration file.
+	 */
+	private File configFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		runner = new BatchRunner(4, new ReorganiserOptions());
+		configFile = new File(workingDir, "config.yaml");
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: id\n    source: id\n",
+		        StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a source file.
+	 *
+	 * @param name name of the file
+	 * @return the file
+	 * @throws Exception
+	 */
+	private File source(String name) throws Exception {
+		File file = new File(workingDir, name);
+		FileUtils.writeStringToFile(file, "id,name\n1,Alice\n2,Bob\n", StandardCharsets.UTF_8);
+		return file;
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.batch.BatchRunner#BatchRunner(int, ReorganiserOptions)}.
+	 */
+	@Test
+	void testBatchRunner() {
+		assertEquals(4, runner.getCores());
+		assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0, new ReorganiserOptions()));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchRunner#run(List)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun() throws Exception {
+		List<BatchJob> jobs = List.of(
+		        new BatchJob(1, configFile, List.of(source("a.csv")), new File(workingDir, "out-a.csv")),
+		        new BatchJob(2, configFile, List.of(source("b.csv")), new File(workingDir, "out-b.csv")));
+		BatchReport report = runner.run(jobs);
+		assertTrue(report.isSuccessful(), report.format());
+		for (BatchJob job : jobs) {
+			List<String> lines = FileUtils.readLines(job.target(), StandardCharsets.UTF_8);
+			assertEquals(List.of("id", "1", "2"), lines.subList(1, lines.size()));
+		}
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchRunner#run(List)} with a
+	 * failing job and a job depending on it.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_Failed() throws Exception {
+		File intermediate = new File(workingDir, "mid.csv");
+		List<BatchJob> jobs = List.of(
+		        new BatchJob(1, configFile, List.of(new File(workingDir, "missing.csv")), intermediate),
+		        new BatchJob(2, configFile, List.of(intermediate), new File(workingDir, "out.csv")),
+		        new BatchJob(3, configFile, List.of(source("a.csv")), new File(workingDir, "out-a.csv")));
+		BatchReport report = runner.run(jobs);
+		assertFalse(report.isSuccessful());
+		assertEquals(Status.FAILED, report.getResults().get(0).status());
+		assertEquals(Status.SKIPPED, report.getResults().get(1).status());
+		assertEquals(Status.DONE, report.getResults().get(2).status(), "Independent job should still run");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchRunner#run(List)} with
+	 * a job overwriting the source of a job listed before it, through another path, which should wait
+	 * for the first job to have read it.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_OverwritingSource() throws Exception {
+		final int rows = 50000;
+		File source = new File(workingDir, "big.csv");
+		StringBuilder content = new StringBuilder("id,name\n");
+		for (int i = 0; i < rows; i++)
+			content.append(i).append(",Alice\n");
+		FileUtils.writeStringToFile(source, content.toString(), StandardCharsets.UTF_8);
+		File other = new File(workingDir, "other.csv");
+		FileUtils.writeStringToFile(other, "id,name\n-1,Carol\n", StandardCharsets.UTF_8);
+		new File(workingDir, "sub").mkdir();
+		File target = new File(workingDir, "out.csv");
+		List<BatchJob> jobs = List.of(new BatchJob(1, configFile, List.of(source), target),
+		        new BatchJob(2, configFile, List.of(other), new File(workingDir, "sub/../big.csv")));
+		BatchReport report = runner.run(jobs);
+		assertTrue(report.isSuccessful(), report.format());
+		List<String> lines = FileUtils.readLines(target, StandardCharsets.UTF_8);
+		assertEquals(rows + 2, lines.size(), "First job should read its source before it is overwritten");
+		assertEquals("0", lines.get(2));
+		lines = FileUtils.readLines(source, StandardCharsets.UTF_8);
+		assertEquals(List.of("id", "-1"), lines.subList(1, lines.size()));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.batch.BatchRunner#run(List)} with
+	 * jobs writing the same target.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_SameTarget() throws Exception {
+		File other = new File(workingDir, "other.csv");
+		FileUtils.writeStringToFile(other, "id,name\n3,Carol\n", StandardCharsets.UTF_8);
+		File target = new File(workingDir, "out.csv");
+		List<BatchJob> jobs = List.of(new BatchJob(1, configFile, List.of(source("a.csv")), target),
+		        new BatchJob(2, configFile, List.of(other), target));
+		BatchReport report = runner.run(jobs);
+		assertTrue(report.isSuccessful(), report.format());
+		List<String> lines = FileUtils.readLines(target, StandardCharsets.UTF_8);
+		assertEquals(List.of("id", "3"), lines.subList(1, lines.size()), "Last job of the manifest should win");
+	}
+
+}
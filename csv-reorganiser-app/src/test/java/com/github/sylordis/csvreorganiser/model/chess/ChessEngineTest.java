@@ -4,16 +4,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -23,9 +26,18 @@ import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
 import com.github.sylordis.csvreorganiser.model.chess.config.ChessConfigurationSupplier;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessOperationInstantiator;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation;
 import com.github.sylordis.csvreorganiser.model.constants.YAMLTags;
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.engines.SharedOperation;
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 import com.github.sylordis.csvreorganiser.test.chess.defs.FakeOperation;
 
 /**
@@ -274,7 +286,7 @@ class ChessEngineTest {
 				(n, d) -> new ChessAbstractReorgOperation("are the best") {
 
 					@Override
-					public String apply(CSVRecord record) {
+					public String applyTo(SourceRecord record) {
 						return null;
 					}
 				});
@@ -302,7 +314,7 @@ class ChessEngineTest {
 				(n, d) -> new ChessAbstractReorgOperation("toast") {
 
 					@Override
-					public String apply(CSVRecord record) {
+					public String applyTo(SourceRecord record) {
 						return null;
 					}
 				});
@@ -322,4 +334,74 @@ class ChessEngineTest {
 		assertThrows(ConfigurationException.class, () -> engine.setOperationsShortcutsDictionary(null));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.ChessEngine#shareSubexpressions(java.util.List)},
+	 * checking that only identical shareable operations are shared and that values do not change.
+	 */
+	@Test
+	void testShareSubexpressions() {
+		SourceHeader header = SourceHeader.of(List.of("name", "city"));
+		List<ReorganiserOperation> operations = new ArrayList<>(List.of(
+		        new RegularExpressionReplacementOperation("A", "name", "([a-z]+)", "<$1>"),
+		        new GetOperation("B", "name"), new GetOperation("C", "name"),
+		        new RegularExpressionReplacementOperation("D", "city", "([a-z]+)", "<$1>"),
+		        new RegularExpressionReplacementOperation("E", "name", "([a-z]+)", "<$1>")));
+		List<ReorganiserOperation> original = List.copyOf(operations);
+		List<SharedSubexpression> shared = engine.shareSubexpressions(operations);
+		assertEquals(1, shared.size());
+		assertEquals(List.of("A", "E"), shared.get(0).getColumns());
+		assertEquals("regreplace(source=name, pattern=([a-z]+), replace=<$1>)", shared.get(0).getDescription());
+		assertTrue(((SharedOperation) operations.get(0)).isProducer());
+		assertFalse(((SharedOperation) operations.get(4)).isProducer());
+		assertSame(original.get(0), ((SharedOperation) operations.get(0)).getOperation());
+		for (int i = 1; i < 4; i++)
+			assertSame(original.get(i), operations.get(i), "Operation #" + i + " should not be shared");
+		List<ReorganiserOperation> bound = operations.stream().map(op -> op.bind(header)).toList();
+		for (String[] values : new String[][] { { "ada", "paris" }, { "alan", "london" }, { "", "x" } }) {
+			SourceRecord record = new ArraySourceRecord(header.getIndexes(), values);
+			for (int i = 0; i < operations.size(); i++) {
+				assertEquals(original.get(i).applyTo(record), bound.get(i).applyTo(record));
+				assertEquals(original.get(i).getName(), bound.get(i).getName());
+			}
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.ChessEngine#memoise(java.util.List)},
+	 * checking that memoisable operations are memoised, shared ones only for their producer, and that
+	 * values do not change.
+	 */
+	@Test
+	void testMemoise() {
+		SourceHeader header = SourceHeader.of(List.of("name", "city"));
+		RegularExpressionReplacementOperation producer = new RegularExpressionReplacementOperation("A", "name",
+		        "([a-z]+)", "<$1>");
+		RegularExpressionReplacementOperation consumer = new RegularExpressionReplacementOperation("E", "name",
+		        "([a-z]+)", "<$1>");
+		RegularExpressionReplacementOperation city = new RegularExpressionReplacementOperation("D", "city", "a",
+		        "4");
+		List<ReorganiserOperation> operations = new ArrayList<>(
+		        List.of(producer, new GetOperation("B", "name"), city, consumer));
+		engine.shareSubexpressions(operations);
+		List<ResultMemo> memos = engine.memoise(operations);
+		assertEquals(2, memos.size());
+		assertEquals("A", memos.get(0).getColumn());
+		assertEquals("regreplace(source=name, pattern=([a-z]+), replace=<$1>)", memos.get(0).getDescription());
+		assertSame(memos.get(0), producer.getMemo());
+		assertSame(memos.get(1), city.getMemo());
+		assertNull(consumer.getMemo(), "Shared value should only be memoised for its producer");
+		List<ReorganiserOperation> bound = operations.stream().map(op -> op.bind(header)).toList();
+		for (int n = 0; n < 3; n++) {
+			for (String[] values : new String[][] { { "ada", "paris" }, { "alan", "london" }, { "ada", "paris" } }) {
+				SourceRecord record = new ArraySourceRecord(header.getIndexes(), values);
+				for (int i = 0; i < operations.size(); i++)
+					assertEquals(operations.get(i).applyTo(record), bound.get(i).applyTo(record));
+			}
+		}
+		assertEquals(2, memos.get(0).getMisses());
+		assertEquals(7, memos.get(0).getHits());
+	}
+
 }
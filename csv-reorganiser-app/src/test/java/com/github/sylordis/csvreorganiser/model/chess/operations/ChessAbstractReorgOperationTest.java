@@ -16,7 +16,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -25,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.SelfFillingException;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Test suite for {@link ChessAbstractReorgOperation} class.
@@ -702,7 +702,7 @@ class ChessAbstractReorgOperationTest {
 		 * Only returns null.
 		 */
 		@Override
-		public String apply(CSVRecord record) {
+		public String applyTo(SourceRecord record) {
 			return null;
 		}
 
@@ -10,7 +10,6 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -19,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import com.github.sylordis.csvreorganiser.model.constants.YAMLTags;
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationException;
 import com.github.sylordis.csvreorganiser.model.exceptions.OperationBuildingException;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 import com.github.sylordis.csvreorganiser.test.chess.defs.FakeOperation;
 import com.github.sylordis.csvreorganiser.test.chess.defs.WrongFakeOperation;
 
@@ -299,7 +299,7 @@ class ChessReorgOperationBuilderTest {
 		}
 
 		@Override
-		public String apply(CSVRecord record) {
+		public String applyTo(SourceRecord record) {
 			return null;
 		}
 
@@ -312,7 +312,7 @@ class ChessReorgOperationBuilderTest {
 		}
 
 		@Override
-		public String apply(CSVRecord record) {
+		public String applyTo(SourceRecord record) {
 			return null;
 		}
 
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.apache.commons.csv.CSVFormat;
@@ -21,6 +22,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+
 class ConcatOperationTest {
 
 	/**
@@ -200,4 +204,62 @@ class ConcatOperationTest {
 		assertNull(op.getValues());
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		op.setValues(List.of(CSV_HEADERS[1], "(", CSV_HEADERS[2], ")"));
+		assertEquals(Set.of(CSV_HEADERS[1], "(", CSV_HEADERS[2], ")"), op.getSourceColumns(),
+		        "All values should be considered as potential columns");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation#getSourceColumns()} when values are not set.
+	 */
+	@Test
+	void testGetSourceColumns_NotFilled() {
+		assertEquals(Set.of(), op.getSourceColumns(), "Bare operation should not use any column");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)}, values which are not columns being kept as constants.
+	 */
+	@Test
+	void testBind() {
+		op.setValues(List.of(CSV_HEADERS[1], "(", CSV_HEADERS[2], ") ", CSV_HEADERS[0]));
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		assertEquals("BIT(20) Ball",
+		        op.bind(header).applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Ball", "BIT", "20" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)},
+	 * appending values to an output.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testBind_Render() throws IOException {
+		op.setValues(List.of(CSV_HEADERS[1], "(", CSV_HEADERS[2], ") ", CSV_HEADERS[0]));
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		StringBuilder out = new StringBuilder();
+		assertTrue(op.bind(header).applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Ball", "BIT", "20" }),
+		        out));
+		assertEquals("BIT(20) Ball", out.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ConcatenationOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when values are not set.
+	 */
+	@Test
+	void testBind_NotFilled() {
+		assertThrows(IllegalArgumentException.class, () -> op.bind(SourceHeader.of(List.of(CSV_HEADERS))));
+	}
+
 }
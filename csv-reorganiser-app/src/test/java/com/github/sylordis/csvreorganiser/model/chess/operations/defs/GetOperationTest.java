@@ -1,6 +1,7 @@
 package com.github.sylordis.csvreorganiser.model.chess.operations.defs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -10,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -18,6 +20,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+
 /**
  * Test suite for {@link GetOperation} class.
  *
@@ -197,4 +203,65 @@ class GetOperationTest {
 		bop.setSrcColumn(value);
 		assertEquals(value, bop.getSrcColumn(), "Property should be set to provided value, even if null");
 	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		assertEquals(Set.of(SRC_NAME), fop.getSourceColumns(), "Source column should be the only one used");
+		assertEquals(Set.of(), bop.getSourceColumns(), "Bare operation should not use any column");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)}.
+	 */
+	@Test
+	void testBind() {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		ReorganiserOperation bound = fop.bind(header);
+		assertEquals(OP_NAME, bound.getName());
+		assertEquals("polib",
+		        bound.applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Tull", "5", "polib" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)},
+	 * appending values to an output.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testBind_Render() throws IOException {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		ReorganiserOperation bound = fop.bind(header);
+		StringBuilder out = new StringBuilder(">");
+		assertTrue(bound.applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Tull", "5", "polib" }), out));
+		assertEquals(">polib", out.toString());
+		assertFalse(bound.applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Tull", "5", null }), out));
+		assertEquals(">polib", out.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the source column is not in the header.
+	 */
+	@Test
+	void testBind_NotExisting() {
+		assertThrows(IllegalArgumentException.class, () -> fop.bind(SourceHeader.of(List.of("Name", "Id"))),
+		        "Binding should fail before any record is read if the column does not exist");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.GetOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the property was not filled.
+	 */
+	@Test
+	void testBind_NotFilled() {
+		assertThrows(IllegalArgumentException.class, () -> bop.bind(SourceHeader.of(List.of(CSV_HEADERS))));
+	}
+
 }
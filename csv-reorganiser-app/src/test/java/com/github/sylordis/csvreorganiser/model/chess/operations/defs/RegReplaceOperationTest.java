@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -19,6 +20,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+
 /**
  * Test suite for {@link RegularExpressionReplacementOperation} class.
  *
@@ -329,4 +333,53 @@ class RegReplaceOperationTest {
 		assertEquals(srcColumn, bop.getSrcColumn(), "Source column should be set to provided value");
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		assertEquals(Set.of(SRC_VALUE), fop.getSourceColumns(), "Source column should be the only one used");
+		assertEquals(Set.of(), bop.getSourceColumns(), "Bare operation should not use any column");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)}.
+	 */
+	@Test
+	void testBind() {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		assertEquals("ISwrong", fop.bind(header).applyTo(
+		        new ArraySourceRecord(header.getIndexes(), new String[] { "Testy", "5", "SOMETHING -> ISwrong" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the source column is not in the header.
+	 */
+	@Test
+	void testBind_NotExisting() {
+		assertThrows(IllegalArgumentException.class, () -> fop.bind(SourceHeader.of(List.of("Name", "Id"))));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the properties were not filled.
+	 */
+	@Test
+	void testBind_NotFilled() {
+		assertThrows(IllegalArgumentException.class, () -> bop.bind(SourceHeader.of(List.of(CSV_HEADERS))));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the pattern is not a valid regular expression.
+	 */
+	@Test
+	void testBind_InvalidPattern() {
+		fop.setPattern("(unclosed");
+		assertThrows(IllegalArgumentException.class, () -> fop.bind(SourceHeader.of(List.of(CSV_HEADERS))));
+	}
+
 }
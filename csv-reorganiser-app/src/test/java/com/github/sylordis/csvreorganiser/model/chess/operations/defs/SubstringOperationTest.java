@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -18,6 +19,8 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
 
 class SubstringOperationTest {
 
@@ -223,4 +226,52 @@ class SubstringOperationTest {
 	void testToString() {
 		assertNotNull(op.toString());
 	}
+
+	/**
+	 * Test method for {@link SubstringOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		assertEquals(Set.of(), op.getSourceColumns(), "Bare operation should not use any column");
+		op.setSrcColumn("Serenade");
+		assertEquals(Set.of("Serenade"), op.getSourceColumns(), "Source column should be the only one used");
+	}
+
+	/**
+	 * Test method for {@link SubstringOperation#bind(SourceHeader)}.
+	 */
+	@Test
+	void testBind() {
+		op = new SubstringOperation(OP_NAME, CSV_HEADERS[1], 1, 3);
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		assertEquals("op",
+		        op.bind(header).applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Henry", "Popaloudos" })));
+	}
+
+	/**
+	 * Test method for {@link SubstringOperation#bind(SourceHeader)}, appending values to an output.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testBind_Render() throws IOException {
+		op = new SubstringOperation(OP_NAME, CSV_HEADERS[1], 1, 30);
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		StringBuilder out = new StringBuilder();
+		assertTrue(op.bind(header).applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Henry", "Popaloudos" }),
+		        out));
+		assertEquals("opaloudos", out.toString());
+	}
+
+	/**
+	 * Test method for {@link SubstringOperation#bind(SourceHeader)} when the source column is not in the
+	 * header or not set.
+	 */
+	@Test
+	void testBind_NotExisting() {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		assertThrows(IllegalArgumentException.class, () -> op.bind(header), "Source column is not set");
+		op.setSrcColumn("Nickname");
+		assertThrows(IllegalArgumentException.class, () -> op.bind(header), "Source column does not exist");
+	}
 }
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -18,6 +19,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+
 /**
  * Test suite for {@link ValueOperation} class.
  *
@@ -202,4 +206,48 @@ class ValueOperationTest {
 		assertEquals(value, bop.getValue(), "Value property should be set to provided value");
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ValueOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetSourceColumns() {
+		assertEquals(Set.of(), fop.getSourceColumns(), "Value should not use any column");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ValueOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)}.
+	 */
+	@Test
+	void testBind() {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		assertEquals(OP_VALUE, fop.bind(header)
+		        .applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Tull", "5" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ValueOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)},
+	 * appending values to an output.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testBind_Render() throws IOException {
+		SourceHeader header = SourceHeader.of(List.of(CSV_HEADERS));
+		StringBuilder out = new StringBuilder();
+		assertTrue(fop.bind(header).applyTo(new ArraySourceRecord(header.getIndexes(), new String[] { "Tull", "5" }), out));
+		assertEquals(OP_VALUE, out.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.chess.operations.defs.ValueOperation#bind(com.github.sylordis.csvreorganiser.model.records.SourceHeader)} when the property was not filled.
+	 */
+	@Test
+	void testBind_NotFilled() {
+		assertThrows(IllegalArgumentException.class, () -> bop.bind(SourceHeader.of(List.of(CSV_HEADERS))));
+	}
+
 }
@@ -0,0 +1,270 @@
+package com.github.sylordis.csvreorganiser.model.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+
+/**
+ * Test suite for {@link WatchDaemon} class.
+ *
+ * @author sylordis
+ *
+ */
+class WatchDaemonTest {
+
+	/**
+	 * Maximum time to wait for the daemon, in milliseconds.
+	 */
+	private static final long TIMEOUT = 10_000;
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private WatchDaemon daemon;
+	/**
+	 * Watched folder.
+	 */
+	private WatchedFolder folder;
+	/**
+	 * Configuration file.
+	 */
+	private File configFile;
+	/**
+	 * Thread running the daemon.
+	 */
+	private Thread thread;
+	/**
+	 * Exception thrown by the daemon, if any.
+	 */
+	private volatile Exception failure;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		configFile = new File(workingDir, "config.yaml");
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: Name\n    source: first_name\n",
+		        StandardCharsets.UTF_8);
+		File inputDir = new File(workingDir, "in");
+		inputDir.mkdir();
+		folder = new WatchedFolder(configFile, inputDir, new File(workingDir, "out"), null);
+		daemon = new WatchDaemon(List.of(folder), new ReorganiserOptions());
+		daemon.setQuietPeriod(10);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		daemon.close();
+		if (thread != null)
+			thread.join(TIMEOUT);
+	}
+
+	/**
+	 * Starts the daemon on another thread.
+	 */
+	private void start() {
+		thread = new Thread(() -> {
+			try {
+				daemon.run();
+			} catch (Exception e) {
+				failure = e;
+			}
+		});
+		thread.start();
+	}
+
+	/**
+	 * Waits for a condition to be true.
+	 *
+	 * @param condition condition to wait for
+	 * @param message   message if the condition is still false after the timeout
+	 * @throws InterruptedException
+	 */
+	private void waitFor(BooleanSupplier condition, String message) throws InterruptedException {
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertNull(failure, "Daemon should not fail");
+		assertTrue(condition.getAsBoolean(), message);
+	}
+
+	/**
+	 * Drops a source file in the input directory, writing it elsewhere then moving it.
+	 *
+	 * @param name    name of the file
+	 * @param content content of the file
+	 * @throws IOException
+	 */
+	private void drop(String name, String content) throws IOException {
+		File file = new File(workingDir, name);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		Files.move(file.toPath(), new File(folder.getInputDirectory(), name).toPath(), StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the records of a target, without its comment.
+	 *
+	 * @param name name of the target
+	 * @return the lines of the target after the comment
+	 * @throws IOException
+	 */
+	private List<String> readTarget(String name) throws IOException {
+		List<String> lines = FileUtils.readLines(new File(folder.getOutputDirectory(), name), StandardCharsets.UTF_8);
+		return lines.subList(1, lines.size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#WatchDaemon(List, ReorganiserOptions)}
+	 * with invalid folders.
+	 */
+	@Test
+	void testWatchDaemon_Invalid() {
+		assertThrows(IllegalArgumentException.class, () -> new WatchDaemon(List.of(), new ReorganiserOptions()));
+		assertThrows(IllegalArgumentException.class,
+		        () -> new WatchDaemon(List.of(folder, folder), new ReorganiserOptions()));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#run()}, files
+	 * present at start and landing afterwards being processed.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun() throws Exception {
+		File existing = new File(folder.getInputDirectory(), "existing.csv");
+		FileUtils.writeStringToFile(existing, "id,first_name\n1,Tull\n", StandardCharsets.UTF_8);
+		start();
+		waitFor(() -> daemon.getProcessed() == 1, "Existing file should be processed");
+		assertEquals(List.of("Name", "Tull"), readTarget("existing.csv"));
+		assertFalse(existing.exists(), "Processed file should be moved");
+		assertTrue(new File(folder.getProcessedDirectory(), "existing.csv").exists(),
+		        "Processed file should be in the processed directory");
+		drop("landed.csv", "id,first_name\n2,Cassaundra\n");
+		waitFor(() -> daemon.getProcessed() == 2, "Landing file should be processed");
+		assertEquals(List.of("Name", "Cassaundra"), readTarget("landed.csv"));
+		assertEquals(2, folder.getOutputDirectory().list().length, "No temporary file should be left");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#run()} with a
+	 * file which cannot be processed.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_Failed() throws Exception {
+		start();
+		drop("invalid.csv", "id,last_name\n1,Blincko\n");
+		waitFor(() -> daemon.getProcessed() == 1, "Invalid file should be handled");
+		assertTrue(new File(folder.getFailedDirectory(), "invalid.csv").exists(),
+		        "Invalid file should be in the failed directory");
+		assertEquals(0, folder.getOutputDirectory().list().length, "No target should be written");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#run()} with a
+	 * malformed file, the daemon still processing the following ones.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_Malformed() throws Exception {
+		start();
+		drop("malformed.csv", "id,first_name\n1,\"Tull\n");
+		waitFor(() -> daemon.getProcessed() == 1, "Malformed file should be handled");
+		assertTrue(new File(folder.getFailedDirectory(), "malformed.csv").exists(),
+		        "Malformed file should be in the failed directory");
+		assertTrue(thread.isAlive(), "Daemon should keep watching");
+		drop("valid.csv", "id,first_name\n2,Cassaundra\n");
+		waitFor(() -> daemon.getProcessed() == 2, "Valid file should be processed");
+		assertEquals(List.of("Name", "Cassaundra"), readTarget("valid.csv"));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#run()}, the
+	 * configuration being reloaded when it changes.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_ConfigurationChanged() throws Exception {
+		start();
+		drop("first.csv", "id,first_name\n1,Tull\n");
+		waitFor(() -> daemon.getProcessed() == 1, "First file should be processed");
+		final ReorgConfiguration previous = folder.getConfiguration();
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: Id\n    source: id\n",
+		        StandardCharsets.UTF_8);
+		waitFor(() -> folder.getConfiguration() != previous, "Configuration should be reloaded");
+		drop("second.csv", "id,first_name\n2,Cassaundra\n");
+		waitFor(() -> daemon.getProcessed() == 2, "Second file should be processed");
+		assertEquals(List.of("Id", "2"), readTarget("second.csv"));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#run()} with a
+	 * configuration changed to malformed YAML, the daemon keeping the previous configuration.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRun_ConfigurationMalformed() throws Exception {
+		start();
+		drop("first.csv", "id,first_name\n1,Tull\n");
+		waitFor(() -> daemon.getProcessed() == 1, "First file should be processed");
+		final ReorgConfiguration previous = folder.getConfiguration();
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure: [\n", StandardCharsets.UTF_8);
+		// Reloaded at the latest with the next file, both changes being due in order
+		drop("second.csv", "id,first_name\n2,Cassaundra\n");
+		waitFor(() -> daemon.getProcessed() == 2, "Second file should be processed");
+		assertTrue(thread.isAlive(), "Daemon should keep watching");
+		assertSame(previous, folder.getConfiguration(), "Previous configuration should be kept");
+		assertEquals(List.of("Name", "Cassaundra"), readTarget("second.csv"));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#close()}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testClose() throws Exception {
+		start();
+		daemon.close();
+		thread.join(TIMEOUT);
+		assertFalse(thread.isAlive(), "Daemon should stop once closed");
+		assertNull(failure, "Daemon should not fail");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchDaemon#setQuietPeriod(long)}.
+	 */
+	@Test
+	void testSetQuietPeriod() {
+		daemon.setQuietPeriod(0);
+		assertEquals(0, daemon.getQuietPeriod());
+		assertThrows(IllegalArgumentException.class, () -> daemon.setQuietPeriod(-1));
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.github.sylordis.csvreorganiser.model.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+
+/**
+ * Test suite for {@link WatchedFolder} class.
+ *
+ * @author sylordis
+ *
+ */
+class WatchedFolderTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private WatchedFolder folder;
+	/**
+	 * Configuration file.
+	 */
+	private File configFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		configFile = new File(workingDir, "config.yaml");
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: Name\n    source: first_name\n",
+		        StandardCharsets.UTF_8);
+		folder = new WatchedFolder(configFile, new File(workingDir, "in"), new File(workingDir, "out"), null);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#WatchedFolder(File, File, File, com.github.sylordis.csvreorganiser.model.engines.ReorganiserEngine)}.
+	 */
+	@Test
+	void testWatchedFolder() {
+		assertEquals(configFile.getAbsoluteFile(), folder.getConfigFile());
+		assertEquals(new File(workingDir, "in").getAbsoluteFile(), folder.getInputDirectory());
+		assertEquals(new File(workingDir, "out").getAbsoluteFile(), folder.getOutputDirectory());
+		assertEquals(new File(folder.getInputDirectory(), WatchedFolder.PROCESSED_DIRECTORY),
+		        folder.getProcessedDirectory());
+		assertEquals(new File(folder.getInputDirectory(), WatchedFolder.FAILED_DIRECTORY), folder.getFailedDirectory());
+		assertNull(folder.getConfiguration(), "Configuration should not be loaded yet");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#load()}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad() throws Exception {
+		folder.load();
+		assertEquals(1, folder.getConfiguration().getOperations().size(), "Configuration should be loaded");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#load()} with
+	 * an invalid configuration.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testLoad_Invalid() throws Exception {
+		FileUtils.writeStringToFile(configFile, "nothing: here\n", StandardCharsets.UTF_8);
+		assertThrows(ConfigurationImportException.class, folder::load);
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#reload()}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testReload() throws Exception {
+		folder.load();
+		ReorgConfiguration previous = folder.getConfiguration();
+		FileUtils.writeStringToFile(configFile,
+		        "reorg:\n  structure:\n  - column: Name\n    source: first_name\n  - column: Id\n    source: id\n",
+		        StandardCharsets.UTF_8);
+		assertTrue(folder.reload(), "Configuration should be reloaded");
+		assertNotSame(previous, folder.getConfiguration());
+		assertEquals(2, folder.getConfiguration().getOperations().size(), "New configuration should be used");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#reload()} with
+	 * an invalid configuration, the previous one being kept.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testReload_Invalid() throws Exception {
+		folder.load();
+		ReorgConfiguration previous = folder.getConfiguration();
+		FileUtils.writeStringToFile(configFile, "nothing: here\n", StandardCharsets.UTF_8);
+		assertFalse(folder.reload(), "Invalid configuration should not be reloaded");
+		assertSame(previous, folder.getConfiguration(), "Previous configuration should be kept");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.daemon.WatchedFolder#reload()} with
+	 * a configuration which is not valid YAML, the previous one being kept.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testReload_Malformed() throws Exception {
+		folder.load();
+		ReorgConfiguration previous = folder.getConfiguration();
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure: [\n", StandardCharsets.UTF_8);
+		assertFalse(folder.reload(), "Malformed configuration should not be reloaded");
+		assertSame(previous, folder.getConfiguration(), "Previous configuration should be kept");
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.constants.ConfigConstants;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeAbstractFilter;
+import com.github.sylordis.csvreorganiser.model.hyde.config.HydeDefaultConfigurationSupplier;
+
+/**
+ * Test suite for {@link ConfigurationSupplier} interface.
+ *
+ * @author sylordis
+ *
+ */
+class ConfigurationSupplierTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Compiles a filter in the package of the Hyde filters without the annotation processor, as a
+	 * third-party filter would be, in its own classpath root.
+	 *
+	 * @return the classpath root of the filter
+	 * @throws Exception
+	 */
+	private File compileUnindexedFilter() throws Exception {
+		File sources = new File(workingDir, "src");
+		File classes = new File(workingDir, "classes");
+		classes.mkdirs();
+		File source = new File(sources, ConfigConstants.Hyde.FILTERS_PACKAGE.replace('.', '/') + "/ShoutFilter.java");
+		FileUtils.writeStringToFile(source, "package " + ConfigConstants.Hyde.FILTERS_PACKAGE + ";\n"
+		        + "@com.github.sylordis.csvreorganiser.model.annotations.Operation(name = \"shout\")\n"
+		        + "public class ShoutFilter extends com.github.sylordis.csvreorganiser.model.hyde.HydeAbstractFilter {\n"
+		        + "  @Override public String apply(String t) { return t.toUpperCase() + \"!\"; }\n" + "}\n",
+		        StandardCharsets.UTF_8);
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-proc:none", "-classpath", System.getProperty("java.class.path"),
+		        "-d", classes.getPath(), source.getPath()), "Filter should compile");
+		assertFalse(new File(classes, OperationIndex.INDEX_RESOURCE).exists(), "Filter should not be indexed");
+		return classes;
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ConfigurationSupplier#getConfigurationDictionary()}
+	 * with a filter which was not indexed, in a package which is otherwise indexed.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGetConfigurationDictionary_Unindexed() throws Exception {
+		final File root = compileUnindexedFilter();
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { root.toURI().toURL() },
+		        getClass().getClassLoader())) {
+			Map<String, Class<? extends HydeAbstractFilter>> dictionary = new HydeDefaultConfigurationSupplier() {
+				@Override
+				public ClassLoader getClassLoader() {
+					return loader;
+				}
+			}.getConfigurationDictionary();
+			assertTrue(dictionary.containsKey("upper"), "Indexed filters should be found");
+			assertTrue(dictionary.containsKey("shout"), "Filter of a root without index should be scanned");
+			assertEquals(loader, dictionary.get("shout").getClassLoader());
+			HydeAbstractFilter shout = dictionary.get("shout").getConstructor().newInstance();
+			assertEquals("HEY!", shout.apply("hey"));
+		}
+		assertFalse(new HydeDefaultConfigurationSupplier().getConfigurationDictionary().containsKey("shout"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ConfigurationSupplier#getConfigurationByReflection(String, Class)}
+	 * with a package that no classpath root contains.
+	 */
+	@Test
+	void testGetConfigurationByReflection_UnknownPackage() {
+		assertTrue(new HydeDefaultConfigurationSupplier()
+		        .getConfigurationByReflection("com.github.sylordis.csvreorganiser.nowhere", HydeAbstractFilter.class)
+		        .isEmpty(), "Indexes of roots not containing the package should be ignored");
+		assertEquals(List.of(), OperationIndex.rootsOf("com.github.sylordis.csvreorganiser.nowhere",
+		        getClass().getClassLoader()));
+	}
+
+}
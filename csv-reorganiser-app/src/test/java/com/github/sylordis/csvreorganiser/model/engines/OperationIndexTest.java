@@ -0,0 +1,128 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import com.github.sylordis.csvreorganiser.model.annotations.Operation;
+import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.constants.ConfigConstants;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeAbstractFilter;
+
+/**
+ * Test suite for {@link OperationIndex} class.
+ *
+ * @author sylordis
+ *
+ */
+class OperationIndexTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Scans a package the way it was done before the index.
+	 *
+	 * @param <T>  root type
+	 * @param pack package to scan
+	 * @param type root type
+	 * @return the annotated sub-types
+	 */
+	private <T> Set<Class<? extends T>> scan(String pack, Class<T> type) {
+		return new Reflections(new ConfigurationBuilder().forPackage(pack)).getSubTypesOf(type).stream()
+		        .filter(t -> t.isAnnotationPresent(Operation.class)).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.OperationIndex#find(Class)} for
+	 * Chess operations.
+	 */
+	@Test
+	void testFind_Chess() {
+		Set<Class<? extends ChessAbstractReorgOperation>> indexed = OperationIndex
+		        .find(ChessAbstractReorgOperation.class);
+		assertFalse(indexed.isEmpty(), "Operations should be indexed at compile time");
+		assertEquals(scan(ConfigConstants.Chess.OPERATIONS_PACKAGE, ChessAbstractReorgOperation.class), indexed);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.OperationIndex#find(Class)} for
+	 * Hyde filters.
+	 */
+	@Test
+	void testFind_Hyde() {
+		Set<Class<? extends HydeAbstractFilter>> indexed = OperationIndex.find(HydeAbstractFilter.class);
+		assertFalse(indexed.isEmpty(), "Filters should be indexed at compile time");
+		assertEquals(scan(ConfigConstants.Hyde.FILTERS_PACKAGE, HydeAbstractFilter.class), indexed);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.OperationIndex#find(Class)} for a type
+	 * without indexed operations.
+	 */
+	@Test
+	void testFind_NotIndexed() {
+		assertTrue(OperationIndex.find(Runnable.class).isEmpty());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.OperationIndex#read(ClassLoader)} with
+	 * several indexes.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRead() throws Exception {
+		File first = new File(workingDir, "a/" + OperationIndex.INDEX_RESOURCE);
+		File second = new File(workingDir, "b/" + OperationIndex.INDEX_RESOURCE);
+		FileUtils.writeStringToFile(first, "# Comment\na.B\n\n  c.D  \n", StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(second, "c.D\ne.F\n", StandardCharsets.UTF_8);
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { new File(workingDir, "a").toURI().toURL(),
+		        new File(workingDir, "b").toURI().toURL() }, null)) {
+			assertEquals(List.of("a.B", "c.D", "e.F"), OperationIndex.read(loader));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.OperationIndex#rootsOf(String, ClassLoader)}
+	 * with a root indexed, one without index and one not containing the package.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testRootsOf() throws Exception {
+		FileUtils.writeStringToFile(new File(workingDir, "a/" + OperationIndex.INDEX_RESOURCE), "x.y.Op\n",
+		        StandardCharsets.UTF_8);
+		new File(workingDir, "a/x/y").mkdirs();
+		new File(workingDir, "b/x/y").mkdirs();
+		FileUtils.writeStringToFile(new File(workingDir, "c/" + OperationIndex.INDEX_RESOURCE), "z.Op\n",
+		        StandardCharsets.UTF_8);
+		final URL a = new File(workingDir, "a").toURI().toURL();
+		final URL b = new File(workingDir, "b").toURI().toURL();
+		try (URLClassLoader loader = new URLClassLoader(
+		        new URL[] { a, b, new File(workingDir, "c").toURI().toURL() }, null)) {
+			assertEquals(List.of(new OperationIndex.Root(a, List.of("x.y.Op")), new OperationIndex.Root(b, List.of())),
+			        OperationIndex.rootsOf("x.y", loader));
+		}
+	}
+
+}
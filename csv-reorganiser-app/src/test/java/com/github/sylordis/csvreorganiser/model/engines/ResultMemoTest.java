@@ -0,0 +1,198 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test suite for {@link ResultMemo} class.
+ *
+ * @author sylordis
+ *
+ */
+class ResultMemoTest {
+
+	/**
+	 * Number of evaluations.
+	 */
+	private AtomicInteger evaluations;
+	/**
+	 * Function counting its evaluations.
+	 */
+	private UnaryOperator<String> function;
+
+	@BeforeEach
+	void setUp() {
+		evaluations = new AtomicInteger();
+		function = t -> {
+			evaluations.incrementAndGet();
+			return t == null ? "none" : t.toUpperCase();
+		};
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)}
+	 * with values repeated.
+	 */
+	@Test
+	void testApply() {
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}");
+		for (int i = 0; i < 100; i++)
+			assertEquals(i % 2 == 0 ? "OPEN" : "CLOSED", memo.apply(i % 2 == 0 ? "open" : "closed", function));
+		assertEquals(2, evaluations.get(), "Each distinct value should be computed once");
+		assertEquals(98, memo.getHits());
+		assertEquals(2, memo.getMisses());
+		assertEquals(0, memo.getSkipped());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)}
+	 * with null values, never kept.
+	 */
+	@Test
+	void testApply_Null() {
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}");
+		assertEquals("none", memo.apply(null, function));
+		assertEquals("none", memo.apply(null, function));
+		assertEquals(2, evaluations.get());
+		assertEquals(0, memo.getHits() + memo.getMisses() + memo.getSkipped());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)},
+	 * checking that the entries not hit since the hand of the clock last passed them are evicted
+	 * first.
+	 */
+	@Test
+	void testApply_Eviction() {
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}", 2, 1000, 0);
+		memo.apply("a", function);
+		memo.apply("b", function);
+		memo.apply("a", function);
+		// Evicts b, a being referenced
+		memo.apply("c", function);
+		assertEquals(3, evaluations.get());
+		memo.apply("a", function);
+		assertEquals(3, evaluations.get(), "Referenced value should be kept");
+		memo.apply("b", function);
+		assertEquals(4, evaluations.get(), "Value not referenced should be evicted");
+		assertEquals(2, memo.getHits());
+		assertEquals(4, memo.getMisses());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)},
+	 * checking that the memo switches itself off after a window with a low hit rate, then tries again
+	 * after {@link ResultMemo#PROBE_INTERVAL} windows.
+	 */
+	@Test
+	void testApply_SwitchOff() {
+		final int window = 10;
+		ResultMemo memo = new ResultMemo("Id", "{{id|upper}}", 100, window, 0.5);
+		int value = 0;
+		for (int i = 0; i < window; i++)
+			memo.apply(String.valueOf(value++), function);
+		assertEquals(window, memo.getMisses());
+		for (int i = 0; i < window * ResultMemo.PROBE_INTERVAL; i++)
+			assertEquals(String.valueOf(value), memo.apply(String.valueOf(value++), function));
+		assertEquals(window, memo.getMisses(), "Values should not be looked up once switched off");
+		assertEquals(window * ResultMemo.PROBE_INTERVAL, memo.getSkipped());
+		memo.apply("0", function);
+		assertEquals(window + 1, memo.getMisses(), "Memo should be tried again, empty");
+		assertEquals(0, memo.getHits());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)},
+	 * checking that a memo with a high hit rate stays on.
+	 */
+	@Test
+	void testApply_StaysOn() {
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}", 100, 10, 0.5);
+		for (int i = 0; i < 1000; i++)
+			memo.apply(String.valueOf(i % 4), function);
+		assertEquals(4, memo.getMisses());
+		assertEquals(996, memo.getHits());
+		assertEquals(0, memo.getSkipped());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#apply(String, UnaryOperator)}
+	 * from several threads at the same time, each one having its own table.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testApply_Threads() throws Exception {
+		final int threads = 4;
+		final int lookups = 10000;
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}");
+		List<Thread> workers = new ArrayList<>();
+		AtomicInteger errors = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				for (int i = 0; i < lookups; i++) {
+					final String value = "v" + (i % 8);
+					if (!value.toUpperCase().equals(memo.apply(value, function)))
+						errors.incrementAndGet();
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+		assertEquals(0, errors.get());
+		assertEquals(threads * 8, memo.getMisses());
+		assertEquals(threads * lookups - threads * 8, memo.getHits());
+	}
+
+	private static Stream<Arguments> provideForTestResultMemo_Invalid() {
+		return Stream.of(Arguments.of(0, 10, 0.5), Arguments.of(10, 0, 0.5), Arguments.of(10, 10, -0.1),
+		        Arguments.of(10, 10, 1.1), Arguments.of(10, 10, Double.NaN));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#ResultMemo(String, String, int, int, double)}
+	 * with settings out of bounds.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestResultMemo_Invalid")
+	void testResultMemo_Invalid(int capacity, int window, double minHitRate) {
+		assertThrows(IllegalArgumentException.class, () -> new ResultMemo("A", "a", capacity, window, minHitRate));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.engines.ResultMemo#toString()}.
+	 */
+	@Test
+	void testToString() {
+		ResultMemo memo = new ResultMemo("Status", "{{status|upper}}");
+		memo.apply("a", function);
+		memo.apply("a", function);
+		assertEquals("Status", memo.getColumn());
+		assertEquals("{{status|upper}}", memo.getDescription());
+		assertEquals("'Status' {{status|upper}}: 1 hit(s), 1 miss(es), 0 skipped", memo.toString());
+		assertNull(new ResultMemo("A", "a").apply("a", t -> null), "Null values should be returned");
+	}
+
+}
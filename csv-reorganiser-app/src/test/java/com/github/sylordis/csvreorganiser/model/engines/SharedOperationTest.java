@@ -0,0 +1,99 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sylordis.csvreorganiser.model.chess.operations.defs.RegularExpressionReplacementOperation;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link SharedOperation} class.
+ *
+ * @author sylordis
+ *
+ */
+class SharedOperationTest {
+
+	/**
+	 * Header of the records.
+	 */
+	private static final SourceHeader HEADER = SourceHeader.of(List.of("id", "name"));
+
+	/**
+	 * Operation computing the shared value.
+	 */
+	private SharedOperation producer;
+	/**
+	 * Operation reusing the shared value.
+	 */
+	private SharedOperation consumer;
+	/**
+	 * Operation shared by the consumer.
+	 */
+	private RegularExpressionReplacementOperation shared;
+
+	@BeforeEach
+	void setUp() {
+		SharedSubexpression expression = new SharedSubexpression("regreplace", List.of("A", "B"));
+		producer = new SharedOperation(new RegularExpressionReplacementOperation("A", "name", "a", "4"), expression,
+		        true);
+		shared = new RegularExpressionReplacementOperation("B", "name", "a", "4");
+		consumer = new SharedOperation(shared, expression, false);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedOperation#applyTo(SourceRecord)}.
+	 */
+	@Test
+	void testApplyTo() {
+		SourceRecord record = new ArraySourceRecord(HEADER.getIndexes(), new String[] { "1", "banana" });
+		assertEquals("b4n4n4", producer.applyTo(record));
+		assertEquals("b4n4n4", consumer.applyTo(record));
+		assertEquals("c4t",
+		        consumer.applyTo(new ArraySourceRecord(HEADER.getIndexes(), new String[] { "2", "cat" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedOperation#bind(SourceHeader)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testBind() throws Exception {
+		ReorganiserOperation boundProducer = producer.bind(HEADER);
+		ReorganiserOperation boundConsumer = consumer.bind(HEADER);
+		assertEquals("A", boundProducer.getName());
+		assertEquals("B", boundConsumer.getName());
+		SourceRecord record = new ArraySourceRecord(HEADER.getIndexes(), new String[] { "1", "banana" });
+		assertEquals("b4n4n4", boundProducer.applyTo(record));
+		StringBuilder out = new StringBuilder();
+		assertTrue(boundConsumer.applyTo(record, out));
+		assertEquals("b4n4n4", out.toString());
+		assertEquals("c4t",
+		        boundConsumer.applyTo(new ArraySourceRecord(HEADER.getIndexes(), new String[] { "2", "cat" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedOperation#getOperation()} and
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedOperation#getSourceColumns()}.
+	 */
+	@Test
+	void testGetOperation() {
+		assertSame(shared, consumer.getOperation());
+		assertEquals(Set.of("name"), consumer.getSourceColumns());
+		assertTrue(producer.isProducer());
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.github.sylordis.csvreorganiser.model.engines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link SharedSubexpression} class.
+ *
+ * @author sylordis
+ *
+ */
+class SharedSubexpressionTest {
+
+	/**
+	 * Header of the records.
+	 */
+	private static final SourceHeader HEADER = SourceHeader.of(List.of("name"));
+
+	/**
+	 * Object under test.
+	 */
+	private SharedSubexpression shared;
+	/**
+	 * Number of evaluations.
+	 */
+	private AtomicInteger evaluations;
+	/**
+	 * Function counting its evaluations.
+	 */
+	private Function<SourceRecord, String> evaluator;
+
+	@BeforeEach
+	void setUp() {
+		shared = new SharedSubexpression("{{name|upper}}", List.of("A", "B", "C"));
+		evaluations = new AtomicInteger();
+		evaluator = t -> {
+			evaluations.incrementAndGet();
+			return t.get(0).toUpperCase();
+		};
+	}
+
+	/**
+	 * Creates a record of the header.
+	 *
+	 * @param name value of the record
+	 * @return the record
+	 */
+	private static SourceRecord record(String name) {
+		return new ArraySourceRecord(HEADER.getIndexes(), new String[] { name });
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression#produce(SourceRecord, Function)}
+	 * and
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression#reuse(SourceRecord, Function)}.
+	 */
+	@Test
+	void testProduceReuse() {
+		SourceRecord ada = record("ada");
+		assertEquals("ADA", shared.produce(ada, evaluator));
+		assertEquals("ADA", shared.reuse(ada, evaluator));
+		assertEquals("ADA", shared.reuse(ada, evaluator));
+		assertEquals(1, evaluations.get(), "Value should be computed once for the record");
+		assertEquals("ALAN", shared.reuse(record("alan"), evaluator));
+		assertEquals(2, evaluations.get(), "Value of another record should be computed");
+		assertEquals("ADA", shared.produce(ada, evaluator));
+		assertEquals(3, evaluations.get(), "Producer should always compute the value");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression#reuse(SourceRecord, Function)}
+	 * on another thread than the producer.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testReuse_OtherThread() throws Exception {
+		SourceRecord ada = record("ada");
+		shared.produce(ada, evaluator);
+		AtomicReference<String> value = new AtomicReference<>();
+		Thread thread = new Thread(() -> value.set(shared.reuse(ada, evaluator)));
+		thread.start();
+		thread.join();
+		assertEquals("ADA", value.get());
+		assertEquals(2, evaluations.get(), "Values should not be shared between threads");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression#toString()}.
+	 */
+	@Test
+	void testToString() {
+		assertEquals("{{name|upper}}", shared.getDescription());
+		assertEquals(List.of("A", "B", "C"), shared.getColumns());
+		assertEquals("{{name|upper}} computed by 'A', reused by 'B', 'C'", shared.toString());
+	}
+
+}
@@ -0,0 +1,210 @@
+package com.github.sylordis.csvreorganiser.model.hyde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.sylordis.csvreorganiser.model.engines.ReorganiserOperation;
+import com.github.sylordis.csvreorganiser.model.engines.ResultMemo;
+import com.github.sylordis.csvreorganiser.model.engines.SharedSubexpression;
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link HydeEngine} class.
+ *
+ * @author sylordis
+ *
+ */
+class HydeEngineTest {
+
+	/**
+	 * Header of the records.
+	 */
+	private static final SourceHeader HEADER = SourceHeader.of(List.of("first", "last", "city"));
+
+	/**
+	 * Object under test.
+	 */
+	private HydeEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		engine = new HydeEngine();
+	}
+
+	/**
+	 * Creates operations from their content, named after their position.
+	 *
+	 * @param contents contents of the operations
+	 * @return the operations, in a modifiable list
+	 */
+	private List<ReorganiserOperation> createOperations(String... contents) {
+		List<ReorganiserOperation> operations = new ArrayList<>();
+		for (int i = 0; i < contents.length; i++)
+			operations.add(engine.createOperation("c" + i, contents[i]));
+		return operations;
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeEngine#createOperations(java.util.Map)}.
+	 */
+	@Test
+	void testCreateOperations() {
+		List<ReorganiserOperation> operations = engine
+		        .createOperations(Map.of("structure", Map.of("Name", "{{first}} {{last|upper}}")));
+		assertEquals(1, operations.size());
+		assertEquals("Name", operations.get(0).getName());
+		assertEquals("Ada LOVELACE",
+		        operations.get(0)
+		                .applyTo(new ArraySourceRecord(HEADER.getIndexes(), new String[] { "Ada", "Lovelace", "London" })));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeEngine#shareSubexpressions(java.util.List)},
+	 * checking which templates are shared.
+	 */
+	@Test
+	void testShareSubexpressions() {
+		List<ReorganiserOperation> operations = createOperations("{{first|lower}}", "{{first}}",
+		        "{{first|lower}}-{{first|upper}}", "{{first}}", "{{first|capfirst}}{{last|truncate:3}}",
+		        "{{last|truncate:3}}", "{{last|truncate:4}}");
+		List<SharedSubexpression> shared = engine.shareSubexpressions(operations);
+		assertEquals(2, shared.size());
+		assertEquals("{{first|lower}}", shared.get(0).getDescription());
+		assertEquals(List.of("c0", "c2"), shared.get(0).getColumns());
+		assertEquals("{{last|truncate:3:...}}", shared.get(1).getDescription());
+		assertEquals(List.of("c4", "c5"), shared.get(1).getColumns());
+		HydeReorgOperationPart producer = ((HydeReorgOperation) operations.get(0)).getChildren().get(0);
+		assertInstanceOf(HydeReorgOperationSharedPart.class, producer);
+		assertTrue(((HydeReorgOperationSharedPart) producer).isProducer());
+		HydeReorgOperationPart consumer = ((HydeReorgOperation) operations.get(2)).getChildren().get(0);
+		assertFalse(((HydeReorgOperationSharedPart) consumer).isProducer());
+		assertInstanceOf(HydeReorgOperationTemplatePart.class,
+		        ((HydeReorgOperation) operations.get(2)).getChildren().get(2));
+		assertInstanceOf(HydeReorgOperationTemplatePart.class,
+		        ((HydeReorgOperation) operations.get(1)).getChildren().get(0));
+		assertInstanceOf(HydeReorgOperationTemplatePart.class,
+		        ((HydeReorgOperation) operations.get(6)).getChildren().get(0));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeEngine#shareSubexpressions(java.util.List)},
+	 * checking that shared operations produce the same values, compiled or not, returned or appended.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	void testShareSubexpressions_SameValues(boolean compiling) throws IOException {
+		engine.setCompiling(compiling);
+		final String[] contents = { "{{city|lower|capfirst}}", "{{first|upper}} from {{city|lower|capfirst}}",
+		        "{{city|lower|capfirst}}{{city|lower|capfirst}}", "{{last|default:none|upper}}",
+		        "[{{last|default:none|upper}}]" };
+		List<ReorganiserOperation> original = createOperations(contents);
+		List<ReorganiserOperation> operations = createOperations(contents);
+		assertEquals(2, engine.shareSubexpressions(operations).size());
+		List<ReorganiserOperation> bound = operations.stream().map(op -> op.bind(HEADER)).toList();
+		StringBuilder out = new StringBuilder();
+		for (String[] values : new String[][] { { "Ada", "Lovelace", "LONDON" }, { "Alan", "", "wilmslow" },
+		        { "Grace", "", "" } }) {
+			// Records are reused as with memory mapped files
+			SourceRecord record = new ArraySourceRecord(HEADER.getIndexes(), values);
+			for (int i = 0; i < contents.length; i++) {
+				final String expected = original.get(i).applyTo(record);
+				assertEquals(expected, bound.get(i).applyTo(record), contents[i]);
+				out.setLength(0);
+				assertTrue(bound.get(i).applyTo(record, out));
+				assertEquals(expected, out.toString(), contents[i]);
+				assertEquals(expected, operations.get(i).applyTo(record), contents[i]);
+			}
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeEngine#memoise(java.util.List)},
+	 * checking which templates are memoised.
+	 */
+	@Test
+	void testMemoise() {
+		List<ReorganiserOperation> operations = createOperations("{{first|replace:a:b}}", "{{first}}",
+		        "{{last|upper|replace:A}}-{{first|replace:a:b}}", "const", "{{last|lower|capfirst}}");
+		engine.shareSubexpressions(operations);
+		List<ResultMemo> memos = engine.memoise(operations);
+		assertEquals(2, memos.size());
+		assertEquals("c0", memos.get(0).getColumn());
+		assertEquals("{{first|replace:a:b}}", memos.get(0).getDescription());
+		assertEquals("c2", memos.get(1).getColumn());
+		assertEquals("{{last|upper|replace:A:}}", memos.get(1).getDescription());
+		HydeReorgOperationSharedPart producer = (HydeReorgOperationSharedPart) ((HydeReorgOperation) operations
+		        .get(0)).getChildren().get(0);
+		assertSame(memos.get(0), producer.getTemplate().getMemo());
+		HydeReorgOperationSharedPart consumer = (HydeReorgOperationSharedPart) ((HydeReorgOperation) operations
+		        .get(2)).getChildren().get(2);
+		assertNull(consumer.getTemplate().getMemo(), "Shared value should only be memoised for its producer");
+		assertNull(((HydeReorgOperationTemplatePart) ((HydeReorgOperation) operations.get(1)).getChildren().get(0))
+		        .getMemo(), "Templates without filters should not be memoised");
+		assertNull(((HydeReorgOperationTemplatePart) ((HydeReorgOperation) operations.get(4)).getChildren().get(0))
+		        .getMemo(), "Templates with only cheap filters should not be memoised");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeEngine#memoise(java.util.List)},
+	 * checking that memoised operations produce the same values, compiled or not, returned or appended.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	void testMemoise_SameValues(boolean compiling) throws IOException {
+		engine.setCompiling(compiling);
+		final String[] contents = { "{{city|lower|replace:o:0|capfirst}}",
+		        "{{first|replace:a:4|upper}} from {{city|truncate:3|replace:[ln]:_}}",
+		        "{{last|default:none|replace:e}}", "{{first}}", "{{last|lower|capfirst}}" };
+		List<ReorganiserOperation> original = createOperations(contents);
+		List<ReorganiserOperation> operations = createOperations(contents);
+		List<ResultMemo> memos = engine.memoise(operations);
+		assertEquals(4, memos.size());
+		List<ReorganiserOperation> bound = operations.stream().map(op -> op.bind(HEADER)).toList();
+		StringBuilder out = new StringBuilder();
+		final String[][] records = { { "Ada", "Lovelace", "LONDON" }, { "Alan", "", "wilmslow" },
+		        { "Grace", "", "" } };
+		for (int n = 0; n < 10; n++) {
+			for (String[] values : records) {
+				SourceRecord record = new ArraySourceRecord(HEADER.getIndexes(), values);
+				for (int i = 0; i < contents.length; i++) {
+					final String expected = original.get(i).applyTo(record);
+					assertEquals(expected, bound.get(i).applyTo(record), contents[i]);
+					out.setLength(0);
+					assertTrue(bound.get(i).applyTo(record, out));
+					assertEquals(expected, out.toString(), contents[i]);
+				}
+			}
+		}
+		// Each value computed once, returned then appended for each record
+		for (ResultMemo memo : memos) {
+			assertTrue(memo.getMisses() <= records.length, memo.toString());
+			assertEquals(2 * 10 * records.length, memo.getHits() + memo.getMisses(), memo.toString());
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.github.sylordis.csvreorganiser.model.hyde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link HydeOperationCompiler} class.
+ *
+ * @author sylordis
+ *
+ */
+class HydeOperationCompilerTest {
+
+	/**
+	 * Header of the records.
+	 */
+	private static final SourceHeader HEADER = SourceHeader.of(List.of("first", "last", "city"));
+
+	/**
+	 * Engine creating the operations.
+	 */
+	private HydeEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		engine = new HydeEngine();
+	}
+
+	/**
+	 * Creates a record of the header.
+	 *
+	 * @param values values of the record
+	 * @return the record
+	 */
+	private static SourceRecord record(String... values) {
+		return new ArraySourceRecord(HEADER.getIndexes(), values);
+	}
+
+	private static Stream<Arguments> provideForTestCompile() {
+		return Stream.of(Arguments.of("", "", new String[] { "a", "b", "c" }),
+		        Arguments.of("constant", "constant", new String[] { "a", "b", "c" }),
+		        Arguments.of("{{first}}", "Ada", new String[] { "Ada", "Lovelace", "London" }),
+		        Arguments.of("{{first}}", "null", new String[] { null, "Lovelace", "London" }),
+		        Arguments.of("{{first}} {{last}}", "null Lovelace", new String[] { null, "Lovelace", "London" }),
+		        Arguments.of("{{first|lower}}", "ada", new String[] { "Ada", "Lovelace", "London" }),
+		        Arguments.of("{{first|lower|capfirst}}", "Ada", new String[] { "ADA", "Lovelace", "London" }),
+		        Arguments.of("{{city|lower|upper|truncate:3}}", "LON...", new String[] { "Ada", "Lovelace", "London" }),
+		        Arguments.of("{{city|lower|upper|truncate:4|lower}}", "lond...",
+		                new String[] { "Ada", "Lovelace", "London" }),
+		        Arguments.of("<{{first}}{{last|upper}}> from {{city|default:nowhere}}.",
+		                "<AdaLOVELACE> from nowhere.", new String[] { "Ada", "Lovelace", "" }),
+		        Arguments.of("{{last}}{{first}}", "LovelaceAda", new String[] { "Ada", "Lovelace", "London" }));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeOperationCompiler#compile(java.util.List, com.github.sylordis.csvreorganiser.model.records.SourceHeader)},
+	 * checking that compiled operations produce the same values as interpreted ones, returned or
+	 * appended to an output.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestCompile")
+	void testCompile(String content, String expected, String[] values) throws IOException {
+		HydeReorgOperation operation = (HydeReorgOperation) engine.createOperation("col", content);
+		SourceRecord record = record(values);
+		assertEquals(expected, HydeOperationCompiler.compile(operation.getChildren(), HEADER).apply(record));
+		StringBuilder out = new StringBuilder();
+		assertTrue(operation.bind(HEADER).applyTo(record, out));
+		assertEquals(expected, out.toString());
+		operation.setCompiled(false);
+		assertEquals(expected, operation.bind(HEADER).applyTo(record));
+		out.setLength(0);
+		assertTrue(operation.bind(HEADER).applyTo(record, out));
+		assertEquals(expected, out.toString());
+		out.setLength(0);
+		assertTrue(operation.applyTo(record, out));
+		assertEquals(expected, out.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeOperationCompiler#compile(java.util.List, com.github.sylordis.csvreorganiser.model.records.SourceHeader)}
+	 * with an unknown column.
+	 */
+	@Test
+	void testCompile_UnknownColumn() {
+		HydeReorgOperation operation = (HydeReorgOperation) engine.createOperation("col", "{{first}} {{age}}");
+		assertThrows(IllegalArgumentException.class,
+		        () -> HydeOperationCompiler.compile(operation.getChildren(), HEADER));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.HydeOperationCompiler#compile(java.util.List, com.github.sylordis.csvreorganiser.model.records.SourceHeader)}
+	 * with a part of another type, bound as it is.
+	 */
+	@Test
+	void testCompile_OtherPart() {
+		HydeReorgOperationPart other = t -> t.get("city").toUpperCase();
+		assertEquals("Ada, LONDON!", HydeOperationCompiler
+		        .compile(List.of(engine.createPartFromTemplate("{{first}}"), engine.createConstantPart(", "), other,
+		                engine.createConstantPart("!")), HEADER)
+		        .apply(record("Ada", "Lovelace", "London")));
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.github.sylordis.csvreorganiser.model.hyde.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import java.util.function.ObjIntConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test suite for {@link AsciiCase} class, checking that conversions match those of {@link String} in
+ * several locales.
+ *
+ * @author sylordis
+ *
+ */
+class AsciiCaseTest {
+
+	/**
+	 * Values converted, ASCII or not.
+	 */
+	private static final String[] VALUES = { "", "abc", "Hello World 42", "\u00C9COLE", "\u00E9cole", "Stra\u00DFe",
+	        "\u039F\u0394\u039F\u03A3", "MIXED ascii \u039A\u0391\u0399 \u0391\u039B\u039B\u0391", "istanbul I\u0131i",
+	        "\uD83D\uDE00 smile", "\u01C6emal" };
+
+	/**
+	 * Default locale before the test.
+	 */
+	private Locale defaultLocale;
+
+	@BeforeEach
+	void setUp() {
+		defaultLocale = Locale.getDefault();
+	}
+
+	@AfterEach
+	void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	/**
+	 * Converts the end of a buffer.
+	 *
+	 * @param value      value to convert
+	 * @param conversion conversion to apply
+	 * @return the converted value, checking that the start of the buffer was kept
+	 */
+	private static String convert(String value, ObjIntConsumer<StringBuilder> conversion) {
+		StringBuilder buffer = new StringBuilder("<").append(value);
+		conversion.accept(buffer, 1);
+		assertEquals('<', buffer.charAt(0));
+		return buffer.substring(1);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.AsciiCase#toLowerCase(java.lang.StringBuilder, int)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "en", "fr", "tr", "lt", "el" })
+	void testToLowerCase(String language) {
+		Locale.setDefault(Locale.forLanguageTag(language));
+		for (String value : VALUES)
+			assertEquals(value.toLowerCase(), convert(value, AsciiCase::toLowerCase), value);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.AsciiCase#toUpperCase(java.lang.StringBuilder, int)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "en", "fr", "tr", "lt", "el" })
+	void testToUpperCase(String language) {
+		Locale.setDefault(Locale.forLanguageTag(language));
+		for (String value : VALUES)
+			assertEquals(value.toUpperCase(), convert(value, AsciiCase::toUpperCase), value);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.AsciiCase#capitaliseFirst(java.lang.StringBuilder, int)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "en", "tr" })
+	void testCapitaliseFirst(String language) {
+		Locale.setDefault(Locale.forLanguageTag(language));
+		for (String value : VALUES) {
+			String expected = value.isEmpty() ? value : value.substring(0, 1).toUpperCase() + value.substring(1);
+			assertEquals(expected, convert(value, AsciiCase::capitaliseFirst), value);
+		}
+	}
+
+}
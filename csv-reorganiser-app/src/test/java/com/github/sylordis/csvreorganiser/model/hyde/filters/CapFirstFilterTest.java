@@ -54,6 +54,19 @@ class CapFirstFilterTest {
 		assertEquals(expected, filter.apply(input));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.CapFirstFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = {"'',''", "abc,Abc", "Abc,Abc", "ABC,ABC","somEThing ELSe,SomEThing ELSe"})
+	void testApplyInPlace(String input, String expected) {
+		StringBuilder buffer = new StringBuilder("<").append(input);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	@DisplayName("Integration tests")
 	@Nested
 	@Tag("Integration")
@@ -54,6 +54,20 @@ class DefaultFilterTest {
 		assertEquals(expected, filter.apply(data));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.DefaultFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestApply")
+	void testApplyInPlace(String data, String defaultValue, String expected) {
+		filter.setDefaultValue(defaultValue);
+		StringBuilder buffer = new StringBuilder("<").append(data);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	/**
 	 * Test method for
 	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.DefaultFilter#getDefaultValue()}.
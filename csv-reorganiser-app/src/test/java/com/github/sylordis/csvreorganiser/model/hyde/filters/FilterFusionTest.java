@@ -0,0 +1,201 @@
+package com.github.sylordis.csvreorganiser.model.hyde.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.sylordis.csvreorganiser.model.hyde.HydeEngine;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeFilter;
+
+/**
+ * Test suite for {@link FilterFusion} class.
+ *
+ * @author sylordis
+ *
+ */
+class FilterFusionTest {
+
+	/**
+	 * Filters of the random chains, fused or not.
+	 */
+	private static final List<String> FILTERS = List.of("lower", "upper", "capfirst", "substring:0:3", "substring:1",
+	        "substring:2:5", "substring:1:1", "substring:-1", "truncate:4", "truncate:0:~", "truncate:2:", "truncate:-1",
+	        "replace:a:bb", "replace:b:", "replace:x:a", "replace:A:a", "replace:a:$0$0", "replace:[ab]:z",
+	        "replace:ab:c", "default:none", "length");
+	/**
+	 * Characters of the random values, including characters changing length or with their own case
+	 * rules.
+	 */
+	private static final char[] CHARACTERS = "abxyzABXYZ -.\u00e9\u00df\u0130".toCharArray();
+
+	/**
+	 * Engine creating the filters.
+	 */
+	private HydeEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		engine = new HydeEngine();
+	}
+
+	/**
+	 * Creates filters from their declaration.
+	 *
+	 * @param declarations declarations of the filters, such as <code>substring:0:3</code>
+	 * @return the filters
+	 */
+	private List<HydeFilter> filters(String... declarations) {
+		return Arrays.stream(declarations).map(engine::createFilter).toList();
+	}
+
+	/**
+	 * Applies filters one after the other, as without fusion.
+	 *
+	 * @param filters filters to apply
+	 * @param value   value to filter
+	 * @return the filtered value, or the type of the exception raised
+	 */
+	private static Object apply(List<HydeFilter> filters, String value) {
+		try {
+			String content = value;
+			for (HydeFilter filter : filters)
+				content = filter.apply(content);
+			return content;
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	/**
+	 * Applies filters one after the other in place, after some content.
+	 *
+	 * @param filters filters to apply
+	 * @param value   value to filter
+	 * @return the whole buffer, or the type of the exception raised
+	 */
+	private static Object applyInPlace(List<HydeFilter> filters, String value) {
+		try {
+			StringBuilder buffer = new StringBuilder("prefix|").append(value);
+			for (HydeFilter filter : filters)
+				filter.applyInPlace(buffer, "prefix|".length());
+			return buffer.toString();
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	private static Stream<Arguments> provideForTestFuse() {
+		return Stream.of(Arguments.of(new String[] { "lower", "capfirst" }, 2),
+		        Arguments.of(new String[] { "upper", "lower", "capfirst", "length" }, 4),
+		        Arguments.of(new String[] { "substring:0:10", "truncate:8" }, 1),
+		        Arguments.of(new String[] { "substring:0:10", "substring:2", "truncate:8", "truncate:3" }, 2),
+		        Arguments.of(new String[] { "truncate:8", "substring:0:10" }, 2),
+		        Arguments.of(new String[] { "replace:a:b", "replace:c:d" }, 1),
+		        Arguments.of(new String[] { "replace:a:b", "replace:cd:e", "replace:f:g" }, 3),
+		        Arguments.of(new String[] { "replace:[a]:b", "replace:c:d" }, 2),
+		        Arguments.of(new String[] { "lower", "substring:1", "substring:2", "replace:a:b", "replace:b:c" }, 3),
+		        Arguments.of(new String[] { "lower" }, 1), Arguments.of(new String[0], 0));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion#fuse(java.util.List)},
+	 * checking the number of filters left.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestFuse")
+	void testFuse(String[] declarations, int expected) {
+		assertEquals(expected, FilterFusion.fuse(filters(declarations)).size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion#fuse(java.util.List)}
+	 * with filters which cannot be fused, kept as they are.
+	 */
+	@Test
+	void testFuse_NotFused() {
+		List<HydeFilter> filters = filters("lower", "length", "upper", "default:x");
+		List<HydeFilter> fused = FilterFusion.fuse(filters);
+		for (int i = 0; i < filters.size(); i++)
+			assertSame(filters.get(i), fused.get(i));
+	}
+
+	private static Stream<Arguments> provideForTestFuse_Values() {
+		return Stream.of(Arguments.of(new String[] { "substring:0:10", "truncate:8" }, "The quick brown fox", "The quic..."),
+		        Arguments.of(new String[] { "substring:4", "substring:0:5", "truncate:8" }, "The quick brown", "quick"),
+		        Arguments.of(new String[] { "replace:a:b", "replace:b:c" }, "abc", "ccc"),
+		        Arguments.of(new String[] { "replace:a:bb", "replace:b:-" }, "a b", "-- -"),
+		        Arguments.of(new String[] { "replace:a:b", "replace:c:d" }, "xyz", "xyz"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion#fuse(java.util.List)},
+	 * checking the values of some fused filters, returned and in place.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestFuse_Values")
+	void testFuse_Values(String[] declarations, String value, String expected) {
+		List<HydeFilter> fused = FilterFusion.fuse(filters(declarations));
+		assertEquals(1, fused.size());
+		assertEquals(expected, apply(fused, value));
+		assertEquals("prefix|" + expected, applyInPlace(fused, value));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.FilterFusion#fuse(java.util.List)},
+	 * checking on random chains and values that fused filters give the same values and exceptions as
+	 * the filters applied one after the other, returned or in place, with the default locale and one
+	 * with its own case rules.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "en", "tr" })
+	void testFuse_RandomChains(String language) {
+		final Locale locale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag(language));
+		try {
+			// Seeded to be reproducible
+			Random random = new Random(24);
+			for (int chain = 0; chain < 2000; chain++) {
+				String[] declarations = new String[1 + random.nextInt(5)];
+				for (int i = 0; i < declarations.length; i++)
+					declarations[i] = FILTERS.get(random.nextInt(FILTERS.size()));
+				List<HydeFilter> filters = filters(declarations);
+				List<HydeFilter> fused = FilterFusion.fuse(filters);
+				List<String> values = new ArrayList<>();
+				values.add(null);
+				values.add("");
+				for (int v = 0; v < 10; v++) {
+					char[] value = new char[random.nextInt(10)];
+					for (int i = 0; i < value.length; i++)
+						value[i] = CHARACTERS[random.nextInt(random.nextBoolean() ? 10 : CHARACTERS.length)];
+					values.add(new String(value));
+				}
+				for (String value : values) {
+					final String message = Arrays.toString(declarations) + " on '" + value + "'";
+					assertEquals(apply(filters, value), apply(fused, value), message);
+					if (value != null)
+						assertEquals(applyInPlace(filters, value), applyInPlace(fused, value), message);
+				}
+			}
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+}
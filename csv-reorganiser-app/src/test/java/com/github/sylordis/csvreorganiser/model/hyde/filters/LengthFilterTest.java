@@ -54,6 +54,19 @@ class LengthFilterTest {
 		assertEquals(expected, filter.apply(input));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.LengthFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = {"'',0", "abc,3", "Abc,3", "somEThing ELSe,14"})
+	void testApplyInPlace(String input, String expected) {
+		StringBuilder buffer = new StringBuilder("<").append(input);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	@DisplayName("Integration tests")
 	@Nested
 	@Tag("Integration")
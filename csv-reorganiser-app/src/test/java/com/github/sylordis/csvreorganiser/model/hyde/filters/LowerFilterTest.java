@@ -54,6 +54,19 @@ class LowerFilterTest {
 		assertEquals(expected, filter.apply(input));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.LowerFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = {"'',''", "abc,abc", "Abc,abc", "ABC,abc","SomEThing ELSe,something else"})
+	void testApplyInPlace(String input, String expected) {
+		StringBuilder buffer = new StringBuilder("<").append(input);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	@DisplayName("Integration tests")
 	@Nested
 	@Tag("Integration")
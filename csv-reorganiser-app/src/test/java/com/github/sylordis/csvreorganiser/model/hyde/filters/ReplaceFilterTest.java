@@ -129,6 +129,11 @@ class ReplaceFilterTest {
 			assertThrows(NullPointerException.class, () -> filter.fill(data));
 		}
 
+		@Test
+		void testFill_InvalidPattern() throws SelfFillingException {
+			assertThrows(SelfFillingException.class, () -> filter.fill(List.of("(unclosed", "mana")));
+		}
+
 		@Test
 		void testFill_MissingMandatoryArgument() throws SelfFillingException {
 			assertThrows(SelfFillingException.class, () -> filter.fill(List.of()));
@@ -65,6 +65,22 @@ class SubstringFilterTest {
 		assertEquals(expected, filter.apply(data));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.SubstringFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@MethodSource(value = { "provider_testApply" })
+	void testApplyInPlace(String data, int start, Integer end, String expected) {
+		filter.setStartIndex(start);
+		if (end != null)
+			filter.setEndIndex(end);
+		StringBuilder buffer = new StringBuilder("<").append(data);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	/**
 	 * Test method for
 	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.SubstringFilter#toString()}.
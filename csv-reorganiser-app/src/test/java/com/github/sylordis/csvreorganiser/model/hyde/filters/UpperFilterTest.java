@@ -56,6 +56,19 @@ class UpperFilterTest {
 		assertEquals(expected, filter.apply(input));
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.hyde.filters.UpperFilter#applyInPlace(java.lang.StringBuilder, int)},
+	 * checking that the content before the value is kept.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = { "'',''", "abc,ABC", "Abc,ABC", "ABC,ABC", "SomEThing ELSe,SOMETHING ELSE" })
+	void testApplyInPlace(String input, String expected) {
+		StringBuilder buffer = new StringBuilder("<").append(input);
+		filter.applyInPlace(buffer, 1);
+		assertEquals("<" + expected, buffer.toString());
+	}
+
 	@DisplayName("Integration tests")
 	@Nested
 	@Tag("Integration")
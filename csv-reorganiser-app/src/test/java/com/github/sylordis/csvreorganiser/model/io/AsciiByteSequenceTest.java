@@ -0,0 +1,69 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for {@link AsciiByteSequence} class.
+ *
+ * @author sylordis
+ *
+ */
+class AsciiByteSequenceTest {
+
+	/**
+	 * Object under test, viewing "Cassaundra".
+	 */
+	private AsciiByteSequence sequence;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap("Tull,Cassaundra,Jo".getBytes(StandardCharsets.US_ASCII));
+		sequence = new AsciiByteSequence(buffer, 5, 10);
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.AsciiByteSequence#length()}.
+	 */
+	@Test
+	void testLength() {
+		assertEquals(10, sequence.length());
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.AsciiByteSequence#charAt(int)}.
+	 */
+	@Test
+	void testCharAt() {
+		assertEquals('C', sequence.charAt(0));
+		assertEquals('a', sequence.charAt(9));
+		assertThrows(StringIndexOutOfBoundsException.class, () -> sequence.charAt(10));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.AsciiByteSequence#subSequence(int, int)}.
+	 */
+	@Test
+	void testSubSequence() {
+		assertEquals("sau", sequence.subSequence(3, 6).toString());
+		assertEquals("", sequence.subSequence(10, 10).toString());
+		assertThrows(StringIndexOutOfBoundsException.class, () -> sequence.subSequence(6, 3));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.AsciiByteSequence#toString()}.
+	 */
+	@Test
+	void testToString() {
+		assertEquals("Cassaundra", sequence.toString());
+		assertEquals("Cassaundra", new StringBuilder().append(sequence).toString());
+	}
+
+}
@@ -0,0 +1,246 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test suite for {@link CSVOutputSink} class.
+ *
+ * @author sylordis
+ *
+ */
+class CSVOutputSinkTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Content written by the sink under test.
+	 */
+	private ByteArrayOutputStream out;
+	/**
+	 * Object under test.
+	 */
+	private CSVOutputSink sink;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		out = new ByteArrayOutputStream();
+		sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#CSVOutputSink(java.nio.channels.WritableByteChannel, int)}
+	 * with invalid buffer sizes.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { CSVOutputSink.MIN_BUFFER_SIZE - 1, 0, -1 })
+	void testCSVOutputSink_InvalidBufferSize(int size) {
+		assertThrows(IllegalArgumentException.class, () -> new CSVOutputSink(Channels.newChannel(out), size));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#printRecord(CharSequence...)},
+	 * which should write exactly what a {@link CSVPrinter} with the default format writes, whatever the
+	 * size of the buffer.
+	 *
+	 * @param values values of the record
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@MethodSource("provideRecords")
+	void testPrintRecord(String[] values) throws IOException {
+		final String expected = printWithCommons(values);
+		sink.printRecord(values);
+		sink.close();
+		assertEquals(expected, out.toString(StandardCharsets.UTF_8),
+		        "Record should be printed like commons-csv does: " + Arrays.toString(values));
+		ByteArrayOutputStream large = new ByteArrayOutputStream();
+		try (CSVOutputSink largeSink = new CSVOutputSink(Channels.newChannel(large),
+		        CSVOutputSink.DEFAULT_BUFFER_SIZE)) {
+			largeSink.printRecord(values);
+		}
+		assertEquals(expected, large.toString(StandardCharsets.UTF_8),
+		        "Record should be printed the same with a large buffer");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#printRecord(Iterable)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testPrintRecord_Iterable() throws IOException {
+		sink.printRecord(Arrays.asList("a", "b"));
+		sink.printRecord(Arrays.asList("", null));
+		sink.close();
+		assertEquals("a,b\r\n\"\",\r\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#printLine(String)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testPrintLine() throws IOException {
+		sink.printLine("# \"Comment\", not quoted \u00C6");
+		sink.printRecord("a");
+		sink.close();
+		assertEquals("# \"Comment\", not quoted \u00C6\r\na\r\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#append(FileChannel)}, the
+	 * content of the buffer being written before the appended file.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testAppend() throws IOException {
+		File segment = new File(workingDir, "segment.csv");
+		FileUtils.writeStringToFile(segment, "c,d\r\n", StandardCharsets.UTF_8);
+		sink.printRecord("a", "b");
+		try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+			sink.append(channel);
+		}
+		sink.printRecord("e", "f");
+		sink.close();
+		assertEquals("a,b\r\nc,d\r\ne,f\r\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#open(File, int)}, which should
+	 * truncate existing files.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testOpen() throws IOException {
+		File target = new File(workingDir, "target.csv");
+		FileUtils.writeStringToFile(target, "previous content which is longer", StandardCharsets.UTF_8);
+		try (CSVOutputSink fileSink = CSVOutputSink.open(target, CSVOutputSink.DEFAULT_BUFFER_SIZE)) {
+			fileSink.printRecord("a", "b");
+		}
+		assertEquals("a,b\r\n", FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#open(File, int)} with a file in a
+	 * directory which does not exist.
+	 */
+	@Test
+	void testOpen_Unreachable() {
+		assertThrows(FileNotFoundException.class,
+		        () -> CSVOutputSink.open(new File(workingDir, "I/do/not/exist"), CSVOutputSink.MIN_BUFFER_SIZE));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#resume(File, long, int)}, which
+	 * should truncate the file and write after the kept content.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testResume() throws IOException {
+		File target = new File(workingDir, "target.csv");
+		FileUtils.writeStringToFile(target, "a,b\r\ngarbage", StandardCharsets.UTF_8);
+		try (CSVOutputSink fileSink = CSVOutputSink.resume(target, 5, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(5, fileSink.getSize(), "Size should start at the kept length");
+			fileSink.printRecord("c", "d");
+			fileSink.sync();
+			assertEquals(10, target.length(), "Synced content should be in the file");
+		}
+		assertEquals("a,b\r\nc,d\r\n", FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> CSVOutputSink.resume(target, 11, CSVOutputSink.MIN_BUFFER_SIZE));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.CSVOutputSink#getSize()},
+	 * counting buffered, flushed and appended bytes.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testGetSize() throws IOException {
+		assertEquals(0, sink.getSize());
+		sink.printRecord("abc", "\u00C6");
+		assertEquals(8, sink.getSize(), "Buffered bytes should be counted");
+		sink.printRecord("x".repeat(100));
+		File segment = new File(workingDir, "segment.csv");
+		FileUtils.writeStringToFile(segment, "c,d\r\n", StandardCharsets.UTF_8);
+		try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+			sink.append(channel);
+		}
+		sink.close();
+		assertEquals(out.size(), sink.getSize(), "All written bytes should be counted");
+	}
+
+	/**
+	 * Prints a record with commons-csv, then encodes it to UTF-8 as a file writer would, replacing
+	 * unpaired surrogates.
+	 *
+	 * @param values values of the record
+	 * @return the printed record, as read back from UTF-8
+	 * @throws IOException
+	 */
+	private static String printWithCommons(String[] values) throws IOException {
+		StringWriter writer = new StringWriter();
+		try (CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+			printer.printRecord((Object[]) values);
+		}
+		return new String(writer.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Provides records whose values need various kinds of quoting.
+	 *
+	 * @return a stream of records
+	 */
+	private static Stream<Arguments> provideRecords() {
+		final String large = "x".repeat(100);
+		return Stream.of(Arguments.of((Object) new String[] { "a", "b", "c" }),
+		        Arguments.of((Object) new String[] { "" }), Arguments.of((Object) new String[] { "", "" }),
+		        Arguments.of((Object) new String[] { "a", "", "b" }), Arguments.of((Object) new String[] { null }),
+		        Arguments.of((Object) new String[] { null, "a", null }),
+		        Arguments.of((Object) new String[] { "#a", "!a", " a", "\ta", "$a", "a#" }),
+		        Arguments.of((Object) new String[] { "a ", "a\t", "a b" }),
+		        Arguments.of((Object) new String[] { "a,b", "a\"b", "\"", "a\nb", "a\rb", "a\r\nb" }),
+		        Arguments.of((Object) new String[] { "\u00C6", "caf\u00E9", "\u20AC 5", "\u00E9\"" }),
+		        Arguments.of((Object) new String[] { "\uD83D\uDE00", "a\uD83D\uDE00b" }),
+		        Arguments.of((Object) new String[] { "x\uD83D", "\uDE00x", "a\uDE00\uD83Db" }),
+		        Arguments.of((Object) new String[] { large, large + ",", large + " ", "#" + large }),
+		        Arguments.of((Object) new String[] { "\"".repeat(40), "\u00C6".repeat(40), "\u20AC".repeat(40) }),
+		        Arguments.of((Object) new String[] { "\uD83D\uDE00".repeat(40), large + "\"" + large }));
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test suite for {@link FragmentCache} class.
+ *
+ * @author sylordis
+ *
+ */
+class FragmentCacheTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private FragmentCache cache;
+	/**
+	 * Directory of the cache.
+	 */
+	private File cacheDir;
+	/**
+	 * Source file.
+	 */
+	private File srcFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cacheDir = new File(workingDir, "cache");
+		cache = new FragmentCache(cacheDir, FragmentCache.DEFAULT_MAX_SIZE);
+		srcFile = new File(workingDir, "source.csv");
+		FileUtils.writeStringToFile(srcFile, "A,B\n1,2\n", StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a segment holding some records.
+	 *
+	 * @param records records, one value each
+	 * @return the segment
+	 * @throws IOException
+	 */
+	private SegmentFile segmentWith(String... records) throws IOException {
+		SegmentFile segment = new SegmentFile(workingDir);
+		try (CSVOutputSink sink = segment.openSink(CSVOutputSink.MIN_BUFFER_SIZE)) {
+			for (String record : records)
+				sink.printRecord(record);
+		}
+		return segment;
+	}
+
+	/**
+	 * Appends a fragment to a new target and reads the target.
+	 *
+	 * @param key key of the fragment
+	 * @return the content of the target
+	 * @throws IOException
+	 */
+	private String readFragment(String key) throws IOException {
+		File target = new File(workingDir, "target.csv");
+		try (CSVOutputSink sink = CSVOutputSink.open(target, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			cache.appendTo(key, sink);
+		}
+		return FileUtils.readFileToString(target, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#FragmentCache(File, long)}.
+	 */
+	@Test
+	void testFragmentCache() {
+		assertTrue(cacheDir.isDirectory(), "Cache directory should be created");
+		assertEquals(cacheDir, cache.getDirectory());
+		assertEquals(FragmentCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#FragmentCache(File, long)} with an
+	 * invalid size.
+	 */
+	@Test
+	void testFragmentCache_InvalidSize() {
+		assertThrows(IllegalArgumentException.class, () -> new FragmentCache(cacheDir, 0));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#key(File, String)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testKey() throws IOException {
+		final String key = cache.key(srcFile, "config");
+		assertEquals(key, cache.key(srcFile, "config"), "Key should be stable");
+		assertNotEquals(key, cache.key(srcFile, "other"), "Key should depend on the configuration");
+		FileUtils.writeStringToFile(srcFile, "A,B\n1,3\n", StandardCharsets.UTF_8);
+		assertNotEquals(key, cache.key(srcFile, "config"), "Key should depend on the content");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#put(String, SegmentFile, long)}
+	 * and {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#appendTo(String, CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testPutAndAppendTo() throws IOException {
+		final String key = cache.key(srcFile, "config");
+		try (SegmentFile segment = segmentWith("a", "b")) {
+			cache.put(key, segment, 2);
+		}
+		File target = new File(workingDir, "target.csv");
+		try (CSVOutputSink sink = CSVOutputSink.open(target, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			sink.printRecord("start");
+			assertEquals(2, cache.appendTo(key, sink), "Number of records should be restored");
+			assertEquals("start\r\na\r\nb\r\n".length(), sink.getSize(), "Written size should include the fragment");
+		}
+		assertEquals("start\r\na\r\nb\r\n", FileUtils.readFileToString(target, StandardCharsets.UTF_8),
+		        "Fragment should be appended without its header");
+		File[] leftovers = cacheDir.listFiles((dir, name) -> !name.endsWith(FragmentCache.SUFFIX));
+		assertEquals(0, leftovers.length, "No temporary file should be left");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#appendTo(String, CSVOutputSink)}
+	 * when the fragment is not cached.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testAppendTo_NotCached() throws IOException {
+		File target = new File(workingDir, "target.csv");
+		try (CSVOutputSink sink = CSVOutputSink.open(target, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(FragmentCache.NOT_CACHED, cache.appendTo(cache.key(srcFile, "config"), sink));
+		}
+		assertEquals(0, target.length(), "Nothing should be appended");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#appendTo(String, CSVOutputSink)}
+	 * when the fragment is truncated.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testAppendTo_Truncated() throws IOException {
+		final String key = cache.key(srcFile, "config");
+		FileUtils.writeByteArrayToFile(new File(cacheDir, key + FragmentCache.SUFFIX), new byte[] { 0, 0 });
+		assertEquals("", readFragment(key), "Truncated fragment should not be appended");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.FragmentCache#put(String, SegmentFile, long)}
+	 * when the cache exceeds its maximum size.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testPut_Evicts() throws IOException {
+		// Each fragment: 8 bytes of header and 3 of record
+		cache = new FragmentCache(cacheDir, 25);
+		try (SegmentFile segment = segmentWith("a")) {
+			cache.put("first", segment, 1);
+			cache.put("second", segment, 1);
+		}
+		File first = new File(cacheDir, "first" + FragmentCache.SUFFIX);
+		File second = new File(cacheDir, "second" + FragmentCache.SUFFIX);
+		first.setLastModified(1_000_000L);
+		second.setLastModified(2_000_000L);
+		// Using the first one makes the second one the least recently used
+		assertEquals("a\r\n", readFragment("first"));
+		try (SegmentFile segment = segmentWith("b")) {
+			cache.put("third", segment, 1);
+		}
+		assertTrue(first.exists(), "Recently used fragment should be kept");
+		assertFalse(second.exists(), "Least recently used fragment should be evicted");
+		assertTrue(new File(cacheDir, "third" + FragmentCache.SUFFIX).exists(), "New fragment should be kept");
+	}
+
+}
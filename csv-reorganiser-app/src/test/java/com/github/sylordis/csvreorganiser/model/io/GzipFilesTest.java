@@ -0,0 +1,106 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test suite for {@link GzipFiles} class.
+ *
+ * @author sylordis
+ *
+ */
+class GzipFilesTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.GzipFiles#isGzip(java.io.File)}.
+	 */
+	@Test
+	void testIsGzip() {
+		assertTrue(GzipFiles.isGzip(new File("source.csv.gz")));
+		assertTrue(GzipFiles.isGzip(new File("SOURCE.CSV.GZ")));
+		assertFalse(GzipFiles.isGzip(new File("source.csv")));
+		assertFalse(GzipFiles.isGzip(new File("gz")));
+		assertFalse(GzipFiles.isGzip(new File("source.gz.csv")));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.GzipFiles#newInputStream(java.io.File)} with a
+	 * compressed file made of several members.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testNewInputStream_Gzip() throws IOException {
+		File file = new File(workingDir, "source.csv.gz");
+		try (OutputStream output = new FileOutputStream(file)) {
+			for (String member : new String[] { "a,b\n", "c,d\n" }) {
+				GZIPOutputStream gzip = new GZIPOutputStream(output);
+				gzip.write(member.getBytes(StandardCharsets.UTF_8));
+				gzip.finish();
+			}
+		}
+		try (InputStream input = GzipFiles.newInputStream(file)) {
+			assertEquals("a,b\nc,d\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.GzipFiles#newInputStream(java.io.File)} with a
+	 * plain file.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testNewInputStream_Plain() throws IOException {
+		File file = new File(workingDir, "source.csv");
+		FileUtils.writeStringToFile(file, "a,b\n", StandardCharsets.UTF_8);
+		try (InputStream input = GzipFiles.newInputStream(file)) {
+			assertEquals("a,b\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.GzipFiles#openSink(java.io.File, int, int)},
+	 * which should compress files with the gzip suffix only.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testOpenSink() throws IOException {
+		File compressed = new File(workingDir, "target.csv.gz");
+		try (CSVOutputSink sink = GzipFiles.openSink(compressed, CSVOutputSink.MIN_BUFFER_SIZE, 2)) {
+			sink.printRecord("a", "b");
+		}
+		try (InputStream input = new GZIPInputStream(new FileInputStream(compressed))) {
+			assertEquals("a,b\r\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		File plain = new File(workingDir, "target.csv");
+		try (CSVOutputSink sink = GzipFiles.openSink(plain, CSVOutputSink.MIN_BUFFER_SIZE, 2)) {
+			sink.printRecord("a", "b");
+		}
+		assertEquals("a,b\r\n", FileUtils.readFileToString(plain, StandardCharsets.UTF_8));
+	}
+
+}
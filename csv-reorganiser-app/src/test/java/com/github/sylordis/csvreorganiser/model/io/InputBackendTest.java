@@ -0,0 +1,54 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Test suite for {@link InputBackend} enum.
+ *
+ * @author sylordis
+ *
+ */
+class InputBackendTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.InputBackend#fromId(java.lang.String)}.
+	 */
+	@Test
+	void testFromId() {
+		assertEquals(InputBackend.MAPPED, InputBackend.fromId("mapped"));
+		assertEquals(InputBackend.COMMONS, InputBackend.fromId("COMMONS"));
+		assertNull(InputBackend.fromId("teleport"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.InputBackend#open(java.io.File, java.nio.charset.Charset)}.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@EnumSource(InputBackend.class)
+	void testOpen(InputBackend backend) throws IOException {
+		File file = new File(workingDir, "src.csv");
+		FileUtils.writeStringToFile(file, "a,b\n1,2\n3,4\n", StandardCharsets.UTF_8);
+		assertEquals(List.of(List.of("1", "2"), List.of("3", "4")),
+		        MappedRecordReaderTest.readAll(backend.open(file, StandardCharsets.UTF_8)));
+	}
+
+}
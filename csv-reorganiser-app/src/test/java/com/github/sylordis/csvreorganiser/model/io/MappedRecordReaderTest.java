@@ -0,0 +1,242 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link MappedRecordReader} class.
+ *
+ * @author sylordis
+ *
+ */
+class MappedRecordReaderTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Source content covering quoting and line terminator cases.
+	 */
+	private static final String TRICKY_CONTENT = "id,name,comment\r\n1,Tull,\"plain\"\r\n\r\n2,\"Cass, aundra\",\"say \"\"hi\"\"\"\n"
+	        + "3,\u00C6sa,\"multi\r\nline\"\r4,,trailing,\n5,\"\",  \"quoted\"  \n6,a\"b,end";
+
+	/**
+	 * Writes a source file for the tests.
+	 *
+	 * @param content content of the file
+	 * @return the file
+	 * @throws IOException
+	 */
+	private File write(String content) throws IOException {
+		File file = new File(workingDir, "src.csv");
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	/**
+	 * Reads all records of a reader as lists of values.
+	 *
+	 * @param reader reader to consume
+	 * @return the values of each record
+	 * @throws IOException
+	 */
+	static List<List<String>> readAll(SourceRecordReader reader) throws IOException {
+		List<List<String>> records = new ArrayList<>();
+		try (reader) {
+			for (SourceRecord record : reader) {
+				List<String> values = new ArrayList<>();
+				for (int i = 0; i < record.size(); i++)
+					values.add(record.get(i));
+				records.add(values);
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()},
+	 * compared to commons-csv with different window sizes.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = { 40, 64, 1000, MappedRecordReader.DEFAULT_WINDOW_SIZE })
+	void testIterator_SameAsCommons(long windowSize) throws IOException {
+		File file = write(TRICKY_CONTENT);
+		List<List<String>> expected = readAll(new CommonsRecordReader(file, StandardCharsets.UTF_8));
+		assertEquals(expected, readAll(new MappedRecordReader(file, StandardCharsets.UTF_8, windowSize, null)));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * on the performance test data, compared to commons-csv.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "test_data_100.csv", "test_data_1k.csv", "test_data_10k.csv" })
+	void testIterator_PerformanceData(String name) throws IOException {
+		File file = new File(getClass().getResource("/performance/" + name).getFile());
+		List<List<String>> expected = readAll(new CommonsRecordReader(file, StandardCharsets.UTF_8));
+		assertEquals(expected, readAll(new MappedRecordReader(file, StandardCharsets.UTF_8, 4096, null)));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#getHeader()}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testGetHeader() throws IOException {
+		try (MappedRecordReader reader = new MappedRecordReader(write("\n\na,b,c\n1,2,3\n"), StandardCharsets.UTF_8)) {
+			assertEquals(Map.of("a", 0, "b", 1, "c", 2), reader.getHeader().getIndexes());
+			assertEquals("2", reader.iterator().next().get("b"));
+		}
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * with an empty file.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_Empty() throws IOException {
+		try (MappedRecordReader reader = new MappedRecordReader(write(""), StandardCharsets.UTF_8)) {
+			assertEquals(Map.of(), reader.getHeader().getIndexes());
+			assertFalse(reader.iterator().hasNext());
+		}
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * with a quoted value which is never closed.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_UnterminatedQuote() throws IOException {
+		try (MappedRecordReader reader = new MappedRecordReader(write("a,b\n1,\"never closed\n"),
+		        StandardCharsets.UTF_8)) {
+			assertThrows(UncheckedIOException.class, () -> reader.iterator().next());
+		}
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * with a record larger than the window.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_RecordLargerThanWindow() throws IOException {
+		try (MappedRecordReader reader = new MappedRecordReader(write("a,b\n1," + "x".repeat(100) + "\n"),
+		        StandardCharsets.UTF_8, 16, null)) {
+			assertThrows(UncheckedIOException.class, () -> reader.iterator().next());
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#MappedRecordReader(File, java.nio.charset.Charset, long, java.util.Set)}
+	 * with invalid window sizes.
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = { 0, -1, Integer.MAX_VALUE + 1L })
+	void testMappedRecordReader_InvalidWindow(long windowSize) {
+		assertThrows(IllegalArgumentException.class,
+		        () -> new MappedRecordReader(write("a"), StandardCharsets.UTF_8, windowSize, null));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * keeping detached records after the reader moved on, including across windows.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_Detach() throws IOException {
+		File file = write(TRICKY_CONTENT);
+		List<List<String>> expected = readAll(new CommonsRecordReader(file, StandardCharsets.UTF_8));
+		List<SourceRecord> detached = new ArrayList<>();
+		try (MappedRecordReader reader = new MappedRecordReader(file, StandardCharsets.UTF_8, 40, null)) {
+			for (SourceRecord record : reader)
+				detached.add(record.detach());
+		}
+		List<List<String>> records = new ArrayList<>();
+		for (SourceRecord record : detached) {
+			List<String> values = new ArrayList<>();
+			for (int i = 0; i < record.size(); i++)
+				values.add(record.getView(i).toString());
+			records.add(values);
+		}
+		assertEquals(expected, records);
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * with a projection, only the columns up to the last projected one being read.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = { 40, 1000 })
+	void testIterator_Projection(long windowSize) throws IOException {
+		File file = write(TRICKY_CONTENT);
+		List<List<String>> expected = readAll(new CommonsRecordReader(file, StandardCharsets.UTF_8)).stream()
+		        .map(values -> values.subList(0, Math.min(2, values.size()))).toList();
+		assertEquals(expected,
+		        readAll(new MappedRecordReader(file, StandardCharsets.UTF_8, windowSize, Set.of("name"))));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * when accessing a column skipped by the projection.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_ProjectionSkippedColumn() throws IOException {
+		try (MappedRecordReader reader = new MappedRecordReader(write(TRICKY_CONTENT), StandardCharsets.UTF_8,
+		        MappedRecordReader.DEFAULT_WINDOW_SIZE, Set.of("id"))) {
+			SourceRecord record = reader.iterator().next();
+			assertEquals("1", record.get("id"));
+			assertThrows(IllegalStateException.class, () -> record.get("comment"));
+		}
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.MappedRecordReader#iterator()}
+	 * with a projection of unknown columns, at least the first column being read so that no record is
+	 * lost.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testIterator_ProjectionUnknownColumns() throws IOException {
+		File file = write(TRICKY_CONTENT);
+		List<List<String>> records = readAll(
+		        new MappedRecordReader(file, StandardCharsets.UTF_8, 1000, Set.of("unknown")));
+		assertEquals(List.of(List.of("1"), List.of("2"), List.of("3"), List.of("4"), List.of("5"), List.of("6")),
+		        records);
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link MappedSourceRecord} class.
+ *
+ * @author sylordis
+ *
+ */
+class MappedSourceRecordTest {
+
+	/**
+	 * Content of the buffer, the record being <code>Tull,say "hi",&AElig;sa</code>.
+	 */
+	private static final String CONTENT = "Tull,\"say \"\"hi\"\"\",\u00C6sa";
+
+	/**
+	 * Object under test.
+	 */
+	private MappedSourceRecord record;
+	/**
+	 * Backing buffer.
+	 */
+	private ByteBuffer buffer;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		buffer = ByteBuffer.wrap(CONTENT.getBytes(StandardCharsets.UTF_8));
+		record = new MappedSourceRecord(Map.of("name", 0, "quote", 1, "other", 2, "missing", 3),
+		        StandardCharsets.UTF_8);
+		record.reset(buffer);
+		record.add(0, 4, false);
+		record.add(6, 16, true);
+		record.add(18, 22, false);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.MappedSourceRecord#get(java.lang.String)}.
+	 */
+	@Test
+	void testGetString() {
+		assertEquals("Tull", record.get("name"));
+		assertEquals("say \"hi\"", record.get("quote"));
+		assertEquals("\u00C6sa", record.get("other"));
+		assertThrows(IllegalArgumentException.class, () -> record.get("missing"), "Record too short");
+		assertThrows(IllegalArgumentException.class, () -> record.get("unknown"), "Unknown column");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.MappedSourceRecord#getView(int)}.
+	 */
+	@Test
+	void testGetView() {
+		assertThat("ASCII values should be viewed in place", record.getView(0), instanceOf(AsciiByteSequence.class));
+		assertEquals("Tull", record.getView(0).toString());
+		assertEquals("say \"hi\"", record.getView(1).toString());
+		assertEquals("\u00C6sa", record.getView(2).toString());
+		record.setRecordNumber(5);
+		assertEquals("Index for header 'missing' is 3 but record 5 only has 3 values!",
+		        assertThrows(IllegalArgumentException.class, () -> record.getView(3)).getMessage(), "Record too short");
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> record.getView(-1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.MappedSourceRecord#reset(java.nio.ByteBuffer)}.
+	 */
+	@Test
+	void testReset() {
+		assertEquals("Tull", record.get(0));
+		record.reset(buffer);
+		assertEquals(0, record.size());
+		record.add(6, 9, false);
+		assertEquals("say", record.get(0), "Cached values should be cleared");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.MappedSourceRecord#detach()}.
+	 */
+	@Test
+	void testDetach() {
+		SourceRecord copy = record.detach();
+		assertNotSame(record, copy);
+		record.reset(buffer);
+		record.add(0, 1, false);
+		assertEquals(3, copy.size());
+		assertEquals("say \"hi\"", copy.get(1));
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test suite for {@link ParallelGzipChannel} class.
+ *
+ * @author sylordis
+ *
+ */
+class ParallelGzipChannelTest {
+
+	/**
+	 * Compressed content written by the channel.
+	 */
+	private ByteArrayOutputStream out;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		out = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.ParallelGzipChannel#write(java.nio.ByteBuffer)}
+	 * with various numbers of threads and block sizes, the content spreading over many members
+	 * including a partial last one.
+	 *
+	 * @param threads   number of compression threads
+	 * @param blockSize size of the blocks
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@CsvSource({ "1,1024", "4,1024", "3,1", "2,100000", "4,7" })
+	void testWrite(int threads, int blockSize) throws IOException {
+		byte[] content = createContent(10_000);
+		try (ParallelGzipChannel channel = new ParallelGzipChannel(Channels.newChannel(out), threads, blockSize)) {
+			// Writes of several sizes, across block boundaries
+			int position = 0;
+			int length = 1;
+			while (position < content.length) {
+				int size = Math.min(length, content.length - position);
+				assertEquals(size, channel.write(ByteBuffer.wrap(content, position, size)));
+				position += size;
+				length = length * 3 % 4093 + 1;
+			}
+		}
+		assertArrayEquals(content, decompress(out.toByteArray()), "Content should be the same once decompressed");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.ParallelGzipChannel#close()} without any
+	 * content, which should still produce a valid gzip file.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testClose_Empty() throws IOException {
+		ParallelGzipChannel channel = new ParallelGzipChannel(Channels.newChannel(out), 2, 16);
+		channel.close();
+		assertFalse(channel.isOpen(), "Channel should be closed");
+		assertArrayEquals(new byte[0], decompress(out.toByteArray()), "Empty content should be a valid gzip file");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.ParallelGzipChannel#write(java.nio.ByteBuffer)}
+	 * on a closed channel.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testWrite_Closed() throws IOException {
+		ParallelGzipChannel channel = new ParallelGzipChannel(Channels.newChannel(out), 1, 16);
+		channel.close();
+		assertThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.wrap(new byte[1])));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.ParallelGzipChannel#ParallelGzipChannel(java.nio.channels.WritableByteChannel, int, int)}
+	 * with invalid parameters.
+	 */
+	@Test
+	void testParallelGzipChannel_Invalid() {
+		assertThrows(IllegalArgumentException.class, () -> new ParallelGzipChannel(Channels.newChannel(out), 0, 16));
+		assertThrows(IllegalArgumentException.class, () -> new ParallelGzipChannel(Channels.newChannel(out), 1, 0));
+	}
+
+	/**
+	 * Creates content mixing compressible text and random bytes.
+	 *
+	 * @param size size of the content
+	 * @return the content
+	 */
+	private static byte[] createContent(int size) {
+		byte[] content = new byte[size];
+		Random random = new Random(42);
+		for (int i = 0; i < size; i++)
+			content[i] = i % 1000 < 500 ? (byte) ('a' + i % 26) : (byte) random.nextInt();
+		return content;
+	}
+
+	/**
+	 * Decompresses all members of gzip content.
+	 *
+	 * @param compressed gzip content
+	 * @return the decompressed content
+	 * @throws IOException
+	 */
+	private static byte[] decompress(byte[] compressed) throws IOException {
+		try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			return input.readAllBytes();
+		}
+	}
+
+}
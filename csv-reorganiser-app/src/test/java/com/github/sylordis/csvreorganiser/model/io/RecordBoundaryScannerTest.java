@@ -0,0 +1,108 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test suite for {@link RecordBoundaryScanner} class.
+ *
+ * @author sylordis
+ *
+ */
+class RecordBoundaryScannerTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Writes a source file for the tests.
+	 *
+	 * @param content content of the file
+	 * @return the file
+	 * @throws IOException
+	 */
+	private File write(String content) throws IOException {
+		File file = new File(workingDir, "src.csv");
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner#RecordBoundaryScanner(long)}.
+	 */
+	@Test
+	void testRecordBoundaryScanner_InvalidSize() {
+		assertThrows(IllegalArgumentException.class, () -> new RecordBoundaryScanner(0));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner#scan(java.io.File)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testScan() throws IOException {
+		// Header is 4 bytes, records are 3 bytes each
+		File file = write("h,h\na,b\nc,d\ne,f\ng,h\n");
+		RecordBoundaryScanner scanner = new RecordBoundaryScanner(5);
+		RecordBoundaryScanner.Scan scan = scanner.scan(file);
+		assertEquals(4, scan.headerEnd());
+		assertEquals(List.of(new FileChunk(4, 12), new FileChunk(12, 20)), scan.chunks());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner#scan(java.io.File)} with
+	 * line breaks inside quoted values.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testScan_QuotedLineBreaks() throws IOException {
+		File file = write("h\n\"a\nb\"\n\"\"\"c\n\"\"\"\nd\n");
+		RecordBoundaryScanner scanner = new RecordBoundaryScanner(1);
+		assertEquals(List.of(new FileChunk(2, 8), new FileChunk(8, 17), new FileChunk(17, 19)),
+		        scanner.scan(file).chunks());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner#scan(java.io.File)} with
+	 * CRLF line terminators and no final terminator.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testScan_CRLF() throws IOException {
+		File file = write("h\r\na\r\nb");
+		RecordBoundaryScanner scanner = new RecordBoundaryScanner(1);
+		assertEquals(new RecordBoundaryScanner.Scan(3, List.of(new FileChunk(3, 6), new FileChunk(6, 7))),
+		        scanner.scan(file));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.RecordBoundaryScanner#scan(java.io.File)} with
+	 * only a header.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testScan_HeaderOnly() throws IOException {
+		RecordBoundaryScanner scanner = new RecordBoundaryScanner(10);
+		assertEquals(new RecordBoundaryScanner.Scan(4, List.of()), scanner.scan(write("h,i\n")));
+		assertEquals(new RecordBoundaryScanner.Scan(3, List.of()), scanner.scan(write("h,i")));
+	}
+
+}
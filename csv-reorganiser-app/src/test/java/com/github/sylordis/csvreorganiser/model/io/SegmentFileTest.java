@@ -0,0 +1,76 @@
+package com.github.sylordis.csvreorganiser.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test suite for {@link SegmentFile} class.
+ *
+ * @author sylordis
+ *
+ */
+class SegmentFileTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private SegmentFile segment;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		segment = new SegmentFile(workingDir);
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.SegmentFile#SegmentFile(File)}.
+	 */
+	@Test
+	void testSegmentFile() {
+		assertTrue(segment.getFile().exists(), "Segment file should be created");
+		assertEquals(workingDir, segment.getFile().getParentFile(), "Segment should be created in given directory");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.io.SegmentFile#appendTo(CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testAppendTo() throws IOException {
+		try (CSVOutputSink sink = segment.openSink(CSVOutputSink.MIN_BUFFER_SIZE)) {
+			sink.printRecord("a", "b", "c");
+			sink.printRecord("d", "e", "f");
+		}
+		File target = new File(workingDir, "target.csv");
+		try (CSVOutputSink out = CSVOutputSink.open(target, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			out.printLine("start");
+			segment.appendTo(out);
+			out.printRecord("end");
+		}
+		assertEquals("start\r\na,b,c\r\nd,e,f\r\nend\r\n", FileUtils.readFileToString(target, StandardCharsets.UTF_8),
+		        "Content should be appended to the output");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.io.SegmentFile#close()}.
+	 */
+	@Test
+	void testClose() {
+		segment.close();
+		assertFalse(segment.getFile().exists(), "Segment file should be deleted once closed");
+	}
+
+}
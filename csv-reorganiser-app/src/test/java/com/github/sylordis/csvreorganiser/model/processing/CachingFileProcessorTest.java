@@ -0,0 +1,103 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FragmentCache;
+
+/**
+ * Test suite for {@link CachingFileProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class CachingFileProcessorTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private CachingFileProcessor processor;
+	/**
+	 * Number of files transformed by the underlying processor.
+	 */
+	private AtomicInteger transformed;
+	/**
+	 * Source file.
+	 */
+	private File srcFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		transformed = new AtomicInteger();
+		SourceFileProcessor copy = (file, sink) -> {
+			transformed.incrementAndGet();
+			long count = 0;
+			for (String line : FileUtils.readLines(file, StandardCharsets.UTF_8)) {
+				sink.printRecord(line);
+				count++;
+			}
+			return count;
+		};
+		processor = new CachingFileProcessor(new FragmentCache(new File(workingDir, "cache"), FragmentCache.DEFAULT_MAX_SIZE),
+		        "config", copy, CSVOutputSink.MIN_BUFFER_SIZE, workingDir);
+		srcFile = new File(workingDir, "source.csv");
+		FileUtils.writeStringToFile(srcFile, "a\nb\nc\n", StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Processes the source file into a new target.
+	 *
+	 * @param name name of the target
+	 * @return the content of the target
+	 * @throws IOException
+	 */
+	private String processInto(String name) throws IOException {
+		File target = new File(workingDir, name);
+		try (CSVOutputSink sink = CSVOutputSink.open(target, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(3, processor.process(srcFile, sink), "All records should be counted");
+		}
+		return FileUtils.readFileToString(target, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CachingFileProcessor#process(File, CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess() throws IOException {
+		assertEquals("a\r\nb\r\nc\r\n", processInto("first.csv"));
+		assertEquals(1, transformed.get(), "First run should transform the file");
+		assertEquals("a\r\nb\r\nc\r\n", processInto("second.csv"));
+		assertEquals(1, transformed.get(), "Second run should use the cached fragment");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CachingFileProcessor#process(File, CSVOutputSink)}
+	 * when the source changes between runs.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_SourceChanged() throws IOException {
+		processInto("first.csv");
+		FileUtils.writeStringToFile(srcFile, "d\ne\nf\n", StandardCharsets.UTF_8);
+		assertEquals("d\r\ne\r\nf\r\n", processInto("second.csv"));
+		assertEquals(2, transformed.get(), "Changed file should be transformed again");
+	}
+
+}
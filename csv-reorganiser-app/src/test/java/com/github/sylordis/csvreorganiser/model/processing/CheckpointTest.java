@@ -0,0 +1,125 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.processing.Checkpoint.Origin;
+import com.github.sylordis.csvreorganiser.model.processing.Checkpoint.SourceStamp;
+
+/**
+ * Test suite for {@link Checkpoint} class.
+ *
+ * @author sylordis
+ *
+ */
+class CheckpointTest {
+
+	@TempDir
+	File workingDir;
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.Checkpoint#sidecarOf(java.io.File)}.
+	 */
+	@Test
+	void testSidecarOf() {
+		assertEquals(new File(workingDir, "target.csv.checkpoint"),
+		        Checkpoint.sidecarOf(new File(workingDir, "target.csv")));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.Checkpoint#save(java.io.File)} and
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.Checkpoint#load(java.io.File)}, saving
+	 * over a previous checkpoint.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testSaveLoad() throws IOException {
+		File sidecar = new File(workingDir, "target.csv.checkpoint");
+		new Checkpoint(0, 10, 2, 100, 64, new Origin(List.of(), null)).save(sidecar);
+		Checkpoint checkpoint = new Checkpoint(2, 123_456_789_012L, 42, 5_000_000_000L, 1024,
+		        new Origin(List.of(new SourceStamp("/data/a.csv", 10, 1000), new SourceStamp("/data/b=c.csv", 20, 2000),
+		                new SourceStamp("/data/d.csv", 30, 3000)), "abcdef0123"));
+		checkpoint.save(sidecar);
+		assertEquals(checkpoint, Checkpoint.load(sidecar), "Checkpoint should be the last one saved");
+		assertEquals(1, workingDir.listFiles().length, "No temporary file should be left");
+		checkpoint = new Checkpoint(1, 0, 0, 10, 64, new Origin(List.of(new SourceStamp("/data/a.csv", 10, 1000)), null));
+		checkpoint.save(sidecar);
+		assertEquals(checkpoint, Checkpoint.load(sidecar), "Checkpoint without configuration should be loaded");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.Checkpoint#checkResumable(Origin)},
+	 * only sources not read yet being allowed to change.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testCheckResumable() throws IOException {
+		File a = new File(workingDir, "a.csv");
+		File b = new File(workingDir, "b.csv");
+		File c = new File(workingDir, "c.csv");
+		for (File file : List.of(a, b, c))
+			FileUtils.writeStringToFile(file, "Value\n1\n", StandardCharsets.UTF_8);
+		final Origin origin = Origin.of(List.of(a, b, c), "cfg");
+		final Checkpoint checkpoint = new Checkpoint(1, 3, 1, 20, 64, origin);
+		checkpoint.checkResumable(Origin.of(List.of(a, b, c), "cfg"));
+		assertThrows(IllegalArgumentException.class, () -> checkpoint.checkResumable(Origin.of(List.of(a, b), "cfg")),
+		        "Fewer sources should be refused");
+		assertThrows(IllegalArgumentException.class,
+		        () -> checkpoint.checkResumable(Origin.of(List.of(a, c, b), "cfg")), "Other order should be refused");
+		assertThrows(IllegalArgumentException.class,
+		        () -> checkpoint.checkResumable(Origin.of(List.of(a, b, c), "other")),
+		        "Other configuration should be refused");
+		assertThrows(IllegalArgumentException.class,
+		        () -> checkpoint.checkResumable(Origin.of(List.of(a, b, c), null)), "Unknown configuration should be refused");
+		// Source not read yet
+		FileUtils.writeStringToFile(c, "Value\n1\n2\n", StandardCharsets.UTF_8);
+		checkpoint.checkResumable(Origin.of(List.of(a, b, c), "cfg"));
+		// Source being read, same length but modified later
+		assertTrue(b.setLastModified(b.lastModified() + 10_000));
+		assertThrows(IllegalArgumentException.class, () -> checkpoint.checkResumable(Origin.of(List.of(a, b, c), "cfg")),
+		        "Modified source should be refused");
+		// Source read, other length
+		assertTrue(b.setLastModified(origin.sources().get(1).lastModified()));
+		FileUtils.writeStringToFile(a, "Value\n2\n", StandardCharsets.UTF_8, true);
+		assertThrows(IllegalArgumentException.class, () -> checkpoint.checkResumable(Origin.of(List.of(a, b, c), "cfg")),
+		        "Source with another length should be refused");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.Checkpoint#load(java.io.File)} with
+	 * invalid content.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testLoad_Invalid() throws IOException {
+		File sidecar = new File(workingDir, "target.csv.checkpoint");
+		FileUtils.writeStringToFile(sidecar, "sourceIndex=1\noffset=abc\n", StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> Checkpoint.load(sidecar));
+		FileUtils.writeStringToFile(sidecar, "sourceIndex=1\n", StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> Checkpoint.load(sidecar));
+		FileUtils.writeStringToFile(sidecar, "sourceIndex=-1\noffset=0\nrecords=0\ntargetLength=0\nchunkSize=1\n",
+		        StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> Checkpoint.load(sidecar));
+		assertFalse(new File(workingDir, "missing").exists());
+		assertThrows(IOException.class, () -> Checkpoint.load(new File(workingDir, "missing")));
+	}
+
+}
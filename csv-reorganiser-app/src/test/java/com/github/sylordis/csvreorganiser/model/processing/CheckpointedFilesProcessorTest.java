@@ -0,0 +1,198 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.CommonsRecordReader;
+import com.github.sylordis.csvreorganiser.model.io.SourceRecordReader;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link CheckpointedFilesProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class CheckpointedFilesProcessorTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Source files.
+	 */
+	private List<File> srcFiles;
+	/**
+	 * Target file.
+	 */
+	private File targetFile;
+	/**
+	 * Sidecar of the target.
+	 */
+	private File sidecar;
+	/**
+	 * Value of the first column of the record on which processing fails, null to never fail.
+	 */
+	private String failOn;
+	/**
+	 * Processor copying the first column of each record, failing on {@link #failOn}.
+	 */
+	private final Function<SourceHeader, RecordsProcessor> copy = header -> (records, sink) -> {
+		long count = 0;
+		for (SourceRecord record : records) {
+			if (record.get(0).equals(failOn))
+				throw new IllegalStateException("Crash");
+			sink.printRecord(record.get(0));
+			count++;
+		}
+		return count;
+	};
+
+	@BeforeEach
+	void setUp() throws Exception {
+		File plain = new File(workingDir, "a.csv");
+		File other = new File(workingDir, "b.csv");
+		StringBuilder content = new StringBuilder("Value\n");
+		for (int i = 0; i < 50; i++)
+			content.append("a").append(i).append('\n');
+		FileUtils.writeStringToFile(plain, content.toString(), StandardCharsets.UTF_8);
+		content = new StringBuilder("Value\n");
+		for (int i = 0; i < 50; i++)
+			content.append("b").append(i).append('\n');
+		FileUtils.writeStringToFile(other, content.toString(), StandardCharsets.UTF_8);
+		srcFiles = List.of(plain, other);
+		targetFile = new File(workingDir, "target.csv");
+		sidecar = Checkpoint.sidecarOf(targetFile);
+	}
+
+	/**
+	 * Creates a processor with small chunks.
+	 *
+	 * @return a new processor
+	 */
+	private CheckpointedFilesProcessor createProcessor() {
+		return createProcessor("cfg");
+	}
+
+	/**
+	 * Creates a processor with small chunks.
+	 *
+	 * @param configuration SHA-256 of the configuration
+	 * @return a new processor
+	 */
+	private CheckpointedFilesProcessor createProcessor(String configuration) {
+		return new CheckpointedFilesProcessor(
+		        new ChunkedFileProcessor(2, 40, true, copy, CSVOutputSink.MIN_BUFFER_SIZE, workingDir),
+		        (srcFile, sink) -> {
+			        try (SourceRecordReader reader = new CommonsRecordReader(srcFile, StandardCharsets.UTF_8)) {
+				        return copy.apply(reader.getHeader()).process(reader, sink);
+			        }
+		        }, sidecar, configuration);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CheckpointedFilesProcessor#process(List, CSVOutputSink, Checkpoint)}
+	 * interrupted then resumed, the output being the same as an uninterrupted run.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_Resume() throws IOException {
+		// Uninterrupted run
+		try (CSVOutputSink sink = CSVOutputSink.open(targetFile, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(100, createProcessor().process(srcFiles, sink, null));
+		}
+		final String expected = FileUtils.readFileToString(targetFile, StandardCharsets.UTF_8);
+		assertEquals(new Checkpoint(2, 0, 100, expected.length(), 40, Checkpoint.Origin.of(srcFiles, "cfg")),
+		        Checkpoint.load(sidecar),
+		        "Last checkpoint should be after the last file");
+		// Interrupted run, with content written after the last checkpoint
+		failOn = "b30";
+		try (CSVOutputSink sink = CSVOutputSink.open(targetFile, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertThrows(IllegalStateException.class, () -> createProcessor().process(srcFiles, sink, null));
+			sink.printRecord("garbage");
+		}
+		Checkpoint checkpoint = Checkpoint.load(sidecar);
+		assertEquals(1, checkpoint.sourceIndex(), "Checkpoint should be in the second file");
+		assertTrue(checkpoint.offset() > 0, "Checkpoint should be after the first chunk of the second file");
+		// Resumed run
+		failOn = null;
+		try (CSVOutputSink sink = CSVOutputSink.resume(targetFile, checkpoint.targetLength(),
+		        CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(100, createProcessor().process(srcFiles, sink, checkpoint));
+		}
+		assertEquals(expected, FileUtils.readFileToString(targetFile, StandardCharsets.UTF_8),
+		        "Resumed output should be identical");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CheckpointedFilesProcessor#process(List, CSVOutputSink, Checkpoint)}
+	 * interrupted then resumed after a source already read or the configuration changed, which should
+	 * be refused.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_ResumeChanged() throws IOException {
+		failOn = "b30";
+		try (CSVOutputSink sink = CSVOutputSink.open(targetFile, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertThrows(IllegalStateException.class, () -> createProcessor().process(srcFiles, sink, null));
+		}
+		failOn = null;
+		final Checkpoint checkpoint = Checkpoint.load(sidecar);
+		try (CSVOutputSink sink = CSVOutputSink.resume(targetFile, checkpoint.targetLength(),
+		        CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertThrows(IllegalArgumentException.class,
+			        () -> createProcessor("other").process(srcFiles, sink, checkpoint),
+			        "Other configuration should be refused");
+			FileUtils.writeStringToFile(srcFiles.get(0), "a50\n", StandardCharsets.UTF_8, true);
+			assertThrows(IllegalArgumentException.class, () -> createProcessor().process(srcFiles, sink, checkpoint),
+			        "Modified source should be refused");
+		}
+		assertEquals(checkpoint, Checkpoint.load(sidecar), "Refused checkpoint should be kept");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CheckpointedFilesProcessor#process(List, CSVOutputSink, Checkpoint)}
+	 * with a checkpoint made with another chunk size.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_OtherChunkSize() throws IOException {
+		try (CSVOutputSink sink = CSVOutputSink.open(targetFile, CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertThrows(IllegalArgumentException.class,
+			        () -> createProcessor().process(srcFiles, sink, new Checkpoint(0, 0, 0, 0, 41,
+			                Checkpoint.Origin.of(srcFiles, "cfg"))));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.CheckpointedFilesProcessor#CheckpointedFilesProcessor(ChunkedFileProcessor, SourceFileProcessor, File, String)}
+	 * with an unordered chunked processor.
+	 */
+	@Test
+	void testCheckpointedFilesProcessor_Unordered() {
+		assertThrows(IllegalArgumentException.class, () -> new CheckpointedFilesProcessor(
+		        new ChunkedFileProcessor(2, 40, false, copy, CSVOutputSink.MIN_BUFFER_SIZE, workingDir),
+		        (srcFile, sink) -> 0, sidecar, null));
+	}
+
+}
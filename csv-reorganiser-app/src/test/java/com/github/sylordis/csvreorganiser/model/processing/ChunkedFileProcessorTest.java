@@ -0,0 +1,209 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.io.FileChunk;
+import com.github.sylordis.csvreorganiser.model.io.SegmentFile;
+import com.github.sylordis.csvreorganiser.model.records.SourceHeader;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link ChunkedFileProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class ChunkedFileProcessorTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Source file.
+	 */
+	private File srcFile;
+	/**
+	 * Expected output lines.
+	 */
+	private List<String> expected;
+	/**
+	 * Processor swapping both columns of each record, bound to the header of the file.
+	 */
+	private final Function<SourceHeader, RecordsProcessor> swap = header -> {
+		final int first = header.indexOf("First");
+		final int second = header.indexOf("Second");
+		return (records, sink) -> {
+			long count = 0;
+			for (SourceRecord record : records) {
+				sink.printRecord(record.get(second), record.get(first));
+				count++;
+			}
+			return count;
+		};
+	};
+
+	@BeforeEach
+	void setUp() throws Exception {
+		StringBuilder content = new StringBuilder("First,Second\n");
+		expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			content.append(i).append(",\"line\n").append(i).append("\"\n");
+			expected.add("\"line\n" + i + "\"," + i);
+		}
+		srcFile = new File(workingDir, "src.csv");
+		FileUtils.writeStringToFile(srcFile, content.toString(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Runs the processor on the source file.
+	 *
+	 * @param processor processor to run
+	 * @return the output lines
+	 * @throws IOException
+	 */
+	private List<String> run(ChunkedFileProcessor processor) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(expected.size(), processor.process(srcFile, sink), "All records should be counted");
+		}
+		return List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess() throws IOException {
+		assertEquals(expected, run(new ChunkedFileProcessor(4, 50, true, swap, CSVOutputSink.MIN_BUFFER_SIZE, workingDir)));
+		assertEquals(1, workingDir.listFiles().length, "All segments should have been deleted");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink)}
+	 * in unordered mode.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_Unordered() throws IOException {
+		assertThat(run(new ChunkedFileProcessor(4, 50, false, swap, CSVOutputSink.MIN_BUFFER_SIZE, workingDir)),
+		        containsInAnyOrder(expected.toArray()));
+		assertEquals(1, workingDir.listFiles().length, "All segments should have been deleted");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink)},
+	 * checking that no more than {@link ChunkedFileProcessor#IN_FLIGHT_PER_THREAD} segments per thread
+	 * exist at any time.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_BoundedInFlight() throws IOException {
+		final int threads = 2;
+		final AtomicInteger maxSegments = new AtomicInteger();
+		ChunkedFileProcessor processor = new ChunkedFileProcessor(threads, 10, true, header -> {
+			final RecordsProcessor swapping = swap.apply(header);
+			return (records, sink) -> {
+				final int segments = workingDir.list((dir, name) -> name.startsWith(SegmentFile.PREFIX)).length;
+				maxSegments.accumulateAndGet(segments, Math::max);
+				return swapping.process(records, sink);
+			};
+		}, CSVOutputSink.MIN_BUFFER_SIZE, workingDir);
+		assertEquals(expected, run(processor));
+		assertTrue(maxSegments.get() > 0);
+		assertTrue(maxSegments.get() <= threads * ChunkedFileProcessor.IN_FLIGHT_PER_THREAD,
+		        "Too many segments at once: " + maxSegments.get());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink)}
+	 * when processing one chunk fails.
+	 */
+	@Test
+	void testProcess_Failure() {
+		ChunkedFileProcessor processor = new ChunkedFileProcessor(2, 50, true, header -> (records, sink) -> {
+			for (SourceRecord record : records)
+				if (record.get("First").equals("42"))
+					throw new IllegalArgumentException("trooper");
+			return 0;
+		}, CSVOutputSink.MIN_BUFFER_SIZE, workingDir);
+		assertThrows(IllegalArgumentException.class,
+		        () -> processor.process(srcFile,
+		                new CSVOutputSink(Channels.newChannel(OutputStream.nullOutputStream()), CSVOutputSink.MIN_BUFFER_SIZE)));
+		assertEquals(1, workingDir.listFiles().length, "All segments should have been deleted");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink, long, ChunkListener)}
+	 * resuming after a chunk, the listener being notified of each chunk appended.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess_FromOffset() throws IOException {
+		ChunkedFileProcessor processor = new ChunkedFileProcessor(2, 50, true, swap, CSVOutputSink.MIN_BUFFER_SIZE,
+		        workingDir);
+		List<FileChunk> chunks = new ArrayList<>();
+		List<Long> counts = new ArrayList<>();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE)) {
+			processor.process(srcFile, sink, 0, (chunk, records) -> {
+				chunks.add(chunk);
+				counts.add(records);
+			});
+		}
+		assertEquals(expected.size(), counts.stream().mapToLong(Long::longValue).sum(),
+		        "Listener should be notified of all records");
+		// Resume after the third chunk
+		final long skipped = counts.get(0) + counts.get(1) + counts.get(2);
+		out.reset();
+		try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(expected.size() - skipped, processor.process(srcFile, sink, chunks.get(2).end(), null));
+		}
+		assertEquals(expected.subList((int) skipped, expected.size()),
+		        List.of(out.toString(StandardCharsets.UTF_8).split("\r\n")), "Output should start after the offset");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ChunkedFileProcessor#process(File, CSVOutputSink, long, ChunkListener)}
+	 * with an offset which is not a chunk boundary.
+	 */
+	@Test
+	void testProcess_FromInvalidOffset() {
+		ChunkedFileProcessor processor = new ChunkedFileProcessor(2, 50, true, swap, CSVOutputSink.MIN_BUFFER_SIZE,
+		        workingDir);
+		assertThrows(IllegalArgumentException.class, () -> processor.process(srcFile,
+		        new CSVOutputSink(Channels.newChannel(OutputStream.nullOutputStream()), CSVOutputSink.MIN_BUFFER_SIZE), 3,
+		        null));
+	}
+
+}
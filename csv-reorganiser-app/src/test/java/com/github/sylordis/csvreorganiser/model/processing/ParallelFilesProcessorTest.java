@@ -0,0 +1,90 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+
+/**
+ * Test suite for {@link ParallelFilesProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class ParallelFilesProcessorTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Source files, of decreasing then increasing sizes.
+	 */
+	private List<File> srcFiles;
+	@BeforeEach
+	void setUp() throws Exception {
+		srcFiles = new ArrayList<>();
+		int[] sizes = { 3, 50, 1, 20, 7 };
+		for (int i = 0; i < sizes.length; i++) {
+			File file = new File(workingDir, "src" + i);
+			FileUtils.writeStringToFile(file, "x".repeat(sizes[i]), StandardCharsets.UTF_8);
+			srcFiles.add(file);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ParallelFilesProcessor#process(List, CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void testProcess() throws IOException {
+		ParallelFilesProcessor processor = new ParallelFilesProcessor(3, (f, p) -> {
+			p.printRecord(f.getName(), String.valueOf(f.length()));
+			p.printRecord(f.getName(), "second");
+			return 2;
+		}, CSVOutputSink.MIN_BUFFER_SIZE, workingDir);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(10, processor.process(srcFiles, sink), "All records should be counted");
+		}
+		StringBuilder expected = new StringBuilder();
+		for (File f : srcFiles)
+			expected.append(f.getName()).append(',').append(f.length()).append("\r\n").append(f.getName())
+			        .append(",second\r\n");
+		assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8), "Output should follow the original order of the files");
+		assertEquals(srcFiles.size(), workingDir.listFiles().length, "All segments should have been deleted");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.ParallelFilesProcessor#process(List, CSVOutputSink)}
+	 * when processing one file fails.
+	 */
+	@Test
+	void testProcess_Failure() {
+		ParallelFilesProcessor processor = new ParallelFilesProcessor(2, (f, p) -> {
+			if (f.length() == 20)
+				throw new IllegalArgumentException("trooper");
+			return 0;
+		}, CSVOutputSink.MIN_BUFFER_SIZE, workingDir);
+		assertThrows(IllegalArgumentException.class,
+		        () -> processor.process(srcFiles,
+		                new CSVOutputSink(Channels.newChannel(OutputStream.nullOutputStream()), CSVOutputSink.MIN_BUFFER_SIZE)));
+		assertEquals(srcFiles.size(), workingDir.listFiles().length, "All segments should have been deleted");
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.github.sylordis.csvreorganiser.model.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.sylordis.csvreorganiser.model.io.CSVOutputSink;
+import com.github.sylordis.csvreorganiser.model.records.CSVSourceRecord;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
+
+/**
+ * Test suite for {@link PipelinedRecordsProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class PipelinedRecordsProcessorTest {
+
+	/**
+	 * Source content.
+	 */
+	private String source;
+	/**
+	 * Expected output of the swapping transformer.
+	 */
+	private String expected;
+	@BeforeEach
+	void setUp() throws Exception {
+		StringBuilder src = new StringBuilder("First,Second\n");
+		StringBuilder tgt = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			src.append(i).append(",v").append(i).append('\n');
+			tgt.append('v').append(i).append(',').append(i).append("\r\n");
+		}
+		source = src.toString();
+		expected = tgt.toString();
+	}
+
+	/**
+	 * Parses the source content.
+	 *
+	 * @return the parsed records
+	 * @throws IOException
+	 */
+	private Iterable<SourceRecord> records() throws IOException {
+		return CSVSourceRecord.wrap(
+		        CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true).get().parse(new StringReader(source)));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.PipelinedRecordsProcessor#process(Iterable, CSVOutputSink)}.
+	 *
+	 * @throws IOException
+	 */
+	@ParameterizedTest
+	@CsvSource({ "1,1,1", "4,7,2", "3,2000,1", "8,512,16" })
+	void testProcess(int workers, int batchSize, int queueCapacity) throws IOException {
+		PipelinedRecordsProcessor processor = new PipelinedRecordsProcessor(workers, batchSize, queueCapacity,
+		        r -> List.of(r.get("Second"), r.get("First")));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CSVOutputSink sink = new CSVOutputSink(Channels.newChannel(out), CSVOutputSink.MIN_BUFFER_SIZE)) {
+			assertEquals(1000, processor.process(records(), sink), "All records should be counted");
+		}
+		assertEquals(expected, out.toString(StandardCharsets.UTF_8), "Output should follow the order of the source");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.PipelinedRecordsProcessor#process(Iterable, CSVOutputSink)}
+	 * when a transformation fails.
+	 */
+	@Test
+	void testProcess_TransformationFailure() {
+		PipelinedRecordsProcessor processor = new PipelinedRecordsProcessor(2, 10, 1, r -> {
+			if (r.get("First").equals("555"))
+				throw new IllegalArgumentException("trooper");
+			return List.of(r.get("First"));
+		});
+		assertThrows(IllegalArgumentException.class,
+		        () -> processor.process(records(),
+		                new CSVOutputSink(Channels.newChannel(OutputStream.nullOutputStream()), CSVOutputSink.MIN_BUFFER_SIZE)));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.PipelinedRecordsProcessor#process(Iterable, CSVOutputSink)}
+	 * when the output cannot be written.
+	 */
+	@Test
+	void testProcess_WriterFailure() {
+		PipelinedRecordsProcessor processor = new PipelinedRecordsProcessor(2, 10, 1, r -> List.of(r.get("First")));
+		OutputStream broken = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("write");
+			}
+		};
+		assertThrows(IOException.class, () -> processor.process(records(),
+		        new CSVOutputSink(Channels.newChannel(broken), CSVOutputSink.MIN_BUFFER_SIZE)));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.processing.PipelinedRecordsProcessor#PipelinedRecordsProcessor(int, int, int, RecordTransformer)}
+	 * with invalid sizes.
+	 */
+	@ParameterizedTest
+	@CsvSource({ "0,1,1", "1,0,1", "1,1,0" })
+	void testPipelinedRecordsProcessor_Invalid(int workers, int batchSize, int queueCapacity) {
+		assertThrows(IllegalArgumentException.class,
+		        () -> new PipelinedRecordsProcessor(workers, batchSize, queueCapacity, r -> List.of()));
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for {@link ArraySourceRecord} class.
+ *
+ * @author sylordis
+ *
+ */
+class ArraySourceRecordTest {
+
+	/**
+	 * Object under test.
+	 */
+	private ArraySourceRecord record;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		record = new ArraySourceRecord(Map.of("first", 0, "second", 1, "third", 2), new String[] { "a", "b" });
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord#get(java.lang.String)}.
+	 */
+	@Test
+	void testGetString() {
+		assertEquals("b", record.get("second"));
+		assertThrows(IllegalArgumentException.class, () -> record.get("fourth"), "Unknown column");
+		assertThrows(IllegalArgumentException.class, () -> record.get("third"), "Record too short");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord#get(int)}.
+	 */
+	@Test
+	void testGetInt() {
+		assertEquals("a", record.get(0));
+		assertEquals("Index for header 'third' is 2 but record 7 only has 2 values!",
+		        assertThrows(IllegalArgumentException.class,
+		                () -> new ArraySourceRecord(Map.of("first", 0, "third", 2), new String[] { "a", "b" }, 7).get(2))
+		                .getMessage(),
+		        "Record too short");
+		assertThrows(IllegalArgumentException.class, () -> record.get(2), "Record too short");
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> record.get(-1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord#isMapped(java.lang.String)}.
+	 */
+	@Test
+	void testIsMapped() {
+		assertTrue(record.isMapped("third"));
+		assertFalse(record.isMapped("fourth"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.ArraySourceRecord#size()}.
+	 */
+	@Test
+	void testSize() {
+		assertEquals(2, record.size());
+	}
+
+}
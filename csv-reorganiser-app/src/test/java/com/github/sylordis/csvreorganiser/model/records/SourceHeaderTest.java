@@ -0,0 +1,88 @@
+package com.github.sylordis.csvreorganiser.model.records;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for {@link SourceHeader} class.
+ *
+ * @author sylordis
+ *
+ */
+class SourceHeaderTest {
+
+	/**
+	 * Object under test.
+	 */
+	private SourceHeader header;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		header = SourceHeader.of(List.of("first", "second", "third"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.SourceHeader#indexOf(java.lang.String)}.
+	 */
+	@Test
+	void testIndexOf() {
+		assertEquals(1, header.indexOf("second"));
+		assertEquals(SourceHeader.NOT_MAPPED, header.indexOf("fourth"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.SourceHeader#isMapped(java.lang.String)}.
+	 */
+	@Test
+	void testIsMapped() {
+		assertTrue(header.isMapped("third"));
+		assertFalse(header.isMapped("fourth"));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.records.SourceHeader#size()}.
+	 */
+	@Test
+	void testSize() {
+		assertEquals(3, header.size());
+		assertEquals(0, SourceHeader.of(List.of()).size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.SourceHeader#of(java.util.List)} with
+	 * duplicate names, the last column being kept like commons-csv does.
+	 */
+	@Test
+	void testOf_Duplicates() {
+		SourceHeader duplicates = SourceHeader.of(List.of("a", "b", "a"));
+		assertEquals(2, duplicates.indexOf("a"));
+		assertEquals(3, duplicates.size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.records.SourceHeader#getIndexes()}, which should
+	 * be a copy that cannot be modified.
+	 */
+	@Test
+	void testGetIndexes() {
+		Map<String, Integer> indexes = new HashMap<>(Map.of("a", 0));
+		SourceHeader copy = new SourceHeader(indexes);
+		indexes.put("b", 1);
+		assertEquals(Map.of("a", 0), copy.getIndexes());
+		assertThrows(UnsupportedOperationException.class, () -> copy.getIndexes().put("c", 2));
+	}
+
+}
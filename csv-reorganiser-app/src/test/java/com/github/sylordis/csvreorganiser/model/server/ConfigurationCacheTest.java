@@ -0,0 +1,116 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.ReorgConfiguration;
+import com.github.sylordis.csvreorganiser.model.chess.ChessEngine;
+import com.github.sylordis.csvreorganiser.model.exceptions.ConfigurationImportException;
+import com.github.sylordis.csvreorganiser.model.hyde.HydeEngine;
+
+/**
+ * Test suite for {@link ConfigurationCache} class.
+ *
+ * @author sylordis
+ *
+ */
+class ConfigurationCacheTest {
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private ConfigurationCache cache;
+	/**
+	 * Configuration file.
+	 */
+	private File configFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new ConfigurationCache();
+		configFile = new File(workingDir, "config.yaml");
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: Name\n    source: first_name\n",
+		        StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.ConfigurationCache#get(File)}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGet() throws Exception {
+		ReorgConfiguration cfg = cache.get(configFile);
+		assertInstanceOf(ChessEngine.class, cfg.getEngine(), "Default engine should be used without header");
+		assertSame(cfg, cache.get(configFile), "Unchanged configuration should be cached");
+		assertEquals(1, cache.size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.ConfigurationCache#get(File)} when the file
+	 * changes.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGet_Changed() throws Exception {
+		ReorgConfiguration cfg = cache.get(configFile);
+		FileUtils.writeStringToFile(configFile,
+		        "reorg:\n  structure:\n  - column: Name\n    source: first_name\n  - column: Id\n    source: id\n",
+		        StandardCharsets.UTF_8);
+		ReorgConfiguration changed = cache.get(configFile);
+		assertNotSame(cfg, changed, "Changed configuration should be loaded again");
+		assertEquals(2, changed.getOperations().size());
+		assertSame(cfg.getEngine(), changed.getEngine(), "Engine should be reused");
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.ConfigurationCache#get(File)} with engines
+	 * declared in the headers.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGet_DeclaredEngines() throws Exception {
+		File chessFile = new File(workingDir, "chess.yaml");
+		FileUtils.writeStringToFile(chessFile,
+		        "reorg:\n  header:\n    engine: chess\n  structure:\n  - column: Id\n    source: id\n",
+		        StandardCharsets.UTF_8);
+		File hydeFile = new File(workingDir, "hyde.yaml");
+		FileUtils.writeStringToFile(hydeFile,
+		        "reorg:\n  header:\n    engine: hyde\n  structure:\n    Id: \"{{id}}\"\n", StandardCharsets.UTF_8);
+		assertSame(cache.get(configFile).getEngine(), cache.get(chessFile).getEngine(),
+		        "Chess engine should be shared");
+		assertInstanceOf(HydeEngine.class, cache.get(hydeFile).getEngine());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.ConfigurationCache#get(File)} with an
+	 * invalid configuration.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testGet_Invalid() throws Exception {
+		FileUtils.writeStringToFile(configFile, "nothing: here\n", StandardCharsets.UTF_8);
+		assertThrows(ConfigurationImportException.class, () -> cache.get(configFile));
+	}
+
+}
@@ -0,0 +1,296 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sylordis.csvreorganiser.model.ReorganiserOptions;
+
+/**
+ * Test suite for {@link JobServer} class.
+ *
+ * @author sylordis
+ *
+ */
+class JobServerTest {
+
+	/**
+	 * Maximum time to wait for a job, in milliseconds.
+	 */
+	private static final long TIMEOUT = 10_000;
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Object under test.
+	 */
+	private JobServer server;
+	/**
+	 * Client of the server.
+	 */
+	private HttpClient client;
+	/**
+	 * Configuration file.
+	 */
+	private File configFile;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		configFile = new File(workingDir, "config.yaml");
+		FileUtils.writeStringToFile(configFile, "reorg:\n  structure:\n  - column: Name\n    source: first_name\n",
+		        StandardCharsets.UTF_8);
+		server = new JobServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 1,
+		        new ReorganiserOptions());
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		server.close();
+	}
+
+	/**
+	 * Builds the URI of a request.
+	 *
+	 * @param path  path of the request
+	 * @param query parameters and their values, alternated, encoded by this method
+	 * @return the URI
+	 */
+	private URI uri(String path, String... query) {
+		StringBuilder uri = new StringBuilder("http://localhost:").append(server.getAddress().getPort()).append(path);
+		for (int i = 0; i < query.length; i += 2)
+			uri.append(i == 0 ? '?' : '&').append(query[i]).append('=')
+			        .append(URLEncoder.encode(query[i + 1], StandardCharsets.UTF_8));
+		return URI.create(uri.toString());
+	}
+
+	/**
+	 * Sends a request.
+	 *
+	 * @param request request to send
+	 * @return the response
+	 * @throws Exception
+	 */
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		return client.send(request, BodyHandlers.ofString());
+	}
+
+	/**
+	 * Waits for a job to finish.
+	 *
+	 * @param id identifier of the job
+	 * @return the last description of the job
+	 * @throws Exception
+	 */
+	private String waitFor(long id) throws Exception {
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		String description;
+		do {
+			description = send(HttpRequest.newBuilder(uri("/jobs/" + id)).build()).body();
+			if (!description.contains("QUEUED") && !description.contains("RUNNING"))
+				return description;
+			Thread.sleep(10);
+		} while (System.currentTimeMillis() < end);
+		return description;
+	}
+
+	/**
+	 * Waits for the metrics to contain a value.
+	 *
+	 * @param metric line of the metrics to wait for
+	 * @return true if the metrics contain the value before the timeout
+	 * @throws InterruptedException
+	 */
+	private boolean waitForMetric(String metric) throws InterruptedException {
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		while (!server.getMetrics().contains(metric) && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		return server.getMetrics().contains(metric);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.JobServer#JobServer(InetSocketAddress, int, int, ReorganiserOptions)}
+	 * with invalid sizes.
+	 */
+	@Test
+	void testJobServer_Invalid() {
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		assertThrows(IllegalArgumentException.class, () -> new JobServer(address, 0, 1, new ReorganiserOptions()));
+		assertThrows(IllegalArgumentException.class, () -> new JobServer(address, 1, 0, new ReorganiserOptions()));
+	}
+
+	/**
+	 * Test of the submission of jobs on files.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testJobs() throws Exception {
+		File srcFile = new File(workingDir, "source.csv");
+		FileUtils.writeStringToFile(srcFile, "id,first_name\n1,Tull\n", StandardCharsets.UTF_8);
+		File targetFile = new File(workingDir, "target.csv");
+		HttpResponse<String> response = send(HttpRequest
+		        .newBuilder(uri("/jobs", "config", configFile.getPath(), "source", srcFile.getPath(), "source",
+		                srcFile.getPath(), "target", targetFile.getPath()))
+		        .POST(BodyPublishers.noBody()).build());
+		assertEquals(202, response.statusCode());
+		assertEquals("/jobs/1", response.headers().firstValue("Location").orElse(null));
+		assertTrue(waitFor(1).contains("state: DONE"), "Job should be done");
+		List<String> target = FileUtils.readLines(targetFile, StandardCharsets.UTF_8);
+		assertEquals(List.of("Name", "Tull", "Tull"), target.subList(1, target.size()));
+		assertEquals(409, send(HttpRequest.newBuilder(uri("/jobs/1")).DELETE().build()).statusCode(),
+		        "Finished job cannot be cancelled");
+		assertTrue(waitForMetric("csvreorganiser_jobs_finished_total{state=\"done\"} 1"),
+		        "Metrics should count the job");
+	}
+
+	/**
+	 * Test of requests naming a configuration which is not valid YAML, both being answered.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testJobs_MalformedConfiguration() throws Exception {
+		File malformed = new File(workingDir, "malformed.yaml");
+		FileUtils.writeStringToFile(malformed, "reorg:\n  structure: [\n", StandardCharsets.UTF_8);
+		HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/jobs", "config", malformed.getPath(),
+		        "source", "a.csv", "target", "b.csv")).POST(BodyPublishers.noBody()).build());
+		assertEquals(400, response.statusCode());
+		assertTrue(response.body().startsWith("Invalid configuration"), response.body());
+		assertEquals(400, send(HttpRequest.newBuilder(uri("/transform", "config", malformed.getPath()))
+		        .POST(BodyPublishers.ofString("id\n")).build()).statusCode());
+	}
+
+	/**
+	 * Test of invalid requests.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testJobs_Invalid() throws Exception {
+		assertEquals(400, send(HttpRequest.newBuilder(uri("/jobs", "config", "missing.yaml", "source", "a.csv",
+		        "target", "b.csv")).POST(BodyPublishers.noBody()).build()).statusCode(), "Missing configuration");
+		assertEquals(400, send(HttpRequest.newBuilder(uri("/jobs", "config", configFile.getPath()))
+		        .POST(BodyPublishers.noBody()).build()).statusCode(), "Missing files");
+		assertEquals(400, send(HttpRequest.newBuilder(uri("/transform", "config", configFile.getPath(), "priority", "x"))
+		        .POST(BodyPublishers.ofString("id\n")).build()).statusCode(), "Invalid priority");
+		assertEquals(404, send(HttpRequest.newBuilder(uri("/jobs/42")).build()).statusCode(), "Unknown job");
+		assertEquals(405, send(HttpRequest.newBuilder(uri("/jobs")).build()).statusCode(), "Wrong method");
+	}
+
+	/**
+	 * Test of the transformation of request bodies.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testTransform() throws Exception {
+		HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/transform", "config", configFile.getPath()))
+		        .POST(BodyPublishers.ofString("id,first_name\n1,Tull\n2,Cassaundra\n")).build());
+		assertEquals(200, response.statusCode());
+		assertEquals("1", response.headers().firstValue(JobServer.JOB_ID_HEADER).orElse(null));
+		assertEquals("Name\r\nTull\r\nCassaundra\r\n", response.body());
+		assertTrue(server.getMetrics().contains("csvreorganiser_source_bytes_total 34"),
+		        "Metrics should count the bytes of the body");
+	}
+
+	/**
+	 * Test of the transformation of request bodies which cannot be reorganised, a header missing a
+	 * column read by the configuration or a malformed first record, which should be refused before
+	 * any result is sent.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testTransform_Invalid() throws Exception {
+		HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/transform", "config", configFile.getPath()))
+		        .POST(BodyPublishers.ofString("id,name\n1,Tull\n")).build());
+		assertEquals(400, response.statusCode(), response.body());
+		assertEquals("1", response.headers().firstValue(JobServer.JOB_ID_HEADER).orElse(null));
+		assertTrue(waitFor(1).contains("state: FAILED"), "Job should have failed");
+		response = send(HttpRequest.newBuilder(uri("/transform", "config", configFile.getPath()))
+		        .POST(BodyPublishers.ofString("id,first_name\n1,\"Tull\n")).build());
+		assertEquals(400, response.statusCode(), response.body());
+		assertTrue(waitForMetric("csvreorganiser_jobs_finished_total{state=\"failed\"} 2"),
+		        "Metrics should count the failed jobs");
+	}
+
+	/**
+	 * Test of the bounded queue and of the cancellation of queued jobs, the only worker being blocked
+	 * by a request whose body is not complete.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testQueue() throws Exception {
+		// Streaming the body by hand so that the job is running before the other requests are sent
+		final URI transform = uri("/transform", "config", configFile.getPath());
+		try (Socket blocking = new Socket(InetAddress.getLoopbackAddress(), server.getAddress().getPort())) {
+			OutputStream body = blocking.getOutputStream();
+			body.write(("POST " + transform.getRawPath() + "?" + transform.getRawQuery() + " HTTP/1.1\r\n"
+			        + "Host: localhost\r\nConnection: close\r\nTransfer-Encoding: chunked\r\n\r\n"
+			        + "e\r\nid,first_name\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			body.flush();
+			assertTrue(waitForMetric("csvreorganiser_jobs_running 1"), "Blocking job should be running");
+			CompletableFuture<HttpResponse<String>> queued = client.sendAsync(
+			        HttpRequest.newBuilder(uri("/transform", "config", configFile.getPath(), "priority", "3"))
+			                .POST(BodyPublishers.ofString("id,first_name\n")).build(),
+			        BodyHandlers.ofString());
+			waitForMetric("csvreorganiser_jobs_queued 1");
+			assertEquals(503, send(HttpRequest.newBuilder(transform)
+			        .POST(BodyPublishers.ofString("id,first_name\n")).build()).statusCode(), "Queue should be full");
+			HttpResponse<String> cancel = send(HttpRequest.newBuilder(uri("/jobs/2")).DELETE().build());
+			assertEquals(200, cancel.statusCode());
+			assertTrue(cancel.body().contains("priority: 3"), "Queued job should be cancelled");
+			assertEquals(503, queued.get(TIMEOUT, TimeUnit.MILLISECONDS).statusCode(),
+			        "Cancelled request should be answered");
+			body.write("7\r\n1,Tull\n\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+			body.flush();
+			blocking.setSoTimeout((int) TIMEOUT);
+			String response = new String(blocking.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+			assertTrue(response.startsWith("HTTP/1.1 200"), response);
+			assertTrue(response.contains("Name\r\nTull\r\n"), response);
+		}
+		assertTrue(waitForMetric("csvreorganiser_jobs_finished_total{state=\"done\"} 1"), "Blocking job should be done");
+		String metrics = server.getMetrics();
+		assertTrue(metrics.contains("csvreorganiser_jobs_rejected_total 1"), metrics);
+		assertTrue(metrics.contains("csvreorganiser_jobs_finished_total{state=\"cancelled\"} 1"), metrics);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.model.server.JobServer#parseQuery(String)}.
+	 */
+	@Test
+	void testParseQuery() {
+		assertEquals(Map.of(), JobServer.parseQuery(null));
+		assertEquals(Map.of("a", List.of("1", "x y"), "b", List.of("")), JobServer.parseQuery("a=1&b&a=x+y&"));
+	}
+
+}
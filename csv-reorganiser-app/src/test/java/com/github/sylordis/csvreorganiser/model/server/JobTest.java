@@ -0,0 +1,128 @@
+package com.github.sylordis.csvreorganiser.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for {@link Job} class.
+ *
+ * @author sylordis
+ *
+ */
+class JobTest {
+
+	/**
+	 * Jobs which finished, in order.
+	 */
+	private List<Job> finished;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		finished = new ArrayList<>();
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.server.Job#run()}.
+	 */
+	@Test
+	void testRun() {
+		Job job = new Job(1, 0, () -> {
+		}, finished::add);
+		assertEquals(Job.State.QUEUED, job.getState());
+		assertFalse(job.isStarted());
+		job.run();
+		assertEquals(Job.State.DONE, job.getState());
+		assertTrue(job.isStarted());
+		assertNull(job.getError());
+		assertEquals(List.of(job), finished, "Listener should be called once");
+		job.run();
+		assertEquals(1, finished.size(), "Finished jobs should not run again");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.server.Job#run()} when the task
+	 * fails.
+	 */
+	@Test
+	void testRun_Failed() {
+		Job job = new Job(1, 0, () -> {
+			throw new IllegalStateException("Broken");
+		}, finished::add);
+		job.run();
+		assertEquals(Job.State.FAILED, job.getState());
+		assertEquals("Broken", job.getError());
+		assertTrue(job.describe().contains("error: Broken"), "Description should include the error");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.server.Job#cancel()} on a queued
+	 * job.
+	 */
+	@Test
+	void testCancel_Queued() {
+		Job job = new Job(1, 0, () -> {
+			throw new IllegalStateException("Should not run");
+		}, finished::add);
+		assertTrue(job.cancel());
+		assertEquals(Job.State.CANCELLED, job.getState());
+		assertEquals(List.of(job), finished);
+		job.run();
+		assertEquals(Job.State.CANCELLED, job.getState(), "Cancelled job should not run");
+		assertFalse(job.cancel(), "Finished job cannot be cancelled");
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.server.Job#cancel()} on a running
+	 * job.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	void testCancel_Running() throws InterruptedException {
+		CountDownLatch running = new CountDownLatch(1);
+		Job job = new Job(1, 0, () -> {
+			running.countDown();
+			Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+		}, finished::add);
+		Thread thread = new Thread(job);
+		thread.start();
+		running.await();
+		assertTrue(job.cancel());
+		thread.join(10_000);
+		assertFalse(thread.isAlive(), "Running job should be interrupted");
+		assertEquals(Job.State.CANCELLED, job.getState());
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.model.server.Job#compareTo(Job)}.
+	 */
+	@Test
+	void testCompareTo() {
+		PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>();
+		Job low = new Job(1, -1, () -> {
+		}, finished::add);
+		Job first = new Job(2, 0, () -> {
+		}, finished::add);
+		Job second = new Job(3, 0, () -> {
+		}, finished::add);
+		Job high = new Job(4, 5, () -> {
+		}, finished::add);
+		queue.addAll(List.of(low, second, high, first));
+		assertEquals(high, queue.poll());
+		assertEquals(first, queue.poll());
+		assertEquals(second, queue.poll());
+		assertEquals(low, queue.poll());
+	}
+
+}
@@ -1,10 +1,9 @@
 package com.github.sylordis.csvreorganiser.test.chess.defs;
 
-import org.apache.commons.csv.CSVRecord;
-
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * <em>Dummy</em> operation for the generation.
@@ -28,7 +27,7 @@ public class DummyOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		return null;
 	}
 	
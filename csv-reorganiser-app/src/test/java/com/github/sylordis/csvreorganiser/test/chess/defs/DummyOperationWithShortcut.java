@@ -1,11 +1,10 @@
 package com.github.sylordis.csvreorganiser.test.chess.defs;
 
-import org.apache.commons.csv.CSVRecord;
-
 import com.github.sylordis.csvreorganiser.model.annotations.Operation;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationProperty;
 import com.github.sylordis.csvreorganiser.model.annotations.OperationShortcut;
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Dummy <em>operation</em> with a shortcut for the generation.
@@ -30,7 +29,7 @@ public class DummyOperationWithShortcut extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		return null;
 	}
 
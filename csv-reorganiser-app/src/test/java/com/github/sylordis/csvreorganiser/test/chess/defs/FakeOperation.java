@@ -1,8 +1,7 @@
 package com.github.sylordis.csvreorganiser.test.chess.defs;
 
-import org.apache.commons.csv.CSVRecord;
-
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Class for testing with basic implementation of {@link ChessAbstractReorgOperation}.
@@ -26,7 +25,7 @@ public class FakeOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		return theValue;
 	}
 
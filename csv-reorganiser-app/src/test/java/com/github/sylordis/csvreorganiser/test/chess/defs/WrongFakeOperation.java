@@ -1,8 +1,7 @@
 package com.github.sylordis.csvreorganiser.test.chess.defs;
 
-import org.apache.commons.csv.CSVRecord;
-
 import com.github.sylordis.csvreorganiser.model.chess.operations.ChessAbstractReorgOperation;
+import com.github.sylordis.csvreorganiser.model.records.SourceRecord;
 
 /**
  * Class for testing not respecting the basic constructor rule.
@@ -27,7 +26,7 @@ public class WrongFakeOperation extends ChessAbstractReorgOperation {
 	}
 
 	@Override
-	public String apply(CSVRecord record) {
+	public String applyTo(SourceRecord record) {
 		return null;
 	}
 
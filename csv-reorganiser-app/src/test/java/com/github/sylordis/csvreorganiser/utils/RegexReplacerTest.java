@@ -0,0 +1,156 @@
+package com.github.sylordis.csvreorganiser.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test suite for {@link RegexReplacer} class, checking that replacements match those of
+ * {@link String#replaceAll(String, String)}.
+ *
+ * @author sylordis
+ *
+ */
+class RegexReplacerTest {
+
+	/**
+	 * Inputs replaced with each pattern.
+	 */
+	private static final String[] INPUTS = { "", "a", "abc", "SOMETHING -> ISwrong", "aaa bbb aaa", "2024-01-31",
+	        "John Doe, Jane Doe", "tab\tseparated\tvalues", "$100 \\ 200",
+	        "phone 12345678901" };
+
+	private static Stream<Arguments> provideForTestReplaceAll() {
+		return Stream.of(Arguments.of("a", "b"), Arguments.of("aaa", ""), Arguments.of("Doe", "Smith"),
+		        Arguments.of("Doe", "[$0]"), Arguments.of("Doe", "\\$0"), Arguments.of("", "-"),
+		        Arguments.of("a*", "-"), Arguments.of("(\\d+)-(\\d+)-(\\d+)", "$3/$2/$1"),
+		        Arguments.of("(\\d+)-(\\d+)-(\\d+)", "$31"),
+		        Arguments.of("(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)(\\d)", "<$11$10>"),
+		        Arguments.of("(?<first>\\w+) (?<last>\\w+)", "${last} ${first}"), Arguments.of("(x)?a", "[$1]"),
+		        Arguments.of(".*-> ", ""), Arguments.of("\\t", ";"), Arguments.of("\\$", "USD "),
+		        Arguments.of("\\\\", "/"), Arguments.of("b+", "\\\\"), Arguments.of("[aeiou]", ""));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#replaceAll(java.lang.String)}.
+	 */
+	@ParameterizedTest
+	@MethodSource("provideForTestReplaceAll")
+	void testReplaceAll(String regex, String replacement) {
+		RegexReplacer replacer = RegexReplacer.compile(regex, replacement);
+		for (String input : INPUTS)
+			assertEquals(input.replaceAll(regex, replacement), replacer.replaceAll(input), input);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#replaceAll(java.lang.String)}
+	 * when nothing matches, the input being returned as is.
+	 */
+	@Test
+	void testReplaceAll_NoMatch() {
+		final String input = "nothing to see";
+		assertSame(input, RegexReplacer.compile("xyz", "a").replaceAll(input));
+		assertSame(input, RegexReplacer.compile("x+", "a").replaceAll(input));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#replaceAll(java.lang.String)}
+	 * with replacements which are not valid, failing only when a match is found.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = { "a,$", "a,\\", "a,$x", "a,$1", "(a),${name}", "(a),${1a}", "(a),${a" })
+	void testReplaceAll_InvalidReplacement(String regex, String replacement) {
+		RegexReplacer replacer = RegexReplacer.compile(regex, replacement);
+		assertEquals("bcd", replacer.replaceAll("bcd"));
+		Class<? extends Exception> expected = assertThrows(RuntimeException.class,
+		        () -> "abc".replaceAll(regex, replacement)).getClass();
+		assertThrows(expected, () -> replacer.replaceAll("abc"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#compile(java.lang.String, java.lang.String)}
+	 * with an invalid pattern.
+	 */
+	@Test
+	void testCompile_InvalidPattern() {
+		assertThrows(PatternSyntaxException.class, () -> RegexReplacer.compile("(unclosed", ""));
+		assertThrows(NullPointerException.class, () -> RegexReplacer.compile(null, ""));
+		assertThrows(NullPointerException.class, () -> RegexReplacer.compile("a", null));
+	}
+
+	/**
+	 * Test method for {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#isLiteral()}.
+	 */
+	@ParameterizedTest
+	@CsvSource(value = { "Doe,true", "John Doe,true", "a-b_c:d,true", "'',false", "a.b,false", "a*,false",
+	        "\\d,false", "(a),false", "a|b,false", "^a,false", "a$,false", "[a],false", "a{2},false", "a+,false",
+	        "a?,false" })
+	void testIsLiteral(String regex, boolean literal) {
+		assertEquals(literal, RegexReplacer.compile(regex, "").isLiteral());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#isFor(java.lang.String, java.lang.String)}.
+	 */
+	@Test
+	void testIsFor() {
+		RegexReplacer replacer = RegexReplacer.compile("a+", "b");
+		assertTrue(replacer.isFor("a+", "b"));
+		assertFalse(replacer.isFor("a+", "c"));
+		assertFalse(replacer.isFor("a", "b"));
+		assertFalse(replacer.isFor(null, "b"));
+		assertFalse(replacer.isFor("a+", null));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.utils.RegexReplacer#replaceAll(java.lang.String)}
+	 * from several threads at once.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testReplaceAll_Threads() throws Exception {
+		RegexReplacer replacer = RegexReplacer.compile("(\\d+)-(\\d+)", "$2-$1");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				final int thread = t;
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						if (!replacer.replaceAll(thread + "-" + i).equals(i + "-" + thread))
+							return false;
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results)
+				assertTrue(result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
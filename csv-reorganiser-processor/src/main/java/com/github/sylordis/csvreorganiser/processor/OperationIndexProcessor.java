@@ -0,0 +1,227 @@
+package com.github.sylordis.csvreorganiser.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing the index of all classes annotated with <code>@Operation</code> to
+ * {@value #INDEX_RESOURCE}, one binary class name per line, so that engines can load their
+ * operations without scanning the classpath at startup. The reflection metadata needed to build the
+ * operations in a GraalVM native image is written alongside, to {@value #REFLECT_CONFIG_RESOURCE}.<br/>
+ * <br/>
+ * The processor also checks at compile time what would otherwise only fail when an engine starts:
+ * operations must be concrete public classes and the property of a <code>@OperationShortcut</code>
+ * must be declared by one of the <code>@OperationProperty</code> of the operation.<br/>
+ * <br/>
+ * Annotations are referred to by name as this processor is built before them.
+ *
+ * @author sylordis
+ *
+ */
+@SupportedAnnotationTypes(OperationIndexProcessor.OPERATION_ANNOTATION)
+public class OperationIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Path of the index in the class output.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/csv-reorganiser/operations";
+	/**
+	 * Path of the native image reflection metadata in the class output.
+	 */
+	public static final String REFLECT_CONFIG_RESOURCE = "META-INF/native-image/com.github.sylordis/"
+	        + "csv-reorganiser-operations/reflect-config.json";
+	/**
+	 * Package of the annotations.
+	 */
+	private static final String ANNOTATIONS_PACKAGE = "com.github.sylordis.csvreorganiser.model.annotations.";
+	/**
+	 * Name of the operation annotation.
+	 */
+	static final String OPERATION_ANNOTATION = ANNOTATIONS_PACKAGE + "Operation";
+	/**
+	 * Name of the property annotation.
+	 */
+	private static final String PROPERTY_ANNOTATION = ANNOTATIONS_PACKAGE + "OperationProperty";
+	/**
+	 * Name of the container of repeated property annotations.
+	 */
+	private static final String PROPERTIES_ANNOTATION = ANNOTATIONS_PACKAGE + "OperationProperties";
+	/**
+	 * Name of the shortcut annotation.
+	 */
+	private static final String SHORTCUT_ANNOTATION = ANNOTATIONS_PACKAGE + "OperationShortcut";
+
+	/**
+	 * Operations found in all rounds, by binary name, sorted for reproducible builds.
+	 */
+	private final Map<String, TypeElement> operations = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS && check((TypeElement) element))
+					operations.put(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString(),
+					        (TypeElement) element);
+			}
+		}
+		if (roundEnv.processingOver() && !operations.isEmpty()) {
+			writeIndex();
+			writeReflectConfig();
+		}
+		return false;
+	}
+
+	/**
+	 * Checks that an operation can be loaded from the index and that its shortcut is valid.
+	 *
+	 * @param type annotated type
+	 * @return true if the operation should be indexed
+	 */
+	private boolean check(TypeElement type) {
+		if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getModifiers().contains(Modifier.PUBLIC)) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+			        "Operations must be concrete public classes", type);
+			return false;
+		}
+		final String shortcutProperty = value(mirror(type, SHORTCUT_ANNOTATION), "property");
+		if (shortcutProperty != null) {
+			List<String> properties = new ArrayList<>();
+			for (AnnotationMirror property : properties(type))
+				properties.add(value(property, "name"));
+			if (!properties.contains(shortcutProperty)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+				        String.format("Shortcut property '%s' does not match any property %s", shortcutProperty,
+				                properties),
+				        type, mirror(type, SHORTCUT_ANNOTATION));
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the index of all operations found.
+	 */
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+			        INDEX_RESOURCE, operations.values().toArray(Element[]::new));
+			try (Writer writer = index.openWriter()) {
+				writer.write("# Generated by " + getClass().getSimpleName() + "\n");
+				for (String name : operations.keySet())
+					writer.write(name + "\n");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+			        "Cannot write " + INDEX_RESOURCE + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the native image reflection metadata of all operations found: their constructors, used to
+	 * instantiate them, and their fields, filled from the configuration.
+	 */
+	private void writeReflectConfig() {
+		try {
+			FileObject config = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+			        REFLECT_CONFIG_RESOURCE, operations.values().toArray(Element[]::new));
+			try (Writer writer = config.openWriter()) {
+				writer.write("[\n");
+				int remaining = operations.size();
+				for (String name : operations.keySet()) {
+					writer.write("  {\"name\": \"" + name
+					        + "\", \"allDeclaredConstructors\": true, \"allDeclaredFields\": true}");
+					writer.write(--remaining > 0 ? ",\n" : "\n");
+				}
+				writer.write("]\n");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+			        "Cannot write " + REFLECT_CONFIG_RESOURCE + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets the property annotations of a type, either declared once or repeated in their container.
+	 *
+	 * @param type annotated type
+	 * @return the property annotations
+	 */
+	private List<AnnotationMirror> properties(TypeElement type) {
+		List<AnnotationMirror> properties = new ArrayList<>();
+		AnnotationMirror single = mirror(type, PROPERTY_ANNOTATION);
+		if (single != null)
+			properties.add(single);
+		AnnotationMirror container = mirror(type, PROPERTIES_ANNOTATION);
+		if (container != null) {
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : container
+			        .getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("value")) {
+					for (Object property : (List<?>) entry.getValue().getValue())
+						properties.add((AnnotationMirror) ((AnnotationValue) property).getValue());
+				}
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * Gets an annotation of a type by name.
+	 *
+	 * @param type       annotated type
+	 * @param annotation qualified name of the annotation
+	 * @return the annotation, or null if the type does not have it
+	 */
+	private static AnnotationMirror mirror(TypeElement type, String annotation) {
+		for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+				return mirror;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the value of an attribute of an annotation, as a string.
+	 *
+	 * @param mirror    annotation, can be null
+	 * @param attribute name of the attribute
+	 * @return the value, or null if the annotation is null or the attribute is not set
+	 */
+	private static String value(AnnotationMirror mirror, String attribute) {
+		if (mirror == null)
+			return null;
+		for (ExecutableElement key : ElementFilter.methodsIn(mirror.getElementValues().keySet())) {
+			if (key.getSimpleName().contentEquals(attribute))
+				return String.valueOf(mirror.getElementValues().get(key).getValue());
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.github.sylordis.csvreorganiser.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test suite for {@link OperationIndexProcessor} class.
+ *
+ * @author sylordis
+ *
+ */
+class OperationIndexProcessorTest {
+
+	/**
+	 * Package of the annotations.
+	 */
+	private static final String ANNOTATIONS = "com.github.sylordis.csvreorganiser.model.annotations";
+
+	@TempDir
+	File workingDir;
+	/**
+	 * Directory of the compiled classes.
+	 */
+	private File output;
+	/**
+	 * Diagnostics of the last compilation.
+	 */
+	private StringWriter diagnostics;
+
+	@BeforeEach
+	void setUp() {
+		output = new File(workingDir, "classes");
+		output.mkdirs();
+		diagnostics = new StringWriter();
+	}
+
+	/**
+	 * Compiles sources with the processor, along with stand-ins of the annotations.
+	 *
+	 * @param sources sources by qualified class name
+	 * @return true if the compilation succeeded
+	 * @throws IOException
+	 */
+	private boolean compile(Map<String, String> sources) throws IOException {
+		Map<String, String> all = new HashMap<>(sources);
+		all.put(ANNOTATIONS + ".Operation", "package " + ANNOTATIONS + ";\n"
+		        + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+		        + "public @interface Operation { String name(); }\n");
+		all.put(ANNOTATIONS + ".OperationProperty", "package " + ANNOTATIONS + ";\n"
+		        + "@java.lang.annotation.Repeatable(OperationProperties.class)\n"
+		        + "public @interface OperationProperty { String name(); String field(); }\n");
+		all.put(ANNOTATIONS + ".OperationProperties",
+		        "package " + ANNOTATIONS + ";\npublic @interface OperationProperties { OperationProperty[] value(); }\n");
+		all.put(ANNOTATIONS + ".OperationShortcut", "package " + ANNOTATIONS + ";\n"
+		        + "public @interface OperationShortcut { String keyword(); String property(); }\n");
+		List<File> files = new ArrayList<>();
+		for (Map.Entry<String, String> source : all.entrySet()) {
+			File file = new File(workingDir, "src/" + source.getKey().replace('.', '/') + ".java");
+			file.getParentFile().mkdirs();
+			Files.writeString(file.toPath(), source.getValue(), StandardCharsets.UTF_8);
+			files.add(file);
+		}
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager manager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(diagnostics, manager, null,
+			        List.of("-d", output.getPath(), "-proc:only"), null, manager.getJavaFileObjectsFromFiles(files));
+			task.setProcessors(List.of(new OperationIndexProcessor()));
+			return task.call();
+		}
+	}
+
+	/**
+	 * @return the lines of the generated index
+	 * @throws IOException
+	 */
+	private List<String> index() throws IOException {
+		return Files.readAllLines(new File(output, OperationIndexProcessor.INDEX_RESOURCE).toPath());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.processor.OperationIndexProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)},
+	 * checking the index and the native image metadata.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testProcess() throws Exception {
+		assertTrue(compile(Map.of("ops.Second", "package ops;\n@" + ANNOTATIONS + ".Operation(name = \"second\")\n"
+		        + "public class Second { public static class Inner {} }\n", "ops.First",
+		        "package ops;\npublic class First {\n@" + ANNOTATIONS + ".Operation(name = \"first\")\n"
+		                + "public static class Nested {}\n}\n",
+		        "ops.Other", "package ops;\npublic class Other {}\n")), diagnostics.toString());
+		List<String> lines = index();
+		assertTrue(lines.get(0).startsWith("#"), "Index should start with a comment");
+		assertEquals(List.of("ops.First$Nested", "ops.Second"), lines.subList(1, lines.size()));
+		String reflectConfig = Files
+		        .readString(new File(output, OperationIndexProcessor.REFLECT_CONFIG_RESOURCE).toPath());
+		assertTrue(reflectConfig.startsWith("[") && reflectConfig.strip().endsWith("]"), reflectConfig);
+		assertTrue(reflectConfig.contains("{\"name\": \"ops.First$Nested\", \"allDeclaredConstructors\": true, "
+		        + "\"allDeclaredFields\": true},\n"), reflectConfig);
+		assertTrue(reflectConfig.contains("{\"name\": \"ops.Second\", \"allDeclaredConstructors\": true, "
+		        + "\"allDeclaredFields\": true}\n]"), reflectConfig);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.processor.OperationIndexProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)}
+	 * with a valid shortcut.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testProcess_Shortcut() throws Exception {
+		assertTrue(compile(Map.of("ops.Cut", "package ops;\nimport " + ANNOTATIONS + ".*;\n"
+		        + "@Operation(name = \"cut\")\n@OperationProperty(name = \"a\", field = \"a\")\n"
+		        + "@OperationProperty(name = \"b\", field = \"b\")\n@OperationShortcut(keyword = \"cut\", property = \"b\")\n"
+		        + "public class Cut { String a; String b; }\n")), diagnostics.toString());
+		assertEquals(List.of("ops.Cut"), index().subList(1, index().size()));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.processor.OperationIndexProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)}
+	 * with a shortcut on an unknown property.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testProcess_WrongShortcut() throws Exception {
+		assertFalse(compile(Map.of("ops.Cut", "package ops;\nimport " + ANNOTATIONS + ".*;\n"
+		        + "@Operation(name = \"cut\")\n@OperationProperty(name = \"a\", field = \"a\")\n"
+		        + "@OperationShortcut(keyword = \"cut\", property = \"b\")\npublic class Cut { String a; }\n")));
+		assertTrue(diagnostics.toString().contains("Shortcut property 'b'"), diagnostics.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.sylordis.csvreorganiser.processor.OperationIndexProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)}
+	 * with an abstract operation.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void testProcess_Abstract() throws Exception {
+		assertFalse(compile(Map.of("ops.Abstract", "package ops;\n@" + ANNOTATIONS + ".Operation(name = \"a\")\n"
+		        + "public abstract class Abstract {}\n")));
+		assertTrue(diagnostics.toString().contains("concrete public classes"), diagnostics.toString());
+	}
+
+}
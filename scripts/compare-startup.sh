@@ -0,0 +1,35 @@
+#!/bin/bash
+# Compares the time taken by the JVM and native builds of the CLI to reorganise a tiny file, which is
+# dominated by startup.
+#
+# Usage: scripts/compare-startup.sh [runs]
+# Requires `gradle shadowJar` and `gradle nativeCompile` to have been run beforehand.
+
+set -e
+runs=${1:-10}
+root=$(cd "$(dirname "$0")/.." && pwd)
+jar=$(ls "$root"/csv-reorganiser-app/build/libs/csv-reorganiser-app-*-all.jar | head -1)
+native="$root/csv-reorganiser-app/build/native/nativeCompile/csv-reorganiser"
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+printf 'reorg:\n  structure:\n  - column: Name\n    source: first_name\n' > "$work/cfg.yaml"
+printf 'id,first_name\n1,Tull\n2,Ada\n' > "$work/src.csv"
+
+# Prints the average wall time of a command in milliseconds
+measure() {
+	local total=0
+	for ((i = 0; i < runs; i++)); do
+		local start=$(date +%s%N)
+		"$@" "$work/cfg.yaml" "$work/src.csv" "$work/out.csv" > /dev/null
+		total=$((total + $(date +%s%N) - start))
+	done
+	echo $((total / runs / 1000000))
+}
+
+echo "JVM:    $(measure java -jar "$jar") ms"
+if [ -x "$native" ]; then
+	echo "Native: $(measure "$native") ms"
+else
+	echo "Native: not built, run 'gradle nativeCompile' with a GraalVM JDK"
+fi